@@ -93,6 +93,51 @@ public class RadiologyConstants {
      */
     public static final String GP_NEXT_ACCESSION_NUMBER_SEED = "radiology.nextAccessionNumberSeed";
     
+    /**
+     * {@code GlobalProperty} property for the number of accession numbers reserved per database round-trip.
+     *
+     * @see org.openmrs.module.radiology.order.BlockAccessionNumberGenerator
+     */
+    public static final String GP_ACCESSION_NUMBER_BLOCK_SIZE = "radiology.accessionNumberBlockSize";
+    
+    /**
+     * {@code GlobalProperty} property for the name of the {@code AccessionNumberGenerator} used to generate the
+     * {@code Order.accessionNumber}.
+     * Allowable values are {@code block}, {@code sequence} and {@code node}.
+     *
+     * @see org.openmrs.module.radiology.order.AccessionNumberGenerator
+     */
+    public static final String GP_ACCESSION_NUMBER_GENERATOR = "radiology.accessionNumberGenerator";
+    
+    /**
+     * {@code GlobalProperty} property for the name of the {@code DicomUidGenerator} used to generate DICOM UIDs.
+     * Allowable values are {@code uuid} and {@code node}.
+     *
+     * @see org.openmrs.module.radiology.dicom.DicomUidGenerator
+     */
+    public static final String GP_DICOM_UID_GENERATOR = "radiology.dicomUidGenerator";
+    
+    /**
+     * {@code GlobalProperty} property for the number of minutes a radiology order encounter is reused for further orders
+     * and discontinuations of the same patient by the same orderer. Allowable values are non negative integers,
+     * {@code 0} creates a new encounter every time.
+     */
+    public static final String GP_ORDER_ENCOUNTER_REUSE_MINUTES = "radiology.orderEncounterReuseMinutes";
+    
+    /**
+     * {@code GlobalProperty} property for the maximum number of accession numbers or study instance uids looked up with
+     * one request. Allowable values are positive integers.
+     */
+    public static final String GP_MAX_LOOKUP_SIZE = "radiology.maxLookupSize";
+    
+    /**
+     * Runtime property for the id of this OpenMRS instance among all instances sharing one database.
+     * Needs to be set in the runtime properties of every instance since global properties are shared among instances.
+     *
+     * @see org.openmrs.module.radiology.util.NodeUniqueIdGenerator
+     */
+    public static final String RP_NODE_ID = "radiology.nodeId";
+    
     /**
      * {@code GlobalProperty} property for the directory where report templates are stored.
      * Allowable values are absolute and relative paths.
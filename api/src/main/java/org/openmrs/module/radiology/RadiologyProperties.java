@@ -12,30 +12,57 @@ package org.openmrs.module.radiology;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.CareSetting;
 import org.openmrs.ConceptClass;
 import org.openmrs.EncounterRole;
 import org.openmrs.EncounterType;
+import org.openmrs.GlobalProperty;
 import org.openmrs.OrderType;
 import org.openmrs.VisitType;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.api.ConceptService;
 import org.openmrs.api.EncounterService;
+import org.openmrs.api.GlobalPropertyListener;
 import org.openmrs.api.OrderService;
 import org.openmrs.api.VisitService;
+import org.openmrs.api.context.Context;
 import org.openmrs.util.OpenmrsUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Properties, mostly configured via GPs for this module.
+ * <p>
+ * Values resolved from a GP are kept until the GP is changed or deleted via the {@link AdministrationService}, but at
+ * most for {@link #RESOLVED_VALUE_TIME_TO_LIVE_MILLIS}, so GPs changed on another OpenMRS instance sharing the database
+ * or directly in the database are noticed within that time. Of entities a GP holds the uuid of only the id is kept, the
+ * entity itself is fetched through the current session on every call so no entity is shared across sessions.
+ * </p>
  */
 @Component
-public class RadiologyProperties {
+public class RadiologyProperties implements GlobalPropertyListener {
+    
+    
+    private static final String GLOBAL_PROPERTY_PREFIX = "radiology.";
     
+    /**
+     * Number of milliseconds a value resolved from a GP is kept at most.
+     */
+    static final long RESOLVED_VALUE_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(1);
     
     @Autowired
     @Qualifier("adminService")
@@ -53,6 +80,29 @@ public class RadiologyProperties {
     @Autowired
     private VisitService visitService;
     
+    /**
+     * Values resolved from GPs by GP name.
+     */
+    private final ConcurrentMap<String, ResolvedValue> resolvedValues = new ConcurrentHashMap<String, ResolvedValue>();
+    
+    private Clock clock = Clock.systemUTC();
+    
+    /**
+     * Registers this as listener so resolved values are dropped when their GP changes.
+     */
+    @PostConstruct
+    public void registerGlobalPropertyListener() {
+        administrationService.addGlobalPropertyListener(this);
+    }
+    
+    /**
+     * Unregisters this as listener so it is not kept alive when the module is stopped.
+     */
+    @PreDestroy
+    public void unregisterGlobalPropertyListener() {
+        administrationService.removeGlobalPropertyListener(this);
+    }
+    
     /**
      * Return DICOM UID component used to identify the org root.
      * 
@@ -62,7 +112,8 @@ public class RadiologyProperties {
      * @should throw illegal state exception if global property for dicom uid org root cannot be found
      */
     public String getDicomUIDOrgRoot() {
-        return getGlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, true);
+        return getResolvedValue(RadiologyConstants.GP_DICOM_UID_ORG_ROOT,
+            () -> getGlobalProperty(RadiologyConstants.GP_DICOM_UID_ORG_ROOT, true));
     }
     
     /**
@@ -115,6 +166,179 @@ public class RadiologyProperties {
         return getGlobalProperty(RadiologyConstants.GP_DICOM_WEB_VIEWER_LOCAL_SERVER_NAME, false);
     }
     
+    /**
+     * Return the number of accession numbers reserved per database round-trip.
+     * 
+     * @return accession number block size or 1 if not configured
+     * @throws IllegalStateException if global property for accession number block size is not a positive integer
+     * @should return accession number block size
+     * @should return one if global property for accession number block size cannot be found
+     * @should throw illegal state exception if global property for accession number block size is not a positive integer
+     */
+    public int getAccessionNumberBlockSize() {
+        
+        return getResolvedValue(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, this::resolveAccessionNumberBlockSize);
+    }
+    
+    private Integer resolveAccessionNumberBlockSize() {
+        
+        final String blockSize = getGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, false);
+        if (StringUtils.isBlank(blockSize)) {
+            return 1;
+        }
+        try {
+            final int result = Integer.parseInt(blockSize.trim());
+            if (result > 0) {
+                return result;
+            }
+        }
+        catch (NumberFormatException e) {
+            // handled below
+        }
+        throw new IllegalStateException("Property " + RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE
+                + " needs to be a positive integer but is " + blockSize);
+    }
+    
+    /**
+     * Return the number of minutes a radiology order encounter is reused for the same patient and orderer.
+     * 
+     * @return order encounter reuse minutes or 0 if not configured
+     * @throws IllegalStateException if global property for order encounter reuse minutes is not a non negative integer
+     * @should return order encounter reuse minutes
+     * @should return zero if global property for order encounter reuse minutes cannot be found
+     * @should throw illegal state exception if global property for order encounter reuse minutes is not a non negative
+     *         integer
+     */
+    public int getOrderEncounterReuseMinutes() {
+        
+        return getResolvedValue(RadiologyConstants.GP_ORDER_ENCOUNTER_REUSE_MINUTES,
+            this::resolveOrderEncounterReuseMinutes);
+    }
+    
+    private Integer resolveOrderEncounterReuseMinutes() {
+        
+        final String reuseMinutes = getGlobalProperty(RadiologyConstants.GP_ORDER_ENCOUNTER_REUSE_MINUTES, false);
+        if (StringUtils.isBlank(reuseMinutes)) {
+            return 0;
+        }
+        try {
+            final int result = Integer.parseInt(reuseMinutes.trim());
+            if (result >= 0) {
+                return result;
+            }
+        }
+        catch (NumberFormatException e) {
+            // handled below
+        }
+        throw new IllegalStateException("Property " + RadiologyConstants.GP_ORDER_ENCOUNTER_REUSE_MINUTES
+                + " needs to be a non negative integer but is " + reuseMinutes);
+    }
+    
+    /**
+     * Return the maximum number of accession numbers or study instance uids looked up with one request.
+     * 
+     * @return maximum lookup size or 1000 if not configured
+     * @throws IllegalStateException if global property for maximum lookup size is not a positive integer
+     * @should return maximum lookup size
+     * @should return one thousand if global property for maximum lookup size cannot be found
+     * @should throw illegal state exception if global property for maximum lookup size is not a positive integer
+     */
+    public int getMaxLookupSize() {
+        
+        return getResolvedValue(RadiologyConstants.GP_MAX_LOOKUP_SIZE, this::resolveMaxLookupSize);
+    }
+    
+    private Integer resolveMaxLookupSize() {
+        
+        final String maxLookupSize = getGlobalProperty(RadiologyConstants.GP_MAX_LOOKUP_SIZE, false);
+        if (StringUtils.isBlank(maxLookupSize)) {
+            return 1000;
+        }
+        try {
+            final int result = Integer.parseInt(maxLookupSize.trim());
+            if (result > 0) {
+                return result;
+            }
+        }
+        catch (NumberFormatException e) {
+            // handled below
+        }
+        throw new IllegalStateException("Property " + RadiologyConstants.GP_MAX_LOOKUP_SIZE
+                + " needs to be a positive integer but is " + maxLookupSize);
+    }
+    
+    /**
+     * Return the name of the {@code AccessionNumberGenerator} used to generate accession numbers.
+     * 
+     * @return accession number generator name or {@code block} if not configured
+     * @should return accession number generator name
+     * @should return block if global property for accession number generator cannot be found
+     */
+    public String getAccessionNumberGenerator() {
+        
+        return getResolvedValue(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, this::resolveAccessionNumberGenerator);
+    }
+    
+    private String resolveAccessionNumberGenerator() {
+        
+        final String result = getGlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, false);
+        if (StringUtils.isBlank(result)) {
+            return "block";
+        }
+        return result.trim();
+    }
+    
+    /**
+     * Return the name of the {@code DicomUidGenerator} used to generate DICOM UIDs.
+     * 
+     * @return dicom uid generator name or {@code uuid} if not configured
+     * @should return dicom uid generator name
+     * @should return uuid if global property for dicom uid generator cannot be found
+     */
+    public String getDicomUidGenerator() {
+        
+        return getResolvedValue(RadiologyConstants.GP_DICOM_UID_GENERATOR, this::resolveDicomUidGenerator);
+    }
+    
+    private String resolveDicomUidGenerator() {
+        
+        final String result = getGlobalProperty(RadiologyConstants.GP_DICOM_UID_GENERATOR, false);
+        if (StringUtils.isBlank(result)) {
+            return "uuid";
+        }
+        return result.trim();
+    }
+    
+    /**
+     * Return the id of this OpenMRS instance among all instances sharing one database.
+     * 
+     * @return node id configured as runtime property
+     * @throws IllegalStateException if runtime property for node id cannot be found
+     * @throws IllegalStateException if runtime property for node id is not an integer between 0 and 255
+     * @should return node id
+     * @should throw illegal state exception if runtime property for node id cannot be found
+     * @should throw illegal state exception if runtime property for node id is not an integer between 0 and 255
+     */
+    public int getNodeId() {
+        
+        final String nodeId = Context.getRuntimeProperties()
+                .getProperty(RadiologyConstants.RP_NODE_ID);
+        if (StringUtils.isBlank(nodeId)) {
+            throw new IllegalStateException("Configuration required: " + RadiologyConstants.RP_NODE_ID);
+        }
+        try {
+            final int result = Integer.parseInt(nodeId.trim());
+            if (result >= 0 && result <= 255) {
+                return result;
+            }
+        }
+        catch (NumberFormatException e) {
+            // handled below
+        }
+        throw new IllegalStateException(
+                "Property " + RadiologyConstants.RP_NODE_ID + " needs to be an integer between 0 and 255 but is " + nodeId);
+    }
+    
     /**
      * Get CareSetting for RadiologyOrder's
      * 
@@ -123,8 +347,16 @@ public class RadiologyProperties {
      * @should throw illegal state exception if global property for radiology care setting cannot be
      *         found
      * @should throw illegal state exception if radiology care setting cannot be found
+     * @should return the radiology care setting of the current session until its global property changes
+     * @should fetch the radiology care setting by id on every call
+     * @should resolve the radiology care setting again once its time to live elapsed
      */
     public CareSetting getRadiologyCareSetting() {
+        return getResolvedEntity(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, this::resolveRadiologyCareSetting,
+            CareSetting::getCareSettingId, orderService::getCareSetting);
+    }
+    
+    private CareSetting resolveRadiologyCareSetting() {
         final CareSetting result =
                 orderService.getCareSettingByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, true));
         if (result == null) {
@@ -142,7 +374,9 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing radiology test order type
      */
     public OrderType getRadiologyTestOrderType() {
-        return orderService.getOrderTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_TEST_ORDER_TYPE, true));
+        return getResolvedEntity(RadiologyConstants.GP_RADIOLOGY_TEST_ORDER_TYPE, () -> orderService
+                .getOrderTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_TEST_ORDER_TYPE, true)),
+            OrderType::getOrderTypeId, orderService::getOrderType);
     }
     
     /**
@@ -153,8 +387,9 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing radiology encounter type
      */
     public EncounterType getRadiologyOrderEncounterType() {
-        return encounterService
-                .getEncounterTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDER_ENCOUNTER_TYPE, true));
+        return getResolvedEntity(RadiologyConstants.GP_RADIOLOGY_ORDER_ENCOUNTER_TYPE, () -> encounterService
+                .getEncounterTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDER_ENCOUNTER_TYPE, true)),
+            EncounterType::getEncounterTypeId, encounterService::getEncounterType);
     }
     
     /**
@@ -165,8 +400,10 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing ordering provider encounter role
      */
     public EncounterRole getRadiologyOrderingProviderEncounterRole() {
-        return encounterService.getEncounterRoleByUuid(
-            getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDERING_PROVIDER_ENCOUNTER_ROLE, true));
+        return getResolvedEntity(RadiologyConstants.GP_RADIOLOGY_ORDERING_PROVIDER_ENCOUNTER_ROLE,
+            () -> encounterService.getEncounterRoleByUuid(
+                getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDERING_PROVIDER_ENCOUNTER_ROLE, true)),
+            EncounterRole::getEncounterRoleId, encounterService::getEncounterRole);
     }
     
     /**
@@ -177,7 +414,9 @@ public class RadiologyProperties {
      * @should throw illegal state exception for non existing radiology visit type
      */
     public VisitType getRadiologyVisitType() {
-        return visitService.getVisitTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_VISIT_TYPE, true));
+        return getResolvedEntity(RadiologyConstants.GP_RADIOLOGY_VISIT_TYPE,
+            () -> visitService.getVisitTypeByUuid(getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_VISIT_TYPE, true)),
+            VisitType::getVisitTypeId, visitService::getVisitType);
     }
     
     /**
@@ -201,6 +440,11 @@ public class RadiologyProperties {
      */
     public String getRadiologyConceptClassNames() {
         
+        return getResolvedValue(RadiologyConstants.GP_RADIOLOGY_CONCEPT_CLASSES, this::resolveRadiologyConceptClassNames);
+    }
+    
+    private String resolveRadiologyConceptClassNames() {
+        
         String radiologyConceptClassUuidSetting = getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CONCEPT_CLASSES, true);
         radiologyConceptClassUuidSetting = radiologyConceptClassUuidSetting.replace(" ", "");
         if (!radiologyConceptClassUuidSetting.matches("^[0-9a-fA-f,-]+$")) {
@@ -245,6 +489,12 @@ public class RadiologyProperties {
      */
     public String getRadiologyOrderReasonConceptClassNames() {
         
+        return getResolvedValue(RadiologyConstants.GP_RADIOLOGY_ORDER_REASON_CONCEPT_CLASSES,
+            this::resolveRadiologyOrderReasonConceptClassNames);
+    }
+    
+    private String resolveRadiologyOrderReasonConceptClassNames() {
+        
         String radiologyReasonConceptClassUuidSetting =
                 getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_ORDER_REASON_CONCEPT_CLASSES, false);
         if (StringUtils.isBlank(radiologyReasonConceptClassUuidSetting)) {
@@ -276,6 +526,130 @@ public class RadiologyProperties {
         return result;
     }
     
+    /**
+     * Gets the value resolved from given GP, resolving it if it was not resolved since the GP last changed or its time
+     * to live elapsed.
+     * <p>
+     * Values are only kept if resolving them succeeds and does not return null, so a missing configuration is reported
+     * every time.
+     * </p>
+     * 
+     * @param globalPropertyName the name of the GP the value is resolved from
+     * @param resolver resolves the value from the current GP
+     * @return the resolved value
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getResolvedValue(String globalPropertyName, Supplier<T> resolver) {
+        
+        final long now = clock.millis();
+        final ResolvedValue result = resolvedValues.get(globalPropertyName);
+        if (result != null && now < result.expiresAt) {
+            return (T) result.value;
+        }
+        final T resolved = resolver.get();
+        if (resolved != null) {
+            resolvedValues.put(globalPropertyName, new ResolvedValue(resolved, now + RESOLVED_VALUE_TIME_TO_LIVE_MILLIS));
+        }
+        return resolved;
+    }
+    
+    /**
+     * Gets the entity resolved from given GP through the current session, only its id is kept as resolved value.
+     * 
+     * @param globalPropertyName the name of the GP the entity is resolved from
+     * @param resolver resolves the entity from the current GP
+     * @param idGetter gets the id of the entity
+     * @param entityGetter gets the entity by its id from the current session
+     * @return the resolved entity
+     */
+    private <T> T getResolvedEntity(String globalPropertyName, Supplier<T> resolver, Function<T, Integer> idGetter,
+            Function<Integer, T> entityGetter) {
+        
+        final Integer id = getResolvedValue(globalPropertyName, () -> {
+            final T resolved = resolver.get();
+            return resolved == null ? null : idGetter.apply(resolved);
+        });
+        if (id == null) {
+            return null;
+        }
+        final T result = entityGetter.apply(id);
+        if (result == null) {
+            // the entity was purged since it was resolved
+            resolvedValues.remove(globalPropertyName);
+            return resolver.get();
+        }
+        return result;
+    }
+    
+    /**
+     * Drops the value resolved from given GP.
+     * <p>
+     * When called within a transaction the value is dropped again once it completes, since it might have been resolved
+     * from the uncommitted GP meanwhile and the transaction might be rolled back.
+     * </p>
+     * 
+     * @param globalPropertyName the name of the GP which changed
+     */
+    private void dropResolvedValue(final String globalPropertyName) {
+        
+        resolvedValues.remove(globalPropertyName);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                
+                
+                @Override
+                public void afterCompletion(int status) {
+                    resolvedValues.remove(globalPropertyName);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Drops all values resolved from GPs.
+     */
+    void clearResolvedValues() {
+        resolvedValues.clear();
+    }
+    
+    /**
+     * Sets the clock the time to live of resolved values is measured with.
+     * 
+     * @param clock the clock
+     */
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+    
+    /**
+     * @see GlobalPropertyListener#supportsPropertyName(String)
+     * @should return true for global properties of this module
+     * @should return false for global properties of other modules
+     */
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return propertyName != null && propertyName.startsWith(GLOBAL_PROPERTY_PREFIX);
+    }
+    
+    /**
+     * @see GlobalPropertyListener#globalPropertyChanged(GlobalProperty)
+     * @should resolve the value of the changed global property again
+     * @should resolve the value of the changed global property again after the transaction completed
+     */
+    @Override
+    public void globalPropertyChanged(GlobalProperty newValue) {
+        dropResolvedValue(newValue.getProperty());
+    }
+    
+    /**
+     * @see GlobalPropertyListener#globalPropertyDeleted(String)
+     * @should resolve the value of the deleted global property again
+     */
+    @Override
+    public void globalPropertyDeleted(String propertyName) {
+        dropResolvedValue(propertyName);
+    }
+    
     /**
      * Gets a global property by its name.
      * 
@@ -319,4 +693,20 @@ public class RadiologyProperties {
         
         return templatesPath.toFile();
     }
+    
+    /**
+     * A value resolved from a GP and the time in milliseconds until which it is kept.
+     */
+    private static final class ResolvedValue {
+        
+        
+        private final Object value;
+        
+        private final long expiresAt;
+        
+        private ResolvedValue(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
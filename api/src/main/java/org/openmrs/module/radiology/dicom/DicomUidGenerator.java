@@ -9,6 +9,8 @@
  */
 package org.openmrs.module.radiology.dicom;
 
+import java.util.List;
+
 /**
  * Implemented by classes that auto generate UIDs according to the DICOM Standard DICOM PS3.5 Chapter 9 Unique Identifiers
  * (UIDs).
@@ -21,7 +23,7 @@ public interface DicomUidGenerator {
     /**
      * Returns the maximum allowed {@code root} length.
      * Allows users of the {@code DicomUidGenerator} to validate their {@code root's} length before using this generator.
-     * 
+     *
      * @return maximum allowed root length
      * @should return maximum allowed root length
      */
@@ -30,7 +32,7 @@ public interface DicomUidGenerator {
     /**
      * Generates a new DICOM UID prefixed by {@code root} the UID uniquely identifying an organization.
      * Note that this method is invoked in a non thread-safe way, therefore implementations need to be thread safe.
-     * 
+     *
      * @param root Org root UID uniquely identifying an organization
      * @return the new dicom uid prefixed with root
      * @throws NullPointerException if root is null
@@ -48,4 +50,25 @@ public interface DicomUidGenerator {
      * @should throw an illegal argument exception if root exceeds the maximum length
      */
     public String getNewDicomUid(String root);
+    
+    /**
+     * Generates {@code count} new DICOM UIDs prefixed by {@code root} the UID uniquely identifying an organization.
+     * The root is validated only once for all generated UIDs.
+     * Note that this method is invoked in a non thread-safe way, therefore implementations need to be thread safe.
+     *
+     * @param root Org root UID uniquely identifying an organization
+     * @param count the number of dicom uids to generate
+     * @return the new dicom uids prefixed with root
+     * @throws NullPointerException if root is null
+     * @throws IllegalArgumentException if root is empty
+     * @throws IllegalArgumentException if the root is not a valid UID
+     * @throws IllegalArgumentException if the root exceeds the maximum length
+     * @throws IllegalArgumentException if count is negative
+     * @should return count unique valid uids prefixed with root
+     * @should return an empty list given count zero
+     * @should throw an illegal argument exception if count is negative
+     * @should throw a null pointer exception if root is null
+     * @should throw an illegal argument exception if root is not a valid UID
+     */
+    public List<String> getNewDicomUids(String root, int count);
 }
@@ -9,7 +9,9 @@
  */
 package org.openmrs.module.radiology.dicom;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -28,17 +30,22 @@ import org.apache.commons.lang3.StringUtils;
  * <p>
  * See DICOM PS3.5 Chapter 9.1 UID Encoding Rules.
  * http://dicom.nema.org/MEDICAL/Dicom/current/output/chtml/part05/chapter_9.html
+ * </p>
+ * <p>
+ * UIDs are checked in a single pass over their characters without allocating, so validating many UIDs at once (e.g.
+ * via {@link #validateAll(Collection)}) stays cheap.
+ * </p>
  */
 public class DicomUidValidator {
     
     
     private static final int MAX_LENGTH = 64;
     
-    private static final Pattern VALIDATION_PATTERN = Pattern.compile("^[012]((\\.0)|(\\.[1-9]\\d*))+$");
+    private static final char SEPARATOR = '.';
     
     /**
      * Validate {@code uid} according to the DICOM standard.
-     * 
+     *
      * @param uid DICOM UID to be validated
      * @return true if uid is a valid dicom uid and false otherwise
      * @should return false given null
@@ -49,15 +56,43 @@ public class DicomUidValidator {
      * @should return false for uid with trailing dot character
      * @should return false for uid with characters other than 0-2 as first component
      * @should return true for valid uid
+     * @should agree with the regular expression of the dicom standard
      */
     public static boolean isValid(String uid) {
         
-        return isLengthValid(uid) && isPatternValid(uid);
+        return uid != null && uid.length() <= MAX_LENGTH && scan(uid);
+    }
+    
+    /**
+     * Validate all {@code uids} according to the DICOM standard.
+     *
+     * @param uids DICOM UIDs to be validated
+     * @return the indexes (in iteration order) of uids which are not valid dicom uids or an empty list if all are valid
+     * @throws IllegalArgumentException if uids is null
+     * @should return an empty list if all uids are valid
+     * @should return the indexes of invalid uids in iteration order
+     * @should throw illegal argument exception given null
+     */
+    public static List<Integer> validateAll(Collection<String> uids) {
+        
+        if (uids == null) {
+            throw new IllegalArgumentException("uids cannot be null");
+        }
+        
+        final List<Integer> result = new ArrayList<Integer>();
+        int index = 0;
+        for (String uid : uids) {
+            if (!isValid(uid)) {
+                result.add(index);
+            }
+            index++;
+        }
+        return result;
     }
     
     /**
      * Validate {@code uid's} length according to the DICOM standard.
-     * 
+     *
      * @param uid DICOM UID to be validated
      * @return true if uid length is smaller or equal than 64 and false otherwise
      * @should return false given null
@@ -76,7 +111,7 @@ public class DicomUidValidator {
     
     /**
      * Validate {@code uid's} pattern according to the DICOM standard.
-     * 
+     *
      * @param uid DICOM UID to be validated
      * @return true if uid pattern is valid and false otherwise
      * @should return false given null
@@ -89,11 +124,48 @@ public class DicomUidValidator {
      */
     public static boolean isPatternValid(String uid) {
         
-        if (StringUtils.isBlank(uid)) {
+        return uid != null && scan(uid);
+    }
+    
+    /**
+     * Scans {@code uid} once checking that it is made of a root component 0, 1 or 2 followed by at least one further
+     * component, where every component is either 0 or a number without leading zeros.
+     *
+     * @param uid DICOM UID to be scanned
+     * @return true if uid pattern is valid and false otherwise
+     */
+    private static boolean scan(String uid) {
+        
+        final int length = uid.length();
+        if (length < 3) {
             return false;
         }
         
-        return VALIDATION_PATTERN.matcher(uid)
-                .matches();
+        final char root = uid.charAt(0);
+        if (root < '0' || root > '2') {
+            return false;
+        }
+        
+        // position of the separator which started the current component
+        int componentStart = 1;
+        if (uid.charAt(componentStart) != SEPARATOR) {
+            return false;
+        }
+        for (int i = 2; i < length; i++) {
+            final char c = uid.charAt(i);
+            if (c == SEPARATOR) {
+                if (i == componentStart + 1) {
+                    // empty component
+                    return false;
+                }
+                componentStart = i;
+            } else if (c < '0' || c > '9') {
+                return false;
+            } else if (i == componentStart + 2 && uid.charAt(componentStart + 1) == '0') {
+                // non-significant leading zero
+                return false;
+            }
+        }
+        return componentStart != length - 1;
     }
 }
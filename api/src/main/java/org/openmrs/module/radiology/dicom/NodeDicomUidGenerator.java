@@ -0,0 +1,130 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.util.NodeUniqueIdGenerator;
+
+/**
+ * Generates DICOM UIDs of scheme [root].[node id].[unique] without accessing the database.
+ * <p>
+ * The node id is configured via {@link RadiologyProperties#getNodeId()} and needs to be distinct for every OpenMRS
+ * instance sharing a database. The unique component is composed of milliseconds since 2017-01-01, the node id and a
+ * sequence.
+ * </p>
+ */
+public class NodeDicomUidGenerator implements DicomUidGenerator {
+    
+    
+    /**
+     * Leaves room for the node id (at most 3 digits) and the unique component (at most 19 digits) including their
+     * separators within the 64 characters of a DICOM UID.
+     */
+    private static final int MAX_ROOT_LENGTH = 40;
+    
+    private static final char DICOM_UID_SEPARATOR = '.';
+    
+    static final int NODE_ID_BITS = 8;
+    
+    static final int SEQUENCE_BITS = 12;
+    
+    /**
+     * 2017-01-01T00:00:00Z
+     */
+    static final long EPOCH_MILLIS = 1483228800000L;
+    
+    private RadiologyProperties radiologyProperties;
+    
+    private volatile NodeUniqueIdGenerator nodeUniqueIdGenerator;
+    
+    public void setRadiologyProperties(RadiologyProperties radiologyProperties) {
+        this.radiologyProperties = radiologyProperties;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.dicom.DicomUidGenerator#getMaxRootLength()
+     */
+    @Override
+    public int getMaxRootLength() {
+        
+        return MAX_ROOT_LENGTH;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.dicom.DicomUidGenerator#getNewDicomUid(String)
+     * @should return a valid uid prefixed with root and node id
+     * @should always return unique uids across nodes when called concurrently
+     */
+    @Override
+    public String getNewDicomUid(String root) {
+        
+        validateRoot(root);
+        
+        final NodeUniqueIdGenerator generator = getNodeUniqueIdGenerator();
+        return root + DICOM_UID_SEPARATOR + generator.getNodeId() + DICOM_UID_SEPARATOR + generator.nextId();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.dicom.DicomUidGenerator#getNewDicomUids(String, int)
+     * @should return count unique valid uids prefixed with root and node id
+     */
+    @Override
+    public List<String> getNewDicomUids(String root, int count) {
+        
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
+        }
+        
+        validateRoot(root);
+        
+        final NodeUniqueIdGenerator generator = getNodeUniqueIdGenerator();
+        final String prefix = root + DICOM_UID_SEPARATOR + generator.getNodeId() + DICOM_UID_SEPARATOR;
+        final List<String> result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(prefix + generator.nextId());
+        }
+        return result;
+    }
+    
+    private void validateRoot(String root) {
+        
+        if (root == null) {
+            throw new NullPointerException("root is required");
+        }
+        
+        if (!DicomUidValidator.isValid(root)) {
+            throw new IllegalArgumentException("root is an invalid DICOM UID");
+        }
+        
+        if (root.length() > MAX_ROOT_LENGTH) {
+            throw new IllegalArgumentException("root length is > " + MAX_ROOT_LENGTH);
+        }
+    }
+    
+    private NodeUniqueIdGenerator getNodeUniqueIdGenerator() {
+        
+        NodeUniqueIdGenerator result = nodeUniqueIdGenerator;
+        if (result == null) {
+            synchronized (this) {
+                result = nodeUniqueIdGenerator;
+                if (result == null) {
+                    result = new NodeUniqueIdGenerator(radiologyProperties.getNodeId(), NODE_ID_BITS, SEQUENCE_BITS, 1L,
+                            EPOCH_MILLIS, Clock.systemUTC());
+                    nodeUniqueIdGenerator = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -9,6 +9,10 @@
  */
 package org.openmrs.module.radiology.dicom;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 import org.openmrs.module.radiology.util.DecimalUuid;
 
 /**
@@ -21,6 +25,12 @@ public class UuidDicomUidGenerator implements DicomUidGenerator {
     
     private static final char DICOM_UID_SEPARATOR = '.';
     
+    /**
+     * The last root which passed {@link #validateRoot(String)}. Roots are usually configured once, so this spares
+     * validating the same root over and over again.
+     */
+    private volatile String lastValidRoot;
+    
     /**
      * @see org.openmrs.module.radiology.dicom.DicomUidGenerator#getMaxRootLength()
      */
@@ -36,10 +46,48 @@ public class UuidDicomUidGenerator implements DicomUidGenerator {
     @Override
     public String getNewDicomUid(String root) {
         
+        validateRoot(root);
+        
+        return newDicomUid(root);
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.dicom.DicomUidGenerator#getNewDicomUids(String, int)
+     */
+    @Override
+    public List<String> getNewDicomUids(String root, int count) {
+        
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
+        }
+        
+        validateRoot(root);
+        
+        final List<String> result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(newDicomUid(root));
+        }
+        return result;
+    }
+    
+    /**
+     * Validates given {@code root}.
+     *
+     * @param root Org root UID uniquely identifying an organization
+     * @throws NullPointerException if root is null
+     * @throws IllegalArgumentException if the root is not a valid UID
+     * @throws IllegalArgumentException if the root exceeds the maximum length
+     */
+    private void validateRoot(String root) {
+        
         if (root == null) {
             throw new NullPointerException("root is required");
         }
         
+        if (root.equals(lastValidRoot)) {
+            return;
+        }
+        
         if (!DicomUidValidator.isValid(root)) {
             throw new IllegalArgumentException("root is an invalid DICOM UID");
         }
@@ -48,7 +96,21 @@ public class UuidDicomUidGenerator implements DicomUidGenerator {
             throw new IllegalArgumentException("root length is > " + MAX_ROOT_LENGTH);
         }
         
-        final String suffix = new DecimalUuid(java.util.UUID.randomUUID()).toString();
-        return root + DICOM_UID_SEPARATOR + suffix;
+        lastValidRoot = root;
+    }
+    
+    /**
+     * Generates a new DICOM UID prefixed by an already validated {@code root}.
+     *
+     * @param root validated org root
+     * @return the new dicom uid prefixed with root
+     */
+    private String newDicomUid(String root) {
+        
+        final String suffix = DecimalUuid.toDecimalString(UUID.randomUUID());
+        return new StringBuilder(root.length() + 1 + suffix.length()).append(root)
+                .append(DICOM_UID_SEPARATOR)
+                .append(suffix)
+                .toString();
     }
 }
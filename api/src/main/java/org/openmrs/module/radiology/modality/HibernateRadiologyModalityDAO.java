@@ -26,6 +26,11 @@ import org.hibernate.criterion.Restrictions;
 class HibernateRadiologyModalityDAO implements RadiologyModalityDAO {
     
     
+    /**
+     * Query cache region of {@link #getRadiologyModalities(boolean)}.
+     */
+    static final String MODALITIES_QUERY_CACHE_REGION = "org.openmrs.module.radiology.modality.RadiologyModalities";
+    
     private SessionFactory sessionFactory;
     
     /**
@@ -78,6 +83,9 @@ class HibernateRadiologyModalityDAO implements RadiologyModalityDAO {
         if (!includeRetired) {
             criteria.add(Restrictions.eq("retired", false));
         }
+        // the query cache is invalidated whenever radiology_modality is written through Hibernate
+        criteria.setCacheable(true)
+                .setCacheRegion(MODALITIES_QUERY_CACHE_REGION);
         final List<RadiologyModality> result = (List<RadiologyModality>) criteria.list();
         return result == null ? new ArrayList<>() : result;
     }
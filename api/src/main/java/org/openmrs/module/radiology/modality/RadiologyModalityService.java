@@ -90,6 +90,7 @@ public interface RadiologyModalityService extends OpenmrsService {
      * @should return radiology modalities including retired ones if given true
      * @should return radiology modalities excluding retired ones if given false
      * @should return empty list if no match was found
+     * @should not return a radiology modality retired after the radiology modalities were fetched
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_MODALITIES)
     public List<RadiologyModality> getRadiologyModalities(boolean includeRetired);
@@ -9,6 +9,9 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Generate new unique accession numbers.
  */
@@ -23,4 +26,27 @@ public interface AccessionNumberGenerator {
      * @should always return a unique accession number when called multiple times
      */
     public String getNewAccessionNumber();
+    
+    /**
+     * Generates {@code count} new accession numbers at once. Implementations which need to reserve accession numbers
+     * in the database should override this to do so in one go.
+     * 
+     * @param count the number of accession numbers to generate
+     * @return the new accession numbers
+     * @throws IllegalArgumentException if count is negative
+     * @should return count unique accession numbers
+     * @should throw illegal argument exception if count is negative
+     */
+    public default List<String> getNewAccessionNumbers(int count) {
+        
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
+        }
+        
+        final List<String> result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(getNewAccessionNumber());
+        }
+        return result;
+    }
 }
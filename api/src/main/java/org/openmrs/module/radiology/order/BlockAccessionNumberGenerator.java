@@ -0,0 +1,155 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates accession numbers using a hi/lo scheme.
+ * <p>
+ * A block of consecutive accession number seeds is reserved via
+ * {@link RadiologyOrderService#getNextAccessionNumberSeedSequenceBlock(int)} and handed out from memory without locking.
+ * Only when a block is exhausted the database is hit again to reserve the next one. The block size is configured via
+ * {@link RadiologyProperties#getAccessionNumberBlockSize()}.
+ * </p>
+ * <p>
+ * Seeds of a block which were not handed out when this generator is destroyed (e.g. on module stop or node restart)
+ * are never used and thus leave a gap in the accession number sequence. Such gaps are logged by {@link #destroy()}.
+ * </p>
+ */
+public class BlockAccessionNumberGenerator implements AccessionNumberGenerator {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(BlockAccessionNumberGenerator.class);
+    
+    private static final Block EMPTY_BLOCK = new Block(0, 0);
+    
+    private RadiologyProperties radiologyProperties;
+    
+    private volatile Block currentBlock = EMPTY_BLOCK;
+    
+    public void setRadiologyProperties(RadiologyProperties radiologyProperties) {
+        this.radiologyProperties = radiologyProperties;
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     * @should return consecutive accession numbers from a reserved block
+     * @should reserve a new block once the current block is exhausted
+     * @should always return unique accession numbers when called concurrently
+     */
+    @Override
+    public String getNewAccessionNumber() {
+        
+        while (true) {
+            final Block block = currentBlock;
+            final long seed = block.next.getAndIncrement();
+            if (seed < block.end) {
+                return String.valueOf(seed);
+            }
+            reserveBlock(block);
+        }
+    }
+    
+    /**
+     * Reserves a block of exactly {@code count} accession numbers instead of drawing them one by one from the current
+     * block, so a batch of any size costs one round trip to the database.
+     * 
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     * @should reserve one block of given count
+     * @should return an empty list given count zero
+     */
+    @Override
+    public List<String> getNewAccessionNumbers(int count) {
+        
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
+        }
+        if (count == 0) {
+            return new ArrayList<String>();
+        }
+        
+        final long start = getRadiologyOrderService().getNextAccessionNumberSeedSequenceBlock(count);
+        log.debug("Reserved accession numbers [{}, {}) for a batch", start, start + count);
+        final List<String> result = new ArrayList<String>(count);
+        for (long seed = start; seed < start + count; seed++) {
+            result.add(String.valueOf(seed));
+        }
+        return result;
+    }
+    
+    /**
+     * Reserves a new block unless another thread already replaced the {@code exhaustedBlock}.
+     *
+     * @param exhaustedBlock the block the calling thread found to be exhausted
+     */
+    private synchronized void reserveBlock(Block exhaustedBlock) {
+        
+        if (currentBlock != exhaustedBlock) {
+            return;
+        }
+        final int blockSize = radiologyProperties.getAccessionNumberBlockSize();
+        final long start = getRadiologyOrderService().getNextAccessionNumberSeedSequenceBlock(blockSize);
+        if (exhaustedBlock != EMPTY_BLOCK && start != exhaustedBlock.end) {
+            log.debug("Accession numbers [{}, {}) were reserved by another generator", exhaustedBlock.end, start);
+        }
+        log.debug("Reserved accession numbers [{}, {})", start, start + blockSize);
+        currentBlock = new Block(start, start + blockSize);
+    }
+    
+    /**
+     * Logs the accession numbers of the current block which were reserved but not handed out.
+     * These numbers will never be assigned to an order.
+     *
+     * @should skip unused accession numbers of the current block
+     */
+    public synchronized void destroy() {
+        
+        final Block block = currentBlock;
+        final long next = block.next.get();
+        if (next < block.end) {
+            log.warn("Accession numbers [{}, {}) were reserved but not used and will be skipped", next, block.end);
+        }
+        currentBlock = EMPTY_BLOCK;
+    }
+    
+    /**
+     * Gets the {@code RadiologyOrderService} reserving accession number blocks in their own transaction.
+     *
+     * @return the radiology order service
+     */
+    RadiologyOrderService getRadiologyOrderService() {
+        
+        return Context.getService(RadiologyOrderService.class);
+    }
+    
+    /**
+     * A range of reserved accession number seeds from {@code next} (inclusive) to {@code end} (exclusive).
+     */
+    private static final class Block {
+        
+        
+        private final AtomicLong next;
+        
+        private final long end;
+        
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -9,19 +9,58 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
 import org.hibernate.LockOptions;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
-import org.hibernate.criterion.Disjunction;
+import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.LikeExpression;
+import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.Subqueries;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.sql.JoinType;
+import org.openmrs.CareSetting;
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.EncounterRole;
+import org.openmrs.EncounterType;
 import org.openmrs.GlobalProperty;
 import org.openmrs.Order.Urgency;
+import org.openmrs.OrderType;
+import org.openmrs.Patient;
+import org.openmrs.PersonName;
+import org.openmrs.Provider;
 import org.openmrs.api.APIException;
 import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.report.RadiologyReport;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.util.StreamingFetchSize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Hibernate specific RadiologyOrder related functions. This class should not be used directly. All
@@ -33,6 +72,65 @@ import org.openmrs.module.radiology.RadiologyConstants;
 class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
     
     
+    /**
+     * Name of the database sequence backing {@link #getNextAccessionNumberDatabaseSequenceValue()}.
+     */
+    static final String ACCESSION_NUMBER_SEQUENCE = "radiology_accession_number_seq";
+    
+    /**
+     * Name of the auto-increment table emulating the accession number sequence on databases without sequence support.
+     */
+    static final String ACCESSION_NUMBER_SEQUENCE_TABLE = "radiology_accession_number_sequence";
+    
+    /**
+     * Number of values handed out by the auto-increment table emulating the accession number sequence between two
+     * deletions of its old rows.
+     */
+    static final long ACCESSION_NUMBER_SEQUENCE_TABLE_PRUNE_INTERVAL = 1000;
+    
+    /**
+     * Number of radiology orders read from the database before they are handed out by
+     * {@link #streamRadiologyOrderSummaries(RadiologyOrderSearchCriteria, Consumer)} and the session is cleared.
+     */
+    static final int STREAM_CHUNK_SIZE = 500;
+    
+    /**
+     * Maximum number of values bound to one {@code IN} restriction. Oracle rejects more than 1000 values in an
+     * {@code IN} list, other databases allow more but parse and plan large lists slowly.
+     */
+    static final int MAX_IN_PARAMETERS = 1000;
+    
+    private static final Logger log = LoggerFactory.getLogger(HibernateRadiologyOrderDAO.class);
+    
+    /**
+     * Restricts a property to values starting with a prefix in which {@code %} and {@code _} are literal characters
+     * instead of wildcards.
+     */
+    private static final class PrefixLikeExpression extends LikeExpression {
+        
+        
+        private static final char ESCAPE_CHARACTER = '!';
+        
+        private static final long serialVersionUID = 1L;
+        
+        private PrefixLikeExpression(String propertyName, String prefix) {
+            super(propertyName, escape(prefix), MatchMode.START, ESCAPE_CHARACTER, false);
+        }
+        
+        private static String escape(String prefix) {
+            
+            final StringBuilder result = new StringBuilder(prefix.length() + 8);
+            for (int i = 0; i < prefix.length(); i++) {
+                final char c = prefix.charAt(i);
+                if (c == ESCAPE_CHARACTER || c == '%' || c == '_') {
+                    result.append(ESCAPE_CHARACTER);
+                }
+                result.append(c);
+            }
+            return result.toString();
+        }
+    }
+    
     private SessionFactory sessionFactory;
     
     /**
@@ -60,13 +158,80 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
     @Override
     public Long getNextAccessionNumberSeedSequenceValue() {
         
-        final GlobalProperty globalProperty = (GlobalProperty) sessionFactory.getCurrentSession()
+        return getNextAccessionNumberSeedSequenceBlock(1);
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSeedSequenceBlock(int)
+     * @throws APIException if global property radiology.nextAccessionNumberSeed is missing
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value is empty or only contains whitespaces
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value cannot be parsed to Long
+     * @should return the next accession number seed and increment the global property value by block size
+     */
+    @Override
+    public Long getNextAccessionNumberSeedSequenceBlock(int blockSize) {
+        
+        final GlobalProperty globalProperty = getNextAccessionNumberSeedForUpdate();
+        final Long globalPropertyValue = parseNextAccessionNumberSeed(globalProperty);
+        
+        globalProperty.setPropertyValue(String.valueOf(globalPropertyValue + blockSize));
+        
+        sessionFactory.getCurrentSession()
+                .save(globalProperty);
+        
+        return globalPropertyValue;
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#synchronizeAccessionNumberSequences()
+     * @should advance the accession number sequence to the next accession number seed
+     * @should advance the next accession number seed to the accession number sequence
+     */
+    @Override
+    public Long synchronizeAccessionNumberSequences() {
+        
+        final GlobalProperty globalProperty = getNextAccessionNumberSeedForUpdate();
+        final long seed = parseNextAccessionNumberSeed(globalProperty);
+        final long sequenceValue = getNextAccessionNumberDatabaseSequenceValue();
+        
+        // the sequence value fetched above is not handed out, so it is the next value of both if it is the larger one
+        if (seed > sequenceValue + 1) {
+            setNextAccessionNumberDatabaseSequenceValue(seed);
+        }
+        final long result = Math.max(seed, sequenceValue);
+        globalProperty.setPropertyValue(String.valueOf(result));
+        sessionFactory.getCurrentSession()
+                .save(globalProperty);
+        return result;
+    }
+    
+    /**
+     * Gets the global property radiology.nextAccessionNumberSeed locking it until the current transaction ends.
+     *
+     * @return the global property radiology.nextAccessionNumberSeed
+     * @throws APIException if global property radiology.nextAccessionNumberSeed is missing
+     */
+    private GlobalProperty getNextAccessionNumberSeedForUpdate() {
+        
+        final GlobalProperty result = (GlobalProperty) sessionFactory.getCurrentSession()
                 .get(GlobalProperty.class, RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED, LockOptions.UPGRADE);
         
-        if (globalProperty == null) {
+        if (result == null) {
             throw new APIException("GlobalProperty.missing",
                     new Object[] { RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED });
         }
+        return result;
+    }
+    
+    /**
+     * Parses the value of the global property radiology.nextAccessionNumberSeed.
+     *
+     * @param globalProperty the global property radiology.nextAccessionNumberSeed
+     * @return the next accession number seed
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value is empty or only contains whitespaces
+     * @throws APIException if global property radiology.nextAccessionNumberSeed value cannot be parsed to Long
+     */
+    private static Long parseNextAccessionNumberSeed(GlobalProperty globalProperty) {
         
         final String gpTextValue = globalProperty.getPropertyValue();
         if (StringUtils.isBlank(gpTextValue)) {
@@ -74,21 +239,78 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
                     new Object[] { RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED });
         }
         
-        Long globalPropertyValue = null;
         try {
-            globalPropertyValue = Long.parseLong(gpTextValue);
+            return Long.parseLong(gpTextValue);
         }
         catch (NumberFormatException ex) {
             throw new APIException("GlobalProperty.invalid.value",
                     new Object[] { RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED });
         }
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberDatabaseSequenceValue()
+     * @should return the next value of the accession number sequence
+     */
+    @Override
+    public Long getNextAccessionNumberDatabaseSequenceValue() {
         
-        globalProperty.setPropertyValue(String.valueOf(globalPropertyValue + 1));
+        final Session session = sessionFactory.getCurrentSession();
+        final Dialect dialect = ((SessionFactoryImplementor) sessionFactory).getDialect();
         
-        sessionFactory.getCurrentSession()
-                .save(globalProperty);
+        if (dialect.supportsSequences()) {
+            final Number result = (Number) session.createSQLQuery(dialect.getSequenceNextValString(ACCESSION_NUMBER_SEQUENCE))
+                    .uniqueResult();
+            return result.longValue();
+        }
         
-        return globalPropertyValue;
+        // the query space keeps this insert from invalidating every query cache region
+        session.createSQLQuery("insert into " + ACCESSION_NUMBER_SEQUENCE_TABLE + " () values ()")
+                .addSynchronizedQuerySpace(ACCESSION_NUMBER_SEQUENCE_TABLE)
+                .executeUpdate();
+        final Number result = (Number) session.createSQLQuery(
+            dialect.getIdentitySelectString(ACCESSION_NUMBER_SEQUENCE_TABLE, "accession_number_seed", Types.BIGINT))
+                .uniqueResult();
+        
+        // the table only needs its latest row since MySQL versions prior to 8 reset the auto-increment counter to the
+        // maximum existing value on restart. Only rows far below the new one are deleted so the delete does not wait
+        // on rows inserted by transactions which are still running
+        if (result.longValue() % ACCESSION_NUMBER_SEQUENCE_TABLE_PRUNE_INTERVAL == 0) {
+            session.createSQLQuery(
+                "delete from " + ACCESSION_NUMBER_SEQUENCE_TABLE + " where accession_number_seed < :accessionNumberSeed")
+                    .setLong("accessionNumberSeed", result.longValue() - ACCESSION_NUMBER_SEQUENCE_TABLE_PRUNE_INTERVAL)
+                    .addSynchronizedQuerySpace(ACCESSION_NUMBER_SEQUENCE_TABLE)
+                    .executeUpdate();
+        }
+        return result.longValue();
+    }
+    
+    /**
+     * Sets the value the accession number database sequence returns next.
+     *
+     * @param nextValue the next value of the accession number sequence
+     */
+    private void setNextAccessionNumberDatabaseSequenceValue(long nextValue) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final Dialect dialect = ((SessionFactoryImplementor) sessionFactory).getDialect();
+        
+        if (!dialect.supportsSequences()) {
+            // inserting an explicit value moves the auto-increment counter past it
+            session.createSQLQuery("insert into " + ACCESSION_NUMBER_SEQUENCE_TABLE
+                    + " (accession_number_seed) values (:accessionNumberSeed)")
+                    .setLong("accessionNumberSeed", nextValue - 1)
+                    .addSynchronizedQuerySpace(ACCESSION_NUMBER_SEQUENCE_TABLE)
+                    .executeUpdate();
+        } else if (dialect instanceof PostgreSQL81Dialect) {
+            session.createSQLQuery("select setval('" + ACCESSION_NUMBER_SEQUENCE + "', :nextValue, false)")
+                    .setLong("nextValue", nextValue)
+                    .uniqueResult();
+        } else {
+            session.createSQLQuery("alter sequence " + ACCESSION_NUMBER_SEQUENCE + " restart with " + nextValue)
+                    .addSynchronizedQuerySpace(ACCESSION_NUMBER_SEQUENCE)
+                    .executeUpdate();
+        }
     }
     
     /**
@@ -119,6 +341,322 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
     @Override
     public List<RadiologyOrder> getRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria) {
         
+        final Criteria crit = createRadiologyOrderCriteria(searchCriteria);
+        addPageOfRadiologyOrders(crit, searchCriteria);
+        return crit.list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrderSummaries(RadiologyOrderSearchCriteria)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<RadiologyOrderSummary> getRadiologyOrderSummaries(RadiologyOrderSearchCriteria searchCriteria) {
+        
+        return toRadiologyOrderSummaries(createRadiologyOrderSummaryCriteria(searchCriteria).list());
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#streamRadiologyOrderSummaries(RadiologyOrderSearchCriteria,
+     *      Consumer)
+     */
+    @Override
+    public void streamRadiologyOrderSummaries(RadiologyOrderSearchCriteria searchCriteria,
+            Consumer<RadiologyOrderSummary> consumer) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        // the names, identifiers and report statuses of each chunk are queried while scrolling, which rules out the
+        // streaming fetch size of MySQL
+        if (StreamingFetchSize.isCursorFetchMissing(session)) {
+            log.warn("The radiology order summaries are read into memory at once since the MySQL connection URL does not "
+                    + "set useCursorFetch=true, add it to the connection.url runtime property to stream them");
+        }
+        final ScrollableResults results = createRadiologyOrderSummaryCriteria(searchCriteria).setFetchSize(STREAM_CHUNK_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            final List<Object[]> rows = new ArrayList<Object[]>(STREAM_CHUNK_SIZE);
+            while (results.next()) {
+                rows.add(results.get()
+                        .clone());
+                if (rows.size() == STREAM_CHUNK_SIZE) {
+                    toRadiologyOrderSummaries(rows).forEach(consumer);
+                    rows.clear();
+                    session.clear();
+                }
+            }
+            toRadiologyOrderSummaries(rows).forEach(consumer);
+        }
+        finally {
+            results.close();
+        }
+    }
+    
+    /**
+     * Creates a criteria projecting the radiology orders matching given search criteria to the columns of a
+     * {@code RadiologyOrderSummary} which can be read from the radiology order, its patient and its study. Only joins
+     * yielding at most one row per radiology order are made so limits and offsets count radiology orders, the patient
+     * name is loaded by {@link #toRadiologyOrderSummaries(List)}.
+     * 
+     * @param searchCriteria the search criteria
+     * @return the criteria returning one row per radiology order
+     * @see #toRadiologyOrderSummaries(List)
+     */
+    private Criteria createRadiologyOrderSummaryCriteria(RadiologyOrderSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createRadiologyOrderCriteria(searchCriteria);
+        addPageOfRadiologyOrders(crit, searchCriteria);
+        crit.createAlias("patient", "summaryPatient")
+                .createAlias("study", "summaryStudy", JoinType.LEFT_OUTER_JOIN);
+        crit.setProjection(Projections.projectionList()
+                .add(Projections.property("orderId"))
+                .add(Projections.property("uuid"))
+                .add(Projections.property("accessionNumber"))
+                .add(Projections.property("summaryPatient.personId"))
+                .add(Projections.property("summaryPatient.uuid"))
+                .add(Projections.property("concept.conceptId"))
+                .add(Projections.property("urgency"))
+                .add(Projections.property("effectiveStartDate"))
+                .add(Projections.property("summaryStudy.performedStatus")));
+        return crit;
+    }
+    
+    /**
+     * Converts rows of {@link #createRadiologyOrderSummaryCriteria(RadiologyOrderSearchCriteria)} to radiology order
+     * summaries, loading patient names, patient identifiers, concept names and report statuses with one query each.
+     * 
+     * @param rows the rows of radiology orders
+     * @return the radiology order summaries in the order of given rows
+     */
+    private List<RadiologyOrderSummary> toRadiologyOrderSummaries(List<Object[]> rows) {
+        
+        if (rows.isEmpty()) {
+            return new ArrayList<RadiologyOrderSummary>();
+        }
+        
+        final Set<Integer> orderIds = new HashSet<Integer>();
+        final Set<Integer> patientIds = new HashSet<Integer>();
+        final Set<Integer> conceptIds = new HashSet<Integer>();
+        for (Object[] row : rows) {
+            orderIds.add((Integer) row[0]);
+            patientIds.add((Integer) row[3]);
+            if (row[5] != null) {
+                conceptIds.add((Integer) row[5]);
+            }
+        }
+        final Map<Integer, String> patientNames = getPreferredPatientNames(patientIds);
+        final Map<Integer, String> patientIdentifiers = getPreferredPatientIdentifiers(patientIds);
+        final Map<Integer, String> procedureNames =
+                conceptIds.isEmpty() ? new HashMap<Integer, String>() : getConceptNames(conceptIds);
+        final Map<Integer, RadiologyReportStatus> reportStatuses = getRadiologyReportStatuses(orderIds);
+        
+        final List<RadiologyOrderSummary> result = new ArrayList<RadiologyOrderSummary>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new RadiologyOrderSummary((String) row[1], (String) row[2], (String) row[4],
+                    patientNames.get(row[3]), patientIdentifiers.get(row[3]), procedureNames.get(row[5]), (Urgency) row[6],
+                    (Date) row[7], (PerformedProcedureStepStatus) row[8], reportStatuses.get(row[0])));
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the full preferred name of given patients in one query. A patient with several non voided preferred names
+     * gets the first one.
+     * 
+     * @param patientIds the ids of the patients
+     * @return the full preferred name by patient id
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Integer, String> getPreferredPatientNames(Set<Integer> patientIds) {
+        
+        final List<Object[]> rows = sessionFactory.getCurrentSession()
+                .createQuery("select pn.person.personId, pn.givenName, pn.middleName, pn.familyName from PersonName pn "
+                        + "where pn.person.personId in (:patientIds) and pn.preferred = true and pn.voided = false "
+                        + "order by pn.personNameId")
+                .setParameterList("patientIds", patientIds)
+                .list();
+        final Map<Integer, String> result = new HashMap<Integer, String>();
+        for (Object[] row : rows) {
+            if (!result.containsKey(row[0]) && (row[1] != null || row[3] != null)) {
+                result.put((Integer) row[0], new PersonName((String) row[1], (String) row[2], (String) row[3])
+                        .getFullName());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the preferred identifier of given patients in one query.
+     * 
+     * @param patientIds the ids of the patients
+     * @return the preferred identifier by patient id
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Integer, String> getPreferredPatientIdentifiers(Set<Integer> patientIds) {
+        
+        final List<Object[]> rows = sessionFactory.getCurrentSession()
+                .createQuery("select pi.patient.personId, pi.identifier from PatientIdentifier pi "
+                        + "where pi.patient.personId in (:patientIds) and pi.preferred = true and pi.voided = false "
+                        + "order by pi.patientIdentifierId")
+                .setParameterList("patientIds", patientIds)
+                .list();
+        final Map<Integer, String> result = new HashMap<Integer, String>();
+        for (Object[] row : rows) {
+            if (!result.containsKey(row[0])) {
+                result.put((Integer) row[0], (String) row[1]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the names of given concepts in the locale of the user. The concepts are fetched together with their names
+     * in one query.
+     * 
+     * @param conceptIds the ids of the concepts
+     * @return the concept name by concept id
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Integer, String> getConceptNames(Set<Integer> conceptIds) {
+        
+        final List<Concept> concepts = sessionFactory.getCurrentSession()
+                .createCriteria(Concept.class)
+                .add(Restrictions.in("conceptId", conceptIds))
+                .setFetchMode("names", FetchMode.JOIN)
+                .setResultTransformer(Criteria.DISTINCT_ROOT_ENTITY)
+                .list();
+        final Map<Integer, String> result = new HashMap<Integer, String>();
+        for (Concept concept : concepts) {
+            if (concept.getName() != null) {
+                result.put(concept.getConceptId(), concept.getName()
+                        .getName());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the status of the non voided radiology report of given radiology orders in one query.
+     * 
+     * @param orderIds the ids of the radiology orders
+     * @return the radiology report status by order id
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Integer, RadiologyReportStatus> getRadiologyReportStatuses(Set<Integer> orderIds) {
+        
+        final List<Object[]> rows = sessionFactory.getCurrentSession()
+                .createQuery("select r.radiologyOrder.orderId, r.status from RadiologyReport r "
+                        + "where r.radiologyOrder.orderId in (:orderIds) and r.voided = false")
+                .setParameterList("orderIds", orderIds)
+                .list();
+        final Map<Integer, RadiologyReportStatus> result = new HashMap<Integer, RadiologyReportStatus>();
+        for (Object[] row : rows) {
+            result.put((Integer) row[0], (RadiologyReportStatus) row[1]);
+        }
+        return result;
+    }
+    
+    /**
+     * Restricts given criteria to the page of radiology orders selected by the after accession number, start index and
+     * limit of given search criteria and sorts it by the sort field of given search criteria. The after accession number is
+     * compared lexically as a string, the search criteria only allow it together with sorting ascending by accession
+     * number.
+     * 
+     * @param crit the criteria for radiology orders
+     * @param searchCriteria the search criteria
+     */
+    private void addPageOfRadiologyOrders(Criteria crit, RadiologyOrderSearchCriteria searchCriteria) {
+        
+        if (StringUtils.isNotBlank(searchCriteria.getAfterAccessionNumber())) {
+            crit.add(Restrictions.gt("accessionNumber", searchCriteria.getAfterAccessionNumber()));
+        }
+        
+        if (searchCriteria.getStartIndex() != null && searchCriteria.getStartIndex() > 0) {
+            crit.setFirstResult(searchCriteria.getStartIndex());
+        }
+        
+        if (searchCriteria.getLimit() != null && searchCriteria.getLimit() > 0) {
+            crit.setMaxResults(searchCriteria.getLimit());
+        }
+        
+        final String sortProperty = getSortProperty(searchCriteria.getSortField());
+        crit.addOrder(searchCriteria.getSortAscending() ? Order.asc(sortProperty) : Order.desc(sortProperty));
+        crit.addOrder(Order.asc("orderId"));
+    }
+    
+    /**
+     * Gets the property of {@code RadiologyOrder} sorted by given sort field.
+     * 
+     * @param sortField the sort field
+     * @return the property sorted by given sort field
+     */
+    private static String getSortProperty(RadiologyOrderSearchCriteria.SortField sortField) {
+        
+        switch (sortField) {
+            case URGENCY:
+                return "urgency";
+            case EFFECTIVE_START_DATE:
+                return "effectiveStartDate";
+            default:
+                return "accessionNumber";
+        }
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#countRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    @Override
+    public Long countRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createRadiologyOrderCriteria(searchCriteria);
+        crit.setProjection(Projections.rowCount());
+        return ((Number) crit.uniqueResult()).longValue();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrdersByAccessionNumbers(Collection)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<String, RadiologyOrder> getRadiologyOrdersByAccessionNumbers(Collection<String> accessionNumbers) {
+        
+        final List<String> distinctAccessionNumbers = new ArrayList<String>(new LinkedHashSet<String>(accessionNumbers));
+        distinctAccessionNumbers.remove(null);
+        
+        final Map<String, RadiologyOrder> radiologyOrders = new HashMap<String, RadiologyOrder>();
+        for (int i = 0; i < distinctAccessionNumbers.size(); i += MAX_IN_PARAMETERS) {
+            final List<RadiologyOrder> chunk = sessionFactory.getCurrentSession()
+                    .createCriteria(RadiologyOrder.class)
+                    .add(Restrictions.in("accessionNumber", distinctAccessionNumbers.subList(i,
+                        Math.min(i + MAX_IN_PARAMETERS, distinctAccessionNumbers.size()))))
+                    .add(Restrictions.eq("voided", false))
+                    .list();
+            for (RadiologyOrder radiologyOrder : chunk) {
+                radiologyOrders.put(radiologyOrder.getAccessionNumber(), radiologyOrder);
+            }
+        }
+        
+        final Map<String, RadiologyOrder> result = new LinkedHashMap<String, RadiologyOrder>();
+        for (String accessionNumber : distinctAccessionNumbers) {
+            if (radiologyOrders.containsKey(accessionNumber)) {
+                result.put(accessionNumber, radiologyOrders.get(accessionNumber));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Creates a criteria for {@code RadiologyOrder's} restricted by the filters of given search criteria. The after
+     * accession number, start index and limit only select a page of the result and are therefore not applied.
+     * <p>
+     * The performed status and completed report filters are applied as subqueries on the radiology study and radiology
+     * report so they neither duplicate rows nor clash with the joins of the summary projection.
+     * </p>
+     * 
+     * @param searchCriteria the search criteria
+     * @return criteria for radiology orders matching given search criteria
+     */
+    private Criteria createRadiologyOrderCriteria(RadiologyOrderSearchCriteria searchCriteria) {
+        
         final Criteria crit = sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyOrder.class);
         
@@ -134,36 +672,120 @@ class HibernateRadiologyOrderDAO implements RadiologyOrderDAO {
             crit.add(Restrictions.eq("urgency", searchCriteria.getUrgency()));
         }
         if (searchCriteria.getFromEffectiveStartDate() != null) {
-            final Disjunction disjunction = Restrictions.disjunction();
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE))
-                    .add(Restrictions.ge("scheduledDate", searchCriteria.getFromEffectiveStartDate())));
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.not(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE)))
-                    .add(Restrictions.ge("dateActivated", searchCriteria.getFromEffectiveStartDate())));
-            crit.add(disjunction);
+            crit.add(Restrictions.ge("effectiveStartDate", searchCriteria.getFromEffectiveStartDate()));
         }
         
         if (searchCriteria.getToEffectiveStartDate() != null) {
-            final Disjunction disjunction = Restrictions.disjunction();
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE))
-                    .add(Restrictions.le("scheduledDate", searchCriteria.getToEffectiveStartDate())));
-            disjunction.add(Restrictions.conjunction()
-                    .add(Restrictions.not(Restrictions.eq("urgency", Urgency.ON_SCHEDULED_DATE)))
-                    .add(Restrictions.le("dateActivated", searchCriteria.getToEffectiveStartDate())));
-            crit.add(disjunction);
+            crit.add(Restrictions.le("effectiveStartDate", searchCriteria.getToEffectiveStartDate()));
         }
         
         if (StringUtils.isNotBlank(searchCriteria.getAccessionNumber())) {
             crit.add(Restrictions.eq("accessionNumber", searchCriteria.getAccessionNumber()));
         }
         
+        if (StringUtils.isNotBlank(searchCriteria.getAccessionNumberPrefix())) {
+            crit.add(new PrefixLikeExpression("accessionNumber", searchCriteria.getAccessionNumberPrefix()));
+        }
+        
         if (searchCriteria.getOrderer() != null) {
             crit.add(Restrictions.eq("orderer", searchCriteria.getOrderer()));
         }
         
-        crit.addOrder(Order.asc("accessionNumber"));
-        return crit.list();
+        if (searchCriteria.getPerformedStatuses() != null) {
+            crit.add(Subqueries.propertyIn("orderId", DetachedCriteria.forClass(RadiologyStudy.class)
+                    .add(Restrictions.in("performedStatus", searchCriteria.getPerformedStatuses()))
+                    .setProjection(Projections.property("radiologyOrder.orderId"))));
+        }
+        
+        if (searchCriteria.getHasCompletedReport() != null) {
+            final DetachedCriteria completedReports = DetachedCriteria.forClass(RadiologyReport.class)
+                    .add(Restrictions.eq("status", RadiologyReportStatus.COMPLETED))
+                    .add(Restrictions.eq("voided", false))
+                    .setProjection(Projections.property("radiologyOrder.orderId"));
+            crit.add(searchCriteria.getHasCompletedReport() ? Subqueries.propertyIn("orderId", completedReports)
+                    : Subqueries.propertyNotIn("orderId", completedReports));
+        }
+        
+        return crit;
+    }
+    
+    /**
+     * @see RadiologyOrderDAO#lockPatient(Patient)
+     * @should lock the row of given patient
+     * @should not fail given a patient which is not saved yet
+     */
+    @Override
+    public void lockPatient(Patient patient) {
+        
+        if (patient == null || patient.getPatientId() == null) {
+            return;
+        }
+        final Dialect dialect = ((SessionFactoryImplementor) sessionFactory).getDialect();
+        // a native query so a detached patient or another instance of it in the session does not matter, the query
+        // space keeps it from flushing the whole session
+        sessionFactory.getCurrentSession()
+                .createSQLQuery(
+                    "select patient_id from patient where patient_id = :patientId" + dialect.getForUpdateString())
+                .addSynchronizedQuerySpace("patient")
+                .setInteger("patientId", patient.getPatientId())
+                .uniqueResult();
+    }
+    
+    /**
+     * @see RadiologyOrderDAO#attachReferences(RadiologyOrder)
+     * @should replace detached references by their instances in the current session
+     * @should keep references which are attached to the current session
+     * @should keep references which are not saved yet
+     */
+    @Override
+    public void attachReferences(RadiologyOrder radiologyOrder) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final Patient patient = radiologyOrder.getPatient();
+        if (isDetached(session, patient, patient == null ? null : patient.getPatientId())) {
+            radiologyOrder.setPatient((Patient) session.get(Patient.class, patient.getPatientId()));
+        }
+        final Provider orderer = radiologyOrder.getOrderer();
+        if (isDetached(session, orderer, orderer == null ? null : orderer.getProviderId())) {
+            radiologyOrder.setOrderer((Provider) session.get(Provider.class, orderer.getProviderId()));
+        }
+        final Concept concept = radiologyOrder.getConcept();
+        if (isDetached(session, concept, concept == null ? null : concept.getConceptId())) {
+            radiologyOrder.setConcept((Concept) session.get(Concept.class, concept.getConceptId()));
+        }
+        final CareSetting careSetting = radiologyOrder.getCareSetting();
+        if (isDetached(session, careSetting, careSetting == null ? null : careSetting.getCareSettingId())) {
+            radiologyOrder.setCareSetting((CareSetting) session.get(CareSetting.class, careSetting.getCareSettingId()));
+        }
+        final OrderType orderType = radiologyOrder.getOrderType();
+        if (isDetached(session, orderType, orderType == null ? null : orderType.getOrderTypeId())) {
+            radiologyOrder.setOrderType((OrderType) session.get(OrderType.class, orderType.getOrderTypeId()));
+        }
+    }
+    
+    private static boolean isDetached(Session session, Object entity, Integer id) {
+        return entity != null && id != null && !session.contains(entity);
+    }
+    
+    /**
+     * @see RadiologyOrderDAO#getRadiologyOrderEncounter(Patient, Provider, EncounterRole, EncounterType, Date, Date)
+     */
+    @Override
+    public Encounter getRadiologyOrderEncounter(Patient patient, Provider provider, EncounterRole encounterRole,
+            EncounterType encounterType, Date fromEncounterDatetime, Date toEncounterDatetime) {
+        
+        return (Encounter) sessionFactory.getCurrentSession()
+                .createCriteria(Encounter.class, "encounter")
+                .createAlias("encounter.encounterProviders", "encounterProvider")
+                .add(Restrictions.eq("encounter.patient", patient))
+                .add(Restrictions.eq("encounter.encounterType", encounterType))
+                .add(Restrictions.between("encounter.encounterDatetime", fromEncounterDatetime, toEncounterDatetime))
+                .add(Restrictions.eq("encounter.voided", false))
+                .add(Restrictions.eq("encounterProvider.provider", provider))
+                .add(Restrictions.eq("encounterProvider.encounterRole", encounterRole))
+                .add(Restrictions.eq("encounterProvider.voided", false))
+                .addOrder(Order.desc("encounter.encounterDatetime"))
+                .setMaxResults(1)
+                .uniqueResult();
     }
 }
@@ -0,0 +1,74 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.time.Clock;
+
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.util.NodeUniqueIdGenerator;
+
+/**
+ * Generates accession numbers from the node id, the current time and a sequence without accessing the database.
+ * <p>
+ * Accession numbers are composed of 32 bits of seconds since 2017-01-01, 8 bits of node id
+ * ({@link RadiologyProperties#getNodeId()}) and 13 bits of sequence. They thus have at most 16 digits and fit into
+ * the DICOM Accession Number (0008,0050) which is of value representation SH (Short String). Every OpenMRS instance
+ * sharing a database needs to be configured with a distinct node id.
+ * </p>
+ */
+public class NodeAccessionNumberGenerator implements AccessionNumberGenerator {
+    
+    
+    static final int NODE_ID_BITS = 8;
+    
+    static final int SEQUENCE_BITS = 13;
+    
+    static final long TICK_MILLIS = 1000L;
+    
+    /**
+     * 2017-01-01T00:00:00Z
+     */
+    static final long EPOCH_MILLIS = 1483228800000L;
+    
+    private RadiologyProperties radiologyProperties;
+    
+    private volatile NodeUniqueIdGenerator nodeUniqueIdGenerator;
+    
+    public void setRadiologyProperties(RadiologyProperties radiologyProperties) {
+        this.radiologyProperties = radiologyProperties;
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     * @should return accession numbers with at most 16 digits
+     * @should always return unique accession numbers across nodes when called concurrently
+     */
+    @Override
+    public String getNewAccessionNumber() {
+        
+        return String.valueOf(getNodeUniqueIdGenerator().nextId());
+    }
+    
+    private NodeUniqueIdGenerator getNodeUniqueIdGenerator() {
+        
+        NodeUniqueIdGenerator result = nodeUniqueIdGenerator;
+        if (result == null) {
+            synchronized (this) {
+                result = nodeUniqueIdGenerator;
+                if (result == null) {
+                    result = new NodeUniqueIdGenerator(radiologyProperties.getNodeId(), NODE_ID_BITS, SEQUENCE_BITS,
+                            TICK_MILLIS, EPOCH_MILLIS, Clock.systemUTC());
+                    nodeUniqueIdGenerator = result;
+                }
+            }
+        }
+        return result;
+    }
+}
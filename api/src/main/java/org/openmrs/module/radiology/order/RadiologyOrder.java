@@ -9,6 +9,8 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.Date;
+
 import org.openmrs.TestOrder;
 import org.openmrs.module.radiology.study.RadiologyStudy;
 
@@ -40,6 +42,18 @@ public class RadiologyOrder extends TestOrder {
         this.study = radiologyStudy;
     }
     
+    /**
+     * Ignores given effective start date. The effective start date is derived from urgency, scheduled date and date
+     * activated by {@link #getEffectiveStartDate()} and only persisted so that date range searches can use an index.
+     * Hibernate calls this when loading a radiology order and writes {@link #getEffectiveStartDate()} on every flush.
+     *
+     * @param effectiveStartDate the persisted effective start date
+     */
+    @SuppressWarnings("unused")
+    private void setEffectiveStartDate(Date effectiveStartDate) {
+        // derived, see getEffectiveStartDate()
+    }
+    
     /**
      * Returns true if study is in progress and false otherwise.
      * 
@@ -9,7 +9,17 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.openmrs.Encounter;
+import org.openmrs.EncounterRole;
+import org.openmrs.EncounterType;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
 
 /**
  * {@code RadiologyOrder} related database methods.
@@ -25,6 +35,21 @@ interface RadiologyOrderDAO {
      */
     public Long getNextAccessionNumberSeedSequenceValue();
     
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberSeedSequenceBlock(int)
+     */
+    public Long getNextAccessionNumberSeedSequenceBlock(int blockSize);
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getNextAccessionNumberDatabaseSequenceValue()
+     */
+    public Long getNextAccessionNumberDatabaseSequenceValue();
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#synchronizeAccessionNumberSequences()
+     */
+    public Long synchronizeAccessionNumberSequences();
+    
     /**
      * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrder(Integer)
      */
@@ -39,4 +64,64 @@ interface RadiologyOrderDAO {
      * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrders(RadiologyOrderSearchCriteria)
      */
     List<RadiologyOrder> getRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrderSummaries(RadiologyOrderSearchCriteria)
+     */
+    List<RadiologyOrderSummary> getRadiologyOrderSummaries(RadiologyOrderSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#streamRadiologyOrderSummaries(RadiologyOrderSearchCriteria,
+     *      Consumer)
+     */
+    void streamRadiologyOrderSummaries(RadiologyOrderSearchCriteria searchCriteria,
+            Consumer<RadiologyOrderSummary> consumer);
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#countRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    Long countRadiologyOrders(RadiologyOrderSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.order.RadiologyOrderService#getRadiologyOrdersByAccessionNumbers(Collection)
+     */
+    Map<String, RadiologyOrder> getRadiologyOrdersByAccessionNumbers(Collection<String> accessionNumbers);
+    
+    /**
+     * Locks the database row of given patient until the current transaction ends.
+     * <p>
+     * Transactions placing orders for the same patient thus run one after another, also across OpenMRS instances
+     * sharing the database, and see the orders committed by each other.
+     * </p>
+     * 
+     * @param patient the patient to lock
+     */
+    void lockPatient(Patient patient);
+    
+    /**
+     * Replaces the patient, orderer, concept, care setting and order type of given radiology order by their instances
+     * in the current session, loading them if given radiology order references detached instances.
+     * <p>
+     * A transaction which rolls back clears a session shared across transactions, like the one opened for a web request,
+     * so the orders placed after it in the same session still reference the detached instances.
+     * </p>
+     * 
+     * @param radiologyOrder the radiology order whose references to attach
+     */
+    void attachReferences(RadiologyOrder radiologyOrder);
+    
+    /**
+     * Get the latest non voided encounter of given type and patient within given period to which given provider is
+     * assigned in given role.
+     * 
+     * @param patient the patient of the encounter
+     * @param provider the provider assigned to the encounter
+     * @param encounterRole the role the provider is assigned in
+     * @param encounterType the type of the encounter
+     * @param fromEncounterDatetime the earliest encounter datetime
+     * @param toEncounterDatetime the latest encounter datetime
+     * @return the latest matching encounter or null if there is none
+     */
+    Encounter getRadiologyOrderEncounter(Patient patient, Provider provider, EncounterRole encounterRole,
+            EncounterType encounterType, Date fromEncounterDatetime, Date toEncounterDatetime);
 }
@@ -0,0 +1,90 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+/**
+ * The outcome of placing one {@code RadiologyOrder} of a batch.
+ * 
+ * @see RadiologyOrderService#placeRadiologyOrders(java.util.List)
+ */
+public class RadiologyOrderPlacementResult {
+    
+    
+    private final int index;
+    
+    private final RadiologyOrder radiologyOrder;
+    
+    private final String errorMessage;
+    
+    private RadiologyOrderPlacementResult(int index, RadiologyOrder radiologyOrder, String errorMessage) {
+        this.index = index;
+        this.radiologyOrder = radiologyOrder;
+        this.errorMessage = errorMessage;
+    }
+    
+    /**
+     * Creates the result of a placed radiology order.
+     * 
+     * @param index the position of the radiology order in the batch
+     * @param radiologyOrder the placed radiology order
+     * @return the result
+     */
+    public static RadiologyOrderPlacementResult placed(int index, RadiologyOrder radiologyOrder) {
+        return new RadiologyOrderPlacementResult(index, radiologyOrder, null);
+    }
+    
+    /**
+     * Creates the result of a radiology order which could not be placed.
+     * 
+     * @param index the position of the radiology order in the batch
+     * @param radiologyOrder the radiology order which could not be placed
+     * @param errorMessage why the radiology order could not be placed
+     * @return the result
+     */
+    public static RadiologyOrderPlacementResult failed(int index, RadiologyOrder radiologyOrder, String errorMessage) {
+        return new RadiologyOrderPlacementResult(index, radiologyOrder, errorMessage);
+    }
+    
+    /**
+     * Get the position of the radiology order in the batch.
+     * 
+     * @return the index of the radiology order
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    /**
+     * Get the radiology order, which is the saved radiology order if it was placed.
+     * 
+     * @return the radiology order
+     */
+    public RadiologyOrder getRadiologyOrder() {
+        return radiologyOrder;
+    }
+    
+    /**
+     * Get why the radiology order could not be placed.
+     * 
+     * @return the error message or null if the radiology order was placed
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    /**
+     * Whether the radiology order was placed.
+     * 
+     * @return true if the radiology order was placed and false otherwise
+     */
+    public boolean isPlaced() {
+        return errorMessage == null;
+    }
+}
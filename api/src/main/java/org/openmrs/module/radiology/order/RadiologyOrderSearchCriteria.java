@@ -9,11 +9,17 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
 
+import org.apache.commons.lang3.StringUtils;
 import org.openmrs.Order.Urgency;
 import org.openmrs.Patient;
 import org.openmrs.Provider;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
 
 /**
  * Search parameter object for {@link RadiologyOrder}'s.
@@ -21,9 +27,14 @@ import org.openmrs.Provider;
  * <p>Typical usage involves:
  * <ol>
  * <li>Set the various search criteria parameters through the respective methods of the static builder class
- * ({@link Builder#withPatient(Patient)}, {@link Builder#includeVoided()}, {@link Builder#withUrgency(Urgency)}, 
+ * ({@link Builder#withPatient(Patient)}, {@link Builder#includeVoided()}, {@link Builder#withUrgency(Urgency)},
  * {@link Builder#fromEffectiveStartDate(Date)}, {@link Builder#toEffectiveStartDate(Date)},
- * {@link Builder#withAccessionNumber(String)} and {@link Builder#withOrderer(Provider)}).</li>
+ * {@link Builder#withAccessionNumber(String)}, {@link Builder#withAccessionNumberPrefix(String)},
+ * {@link Builder#withOrderer(Provider)},
+ * {@link Builder#withPerformedStatuses(Collection)} and {@link Builder#withCompletedReport(Boolean)}).</li>
+ * <li>Optionally restrict the result to one page through {@link Builder#afterAccessionNumber(String)},
+ * {@link Builder#withStartIndex(Integer)} and {@link Builder#withLimit(Integer)}.</li>
+ * <li>Optionally sort the result through {@link Builder#sortBy(SortField, boolean)}.</li>
  * <li>Build the {@link RadiolologyOrderSearchCriteria} instance with the {@link Builder#build()} method.</li>
  * <li>Get the search parameters through the getter methods (such as {@link #getPatient()} or {@link #getUrgency()}).</li>
  * </ol>
@@ -43,8 +54,24 @@ public class RadiologyOrderSearchCriteria {
     
     private final String accessionNumber;
     
+    private final String accessionNumberPrefix;
+    
     private final Provider orderer;
     
+    private final Set<PerformedProcedureStepStatus> performedStatuses;
+    
+    private final Boolean hasCompletedReport;
+    
+    private final String afterAccessionNumber;
+    
+    private final Integer startIndex;
+    
+    private final Integer limit;
+    
+    private final SortField sortField;
+    
+    private final Boolean sortAscending;
+    
     /**
      * @return the order patient
      */
@@ -93,6 +120,14 @@ public class RadiologyOrderSearchCriteria {
         return accessionNumber;
     }
     
+    /**
+     * @return the prefix the order accessionNumber starts with
+     */
+    public String getAccessionNumberPrefix() {
+        
+        return accessionNumberPrefix;
+    }
+    
     /**
      * @return the order orderer
      */
@@ -101,6 +136,73 @@ public class RadiologyOrderSearchCriteria {
         return orderer;
     }
     
+    /**
+     * @return the performed statuses one of which the study of a radiology order needs to have or null if the performed
+     *         status is not restricted
+     */
+    public Set<PerformedProcedureStepStatus> getPerformedStatuses() {
+        
+        return performedStatuses;
+    }
+    
+    /**
+     * @return true if only radiology orders with a completed radiology report, false if only radiology orders without a
+     *         completed radiology report or null if radiology orders with and without a completed radiology report are
+     *         returned
+     */
+    public Boolean getHasCompletedReport() {
+        
+        return hasCompletedReport;
+    }
+    
+    /**
+     * @return the accession number after which radiology orders are returned, accession numbers are compared lexically
+     *         as strings
+     */
+    public String getAfterAccessionNumber() {
+        
+        return afterAccessionNumber;
+    }
+    
+    /**
+     * @return the index of the first radiology order to return
+     */
+    public Integer getStartIndex() {
+        
+        return startIndex;
+    }
+    
+    /**
+     * @return the maximum number of radiology orders to return
+     */
+    public Integer getLimit() {
+        
+        return limit;
+    }
+    
+    /**
+     * @return the field by which the radiology orders are sorted
+     */
+    public SortField getSortField() {
+        
+        return sortField;
+    }
+    
+    /**
+     * @return true if the radiology orders are sorted in ascending order, false if in descending order
+     */
+    public Boolean getSortAscending() {
+        
+        return sortAscending;
+    }
+    
+    /**
+     * Fields by which radiology orders can be sorted.
+     */
+    public enum SortField {
+        ACCESSION_NUMBER, URGENCY, EFFECTIVE_START_DATE
+    }
+    
     public static class Builder {
         
         
@@ -116,8 +218,24 @@ public class RadiologyOrderSearchCriteria {
         
         private String accessionNumber;
         
+        private String accessionNumberPrefix;
+        
         private Provider orderer;
         
+        private Set<PerformedProcedureStepStatus> performedStatuses;
+        
+        private Boolean hasCompletedReport;
+        
+        private String afterAccessionNumber;
+        
+        private Integer startIndex;
+        
+        private Integer limit;
+        
+        private SortField sortField = SortField.ACCESSION_NUMBER;
+        
+        private Boolean sortAscending = true;
+        
         /**
          * @param patient the order patient
          * @return this builder instance
@@ -179,6 +297,16 @@ public class RadiologyOrderSearchCriteria {
             return this;
         }
         
+        /**
+         * @param accessionNumberPrefix the prefix the order accession number starts with
+         * @return this builder instance
+         */
+        public Builder withAccessionNumberPrefix(String accessionNumberPrefix) {
+            
+            this.accessionNumberPrefix = accessionNumberPrefix;
+            return this;
+        }
+        
         /**
          * @param orderer the order orderer
          * @return this builder instance
@@ -189,20 +317,110 @@ public class RadiologyOrderSearchCriteria {
             return this;
         }
         
+        /**
+         * Only radiology orders whose study has one of given performed statuses are returned. Radiology orders without a
+         * study or without a performed status do not match.
+         * 
+         * @param performedStatuses the performed statuses one of which the study of a radiology order needs to have
+         * @return this builder instance
+         */
+        public Builder withPerformedStatuses(Collection<PerformedProcedureStepStatus> performedStatuses) {
+            
+            this.performedStatuses = performedStatuses == null || performedStatuses.isEmpty() ? null
+                    : Collections.unmodifiableSet(EnumSet.copyOf(performedStatuses));
+            return this;
+        }
+        
+        /**
+         * @param hasCompletedReport true to only return radiology orders with a completed non voided radiology report,
+         *        false to only return radiology orders without one and null to return both
+         * @return this builder instance
+         */
+        public Builder withCompletedReport(Boolean hasCompletedReport) {
+            
+            this.hasCompletedReport = hasCompletedReport;
+            return this;
+        }
+        
+        /**
+         * Only radiology orders with an accession number sorting after given accession number are returned. Seeking
+         * past the last accession number of the previous page keeps the cost of a page independent of its position.
+         * Accession numbers are compared lexically as strings, so {@code "10"} sorts before {@code "9"}. Seeking can only
+         * be combined with the default sort ascending by accession number, see {@link #build()}.
+         * 
+         * @param afterAccessionNumber the accession number of the last radiology order of the previous page
+         * @return this builder instance
+         */
+        public Builder afterAccessionNumber(String afterAccessionNumber) {
+            
+            this.afterAccessionNumber = afterAccessionNumber;
+            return this;
+        }
+        
+        /**
+         * @param startIndex the index of the first radiology order to return
+         * @return this builder instance
+         */
+        public Builder withStartIndex(Integer startIndex) {
+            
+            this.startIndex = startIndex;
+            return this;
+        }
+        
+        /**
+         * @param limit the maximum number of radiology orders to return
+         * @return this builder instance
+         */
+        public Builder withLimit(Integer limit) {
+            
+            this.limit = limit;
+            return this;
+        }
+        
+        /**
+         * Sorts the radiology orders by given field. Radiology orders with equal values in the field keep a stable order so
+         * pages do not overlap. Defaults to ascending by {@code ACCESSION_NUMBER}.
+         * 
+         * @param sortField the field by which the radiology orders are sorted
+         * @param ascending true to sort in ascending order, false to sort in descending order
+         * @return this builder instance
+         */
+        public Builder sortBy(SortField sortField, boolean ascending) {
+            
+            this.sortField = sortField;
+            this.sortAscending = ascending;
+            return this;
+        }
+        
         /**
          * Create an {@link RadiologyOrderSearchCriteria} with the properties of this builder instance.
          * 
          * @return a new search criteria instance
+         * @throws IllegalArgumentException if an after accession number is set and the radiology orders are not sorted
+         *         ascending by accession number
          * @should create a new radiology order search criteria instance with patient if patient is set
          * @should create a new radiology order search criteria instance with include voided set to true if voided orders should be included
          * @should create a new radiology order search criteria instance with urgency if urgency is set
          * @should create a new radiology order search criteria instance with from effective start date if from effective start date is set
          * @should create a new radiology order search criteria instance with to effective start date if to effective start date is set
          * @should create a new radiology order search criteria instance with accession number if accession number is set
+         * @should create a new radiology order search criteria instance with accession number prefix if prefix is set
          * @should create a new radiology order search criteria instance with orderer if orderer is set
+         * @should create a new radiology order search criteria instance with performed statuses if performed statuses are set
+         * @should create a new radiology order search criteria instance with has completed report if has completed report is set
+         * @should create a new radiology order search criteria instance with after accession number if after accession number is set
+         * @should create a new radiology order search criteria instance with start index and limit if start index and limit are set
+         * @should create a new radiology order search criteria instance with sort field and direction if sort is set
+         * @should throw illegal argument exception if after accession number is set and sort field is not accession number
+         * @should throw illegal argument exception if after accession number is set and sort order is descending
          */
         public RadiologyOrderSearchCriteria build() {
             
+            if (StringUtils.isNotBlank(afterAccessionNumber)
+                    && ((sortField != null && sortField != SortField.ACCESSION_NUMBER) || !sortAscending)) {
+                throw new IllegalArgumentException(
+                        "afterAccessionNumber can only be used when sorting ascending by accession number");
+            }
             return new RadiologyOrderSearchCriteria(this);
         }
     }
@@ -215,6 +433,14 @@ public class RadiologyOrderSearchCriteria {
         this.fromEffectiveStartDate = builder.fromEffectiveStartDate;
         this.toEffectiveStartDate = builder.toEffectiveStartDate;
         this.accessionNumber = builder.accessionNumber;
+        this.accessionNumberPrefix = builder.accessionNumberPrefix;
         this.orderer = builder.orderer;
+        this.performedStatuses = builder.performedStatuses;
+        this.hasCompletedReport = builder.hasCompletedReport;
+        this.afterAccessionNumber = builder.afterAccessionNumber;
+        this.startIndex = builder.startIndex;
+        this.limit = builder.limit;
+        this.sortField = builder.sortField == null ? SortField.ACCESSION_NUMBER : builder.sortField;
+        this.sortAscending = builder.sortAscending;
     }
 }
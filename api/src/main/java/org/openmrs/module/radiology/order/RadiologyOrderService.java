@@ -9,7 +9,10 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.openmrs.Order;
 import org.openmrs.Provider;
@@ -35,9 +38,45 @@ public interface RadiologyOrderService extends OpenmrsService {
      */
     public Long getNextAccessionNumberSeedSequenceValue();
     
+    /**
+     * Reserves a block of {@code blockSize} consecutive accession number seeds.
+     * The caller owns all seeds from the returned value (inclusive) to the returned value plus {@code blockSize}
+     * (exclusive).
+     * 
+     * @param blockSize the number of accession number seeds to reserve
+     * @return the first accession number seed of the reserved block
+     * @throws IllegalArgumentException if blockSize is smaller than 1
+     * @throws APIException
+     * @should return the first accession number seed of the reserved block
+     * @should throw illegal argument exception if given block size is smaller than one
+     */
+    public Long getNextAccessionNumberSeedSequenceBlock(int blockSize);
+    
+    /**
+     * Gets the next value of the accession number database sequence.
+     * Unlike {@link #getNextAccessionNumberSeedSequenceValue()} this neither locks nor parses the global property
+     * radiology.nextAccessionNumberSeed.
+     * 
+     * @return the next accession number sequence value
+     * @should return the next accession number sequence value
+     */
+    public Long getNextAccessionNumberDatabaseSequenceValue();
+    
+    /**
+     * Advances the accession number database sequence and the global property radiology.nextAccessionNumberSeed to the
+     * larger of their next values.
+     * Both are advanced whenever the accession number generator is switched from or to the sequence so that neither
+     * hands out accession numbers the other one already handed out.
+     * 
+     * @return the next value of the accession number sequence and the global property
+     */
+    public Long synchronizeAccessionNumberSequences();
+    
     /**
      * Saves a new {@code RadiologyOrder} and its {@code RadiologyStudy} to the
      * database.
+     * Orders for the same patient are placed one after another by locking the patient until the transaction commits,
+     * orders for different patients in parallel.
      *
      * @param radiologyOrder the radiology order to be created
      * @return the created radiology order
@@ -46,14 +85,58 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @throws APIException on saving an existing radiology order
      * @should create new radiology order and study from given radiology order
      * @should create radiology order encounter
+     * @should persist the effective start date of given radiology order
      * @should set the radiology order accession number
      * @should throw illegal argument exception given null
      * @should throw illegal argument exception if given radiology order has no study
      * @should throw api exception on saving an existing radiology order
+     * @should lock the patient before saving the encounter and orders
+     * @should set unique accession numbers when called concurrently
      */
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_ORDERS)
     public RadiologyOrder placeRadiologyOrder(RadiologyOrder radiologyOrder);
     
+    /**
+     * Saves a batch of new {@code RadiologyOrder}s and their {@code RadiologyStudy}s to the database.
+     * <p>
+     * Accession numbers are allocated for the whole batch at once. Orders of the same patient and orderer share one
+     * encounter and are saved in one transaction. If such a group cannot be saved its orders are retried one by one,
+     * so one bad order does not fail the rest of the batch.
+     * </p>
+     *
+     * @param radiologyOrders the radiology orders to be created
+     * @return one result per given radiology order in the same order
+     * @throws IllegalArgumentException if radiologyOrders is null
+     * @should place all given radiology orders and return their results in the given order
+     * @should allocate accession numbers for all radiology orders at once
+     * @should create one radiology order encounter per patient and orderer
+     * @should return failed results for radiology orders which cannot be placed and place the rest
+     * @should place the radiology orders of a failed group one by one
+     * @should place the groups before and after a group which failed in the database in the same session
+     * @should throw illegal argument exception given null
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_ORDERS)
+    public List<RadiologyOrderPlacementResult> placeRadiologyOrders(List<RadiologyOrder> radiologyOrders);
+    
+    /**
+     * Saves new {@code RadiologyOrder}s of the same patient and orderer and their {@code RadiologyStudy}s in one
+     * encounter. Either all or none of the radiology orders are saved.
+     * Radiology orders without accession number get a new one.
+     *
+     * @param radiologyOrders the radiology orders to be created
+     * @return the created radiology orders
+     * @throws IllegalArgumentException if radiologyOrders is null or empty
+     * @throws IllegalArgumentException if radiologyOrders contains null or a radiology order without study
+     * @throws IllegalArgumentException if radiologyOrders have different patients or orderers
+     * @throws APIException if radiologyOrders contains an existing radiology order
+     * @should create radiology orders and studies in one encounter
+     * @should keep accession numbers already set
+     * @should throw illegal argument exception if given radiology orders have different patients
+     * @should throw illegal argument exception given an empty list
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_ORDERS)
+    public List<RadiologyOrder> placeRadiologyOrdersInOneEncounter(List<RadiologyOrder> radiologyOrders);
+    
     /**
      * Discontinues an existing {@code RadiologyOrder}.
      *
@@ -70,6 +153,7 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @throws APIException if radiology order is completed
      * @should create discontinuation order which discontinues given radiology order that is not in progress or completed
      * @should create radiology order encounter
+     * @should persist the effective start date of given radiology order
      * @should throw illegal argument exception if given radiology order is null
      * @should throw illegal argument exception if given radiology order with orderId null
      * @should throw illegal argument exception if given orderer is null
@@ -102,6 +186,7 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @throws IllegalArgumentException if given null
      * @should return radiology order matching given uuid
      * @should return null if no match was found
+     * @should return radiology order matching given uuid with one query
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
@@ -109,7 +194,9 @@ public interface RadiologyOrderService extends OpenmrsService {
     
     /**
      * Get all {@code RadiologyOrder's} matching a variety of (nullable) criteria.
-     * Each extra value for a parameter that is provided acts as an "and" and will reduce the number of results returned
+     * Each extra value for a parameter that is provided acts as an "and" and will reduce the number of results returned.
+     * Radiology orders are sorted by accession number, a page of them is selected through the after accession number,
+     * start index and limit of given criteria.
      *
      * @param radiologyOrderSearchCriteria the object containing search parameters
      * @return the radiology orders matching given criteria
@@ -126,10 +213,91 @@ public interface RadiologyOrderService extends OpenmrsService {
      * @should return empty list if from date after to date
      * @should return empty search result if no effective order start is in date range
      * @should return all radiology orders for given accession number if accession number is specified
+     * @should return radiology orders with accession number starting with given accession number prefix
+     * @should treat percent and underscore in given accession number prefix as literal characters
      * @should return all radiology orders for given orderer
      * @should return all radiology orders for given urgency and orderer
+     * @should return radiology orders with accession number after given after accession number
+     * @should return at most limit radiology orders starting at given start index
+     * @should not query each radiology order separately
+     * @should return radiology orders sorted by given sort field and direction
+     * @should return all radiology orders whose study has one of given performed statuses
+     * @should return all radiology orders with or without a completed radiology report if has completed report is set
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
     public List<RadiologyOrder> getRadiologyOrders(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria);
+    
+    /**
+     * Get the {@code RadiologyOrderSummary's} of the radiology orders matching given criteria in the same order and page
+     * as {@link #getRadiologyOrders(RadiologyOrderSearchCriteria)}.
+     * The summaries are projected from the database instead of loading the radiology orders, a page of summaries takes
+     * a constant number of queries regardless of its size.
+     *
+     * @param radiologyOrderSearchCriteria the object containing search parameters
+     * @return the summaries of the radiology orders matching given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the summaries of all radiology orders matching given criteria
+     * @should return the summary of a radiology order without study and report
+     * @should return an empty list if no radiology order matches given criteria
+     * @should not query each radiology order summary separately
+     * @should return the summaries of radiology orders matching performed status and completed report filters
+     * @should return one summary per radiology order for a patient with several preferred names
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public List<RadiologyOrderSummary>
+            getRadiologyOrderSummaries(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria);
+    
+    /**
+     * Pass the {@code RadiologyOrderSummary's} of the radiology orders matching given criteria to given consumer in the
+     * same order as {@link #getRadiologyOrderSummaries(RadiologyOrderSearchCriteria)}.
+     * The radiology orders are scrolled through in chunks instead of being loaded at once, so exports of large date
+     * ranges take constant memory. The Hibernate session is cleared after each chunk, callers must not rely on
+     * entities loaded before in the same session. On MySQL memory only stays constant if the connection URL sets
+     * {@code useCursorFetch=true}, a warning is logged otherwise.
+     *
+     * @param radiologyOrderSearchCriteria the object containing search parameters
+     * @param consumer the consumer to pass the summaries to
+     * @throws IllegalArgumentException if given null
+     * @should pass the summaries of all radiology orders matching given criteria to given consumer
+     * @should not pass any summary if no radiology order matches given criteria
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given consumer is null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public void streamRadiologyOrderSummaries(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria,
+            Consumer<RadiologyOrderSummary> consumer);
+    
+    /**
+     * Count the {@code RadiologyOrder's} matching a variety of (nullable) criteria without loading them.
+     * The after accession number, start index and limit of given criteria are ignored.
+     *
+     * @param radiologyOrderSearchCriteria the object containing search parameters
+     * @return the number of radiology orders matching given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the number of radiology orders matching given criteria ignoring start index and limit
+     * @should count radiology orders with one query
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public Long countRadiologyOrders(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria);
+    
+    /**
+     * Get the non voided {@code RadiologyOrder's} matching given accession numbers at once.
+     * The accession numbers are looked up with as few queries as the database allows parameters in a query, instead of
+     * one query per accession number.
+     *
+     * @param accessionNumbers the accession numbers of the wanted radiology orders
+     * @return the radiology orders keyed by accession number in the order of given accession numbers, accession numbers
+     *         without a radiology order are not contained
+     * @throws IllegalArgumentException if given null
+     * @should return the radiology orders matching given accession numbers keyed by accession number
+     * @should not contain accession numbers without radiology order
+     * @should return an empty map given no accession numbers
+     * @should fetch the radiology orders of more accession numbers than allowed in one query
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_ORDERS)
+    public Map<String, RadiologyOrder> getRadiologyOrdersByAccessionNumbers(Collection<String> accessionNumbers);
 }
@@ -9,10 +9,20 @@
  */
 package org.openmrs.module.radiology.order;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.openmrs.Encounter;
+import org.openmrs.EncounterRole;
+import org.openmrs.EncounterType;
 import org.openmrs.Order;
 import org.openmrs.Patient;
 import org.openmrs.Provider;
@@ -23,7 +33,10 @@ import org.openmrs.api.OrderService;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.study.RadiologyStudy;
 import org.openmrs.module.radiology.study.RadiologyStudyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +44,8 @@ import org.springframework.transaction.annotation.Transactional;
 class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyOrderService, AccessionNumberGenerator {
     
     
+    private static final Logger log = LoggerFactory.getLogger(RadiologyOrderServiceImpl.class);
+    
     private RadiologyOrderDAO radiologyOrderDAO;
     
     private RadiologyStudyService radiologyStudyService;
@@ -41,6 +56,8 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
     
     private RadiologyProperties radiologyProperties;
     
+    private Map<String, AccessionNumberGenerator> accessionNumberGenerators;
+    
     public void setRadiologyOrderDAO(RadiologyOrderDAO radiologyOrderDAO) {
         this.radiologyOrderDAO = radiologyOrderDAO;
     }
@@ -61,12 +78,149 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         this.radiologyProperties = radiologyProperties;
     }
     
+    public void setAccessionNumberGenerators(Map<String, AccessionNumberGenerator> accessionNumberGenerators) {
+        this.accessionNumberGenerators = accessionNumberGenerators;
+    }
+    
     /**
      * @see RadiologyOrderService#placeRadiologyOrder(RadiologyOrder)
      */
     @Override
     @Transactional
-    public synchronized RadiologyOrder placeRadiologyOrder(RadiologyOrder radiologyOrder) {
+    public RadiologyOrder placeRadiologyOrder(RadiologyOrder radiologyOrder) {
+        
+        checkNewRadiologyOrder(radiologyOrder);
+        
+        radiologyOrder.setAccessionNumber(getNewAccessionNumber());
+        
+        return saveRadiologyOrdersInOneEncounter(Collections.singletonList(radiologyOrder))
+                .get(0);
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<RadiologyOrderPlacementResult> placeRadiologyOrders(List<RadiologyOrder> radiologyOrders) {
+        
+        if (radiologyOrders == null) {
+            throw new IllegalArgumentException("radiologyOrders cannot be null");
+        }
+        
+        final RadiologyOrderPlacementResult[] results = new RadiologyOrderPlacementResult[radiologyOrders.size()];
+        final List<Integer> placeable = new ArrayList<Integer>(radiologyOrders.size());
+        for (int i = 0; i < radiologyOrders.size(); i++) {
+            try {
+                checkNewRadiologyOrder(radiologyOrders.get(i));
+                placeable.add(i);
+            }
+            catch (RuntimeException e) {
+                results[i] = RadiologyOrderPlacementResult.failed(i, radiologyOrders.get(i), getErrorMessage(e));
+            }
+        }
+        
+        final List<String> accessionNumbers = getNewAccessionNumbers(placeable.size());
+        final Map<String, List<Integer>> groups = new LinkedHashMap<String, List<Integer>>();
+        for (int i = 0; i < placeable.size(); i++) {
+            final RadiologyOrder radiologyOrder = radiologyOrders.get(placeable.get(i));
+            radiologyOrder.setAccessionNumber(accessionNumbers.get(i));
+            final String groupKey = getEncounterGroupKey(radiologyOrder);
+            List<Integer> group = groups.get(groupKey);
+            if (group == null) {
+                group = new ArrayList<Integer>();
+                groups.put(groupKey, group);
+            }
+            group.add(placeable.get(i));
+        }
+        
+        // every group is placed in its own transaction via the service proxy so a failing group does not roll back
+        // the groups placed before
+        final RadiologyOrderService radiologyOrderService = getRadiologyOrderService();
+        for (List<Integer> group : groups.values()) {
+            final List<RadiologyOrder> groupOrders = new ArrayList<RadiologyOrder>(group.size());
+            for (Integer index : group) {
+                groupOrders.add(radiologyOrders.get(index));
+            }
+            try {
+                final List<RadiologyOrder> placed = radiologyOrderService.placeRadiologyOrdersInOneEncounter(groupOrders);
+                for (int i = 0; i < group.size(); i++) {
+                    results[group.get(i)] = RadiologyOrderPlacementResult.placed(group.get(i), placed.get(i));
+                }
+            }
+            catch (RuntimeException e) {
+                if (group.size() == 1) {
+                    resetUnsavedRadiologyOrder(groupOrders.get(0));
+                    results[group.get(0)] =
+                            RadiologyOrderPlacementResult.failed(group.get(0), groupOrders.get(0), getErrorMessage(e));
+                    continue;
+                }
+                log.debug("Failed to place radiology orders in one encounter, placing them one by one", e);
+                for (Integer index : group) {
+                    final RadiologyOrder radiologyOrder = radiologyOrders.get(index);
+                    resetUnsavedRadiologyOrder(radiologyOrder);
+                    try {
+                        final List<RadiologyOrder> single = Collections.singletonList(radiologyOrder);
+                        final RadiologyOrder placed = radiologyOrderService.placeRadiologyOrdersInOneEncounter(single)
+                                .get(0);
+                        results[index] = RadiologyOrderPlacementResult.placed(index, placed);
+                    }
+                    catch (RuntimeException orderException) {
+                        resetUnsavedRadiologyOrder(radiologyOrder);
+                        results[index] = RadiologyOrderPlacementResult.failed(index, radiologyOrder,
+                            getErrorMessage(orderException));
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrdersInOneEncounter(List)
+     */
+    @Override
+    @Transactional
+    public List<RadiologyOrder> placeRadiologyOrdersInOneEncounter(List<RadiologyOrder> radiologyOrders) {
+        
+        if (radiologyOrders == null || radiologyOrders.isEmpty()) {
+            throw new IllegalArgumentException("radiologyOrders cannot be null or empty");
+        }
+        
+        final List<RadiologyOrder> withoutAccessionNumber = new ArrayList<RadiologyOrder>();
+        String encounterGroupKey = null;
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            checkNewRadiologyOrder(radiologyOrder);
+            // a group placed before in the same session may have rolled back and detached what the order references
+            radiologyOrderDAO.attachReferences(radiologyOrder);
+            if (encounterGroupKey == null) {
+                encounterGroupKey = getEncounterGroupKey(radiologyOrder);
+            } else if (!encounterGroupKey.equals(getEncounterGroupKey(radiologyOrder))) {
+                throw new IllegalArgumentException("radiologyOrders need to have the same patient and orderer");
+            }
+            if (radiologyOrder.getAccessionNumber() == null) {
+                withoutAccessionNumber.add(radiologyOrder);
+            }
+        }
+        
+        final List<String> accessionNumbers = getNewAccessionNumbers(withoutAccessionNumber.size());
+        for (int i = 0; i < withoutAccessionNumber.size(); i++) {
+            withoutAccessionNumber.get(i)
+                    .setAccessionNumber(accessionNumbers.get(i));
+        }
+        
+        return saveRadiologyOrdersInOneEncounter(radiologyOrders);
+    }
+    
+    /**
+     * Checks that given {@code radiologyOrder} can be placed.
+     *
+     * @param radiologyOrder the radiology order to be placed
+     * @throws IllegalArgumentException if radiologyOrder is null
+     * @throws IllegalArgumentException if radiologyOrder.study is null
+     * @throws APIException if radiologyOrder is an existing radiology order
+     */
+    private void checkNewRadiologyOrder(RadiologyOrder radiologyOrder) {
         
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
@@ -79,37 +233,121 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         if (radiologyOrder.getStudy() == null) {
             throw new IllegalArgumentException("radiologyOrder.study cannot be null");
         }
+    }
+    
+    /**
+     * Saves given radiology orders with accession numbers, which all have the same patient and orderer, in one
+     * encounter.
+     *
+     * @param radiologyOrders the radiology orders to be saved
+     * @return the saved radiology orders
+     */
+    private List<RadiologyOrder> saveRadiologyOrdersInOneEncounter(List<RadiologyOrder> radiologyOrders) {
         
-        radiologyOrder.setAccessionNumber(getNewAccessionNumber());
-        
-        final Encounter encounter =
-                saveRadiologyOrderEncounter(radiologyOrder.getPatient(), radiologyOrder.getOrderer(), new Date());
-        encounter.addOrder(radiologyOrder);
+        final RadiologyOrder first = radiologyOrders.get(0);
+        // saving the encounter locks the patient until the transaction commits
+        final Encounter encounter = saveRadiologyOrderEncounter(first.getPatient(), first.getOrderer(), new Date());
         
         final OrderContext orderContext = new OrderContext();
         orderContext.setCareSetting(radiologyProperties.getRadiologyCareSetting());
         orderContext.setOrderType(radiologyProperties.getRadiologyTestOrderType());
         
-        final RadiologyOrder result = (RadiologyOrder) orderService.saveOrder(radiologyOrder, orderContext);
-        this.radiologyStudyService.saveRadiologyStudy(result.getStudy());
+        final List<RadiologyOrder> result = new ArrayList<RadiologyOrder>(radiologyOrders.size());
+        final List<RadiologyStudy> radiologyStudies = new ArrayList<RadiologyStudy>(radiologyOrders.size());
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            encounter.addOrder(radiologyOrder);
+            final RadiologyOrder saved = (RadiologyOrder) orderService.saveOrder(radiologyOrder, orderContext);
+            result.add(saved);
+            radiologyStudies.add(saved.getStudy());
+        }
+        if (radiologyStudies.size() == 1) {
+            this.radiologyStudyService.saveRadiologyStudy(radiologyStudies.get(0));
+        } else {
+            this.radiologyStudyService.saveRadiologyStudies(radiologyStudies);
+        }
         return result;
     }
     
+    /**
+     * Clears what saving given {@code radiologyOrder} in a rolled back transaction left behind so that it can be
+     * placed again.
+     *
+     * @param radiologyOrder the radiology order which was not saved
+     */
+    private void resetUnsavedRadiologyOrder(RadiologyOrder radiologyOrder) {
+        
+        radiologyOrder.setOrderId(null);
+        radiologyOrder.setEncounter(null);
+        radiologyOrder.getStudy()
+                .setStudyId(null);
+    }
+    
+    private static String getErrorMessage(RuntimeException e) {
+        return e.getMessage() == null ? e.getClass()
+                .getName() : e.getMessage();
+    }
+    
+    /**
+     * Gets the key of the encounter given {@code radiologyOrder} is placed in, orders of the same patient and orderer
+     * share an encounter.
+     */
+    private static String getEncounterGroupKey(RadiologyOrder radiologyOrder) {
+        
+        final Patient patient = radiologyOrder.getPatient();
+        final Provider orderer = radiologyOrder.getOrderer();
+        return (patient == null ? null : patient.getUuid()) + ":" + (orderer == null ? null : orderer.getUuid());
+    }
+    
+    /**
+     * Gets the {@code RadiologyOrderService} proxy so that its methods run in their own transaction.
+     *
+     * @return the radiology order service
+     */
+    RadiologyOrderService getRadiologyOrderService() {
+        
+        return Context.getService(RadiologyOrderService.class);
+    }
+    
     /**
      * Save radiology order encounter for given parameters.
-     * 
+     * <p>
+     * An existing radiology order encounter of the same patient and provider is returned instead if it is at most
+     * {@link RadiologyProperties#getOrderEncounterReuseMinutes()} older than given encounter date.
+     * </p>
+     *
      * @param patient the encounter patient
      * @param provider the encounter provider
      * @param encounterDateTime the encounter date
      * @return radiology order encounter for given parameters
      * @should create radiology order encounter
+     * @should return the radiology order encounter of the same patient and provider within the reuse window
+     * @should create radiology order encounter if the existing one is older than the reuse window
+     * @should lock the patient before looking up the radiology order encounter to reuse
      */
     private Encounter saveRadiologyOrderEncounter(Patient patient, Provider provider, Date encounterDateTime) {
+        
+        // accession number generators are thread safe on their own, the lock keeps the lookup of the encounter to reuse
+        // and the checks OrderService runs against the active orders of a patient from interleaving. It is a database
+        // row lock since it needs to be held until the transaction commits, so the next transaction for the patient
+        // sees the encounter and orders saved by this one
+        radiologyOrderDAO.lockPatient(patient);
+        final EncounterRole encounterRole = radiologyProperties.getRadiologyOrderingProviderEncounterRole();
+        final EncounterType encounterType = radiologyProperties.getRadiologyOrderEncounterType();
+        final int reuseMinutes = radiologyProperties.getOrderEncounterReuseMinutes();
+        if (reuseMinutes > 0) {
+            final Date from = new Date(encounterDateTime.getTime() - TimeUnit.MINUTES.toMillis(reuseMinutes));
+            final Encounter existing = radiologyOrderDAO.getRadiologyOrderEncounter(patient, provider, encounterRole,
+                encounterType, from, encounterDateTime);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        
         final Encounter radiologyOrderEncounter = new Encounter();
         radiologyOrderEncounter.setPatient(patient);
-        radiologyOrderEncounter.setProvider(radiologyProperties.getRadiologyOrderingProviderEncounterRole(), provider);
+        radiologyOrderEncounter.setProvider(encounterRole, provider);
         radiologyOrderEncounter.setEncounterDatetime(encounterDateTime);
-        radiologyOrderEncounter.setEncounterType(radiologyProperties.getRadiologyOrderEncounterType());
+        radiologyOrderEncounter.setEncounterType(encounterType);
         return encounterService.saveEncounter(radiologyOrderEncounter);
     }
     
@@ -178,11 +416,43 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
      */
     @Override
     public String getNewAccessionNumber() {
+        
+        if (accessionNumberGenerators != null) {
+            return getAccessionNumberGenerator().getNewAccessionNumber();
+        }
         return Context.getService(RadiologyOrderService.class)
                 .getNextAccessionNumberSeedSequenceValue()
                 .toString();
     }
     
+    /**
+     * Gets the {@code AccessionNumberGenerator} configured by global property.
+     *
+     * @return the configured accession number generator
+     * @throws IllegalStateException if no accession number generator is named as configured by global property
+     */
+    private AccessionNumberGenerator getAccessionNumberGenerator() {
+        
+        final String generatorName = radiologyProperties.getAccessionNumberGenerator();
+        final AccessionNumberGenerator accessionNumberGenerator = accessionNumberGenerators.get(generatorName);
+        if (accessionNumberGenerator == null) {
+            throw new IllegalStateException("No accession number generator named " + generatorName);
+        }
+        return accessionNumberGenerator;
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Override
+    public List<String> getNewAccessionNumbers(int count) {
+        
+        if (accessionNumberGenerators != null) {
+            return getAccessionNumberGenerator().getNewAccessionNumbers(count);
+        }
+        return AccessionNumberGenerator.super.getNewAccessionNumbers(count);
+    }
+    
     /**
      * @see RadiologyOrderService#getNextAccessionNumberSeedSequenceValue()
      */
@@ -193,6 +463,39 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         return radiologyOrderDAO.getNextAccessionNumberSeedSequenceValue();
     }
     
+    /**
+     * @see RadiologyOrderService#getNextAccessionNumberSeedSequenceBlock(int)
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public synchronized Long getNextAccessionNumberSeedSequenceBlock(int blockSize) {
+        
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be greater than 0");
+        }
+        return radiologyOrderDAO.getNextAccessionNumberSeedSequenceBlock(blockSize);
+    }
+    
+    /**
+     * @see RadiologyOrderService#getNextAccessionNumberDatabaseSequenceValue()
+     */
+    @Override
+    @Transactional
+    public Long getNextAccessionNumberDatabaseSequenceValue() {
+        
+        return radiologyOrderDAO.getNextAccessionNumberDatabaseSequenceValue();
+    }
+    
+    /**
+     * @see RadiologyOrderService#synchronizeAccessionNumberSequences()
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public synchronized Long synchronizeAccessionNumberSequences() {
+        
+        return radiologyOrderDAO.synchronizeAccessionNumberSequences();
+    }
+    
     /**
      * @see RadiologyOrderService#getRadiologyOrders(RadiologyOrderSearchCriteria)
      */
@@ -204,4 +507,57 @@ class RadiologyOrderServiceImpl extends BaseOpenmrsService implements RadiologyO
         }
         return radiologyOrderDAO.getRadiologyOrders(radiologyOrderSearchCriteria);
     }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrderSummaries(RadiologyOrderSearchCriteria)
+     */
+    @Override
+    public List<RadiologyOrderSummary>
+            getRadiologyOrderSummaries(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria) {
+        
+        if (radiologyOrderSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyOrderSearchCriteria cannot be null");
+        }
+        return radiologyOrderDAO.getRadiologyOrderSummaries(radiologyOrderSearchCriteria);
+    }
+    
+    /**
+     * @see RadiologyOrderService#streamRadiologyOrderSummaries(RadiologyOrderSearchCriteria, Consumer)
+     */
+    @Override
+    public void streamRadiologyOrderSummaries(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria,
+            Consumer<RadiologyOrderSummary> consumer) {
+        
+        if (radiologyOrderSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyOrderSearchCriteria cannot be null");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("consumer cannot be null");
+        }
+        radiologyOrderDAO.streamRadiologyOrderSummaries(radiologyOrderSearchCriteria, consumer);
+    }
+    
+    /**
+     * @see RadiologyOrderService#countRadiologyOrders(RadiologyOrderSearchCriteria)
+     */
+    @Override
+    public Long countRadiologyOrders(RadiologyOrderSearchCriteria radiologyOrderSearchCriteria) {
+        
+        if (radiologyOrderSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyOrderSearchCriteria cannot be null");
+        }
+        return radiologyOrderDAO.countRadiologyOrders(radiologyOrderSearchCriteria);
+    }
+    
+    /**
+     * @see RadiologyOrderService#getRadiologyOrdersByAccessionNumbers(Collection)
+     */
+    @Override
+    public Map<String, RadiologyOrder> getRadiologyOrdersByAccessionNumbers(Collection<String> accessionNumbers) {
+        
+        if (accessionNumbers == null) {
+            throw new IllegalArgumentException("accessionNumbers cannot be null");
+        }
+        return radiologyOrderDAO.getRadiologyOrdersByAccessionNumbers(accessionNumbers);
+    }
 }
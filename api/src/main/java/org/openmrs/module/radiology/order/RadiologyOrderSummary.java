@@ -0,0 +1,134 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import java.util.Date;
+
+import org.openmrs.Order.Urgency;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+
+/**
+ * Read only summary of a {@code RadiologyOrder} holding what a worklist shows of it.
+ * <p>
+ * Summaries are loaded with projections instead of entities so listing them does not load the radiology order, its
+ * study, patient, concept and orderer.
+ * </p>
+ *
+ * @see RadiologyOrderService#getRadiologyOrderSummaries(RadiologyOrderSearchCriteria)
+ */
+public class RadiologyOrderSummary {
+    
+    
+    private final String uuid;
+    
+    private final String accessionNumber;
+    
+    private final String patientUuid;
+    
+    private final String patientName;
+    
+    private final String patientIdentifier;
+    
+    private final String procedureName;
+    
+    private final Urgency urgency;
+    
+    private final Date effectiveStartDate;
+    
+    private final PerformedProcedureStepStatus performedStatus;
+    
+    private final RadiologyReportStatus reportStatus;
+    
+    public RadiologyOrderSummary(String uuid, String accessionNumber, String patientUuid, String patientName,
+            String patientIdentifier, String procedureName, Urgency urgency, Date effectiveStartDate,
+            PerformedProcedureStepStatus performedStatus, RadiologyReportStatus reportStatus) {
+        this.uuid = uuid;
+        this.accessionNumber = accessionNumber;
+        this.patientUuid = patientUuid;
+        this.patientName = patientName;
+        this.patientIdentifier = patientIdentifier;
+        this.procedureName = procedureName;
+        this.urgency = urgency;
+        this.effectiveStartDate = effectiveStartDate;
+        this.performedStatus = performedStatus;
+        this.reportStatus = reportStatus;
+    }
+    
+    /**
+     * @return the uuid of the radiology order
+     */
+    public String getUuid() {
+        return uuid;
+    }
+    
+    /**
+     * @return the accession number of the radiology order
+     */
+    public String getAccessionNumber() {
+        return accessionNumber;
+    }
+    
+    /**
+     * @return the uuid of the patient
+     */
+    public String getPatientUuid() {
+        return patientUuid;
+    }
+    
+    /**
+     * @return the full preferred name of the patient
+     */
+    public String getPatientName() {
+        return patientName;
+    }
+    
+    /**
+     * @return the preferred identifier of the patient
+     */
+    public String getPatientIdentifier() {
+        return patientIdentifier;
+    }
+    
+    /**
+     * @return the name of the imaging procedure concept in the locale of the user
+     */
+    public String getProcedureName() {
+        return procedureName;
+    }
+    
+    /**
+     * @return the urgency of the radiology order
+     */
+    public Urgency getUrgency() {
+        return urgency;
+    }
+    
+    /**
+     * @return the effective start date of the radiology order
+     */
+    public Date getEffectiveStartDate() {
+        return effectiveStartDate;
+    }
+    
+    /**
+     * @return the performed status of the study or null if the radiology order has no study
+     */
+    public PerformedProcedureStepStatus getPerformedStatus() {
+        return performedStatus;
+    }
+    
+    /**
+     * @return the status of the active radiology report or null if the radiology order has no report
+     */
+    public RadiologyReportStatus getReportStatus() {
+        return reportStatus;
+    }
+}
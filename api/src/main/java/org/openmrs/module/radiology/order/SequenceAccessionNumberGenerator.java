@@ -0,0 +1,156 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Generates accession numbers from the database sequence {@code radiology_accession_number_seq}.
+ * <p>
+ * On databases without sequence support (MySQL) the sequence is emulated by the auto-increment table
+ * {@code radiology_accession_number_sequence}. Both are seeded from the global property
+ * radiology.nextAccessionNumberSeed when the module is installed or upgraded.
+ * </p>
+ * <p>
+ * Sequence values are handed out by the database without locking any row, so concurrent orders (also across
+ * OpenMRS instances sharing a database) do not wait on each other.
+ * </p>
+ * <p>
+ * Since the {@link BlockAccessionNumberGenerator} keeps advancing radiology.nextAccessionNumberSeed, the sequence and
+ * the global property are synchronized via {@link RadiologyOrderService#synchronizeAccessionNumberSequences()} before
+ * this generator hands out its first accession number and whenever the global property
+ * radiology.accessionNumberGenerator is changed via the {@code AdministrationService}. Accession numbers handed out
+ * by the generator switched from while the change is committed are not accounted for, so the generator should be
+ * switched while no orders are placed.
+ * </p>
+ *
+ * @see RadiologyOrderService#getNextAccessionNumberDatabaseSequenceValue()
+ */
+public class SequenceAccessionNumberGenerator implements AccessionNumberGenerator, GlobalPropertyListener {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(SequenceAccessionNumberGenerator.class);
+    
+    private AdministrationService administrationService;
+    
+    private volatile boolean synchronizedWithGlobalProperty;
+    
+    public void setAdministrationService(AdministrationService administrationService) {
+        this.administrationService = administrationService;
+    }
+    
+    /**
+     * Registers this as listener so the sequence is synchronized when the accession number generator is switched.
+     */
+    public void registerGlobalPropertyListener() {
+        administrationService.addGlobalPropertyListener(this);
+    }
+    
+    /**
+     * Unregisters this as listener so it is not kept alive when the module is stopped.
+     */
+    public void unregisterGlobalPropertyListener() {
+        administrationService.removeGlobalPropertyListener(this);
+    }
+    
+    /**
+     * @see AccessionNumberGenerator#getNewAccessionNumber()
+     * @should return the next value of the accession number sequence
+     * @should synchronize the accession number sequences before handing out the first accession number
+     */
+    @Override
+    public String getNewAccessionNumber() {
+        
+        if (!synchronizedWithGlobalProperty) {
+            synchronizeAccessionNumberSequences();
+        }
+        return getRadiologyOrderService().getNextAccessionNumberDatabaseSequenceValue()
+                .toString();
+    }
+    
+    private synchronized void synchronizeAccessionNumberSequences() {
+        
+        if (!synchronizedWithGlobalProperty) {
+            final Long nextValue = getRadiologyOrderService().synchronizeAccessionNumberSequences();
+            log.debug("Synchronized accession number sequence and global property to next value {}", nextValue);
+            synchronizedWithGlobalProperty = true;
+        }
+    }
+    
+    /**
+     * @see GlobalPropertyListener#supportsPropertyName(String)
+     * @should return true for the accession number generator global property only
+     */
+    @Override
+    public boolean supportsPropertyName(String propertyName) {
+        return RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR.equals(propertyName);
+    }
+    
+    /**
+     * Synchronizes the accession number sequences once the change of the accession number generator is committed.
+     * 
+     * @see GlobalPropertyListener#globalPropertyChanged(GlobalProperty)
+     * @should synchronize the accession number sequences after the transaction committed
+     */
+    @Override
+    public void globalPropertyChanged(GlobalProperty newValue) {
+        
+        synchronizedWithGlobalProperty = false;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                
+                
+                @Override
+                public void afterCommit() {
+                    synchronizeAccessionNumberSequencesAfterSwitch();
+                }
+            });
+        } else {
+            synchronizeAccessionNumberSequencesAfterSwitch();
+        }
+    }
+    
+    /**
+     * @see GlobalPropertyListener#globalPropertyDeleted(String)
+     */
+    @Override
+    public void globalPropertyDeleted(String propertyName) {
+        globalPropertyChanged(new GlobalProperty(propertyName));
+    }
+    
+    private void synchronizeAccessionNumberSequencesAfterSwitch() {
+        
+        try {
+            synchronizeAccessionNumberSequences();
+        }
+        catch (RuntimeException e) {
+            // the sequence is synchronized before it hands out its next accession number instead
+            log.error("Failed to synchronize accession number sequence and global property", e);
+        }
+    }
+    
+    /**
+     * Gets the {@code RadiologyOrderService} reading the accession number sequence.
+     *
+     * @return the radiology order service
+     */
+    RadiologyOrderService getRadiologyOrderService() {
+        
+        return Context.getService(RadiologyOrderService.class);
+    }
+}
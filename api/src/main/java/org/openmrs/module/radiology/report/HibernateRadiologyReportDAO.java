@@ -9,13 +9,21 @@
  */
 package org.openmrs.module.radiology.report;
 
+import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.hibernate.Criteria;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.sql.JoinType;
 import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.util.StreamingFetchSize;
 
 /**
  * Hibernate specific RadiologyReport related functions. This class should not be used directly. All
@@ -27,6 +35,12 @@ import org.openmrs.module.radiology.order.RadiologyOrder;
 class HibernateRadiologyReportDAO implements RadiologyReportDAO {
     
     
+    /**
+     * Number of radiology reports handed out by
+     * {@link #streamRadiologyReportSummaries(RadiologyReportSearchCriteria, Consumer)} before the session is cleared.
+     */
+    static final int STREAM_CHUNK_SIZE = 500;
+    
     private SessionFactory sessionFactory;
     
     /**
@@ -106,8 +120,8 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
                 .createCriteria(RadiologyReport.class)
                 .add(Restrictions.eq("radiologyOrder", radiologyOrder))
                 .add(Restrictions.eq("voided", false))
-                .list()
-                .get(0);
+                .setMaxResults(1)
+                .uniqueResult();
     }
     
     /**
@@ -117,6 +131,103 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
     @Override
     public List<RadiologyReport> getRadiologyReports(RadiologyReportSearchCriteria searchCriteria) {
         
+        final Criteria crit = createRadiologyReportCriteria(searchCriteria);
+        
+        if (searchCriteria.getStartIndex() != null && searchCriteria.getStartIndex() > 0) {
+            crit.setFirstResult(searchCriteria.getStartIndex());
+        }
+        if (searchCriteria.getLimit() != null && searchCriteria.getLimit() > 0) {
+            crit.setMaxResults(searchCriteria.getLimit());
+        }
+        
+        addRadiologyReportOrder(crit, searchCriteria);
+        return crit.list();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#countRadiologyReports(RadiologyReportSearchCriteria)
+     */
+    @Override
+    public Long countRadiologyReports(RadiologyReportSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createRadiologyReportCriteria(searchCriteria);
+        crit.setProjection(Projections.rowCount());
+        return ((Number) crit.uniqueResult()).longValue();
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#streamRadiologyReportSummaries(RadiologyReportSearchCriteria,
+     *      Consumer)
+     */
+    @Override
+    public void streamRadiologyReportSummaries(RadiologyReportSearchCriteria searchCriteria,
+            Consumer<RadiologyReportSummary> consumer) {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        final Criteria crit = createRadiologyReportCriteria(searchCriteria);
+        crit.createAlias("radiologyOrder", "summaryOrder")
+                .createAlias("principalResultsInterpreter", "summaryInterpreter", JoinType.LEFT_OUTER_JOIN);
+        crit.setProjection(Projections.projectionList()
+                .add(Projections.property("uuid"))
+                .add(Projections.property("summaryOrder.uuid"))
+                .add(Projections.property("summaryOrder.accessionNumber"))
+                .add(Projections.property("status"))
+                .add(Projections.property("date"))
+                .add(Projections.property("summaryInterpreter.uuid"))
+                .add(Projections.property("dateCreated"))
+                .add(Projections.property("voided")));
+        addRadiologyReportOrder(crit, searchCriteria);
+        
+        // every column is projected so nothing else is queried while scrolling, which allows MySQL to stream the rows
+        final ScrollableResults results = crit.setFetchSize(StreamingFetchSize.get(session, STREAM_CHUNK_SIZE))
+                .scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            int count = 0;
+            while (results.next()) {
+                consumer.accept(new RadiologyReportSummary((String) results.get(0), (String) results.get(1),
+                        (String) results.get(2), (RadiologyReportStatus) results.get(3), (Date) results.get(4),
+                        (String) results.get(5), (Date) results.get(6), (Boolean) results.get(7)));
+                if (++count % STREAM_CHUNK_SIZE == 0) {
+                    session.clear();
+                }
+            }
+        }
+        finally {
+            results.close();
+        }
+    }
+    
+    /**
+     * Sorts given criteria for radiology reports by the sort field of given search criteria.
+     * 
+     * @param crit the criteria for radiology reports
+     * @param searchCriteria the search criteria
+     */
+    private void addRadiologyReportOrder(Criteria crit, RadiologyReportSearchCriteria searchCriteria) {
+        
+        final String sortProperty;
+        switch (searchCriteria.getSortField()) {
+            case DATE_CREATED:
+                sortProperty = "dateCreated";
+                break;
+            case STATUS:
+                sortProperty = "status";
+                break;
+            default:
+                sortProperty = "date";
+        }
+        crit.addOrder(searchCriteria.getSortAscending() ? Order.asc(sortProperty) : Order.desc(sortProperty));
+        crit.addOrder(Order.asc("reportId"));
+    }
+    
+    /**
+     * Creates a criteria for {@code RadiologyReport's} restricted by the filters of given search criteria.
+     * 
+     * @param searchCriteria the search criteria
+     * @return criteria for radiology reports matching given search criteria
+     */
+    private Criteria createRadiologyReportCriteria(RadiologyReportSearchCriteria searchCriteria) {
+        
         final Criteria crit = sessionFactory.getCurrentSession()
                 .createCriteria(RadiologyReport.class);
         
@@ -135,8 +246,6 @@ class HibernateRadiologyReportDAO implements RadiologyReportDAO {
         if (searchCriteria.getStatus() != null) {
             crit.add(Restrictions.eq("status", searchCriteria.getStatus()));
         }
-        
-        crit.addOrder(Order.asc("date"));
-        return crit.list();
+        return crit;
     }
 }
@@ -10,6 +10,7 @@
 package org.openmrs.module.radiology.report;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.openmrs.module.radiology.order.RadiologyOrder;
 
@@ -56,4 +57,16 @@ interface RadiologyReportDAO {
      * @see org.openmrs.module.radiology.report.RadiologyReportService#getRadiologyReports(RadiologyReportSearchCriteria)
      */
     List<RadiologyReport> getRadiologyReports(RadiologyReportSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#countRadiologyReports(RadiologyReportSearchCriteria)
+     */
+    Long countRadiologyReports(RadiologyReportSearchCriteria searchCriteria);
+    
+    /**
+     * @see org.openmrs.module.radiology.report.RadiologyReportService#streamRadiologyReportSummaries(RadiologyReportSearchCriteria,
+     *      Consumer)
+     */
+    void streamRadiologyReportSummaries(RadiologyReportSearchCriteria searchCriteria,
+            Consumer<RadiologyReportSummary> consumer);
 }
@@ -19,8 +19,11 @@ import org.openmrs.Provider;
  * <p>Typical usage involves:
  * <ol>
  * <li>Set the various search criteria parameters through the respective methods of the static builder class
- * ({@link Builder#fromDate(Date)}, {@link Builder#toDate(Date)}, {@link Builder#withPrincipalResultsInterpreter(Provider)}, 
+ * ({@link Builder#fromDate(Date)}, {@link Builder#toDate(Date)}, {@link Builder#withPrincipalResultsInterpreter(Provider)},
  * {@link Builder#includeVoided()} and {@link Builder#withStatus(RadiologyReportStatus)}).</li>
+ * <li>Optionally restrict the result to one page through {@link Builder#withStartIndex(Integer)} and
+ * {@link Builder#withLimit(Integer)}.</li>
+ * <li>Optionally sort the result through {@link Builder#sortBy(SortField, boolean)}.</li>
  * <li>Build the {@link RadiolologyReportSearchCriteria} instance with the {@link Builder#build()} method.</li>
  * <li>Get the search parameters through the getter methods (such as {@link #getFromDate()} or {@link #getStatus()}).</li>
  * </ol>
@@ -38,6 +41,14 @@ public class RadiologyReportSearchCriteria {
     
     private final RadiologyReportStatus status;
     
+    private final Integer startIndex;
+    
+    private final Integer limit;
+    
+    private final SortField sortField;
+    
+    private final Boolean sortAscending;
+    
     /**
      * @return the minimum date (inclusive) the report date
      */
@@ -78,6 +89,45 @@ public class RadiologyReportSearchCriteria {
         return status;
     }
     
+    /**
+     * @return the index of the first radiology report to return
+     */
+    public Integer getStartIndex() {
+        
+        return startIndex;
+    }
+    
+    /**
+     * @return the maximum number of radiology reports to return
+     */
+    public Integer getLimit() {
+        
+        return limit;
+    }
+    
+    /**
+     * @return the field by which the radiology reports are sorted
+     */
+    public SortField getSortField() {
+        
+        return sortField;
+    }
+    
+    /**
+     * @return true if the radiology reports are sorted in ascending order, false if in descending order
+     */
+    public Boolean getSortAscending() {
+        
+        return sortAscending;
+    }
+    
+    /**
+     * Fields by which radiology reports can be sorted.
+     */
+    public enum SortField {
+        DATE, DATE_CREATED, STATUS
+    }
+    
     public static class Builder {
         
         
@@ -91,6 +141,14 @@ public class RadiologyReportSearchCriteria {
         
         private RadiologyReportStatus status;
         
+        private Integer startIndex;
+        
+        private Integer limit;
+        
+        private SortField sortField = SortField.DATE;
+        
+        private Boolean sortAscending = true;
+        
         /**
          * @param fromDate the minimum date (inclusive) the report date
          * @return this builder instance
@@ -144,6 +202,41 @@ public class RadiologyReportSearchCriteria {
             return this;
         }
         
+        /**
+         * @param startIndex the index of the first radiology report to return
+         * @return this builder instance
+         */
+        public Builder withStartIndex(Integer startIndex) {
+            
+            this.startIndex = startIndex;
+            return this;
+        }
+        
+        /**
+         * @param limit the maximum number of radiology reports to return
+         * @return this builder instance
+         */
+        public Builder withLimit(Integer limit) {
+            
+            this.limit = limit;
+            return this;
+        }
+        
+        /**
+         * Sorts the radiology reports by given field. Radiology reports with equal values in the field keep a stable order
+         * so pages do not overlap. Defaults to ascending by {@code DATE}.
+         * 
+         * @param sortField the field by which the radiology reports are sorted
+         * @param ascending true to sort in ascending order, false to sort in descending order
+         * @return this builder instance
+         */
+        public Builder sortBy(SortField sortField, boolean ascending) {
+            
+            this.sortField = sortField;
+            this.sortAscending = ascending;
+            return this;
+        }
+        
         /**
          * Create an {@link RadiologyReportSearchCriteria} with the properties of this builder instance.
          * 
@@ -152,6 +245,8 @@ public class RadiologyReportSearchCriteria {
          * @should create a new radiology report search criteria instance with principal results interpreter specified if principal results interpreter is set
          * @should create a new radiology report search criteria instance with include voided set to true if voided reports should be included
          * @should create a new radiology report search criteria instance with report status specified if status is set to claimed or completed
+         * @should create a new radiology report search criteria instance with start index and limit if start index and limit are set
+         * @should create a new radiology report search criteria instance with sort field and direction if sort is set
          */
         public RadiologyReportSearchCriteria build() {
             
@@ -166,5 +261,9 @@ public class RadiologyReportSearchCriteria {
         this.principalResultsInterpreter = builder.principalResultsInterpreter;
         this.includeVoided = builder.inludeVoided;
         this.status = builder.status;
+        this.startIndex = builder.startIndex;
+        this.limit = builder.limit;
+        this.sortField = builder.sortField == null ? SortField.DATE : builder.sortField;
+        this.sortAscending = builder.sortAscending;
     }
 }
@@ -10,6 +10,7 @@
 package org.openmrs.module.radiology.report;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.APIException;
@@ -181,6 +182,7 @@ public interface RadiologyReportService extends OpenmrsService {
      * @should return a radiology report if given radiology order is associated with a report with status claimed
      * @should return a radiology report if given radiology order is associated with a report with status completed
      * @should return null if given radiology order is only associated with a voided report
+     * @should return the active radiology report with one query
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
@@ -203,8 +205,46 @@ public interface RadiologyReportService extends OpenmrsService {
      * @should return empty search result if no report exists for principal results interpreter
      * @should return all radiology reports with given status
      * @should return empty search result if no report exists for given status
+     * @should return at most limit radiology reports starting at given start index
+     * @should not query each radiology report separately
+     * @should return radiology reports sorted by given sort field and direction
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
     public List<RadiologyReport> getRadiologyReports(RadiologyReportSearchCriteria radiologyReportSearchCriteria);
+    
+    /**
+     * Count the {@code RadiologyReport's} matching a variety of (nullable) criteria without loading them.
+     * The start index and limit of given criteria are ignored.
+     *
+     * @param radiologyReportSearchCriteria the object containing search parameters
+     * @return the number of radiology reports matching given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the number of radiology reports matching given criteria ignoring start index and limit
+     * @should count radiology reports with one query
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public Long countRadiologyReports(RadiologyReportSearchCriteria radiologyReportSearchCriteria);
+    
+    /**
+     * Pass the {@code RadiologyReportSummary's} of the radiology reports matching given criteria to given consumer in
+     * the same order as {@link #getRadiologyReports(RadiologyReportSearchCriteria)}.
+     * The radiology reports are scrolled through in chunks instead of being loaded at once, so exports of large date
+     * ranges take constant memory. The Hibernate session is cleared after each chunk, callers must not rely on
+     * entities loaded before in the same session. On MySQL the rows are streamed over the connection of the session,
+     * the consumer must therefore not query the database.
+     * The start index and limit of given criteria are ignored.
+     *
+     * @param radiologyReportSearchCriteria the object containing search parameters
+     * @param consumer the consumer to pass the summaries to
+     * @throws IllegalArgumentException if given null
+     * @should pass the summaries of all radiology reports matching given criteria to given consumer
+     * @should not pass any summary if no radiology report matches given criteria
+     * @should throw illegal argument exception if given null
+     * @should throw illegal argument exception if given consumer is null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORTS)
+    public void streamRadiologyReportSummaries(RadiologyReportSearchCriteria radiologyReportSearchCriteria,
+            Consumer<RadiologyReportSummary> consumer);
 }
@@ -11,6 +11,7 @@ package org.openmrs.module.radiology.report;
 
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.api.APIException;
@@ -186,13 +187,7 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         if (radiologyOrder == null) {
             throw new IllegalArgumentException("radiologyOrder cannot be null");
         }
-        if (hasRadiologyOrderCompletedRadiologyReport(radiologyOrder)) {
-            return radiologyReportDAO.getActiveRadiologyReportByRadiologyOrder(radiologyOrder);
-        }
-        if (hasRadiologyOrderClaimedRadiologyReport(radiologyOrder)) {
-            return radiologyReportDAO.getActiveRadiologyReportByRadiologyOrder(radiologyOrder);
-        }
-        return null;
+        return radiologyReportDAO.getActiveRadiologyReportByRadiologyOrder(radiologyOrder);
     }
     
     /**
@@ -206,4 +201,32 @@ class RadiologyReportServiceImpl extends BaseOpenmrsService implements Radiology
         }
         return radiologyReportDAO.getRadiologyReports(radiologyReportSearchCriteria);
     }
+    
+    /**
+     * @see RadiologyReportService#countRadiologyReports(RadiologyReportSearchCriteria)
+     */
+    @Override
+    public Long countRadiologyReports(RadiologyReportSearchCriteria radiologyReportSearchCriteria) {
+        
+        if (radiologyReportSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyReportSearchCriteria cannot be null");
+        }
+        return radiologyReportDAO.countRadiologyReports(radiologyReportSearchCriteria);
+    }
+    
+    /**
+     * @see RadiologyReportService#streamRadiologyReportSummaries(RadiologyReportSearchCriteria, Consumer)
+     */
+    @Override
+    public void streamRadiologyReportSummaries(RadiologyReportSearchCriteria radiologyReportSearchCriteria,
+            Consumer<RadiologyReportSummary> consumer) {
+        
+        if (radiologyReportSearchCriteria == null) {
+            throw new IllegalArgumentException("radiologyReportSearchCriteria cannot be null");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("consumer cannot be null");
+        }
+        radiologyReportDAO.streamRadiologyReportSummaries(radiologyReportSearchCriteria, consumer);
+    }
 }
@@ -0,0 +1,110 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report;
+
+import java.util.Date;
+
+/**
+ * Read only summary of a {@code RadiologyReport} holding what an export shows of it.
+ * <p>
+ * Summaries are loaded with projections instead of entities so exporting them does not load the radiology report body,
+ * its radiology order and principal results interpreter.
+ * </p>
+ *
+ * @see RadiologyReportService#streamRadiologyReportSummaries(RadiologyReportSearchCriteria, java.util.function.Consumer)
+ */
+public class RadiologyReportSummary {
+    
+    
+    private final String uuid;
+    
+    private final String radiologyOrderUuid;
+    
+    private final String accessionNumber;
+    
+    private final RadiologyReportStatus status;
+    
+    private final Date date;
+    
+    private final String principalResultsInterpreterUuid;
+    
+    private final Date dateCreated;
+    
+    private final Boolean voided;
+    
+    public RadiologyReportSummary(String uuid, String radiologyOrderUuid, String accessionNumber,
+            RadiologyReportStatus status, Date date, String principalResultsInterpreterUuid, Date dateCreated,
+            Boolean voided) {
+        this.uuid = uuid;
+        this.radiologyOrderUuid = radiologyOrderUuid;
+        this.accessionNumber = accessionNumber;
+        this.status = status;
+        this.date = date;
+        this.principalResultsInterpreterUuid = principalResultsInterpreterUuid;
+        this.dateCreated = dateCreated;
+        this.voided = voided;
+    }
+    
+    /**
+     * @return the uuid of the radiology report
+     */
+    public String getUuid() {
+        return uuid;
+    }
+    
+    /**
+     * @return the uuid of the radiology order
+     */
+    public String getRadiologyOrderUuid() {
+        return radiologyOrderUuid;
+    }
+    
+    /**
+     * @return the accession number of the radiology order
+     */
+    public String getAccessionNumber() {
+        return accessionNumber;
+    }
+    
+    /**
+     * @return the status of the radiology report
+     */
+    public RadiologyReportStatus getStatus() {
+        return status;
+    }
+    
+    /**
+     * @return the date of the radiology report
+     */
+    public Date getDate() {
+        return date;
+    }
+    
+    /**
+     * @return the uuid of the principal results interpreter or null if the radiology report has none
+     */
+    public String getPrincipalResultsInterpreterUuid() {
+        return principalResultsInterpreterUuid;
+    }
+    
+    /**
+     * @return the date the radiology report was created
+     */
+    public Date getDateCreated() {
+        return dateCreated;
+    }
+    
+    /**
+     * @return true if the radiology report is voided
+     */
+    public Boolean getVoided() {
+        return voided;
+    }
+}
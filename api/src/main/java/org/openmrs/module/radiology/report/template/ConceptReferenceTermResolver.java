@@ -0,0 +1,243 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.Criteria;
+import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Disjunction;
+import org.hibernate.criterion.Restrictions;
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.ConceptSource;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
+
+/**
+ * Resolves the coded terms of mrrt report templates to {@code ConceptReferenceTerm}'s.
+ * <p>
+ * The concept sources are indexed by their case-insensitive name once. The codes of a template are resolved with one
+ * query per concept source. Codes which resolved to a term and codes which did not are cached so importing templates
+ * sharing a terminology like RadLex does not query the same codes again. The caches are cleared by
+ * {@link #invalidate()} which {@link ConceptReferenceTermResolverAdvice} calls whenever a concept source or reference
+ * term is changed through the {@code ConceptService}. Codes which did not resolve are only kept for
+ * {@link #UNRESOLVED_TERM_TIME_TO_LIVE_MILLIS} since terms can also be added behind the {@code ConceptService}, for
+ * example by loading a terminology with SQL.
+ * </p>
+ * <p>
+ * Every invalidation starts a new generation of the caches. What a resolution read is only cached if no invalidation
+ * happened since the resolution started, so a resolution running concurrently to an invalidation does not put back
+ * what it read before.
+ * </p>
+ */
+class ConceptReferenceTermResolver {
+    
+    
+    /**
+     * Number of milliseconds a code which did not resolve to a concept reference term is not queried again.
+     */
+    static final long UNRESOLVED_TERM_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    
+    private SessionFactory sessionFactory;
+    
+    private final AtomicReference<Map<String, ConceptSource>> conceptSourcesByName =
+            new AtomicReference<Map<String, ConceptSource>>();
+    
+    private final ConcurrentMap<String, Integer> termIds = new ConcurrentHashMap<String, Integer>();
+    
+    /**
+     * The time codes which did not resolve expire at by code.
+     */
+    private final ConcurrentMap<String, Long> unresolvedTerms = new ConcurrentHashMap<String, Long>();
+    
+    private final AtomicLong generation = new AtomicLong();
+    
+    private Clock clock = Clock.systemUTC();
+    
+    /**
+     * Set session factory that allows us to connect to the database that Hibernate knows about.
+     *
+     * @param sessionFactory SessionFactory
+     */
+    public void setSessionFactory(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+    
+    /**
+     * Sets the clock the time to live of codes which did not resolve is measured with.
+     *
+     * @param clock the clock
+     */
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+    
+    /**
+     * Resolves codes grouped by the name of the concept source (the {@code scheme} of a template term) they belong to.
+     *
+     * @param codesByScheme the codes to resolve grouped by the name of their concept source
+     * @return the concept reference terms matching the given codes, codes of unknown concept sources or without a
+     *         matching concept reference term are skipped
+     * @should resolve codes to concept reference terms of the concept source matching the scheme ignoring case
+     * @should skip codes of unknown concept sources and codes without concept reference term
+     * @should resolve codes from the cache after the first resolution
+     * @should resolve a concept reference term saved after invalidation
+     * @should resolve a code which did not resolve again once its time to live elapsed
+     * @should not cache what was read before an invalidation during the resolution
+     */
+    public Set<ConceptReferenceTerm> resolve(Map<String, Set<String>> codesByScheme) {
+        
+        final Set<ConceptReferenceTerm> result = new HashSet<ConceptReferenceTerm>();
+        for (Map.Entry<String, Set<String>> entry : codesByScheme.entrySet()) {
+            final ConceptSource conceptSource = getConceptSourcesByName().get(normalize(entry.getKey()));
+            if (conceptSource != null) {
+                result.addAll(resolve(conceptSource, entry.getValue()));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Clears the concept source index and the cached codes.
+     */
+    public void invalidate() {
+        
+        generation.incrementAndGet();
+        conceptSourcesByName.set(null);
+        termIds.clear();
+        unresolvedTerms.clear();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<ConceptReferenceTerm> resolve(ConceptSource conceptSource, Set<String> codes) {
+        
+        final long readGeneration = generation.get();
+        final long now = clock.millis();
+        final Map<Integer, String> cachedTermIds = new HashMap<Integer, String>();
+        final Set<String> uncachedCodes = new HashSet<String>();
+        for (String code : codes) {
+            final String key = getKey(conceptSource, code);
+            final Integer termId = termIds.get(key);
+            if (termId != null) {
+                cachedTermIds.put(termId, code);
+            } else if (!isUnresolved(key, now)) {
+                uncachedCodes.add(code);
+            }
+        }
+        if (cachedTermIds.isEmpty() && uncachedCodes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        // the cached terms are loaded together with the uncached codes so a hit costs no query of its own
+        final Disjunction codesOrTermIds = Restrictions.disjunction();
+        if (!uncachedCodes.isEmpty()) {
+            codesOrTermIds.add(Restrictions.in("code", uncachedCodes));
+        }
+        if (!cachedTermIds.isEmpty()) {
+            codesOrTermIds.add(Restrictions.in("conceptReferenceTermId", cachedTermIds.keySet()));
+        }
+        final Criteria criteria = sessionFactory.getCurrentSession()
+                .createCriteria(ConceptReferenceTerm.class);
+        criteria.add(Restrictions.eq("conceptSource", conceptSource));
+        criteria.add(codesOrTermIds);
+        
+        final List<ConceptReferenceTerm> result = new ArrayList<ConceptReferenceTerm>();
+        for (ConceptReferenceTerm referenceTerm : (List<ConceptReferenceTerm>) criteria.list()) {
+            if (codes.contains(referenceTerm.getCode())) {
+                result.add(referenceTerm);
+                publish(termIds, getKey(conceptSource, referenceTerm.getCode()), referenceTerm.getConceptReferenceTermId(),
+                    readGeneration);
+                uncachedCodes.remove(referenceTerm.getCode());
+                cachedTermIds.remove(referenceTerm.getConceptReferenceTermId());
+            }
+        }
+        // cached terms which were not found anymore are resolved again next time
+        for (String code : cachedTermIds.values()) {
+            termIds.remove(getKey(conceptSource, code));
+        }
+        for (String code : uncachedCodes) {
+            publish(unresolvedTerms, getKey(conceptSource, code), now + UNRESOLVED_TERM_TIME_TO_LIVE_MILLIS,
+                readGeneration);
+        }
+        return result;
+    }
+    
+    /**
+     * Puts an entry into given cache unless the caches were invalidated since given generation was read. An entry put
+     * while an invalidation runs is taken out again.
+     */
+    private <V> void publish(ConcurrentMap<String, V> cache, String key, V value, long readGeneration) {
+        
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        cache.put(key, value);
+        if (generation.get() != readGeneration) {
+            cache.remove(key, value);
+        }
+    }
+    
+    private boolean isUnresolved(String key, long now) {
+        
+        final Long expiresAt = unresolvedTerms.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (now < expiresAt) {
+            return true;
+        }
+        unresolvedTerms.remove(key, expiresAt);
+        return false;
+    }
+    
+    private Map<String, ConceptSource> getConceptSourcesByName() {
+        
+        Map<String, ConceptSource> result = conceptSourcesByName.get();
+        if (result == null) {
+            final long readGeneration = generation.get();
+            result = new HashMap<String, ConceptSource>();
+            for (ConceptSource conceptSource : Context.getService(ConceptService.class)
+                    .getAllConceptSources(false)) {
+                final String name = normalize(conceptSource.getName());
+                if (!result.containsKey(name)) {
+                    result.put(name, conceptSource);
+                }
+            }
+            if (generation.get() == readGeneration) {
+                conceptSourcesByName.set(result);
+                if (generation.get() != readGeneration) {
+                    conceptSourcesByName.compareAndSet(result, null);
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static String getKey(ConceptSource conceptSource, String code) {
+        return conceptSource.getConceptSourceId() + ":" + code;
+    }
+    
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.lang.reflect.Method;
+
+import org.openmrs.api.context.Context;
+import org.springframework.aop.AfterReturningAdvice;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Advice around the {@code ConceptService} invalidating the caches of the {@link ConceptReferenceTermResolver} after a
+ * concept source or concept reference term was saved, retired, unretired or purged.
+ * <p>
+ * The caches are invalidated right away so the changing transaction resolves its own change, and again once the
+ * transaction committed since other transactions may have cached the state before the change in between.
+ * </p>
+ */
+public class ConceptReferenceTermResolverAdvice implements AfterReturningAdvice {
+    
+    
+    /**
+     * @see AfterReturningAdvice#afterReturning(Object, Method, Object[], Object)
+     * @should invalidate the concept reference term resolver after a concept reference term was saved
+     * @should invalidate the concept reference term resolver again after the transaction committed
+     * @should not invalidate the concept reference term resolver after other concept service methods
+     */
+    @Override
+    public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+        
+        if (changesConceptSourceOrReferenceTerm(method.getName())) {
+            invalidateResolvers();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    
+                    
+                    @Override
+                    public void afterCommit() {
+                        invalidateResolvers();
+                    }
+                });
+            }
+        }
+    }
+    
+    private static void invalidateResolvers() {
+        
+        for (ConceptReferenceTermResolver resolver : Context.getRegisteredComponents(ConceptReferenceTermResolver.class)) {
+            resolver.invalidate();
+        }
+    }
+    
+    private static boolean changesConceptSourceOrReferenceTerm(String methodName) {
+        
+        return (methodName.startsWith("save") || methodName.startsWith("retire") || methodName.startsWith("unretire")
+                || methodName.startsWith("purge"))
+                && (methodName.endsWith("ConceptSource") || methodName.endsWith("ConceptReferenceTerm"));
+    }
+}
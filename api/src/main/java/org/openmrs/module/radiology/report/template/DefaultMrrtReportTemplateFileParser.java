@@ -9,33 +9,26 @@
  */
 package org.openmrs.module.radiology.report.template;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.openmrs.ConceptReferenceTerm;
-import org.openmrs.ConceptSource;
-import org.openmrs.api.APIException;
-import org.openmrs.api.ConceptService;
-import org.openmrs.api.context.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 /**
  * A parser to parse MRRT report templates and and return an MrrtReportTemplate object.
+ * <p>
+ * The template is parsed once into a {@link MrrtReportTemplateDocument} which is validated and from which the Dublin
+ * Core attributes and terms are extracted. The terms are resolved to concept reference terms by the
+ * {@link ConceptReferenceTermResolver}.
+ * </p>
  */
 class DefaultMrrtReportTemplateFileParser implements MrrtReportTemplateFileParser {
     
@@ -64,36 +57,50 @@ class DefaultMrrtReportTemplateFileParser implements MrrtReportTemplateFileParse
     
     private MrrtReportTemplateValidator validator;
     
+    private ConceptReferenceTermResolver termResolver;
+    
     public void setValidator(MrrtReportTemplateValidator validator) {
         this.validator = validator;
     }
     
+    public void setTermResolver(ConceptReferenceTermResolver termResolver) {
+        this.termResolver = termResolver;
+    }
+    
     /**
      * @see MrrtReportTemplateFileParser#parse(String)
      */
     @Override
     public MrrtReportTemplate parse(String mrrtTemplate) throws IOException {
+        return parse(parseAndValidate(mrrtTemplate));
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileParser#parseAndValidate(String)
+     */
+    @Override
+    public MrrtReportTemplateDocument parseAndValidate(String mrrtTemplate) throws IOException {
         
-        validator.validate(mrrtTemplate);
+        final MrrtReportTemplateDocument result = MrrtReportTemplateDocument.parse(mrrtTemplate);
+        validator.validate(result);
+        return result;
+    }
+    
+    /**
+     * @see MrrtReportTemplateFileParser#parse(MrrtReportTemplateDocument)
+     */
+    @Override
+    public MrrtReportTemplate parse(MrrtReportTemplateDocument mrrtTemplate) {
         
-        final Document doc = Jsoup.parse(mrrtTemplate, "");
         final MrrtReportTemplate result = new MrrtReportTemplate();
-        initializeTemplate(result, doc);
-        try {
-            addTermsToTemplate(result, doc.getElementsByTag("script")
-                    .get(0)
-                    .toString());
-        }
-        catch (ParserConfigurationException | SAXException e) {
-            throw new APIException("radiology.report.template.parser.error", null, e);
-        }
+        initializeTemplate(result, mrrtTemplate.getMetaTags());
+        addTermsToTemplate(result, mrrtTemplate.getTermCodes());
         return result;
     }
     
-    private final void initializeTemplate(MrrtReportTemplate template, Document doc) {
-        final Elements metaTags = doc.getElementsByTag("meta");
+    private final void initializeTemplate(MrrtReportTemplate template, Elements metaTags) {
         
-        template.setPath(doc.baseUri());
+        template.setPath("");
         template.setCharset(metaTags.attr("charset"));
         for (Element metaTag : metaTags) {
             final String name = metaTag.attr("name");
@@ -136,48 +143,20 @@ class DefaultMrrtReportTemplateFileParser implements MrrtReportTemplateFileParse
         }
     }
     
-    private final void addTermsToTemplate(MrrtReportTemplate template, String script)
-            throws ParserConfigurationException, SAXException, IOException {
+    private final void addTermsToTemplate(MrrtReportTemplate template, List<org.w3c.dom.Element> termCodes) {
         
-        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        final DocumentBuilder builder = factory.newDocumentBuilder();
-        try (InputStream in = new ByteArrayInputStream(script.getBytes())) {
-            final org.w3c.dom.Document scriptPartAsDocument = builder.parse(in);
-            scriptPartAsDocument.getDocumentElement()
-                    .normalize();
-            final NodeList terms = scriptPartAsDocument.getElementsByTagName("term");
-            final ConceptService conceptService = Context.getService(ConceptService.class);
-            final Set<ConceptReferenceTerm> referenceTerms = new HashSet<>();
-            
-            for (int i = 0; i < terms.getLength(); i++) {
-                final org.w3c.dom.Element termElement = (org.w3c.dom.Element) terms.item(i);
-                final org.w3c.dom.Element codeElement = (org.w3c.dom.Element) termElement.getElementsByTagName("code")
-                        .item(0);
-                final ConceptSource conceptSource =
-                        getConceptSourceByName(codeElement.getAttribute("scheme"), conceptService);
-                if (conceptSource != null) {
-                    final ConceptReferenceTerm referenceTerm =
-                            conceptService.getConceptReferenceTermByCode(codeElement.getAttribute("value"), conceptSource);
-                    if (referenceTerm != null) {
-                        referenceTerms.add(referenceTerm);
-                    }
-                }
-            }
-            if (!referenceTerms.isEmpty()) {
-                template.setTerms(referenceTerms);
+        final Map<String, Set<String>> codesByScheme = new HashMap<>();
+        for (org.w3c.dom.Element codeElement : termCodes) {
+            final String scheme = codeElement.getAttribute("scheme");
+            if (!codesByScheme.containsKey(scheme)) {
+                codesByScheme.put(scheme, new HashSet<String>());
             }
+            codesByScheme.get(scheme)
+                    .add(codeElement.getAttribute("value"));
         }
-    }
-    
-    private final ConceptSource getConceptSourceByName(String name, ConceptService conceptService) {
-        
-        final List<ConceptSource> conceptSources = conceptService.getAllConceptSources(false);
-        for (ConceptSource conceptSource : conceptSources) {
-            if (conceptSource.getName()
-                    .equalsIgnoreCase(name)) {
-                return conceptSource;
-            }
+        final Set<ConceptReferenceTerm> referenceTerms = termResolver.resolve(codesByScheme);
+        if (!referenceTerms.isEmpty()) {
+            template.setTerms(referenceTerms);
         }
-        return null;
     }
 }
@@ -16,6 +16,7 @@ import org.hibernate.Criteria;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 
 /**
@@ -63,9 +64,11 @@ class HibernateMrrtReportTemplateDAO implements MrrtReportTemplateDAO {
      */
     @Override
     public MrrtReportTemplate getMrrtReportTemplateByIdentifier(String identifier) {
-        final Criteria criteria = createMrrtReportTemplateCriteria();
-        criteria.add(Restrictions.eq("dcTermsIdentifier", identifier));
-        return (MrrtReportTemplate) criteria.uniqueResult();
+        
+        // dcTermsIdentifier is the natural id, its resolution to the template id is kept in the second-level cache
+        return (MrrtReportTemplate) sessionFactory.getCurrentSession()
+                .bySimpleNaturalId(MrrtReportTemplate.class)
+                .load(identifier);
     }
     
     /**
@@ -75,26 +78,32 @@ class HibernateMrrtReportTemplateDAO implements MrrtReportTemplateDAO {
     @Override
     public List<MrrtReportTemplate> getMrrtReportTemplates(MrrtReportTemplateSearchCriteria searchCriteria) {
         
-        final Criteria crit = sessionFactory.getCurrentSession()
-                .createCriteria(MrrtReportTemplate.class);
-        crit.addOrder(Order.asc("dcTermsTitle"));
+        final Criteria crit = createMrrtReportTemplateCriteria(searchCriteria);
+        final String sortProperty = getSortProperty(searchCriteria.getSortField());
+        crit.addOrder(searchCriteria.getSortAscending() ? Order.asc(sortProperty) : Order.desc(sortProperty));
+        crit.addOrder(Order.asc("templateId"));
         
-        if (searchCriteria.getTitle() != null) {
-            crit.add(Restrictions.ilike("dcTermsTitle", searchCriteria.getTitle() + "%", MatchMode.ANYWHERE));
-        }
-        if (searchCriteria.getPublisher() != null) {
-            crit.add(Restrictions.ilike("dcTermsPublisher", searchCriteria.getPublisher() + "%", MatchMode.ANYWHERE));
+        if (searchCriteria.getStartIndex() != null && searchCriteria.getStartIndex() > 0) {
+            crit.setFirstResult(searchCriteria.getStartIndex());
         }
-        if (searchCriteria.getLicense() != null) {
-            crit.add(Restrictions.ilike("dcTermsLicense", searchCriteria.getLicense() + "%", MatchMode.ANYWHERE));
-        }
-        if (searchCriteria.getCreator() != null) {
-            crit.add(Restrictions.ilike("dcTermsCreator", searchCriteria.getCreator() + "%", MatchMode.ANYWHERE));
+        if (searchCriteria.getLimit() != null && searchCriteria.getLimit() > 0) {
+            crit.setMaxResults(searchCriteria.getLimit());
         }
         final List<MrrtReportTemplate> result = (List<MrrtReportTemplate>) crit.list();
         return result == null ? new ArrayList<>() : result;
     }
     
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#countMrrtReportTemplates(MrrtReportTemplateSearchCriteria)
+     */
+    @Override
+    public Long countMrrtReportTemplates(MrrtReportTemplateSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createMrrtReportTemplateCriteria(searchCriteria);
+        crit.setProjection(Projections.rowCount());
+        return ((Number) crit.uniqueResult()).longValue();
+    }
+    
     /**
      * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#saveMrrtReportTemplate(MrrtReportTemplate)
      */
@@ -114,6 +123,26 @@ class HibernateMrrtReportTemplateDAO implements MrrtReportTemplateDAO {
                 .delete(template);
     }
     
+    /**
+     * Gets the property of {@code MrrtReportTemplate} sorted by given sort field.
+     * 
+     * @param sortField the sort field
+     * @return the property sorted by given sort field
+     */
+    private static String getSortProperty(MrrtReportTemplateSearchCriteria.SortField sortField) {
+        
+        switch (sortField) {
+            case CREATOR:
+                return "dcTermsCreator";
+            case PUBLISHER:
+                return "dcTermsPublisher";
+            case LICENSE:
+                return "dcTermsLicense";
+            default:
+                return "dcTermsTitle";
+        }
+    }
+    
     /**
      * A utility method creating a criteria for MrrtReportTemplate
      *
@@ -123,4 +152,29 @@ class HibernateMrrtReportTemplateDAO implements MrrtReportTemplateDAO {
         return sessionFactory.getCurrentSession()
                 .createCriteria(MrrtReportTemplate.class);
     }
+    
+    /**
+     * A utility method creating a criteria for MrrtReportTemplate restricted by given search criteria
+     *
+     * @param searchCriteria the search criteria
+     * @return criteria for MrrtReportTemplate matching given search criteria
+     */
+    private Criteria createMrrtReportTemplateCriteria(MrrtReportTemplateSearchCriteria searchCriteria) {
+        
+        final Criteria crit = createMrrtReportTemplateCriteria();
+        
+        if (searchCriteria.getTitle() != null) {
+            crit.add(Restrictions.ilike("dcTermsTitle", searchCriteria.getTitle() + "%", MatchMode.ANYWHERE));
+        }
+        if (searchCriteria.getPublisher() != null) {
+            crit.add(Restrictions.ilike("dcTermsPublisher", searchCriteria.getPublisher() + "%", MatchMode.ANYWHERE));
+        }
+        if (searchCriteria.getLicense() != null) {
+            crit.add(Restrictions.ilike("dcTermsLicense", searchCriteria.getLicense() + "%", MatchMode.ANYWHERE));
+        }
+        if (searchCriteria.getCreator() != null) {
+            crit.add(Restrictions.ilike("dcTermsCreator", searchCriteria.getCreator() + "%", MatchMode.ANYWHERE));
+        }
+        return crit;
+    }
 }
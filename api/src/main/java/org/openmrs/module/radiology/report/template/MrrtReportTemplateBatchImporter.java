@@ -0,0 +1,116 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.openmrs.api.APIException;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Saves the batches of a bulk import of mrrt report templates, each in a transaction of its own.
+ * <p>
+ * It is only called by the {@link MrrtReportTemplateServiceImpl} through the transactional proxy declared in the module
+ * application context, with template files the service parsed and validated itself. It is no service so the template
+ * files it saves cannot be passed in by any other caller.
+ * </p>
+ */
+class MrrtReportTemplateBatchImporter {
+    
+    
+    private MrrtReportTemplateFileParser parser;
+    
+    private RadiologyProperties radiologyProperties;
+    
+    private MrrtReportTemplateDAO mrrtReportTemplateDAO;
+    
+    public void setMrrtReportTemplateDAO(MrrtReportTemplateDAO mrrtReportTemplateDAO) {
+        this.mrrtReportTemplateDAO = mrrtReportTemplateDAO;
+    }
+    
+    public void setParser(MrrtReportTemplateFileParser parser) {
+        this.parser = parser;
+    }
+    
+    public void setRadiologyProperties(RadiologyProperties radiologyProperties) {
+        this.radiologyProperties = radiologyProperties;
+    }
+    
+    /**
+     * Saves one batch of a bulk import of mrrt templates in a new transaction.
+     * <p>
+     * Either all or none of the templates which can be imported are saved. The template files stored on the file system
+     * are deleted again if the transaction is rolled back.
+     * </p>
+     * 
+     * @param templateFiles the template files of the batch parsed and validated by the service
+     * @return the result of every template file in the order of given template files
+     * @throws IllegalArgumentException if given null
+     * @should save the templates of given template files and store them on the file system
+     * @should throw illegal argument exception if given null
+     * @see MrrtReportTemplateService#importMrrtReportTemplates(java.io.InputStream)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<MrrtReportTemplateImportResult> importBatch(List<MrrtReportTemplateImportFile> templateFiles) {
+        if (templateFiles == null) {
+            throw new IllegalArgumentException("templateFiles cannot be null");
+        }
+        
+        final List<File> writtenFiles = new ArrayList<>(templateFiles.size());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                
+                
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        for (File writtenFile : writtenFiles) {
+                            FileUtils.deleteQuietly(writtenFile);
+                        }
+                    }
+                }
+            });
+        }
+        
+        final List<MrrtReportTemplateImportResult> result = new ArrayList<>(templateFiles.size());
+        for (MrrtReportTemplateImportFile templateFile : templateFiles) {
+            File destination = null;
+            try {
+                final MrrtReportTemplate template = parser.parse(templateFile.getDocument());
+                if (mrrtReportTemplateDAO.getMrrtReportTemplateByIdentifier(template.getDcTermsIdentifier()) != null) {
+                    // checked before storing the template file so no file is left behind for a template which is not
+                    // saved, the templates saved before in this batch are found as well
+                    result.add(MrrtReportTemplateImportResult.failed(templateFile.getFileName(),
+                        MrrtReportTemplateServiceImpl.TEMPLATE_EXISTS));
+                    continue;
+                }
+                destination = MrrtReportTemplateServiceImpl.writeTemplateFile(radiologyProperties.getReportTemplateHome(),
+                    templateFile.getMrrtTemplate());
+                writtenFiles.add(destination);
+                template.setPath(destination.getAbsolutePath());
+                result.add(MrrtReportTemplateImportResult.imported(templateFile.getFileName(),
+                    mrrtReportTemplateDAO.saveMrrtReportTemplate(template)));
+            }
+            catch (APIException | IOException exception) {
+                FileUtils.deleteQuietly(destination);
+                result.add(MrrtReportTemplateImportResult.failed(templateFile.getFileName(), exception.getMessage()));
+            }
+        }
+        return result;
+    }
+}
@@ -40,6 +40,11 @@ interface MrrtReportTemplateDAO {
      */
     public List<MrrtReportTemplate> getMrrtReportTemplates(MrrtReportTemplateSearchCriteria searchCriteria);
     
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#countMrrtReportTemplates(MrrtReportTemplateSearchCriteria)
+     */
+    public Long countMrrtReportTemplates(MrrtReportTemplateSearchCriteria searchCriteria);
+    
     /**
      * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#saveMrrtReportTemplate(MrrtReportTemplate)
      */
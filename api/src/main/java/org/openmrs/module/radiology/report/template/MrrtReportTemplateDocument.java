@@ -0,0 +1,194 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.jsoup.nodes.Attributes;
+import org.jsoup.parser.Tag;
+import org.jsoup.select.Elements;
+import org.openmrs.api.APIException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.NodeList;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+/**
+ * An mrrt report template parsed once into a DOM which is shared by its validation and the extraction of its Dublin
+ * Core attributes and terms.
+ * <p>
+ * Mrrt report templates are XHTML, the template attributes in their {@code script} element are parsed as XML together
+ * with the rest of the template instead of being serialized and parsed again.
+ * </p>
+ *
+ * @see MrrtReportTemplateValidator#validate(MrrtReportTemplateDocument)
+ * @see MrrtReportTemplateFileParser#parse(String)
+ */
+public final class MrrtReportTemplateDocument {
+    
+    
+    private static final Logger log = LoggerFactory.getLogger(MrrtReportTemplateDocument.class);
+    
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = newDocumentBuilderFactory();
+    
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDERS = new ThreadLocal<DocumentBuilder>();
+    
+    private final Document document;
+    
+    private MrrtReportTemplateDocument(Document document) {
+        this.document = document;
+    }
+    
+    /**
+     * Parses an mrrt report template.
+     *
+     * @param mrrtTemplate the mrrt report template to parse
+     * @return the parsed mrrt report template
+     * @throws IOException if the template cannot be read
+     * @throws APIException if the template is not well-formed XML
+     * @should parse the template and its template attributes into one document
+     * @should throw api exception if template is not well formed
+     */
+    public static MrrtReportTemplateDocument parse(String mrrtTemplate) throws IOException {
+        
+        try {
+            return new MrrtReportTemplateDocument(
+                    getDocumentBuilder().parse(new InputSource(new StringReader(mrrtTemplate))));
+        }
+        catch (SAXException e) {
+            log.error(e.getMessage(), e);
+            throw new APIException("radiology.report.template.validation.error", null, e);
+        }
+    }
+    
+    /**
+     * @return the parsed DOM of the mrrt report template
+     */
+    public Document getDocument() {
+        return document;
+    }
+    
+    /**
+     * Gets the {@code meta} elements of the template as jsoup elements so they can be checked with jsoup selectors.
+     *
+     * @return the meta elements of the template
+     * @should return the meta elements with their attributes
+     */
+    public Elements getMetaTags() {
+        
+        final Elements result = new Elements();
+        final NodeList metaTags = document.getElementsByTagName("meta");
+        for (int i = 0; i < metaTags.getLength(); i++) {
+            final NamedNodeMap attributes = metaTags.item(i)
+                    .getAttributes();
+            final Attributes metaTagAttributes = new Attributes();
+            for (int j = 0; j < attributes.getLength(); j++) {
+                final Attr attribute = (Attr) attributes.item(j);
+                metaTagAttributes.put(attribute.getName(), attribute.getValue());
+            }
+            result.add(new org.jsoup.nodes.Element(Tag.valueOf("meta"), "", metaTagAttributes));
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the {@code code} elements of the {@code term} elements in the template attributes of the template.
+     *
+     * @return the code elements of the terms of the template
+     * @should return the code elements of all terms in the script element
+     */
+    public List<Element> getTermCodes() {
+        
+        final List<Element> result = new ArrayList<Element>();
+        final NodeList scripts = document.getElementsByTagName("script");
+        if (scripts.getLength() == 0) {
+            return result;
+        }
+        final NodeList terms = ((Element) scripts.item(0)).getElementsByTagName("term");
+        for (int i = 0; i < terms.getLength(); i++) {
+            final NodeList codes = ((Element) terms.item(i)).getElementsByTagName("code");
+            if (codes.getLength() > 0) {
+                result.add((Element) codes.item(0));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Gets the document builder of the current thread, creating it on first use. A {@code DocumentBuilder} is not
+     * thread safe but can be reused for parsing several documents.
+     *
+     * @return the document builder of the current thread
+     */
+    private static DocumentBuilder getDocumentBuilder() {
+        
+        DocumentBuilder documentBuilder = DOCUMENT_BUILDERS.get();
+        if (documentBuilder == null) {
+            try {
+                synchronized (DOCUMENT_BUILDER_FACTORY) {
+                    documentBuilder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+                }
+            }
+            catch (ParserConfigurationException e) {
+                throw new IllegalStateException("cannot create a document builder for mrrt report templates", e);
+            }
+            documentBuilder.setErrorHandler(new ErrorHandler() {
+                
+                
+                @Override
+                public void warning(SAXParseException exception) {
+                    log.debug(exception.getMessage(), exception);
+                }
+                
+                @Override
+                public void error(SAXParseException exception) throws SAXException {
+                    throw exception;
+                }
+                
+                @Override
+                public void fatalError(SAXParseException exception) throws SAXException {
+                    throw exception;
+                }
+            });
+            DOCUMENT_BUILDERS.set(documentBuilder);
+        }
+        return documentBuilder;
+    }
+    
+    private static DocumentBuilderFactory newDocumentBuilderFactory() {
+        
+        final DocumentBuilderFactory result = DocumentBuilderFactory.newInstance();
+        // the XSD validator needs namespace aware nodes to validate a DOM
+        result.setNamespaceAware(true);
+        try {
+            result.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            result.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+            result.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        }
+        catch (ParserConfigurationException e) {
+            log.warn("cannot disable external entities for mrrt report templates", e);
+        }
+        return result;
+    }
+}
@@ -11,6 +11,8 @@ package org.openmrs.module.radiology.report.template;
 
 import java.io.IOException;
 
+import org.openmrs.api.APIException;
+
 /**
  * A parser that is responsible for parsing mrrt report templates and extract metadata.
  */
@@ -29,4 +31,31 @@ public interface MrrtReportTemplateFileParser {
      * @should ignore case when searching for a matching concept source
      */
     public MrrtReportTemplate parse(String mrrtTemplate) throws IOException;
+    
+    /**
+     * Parse and validate an mrrt template without extracting its metadata.
+     * <p>
+     * Needs neither an OpenMRS context nor a database session, so templates can be parsed and validated on worker
+     * threads before their metadata is extracted with {@link #parse(MrrtReportTemplateDocument)}.
+     * </p>
+     * 
+     * @param mrrtTemplate the mrrt template to parse and validate
+     * @return the parsed mrrt template
+     * @throws IOException if one is thrown during validation
+     * @throws APIException if the template is not well-formed
+     * @throws MrrtReportTemplateValidationException if the template violates the mrrt standard
+     * @should return the parsed template if given template is valid
+     * @should throw mrrt report template validation exception if given template is invalid
+     */
+    public MrrtReportTemplateDocument parseAndValidate(String mrrtTemplate) throws IOException;
+    
+    /**
+     * Extract the metadata of an mrrt template parsed and validated by {@link #parseAndValidate(String)} into a
+     * {@code MrrtReportTemplate}.
+     * 
+     * @param mrrtTemplate the parsed and validated mrrt template
+     * @return the mrrt report template
+     * @should return an mrrt template object with the metadata and terms of given template
+     */
+    public MrrtReportTemplate parse(MrrtReportTemplateDocument mrrtTemplate);
 }
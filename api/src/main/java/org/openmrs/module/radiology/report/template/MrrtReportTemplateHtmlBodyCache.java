@@ -0,0 +1,134 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jsoup.Jsoup;
+
+/**
+ * A bounded least recently used cache of the HTML bodies of mrrt report template files.
+ * <p>
+ * Bodies are cached by template id together with the path, modification time and size of the file they were read from,
+ * a body is read again if the file changed. Templates without id are not cached.
+ * </p>
+ */
+class MrrtReportTemplateHtmlBodyCache {
+    
+    
+    private static class Entry {
+        
+        
+        private final String path;
+        
+        private final long lastModified;
+        
+        private final long length;
+        
+        private String body;
+        
+        Entry(File file) {
+            this.path = file.getAbsolutePath();
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+        
+        boolean isCurrent(File file) {
+            return path.equals(file.getAbsolutePath()) && lastModified == file.lastModified() && length == file.length();
+        }
+    }
+    
+    private final Map<Integer, Entry> entries;
+    
+    /**
+     * Creates a cache holding the bodies of at most given number of templates.
+     *
+     * @param maximumSize the maximum number of cached bodies
+     */
+    MrrtReportTemplateHtmlBodyCache(final int maximumSize) {
+        
+        entries = new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+            
+            
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+    
+    /**
+     * Gets the HTML body of a template file, reading it only if it is not cached or the file changed.
+     *
+     * @param templateId the id of the template the file belongs to
+     * @param templateFile the template file
+     * @return the HTML body of the template file
+     * @throws IOException if one is thrown while reading the file
+     * @should return the cached body while the file is unchanged
+     * @should read the body again if the file changed
+     * @should evict the least recently used body if the maximum size is exceeded
+     * @should not cache the body of a template without id
+     */
+    String get(Integer templateId, File templateFile) throws IOException {
+        
+        if (templateId == null) {
+            return read(templateFile);
+        }
+        synchronized (entries) {
+            final Entry entry = entries.get(templateId);
+            if (entry != null && entry.isCurrent(templateFile)) {
+                return entry.body;
+            }
+        }
+        // the file is read outside the lock so a slow disk does not block renders of other templates, its modification
+        // time and size are taken first so a change while reading is detected by the next get
+        final Entry entry = new Entry(templateFile);
+        entry.body = read(templateFile);
+        synchronized (entries) {
+            entries.put(templateId, entry);
+        }
+        return entry.body;
+    }
+    
+    /**
+     * Removes the body of a template from the cache.
+     *
+     * @param templateId the id of the template whose body to remove
+     * @should remove the body of given template
+     */
+    void evict(Integer templateId) {
+        
+        synchronized (entries) {
+            entries.remove(templateId);
+        }
+    }
+    
+    /**
+     * @return the number of cached bodies
+     */
+    int size() {
+        
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    private static String read(File templateFile) throws IOException {
+        
+        return Jsoup.parse(templateFile, null)
+                .select("body")
+                .html();
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+/**
+ * A template file of a bulk import of mrrt report templates which was parsed and validated and is ready to be saved.
+ *
+ * @see MrrtReportTemplateBatchImporter#importBatch(java.util.List)
+ */
+class MrrtReportTemplateImportFile {
+    
+    
+    private final String fileName;
+    
+    private final String mrrtTemplate;
+    
+    private final MrrtReportTemplateDocument document;
+    
+    /**
+     * Creates a template file ready to be saved.
+     *
+     * @param fileName the name of the file within the archive or directory
+     * @param mrrtTemplate the content of the file
+     * @param document the content of the file parsed and validated by the {@code MrrtReportTemplateFileParser}
+     */
+    public MrrtReportTemplateImportFile(String fileName, String mrrtTemplate, MrrtReportTemplateDocument document) {
+        this.fileName = fileName;
+        this.mrrtTemplate = mrrtTemplate;
+        this.document = document;
+    }
+    
+    /**
+     * @return the name of the file within the archive or directory
+     */
+    public String getFileName() {
+        return fileName;
+    }
+    
+    /**
+     * @return the content of the file
+     */
+    public String getMrrtTemplate() {
+        return mrrtTemplate;
+    }
+    
+    /**
+     * @return the parsed and validated content of the file
+     */
+    public MrrtReportTemplateDocument getDocument() {
+        return document;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of importing one file of a bulk import of mrrt report templates.
+ *
+ * @see MrrtReportTemplateService#importMrrtReportTemplates(java.io.InputStream)
+ * @see MrrtReportTemplateService#importMrrtReportTemplates(java.io.File)
+ */
+public class MrrtReportTemplateImportResult {
+    
+    
+    private final String fileName;
+    
+    private final MrrtReportTemplate template;
+    
+    private final String errorMessage;
+    
+    private final List<ValidationError> validationErrors;
+    
+    private MrrtReportTemplateImportResult(String fileName, MrrtReportTemplate template, String errorMessage,
+            List<ValidationError> validationErrors) {
+        this.fileName = fileName;
+        this.template = template;
+        this.errorMessage = errorMessage;
+        this.validationErrors = validationErrors;
+    }
+    
+    /**
+     * Creates the result of a file which was imported.
+     *
+     * @param fileName the name of the file
+     * @param template the imported template
+     * @return the result of the imported file
+     */
+    static MrrtReportTemplateImportResult imported(String fileName, MrrtReportTemplate template) {
+        return new MrrtReportTemplateImportResult(fileName, template, null, Collections.<ValidationError> emptyList());
+    }
+    
+    /**
+     * Creates the result of a file which could not be imported.
+     *
+     * @param fileName the name of the file
+     * @param errorMessage the reason the file could not be imported
+     * @return the result of the failed file
+     */
+    static MrrtReportTemplateImportResult failed(String fileName, String errorMessage) {
+        return new MrrtReportTemplateImportResult(fileName, null, errorMessage, Collections.<ValidationError> emptyList());
+    }
+    
+    /**
+     * Creates the result of a file which violates the mrrt standard.
+     *
+     * @param fileName the name of the file
+     * @param exception the exception thrown by the validation of the file
+     * @return the result of the invalid file
+     */
+    static MrrtReportTemplateImportResult invalid(String fileName, MrrtReportTemplateValidationException exception) {
+        final ValidationResult validationResult = exception.getValidationResult();
+        return new MrrtReportTemplateImportResult(fileName, null, validationResult.toString(), validationResult.getErrors());
+    }
+    
+    /**
+     * @return the name of the file within the archive or directory
+     */
+    public String getFileName() {
+        return fileName;
+    }
+    
+    /**
+     * @return true if the file was imported
+     */
+    public boolean isImported() {
+        return template != null;
+    }
+    
+    /**
+     * @return the imported template or null if the file was not imported
+     */
+    public MrrtReportTemplate getTemplate() {
+        return template;
+    }
+    
+    /**
+     * @return the reason the file was not imported or null if it was imported
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    /**
+     * @return the violations of the mrrt standard if the file is an invalid template, an empty list otherwise
+     */
+    public List<ValidationError> getValidationErrors() {
+        return validationErrors;
+    }
+}
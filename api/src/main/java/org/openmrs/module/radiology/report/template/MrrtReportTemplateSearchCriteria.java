@@ -23,6 +23,14 @@ public class MrrtReportTemplateSearchCriteria {
     
     private final String creator;
     
+    private final Integer startIndex;
+    
+    private final Integer limit;
+    
+    private final SortField sortField;
+    
+    private final Boolean sortAscending;
+    
     /**
      * @return the title of the mrrt report template
      */
@@ -53,6 +61,45 @@ public class MrrtReportTemplateSearchCriteria {
         return creator;
     }
     
+    /**
+     * @return the index of the first mrrt report template to return
+     */
+    public Integer getStartIndex() {
+        
+        return startIndex;
+    }
+    
+    /**
+     * @return the maximum number of mrrt report templates to return
+     */
+    public Integer getLimit() {
+        
+        return limit;
+    }
+    
+    /**
+     * @return the field by which the mrrt report templates are sorted
+     */
+    public SortField getSortField() {
+        
+        return sortField;
+    }
+    
+    /**
+     * @return true if the mrrt report templates are sorted in ascending order, false if in descending order
+     */
+    public Boolean getSortAscending() {
+        
+        return sortAscending;
+    }
+    
+    /**
+     * Fields by which mrrt report templates can be sorted.
+     */
+    public enum SortField {
+        TITLE, CREATOR, PUBLISHER, LICENSE
+    }
+    
     public static class Builder {
         
         
@@ -64,6 +111,14 @@ public class MrrtReportTemplateSearchCriteria {
         
         private String creator;
         
+        private Integer startIndex;
+        
+        private Integer limit;
+        
+        private SortField sortField = SortField.TITLE;
+        
+        private Boolean sortAscending = true;
+        
         /**
          * @param title the title of the mrrt report template
          * @return this builder instance
@@ -102,6 +157,41 @@ public class MrrtReportTemplateSearchCriteria {
             return this;
         }
         
+        /**
+         * @param startIndex the index of the first mrrt report template to return
+         * @return this builder instance
+         */
+        public Builder withStartIndex(Integer startIndex) {
+            
+            this.startIndex = startIndex;
+            return this;
+        }
+        
+        /**
+         * @param limit the maximum number of mrrt report templates to return
+         * @return this builder instance
+         */
+        public Builder withLimit(Integer limit) {
+            
+            this.limit = limit;
+            return this;
+        }
+        
+        /**
+         * Sorts the mrrt report templates by given field. Mrrt report templates with equal values in the field keep a stable
+         * order so pages do not overlap. Defaults to ascending by {@code TITLE}.
+         * 
+         * @param sortField the field by which the mrrt report templates are sorted
+         * @param ascending true to sort in ascending order, false to sort in descending order
+         * @return this builder instance
+         */
+        public Builder sortBy(SortField sortField, boolean ascending) {
+            
+            this.sortField = sortField;
+            this.sortAscending = ascending;
+            return this;
+        }
+        
         /**
          * Creates an {@code MrrtReportTemplateSearchCriteria} with properties of this builder instance.
          * 
@@ -110,6 +200,8 @@ public class MrrtReportTemplateSearchCriteria {
          * @should create an mrrt report template search criteria instance with publisher if publisher is set
          * @should create an mrrt report template search criteria instance with license if license is set
          * @should create an mrrt report template search criteria instance with creator if creator is set
+         * @should create an mrrt report template search criteria instance with start index and limit if start index and limit are set
+         * @should create an mrrt report template search criteria instance with sort field and direction if sort is set
          */
         public MrrtReportTemplateSearchCriteria build() {
             return new MrrtReportTemplateSearchCriteria(this);
@@ -122,5 +214,9 @@ public class MrrtReportTemplateSearchCriteria {
         this.publisher = builder.publisher;
         this.license = builder.license;
         this.creator = builder.creator;
+        this.startIndex = builder.startIndex;
+        this.limit = builder.limit;
+        this.sortField = builder.sortField == null ? SortField.TITLE : builder.sortField;
+        this.sortAscending = builder.sortAscending;
     }
 }
@@ -9,7 +9,9 @@
  */
 package org.openmrs.module.radiology.report.template;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 import org.openmrs.annotation.Authorized;
@@ -57,6 +59,57 @@ public interface MrrtReportTemplateService extends OpenmrsService {
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES)
     public MrrtReportTemplate importMrrtReportTemplate(String mrrtTemplate) throws IOException;
     
+    /**
+     * Import the {@code .html} and {@code .htm} mrrt templates of a ZIP archive into the system.
+     * <p>
+     * The archive is read entry by entry. The templates are parsed and validated in parallel on a bounded pool of worker
+     * threads and saved in batches like {@link #importMrrtReportTemplate(String)} does, so at most one batch of templates
+     * is held in memory. A file which cannot be imported does not stop the import of the other files.
+     * </p>
+     * <p>
+     * Every batch is saved in a transaction of its own, so the batches saved before a failing one stay imported. The
+     * templates of a batch which was rolled back are imported one by one. The current session is cleared after every
+     * batch, entities loaded in it before the import are detached afterwards.
+     * </p>
+     * 
+     * @param zipArchive the ZIP archive containing the mrrt templates, it is not closed
+     * @return the result of every template file in the order of the archive
+     * @throws IOException if the archive cannot be read
+     * @throws IllegalArgumentException if given null
+     * @should import the valid templates of the archive and report the invalid ones
+     * @should skip entries which are no html files
+     * @should report templates whose identifier already exists as not imported
+     * @should import all templates of an archive with more templates than fit in one batch
+     * @should report templates whose identifier already exists in an earlier batch of the archive as not imported
+     * @should delete the template files of a batch which was rolled back and import its templates one by one
+     * @should clear the session after every batch
+     * @should throw illegal argument exception if given archive is null
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES)
+    public List<MrrtReportTemplateImportResult> importMrrtReportTemplates(InputStream zipArchive) throws IOException;
+    
+    /**
+     * Import the {@code .html} and {@code .htm} mrrt templates of a directory on the server into the system.
+     * <p>
+     * Subdirectories are not imported. The templates are imported like
+     * {@link #importMrrtReportTemplates(InputStream)} imports the templates of an archive. Only directories inside the
+     * OpenMRS application data directory can be imported so the server file system cannot be read through this method.
+     * </p>
+     * 
+     * @param directory the directory containing the mrrt templates
+     * @return the result of every template file in the order of their names
+     * @throws IOException if the directory cannot be read
+     * @throws IllegalArgumentException if given null, no directory or a directory outside of the application data
+     *         directory
+     * @should import the valid templates of the directory and report the invalid ones
+     * @should throw illegal argument exception if given no directory
+     * @should throw illegal argument exception if given directory is outside of the application data directory
+     * @should throw illegal argument exception if given path outside of the application data directory before checking it
+     * @should throw illegal argument exception if given directory is null
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_REPORT_TEMPLATES)
+    public List<MrrtReportTemplateImportResult> importMrrtReportTemplates(File directory) throws IOException;
+    
     /**
      * Delete an {@code MrrtReportTemplate} from the database.
      *
@@ -103,6 +156,7 @@ public interface MrrtReportTemplateService extends OpenmrsService {
      * @throws IllegalArgumentException if given null
      * @should find object with given identifier
      * @should return null if no object found with given identifier
+     * @should return null for the identifier of a purged template
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORT_TEMPLATES)
@@ -110,7 +164,7 @@ public interface MrrtReportTemplateService extends OpenmrsService {
     
     /**
      * Get all {@code MrrtReportTemplate's} matching a variety of (nullable) criteria.
-     * Returns results ordered by dcTermsTitle. 
+     * Returns results ordered by dcTermsTitle.
      * 
      * @param mrrtReportTemplateSearchCriteria the object containing search parameters
      * @return the mrrt report templates matching the given criteria
@@ -124,18 +178,39 @@ public interface MrrtReportTemplateService extends OpenmrsService {
      * @should return an empty list if no match for license was found
      * @should return all mrrt report templates that match given creator anywhere in dcterms creator insensitive to case
      * @should return an empty list if no match for creator was found
+     * @should return at most limit mrrt report templates starting at given start index
+     * @should not query the terms of each mrrt report template separately
+     * @should return mrrt report templates sorted by given sort field and direction
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORT_TEMPLATES)
     public List<MrrtReportTemplate>
             getMrrtReportTemplates(MrrtReportTemplateSearchCriteria mrrtReportTemplateSearchCriteria);
     
+    /**
+     * Count the mrrt report templates matching the given search criteria without loading them.
+     * The start index and limit of given criteria are ignored.
+     *
+     * @param mrrtReportTemplateSearchCriteria the search criteria
+     * @return the number of mrrt report templates matching the given criteria
+     * @throws IllegalArgumentException if given null
+     * @should return the number of mrrt report templates matching given criteria ignoring start index and limit
+     * @should count mrrt report templates with one query
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_REPORT_TEMPLATES)
+    public Long countMrrtReportTemplates(MrrtReportTemplateSearchCriteria mrrtReportTemplateSearchCriteria);
+    
     /**
      * Get the HTML body content of {@code MrrtReportTemplate's} file.
+     * <p>
+     * The body content is cached until the file changes or the template is purged.
+     * </p>
      * 
      * @param mrrtReportTemplate the mrrt report template for which we want to get its html body content
      * @return the body content of the mrrt report template file
      * @throws IOException if one is thrown while reading the file
      * @should return the body content of the mrrt report template file
+     * @should return the changed body content if the mrrt report template file changed
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.VIEW_RADIOLOGY_REPORT_TEMPLATES)
@@ -11,20 +11,37 @@ package org.openmrs.module.radiology.report.template;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import org.apache.commons.io.FileUtils;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.openmrs.api.APIException;
+import org.openmrs.api.context.Context;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.util.OpenmrsUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Transactional(readOnly = true)
@@ -33,12 +50,40 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
     
     private static final Logger log = LoggerFactory.getLogger(MrrtReportTemplateServiceImpl.class);
     
+    static final String TEMPLATE_EXISTS = "Template already exist in the system.";
+    
+    /**
+     * The number of templates of a bulk import parsed and validated in parallel and then saved together in one
+     * transaction.
+     */
+    private static final int IMPORT_BATCH_SIZE = 20;
+    
+    /**
+     * The number of worker threads parsing and validating the templates of a bulk import.
+     */
+    private static final int IMPORT_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime()
+            .availableProcessors()));
+    
+    /**
+     * The maximum size in bytes of a template file of a bulk import.
+     */
+    private static final int MAXIMUM_TEMPLATE_SIZE = 5 * 1024 * 1024;
+    
+    /**
+     * The maximum number of template bodies kept in memory for rendering report forms.
+     */
+    private static final int HTML_BODY_CACHE_SIZE = 100;
+    
+    private final MrrtReportTemplateHtmlBodyCache htmlBodyCache = new MrrtReportTemplateHtmlBodyCache(HTML_BODY_CACHE_SIZE);
+    
     private MrrtReportTemplateFileParser parser;
     
     private RadiologyProperties radiologyProperties;
     
     private MrrtReportTemplateDAO mrrtReportTemplateDAO;
     
+    private MrrtReportTemplateBatchImporter batchImporter;
+    
     public void setMrrtReportTemplateDAO(MrrtReportTemplateDAO mrrtReportTemplateDAO) {
         this.mrrtReportTemplateDAO = mrrtReportTemplateDAO;
     }
@@ -51,6 +96,10 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         this.radiologyProperties = radiologyProperties;
     }
     
+    public void setBatchImporter(MrrtReportTemplateBatchImporter batchImporter) {
+        this.batchImporter = batchImporter;
+    }
+    
     /**
      * @see MrrtReportTemplateService#importMrrtReportTemplate(String)
      */
@@ -59,13 +108,289 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
     public MrrtReportTemplate importMrrtReportTemplate(String mrrtTemplate) throws IOException {
         
         final MrrtReportTemplate template = parser.parse(mrrtTemplate);
+        return saveMrrtReportTemplate(template, mrrtTemplate);
+    }
+    
+    /**
+     * Stores the template file in the report template home and saves the template.
+     */
+    private MrrtReportTemplate saveMrrtReportTemplate(MrrtReportTemplate template, String mrrtTemplate) throws IOException {
         
-        final File destination = new File(radiologyProperties.getReportTemplateHome(), java.util.UUID.randomUUID()
+        template.setPath(writeTemplateFile(radiologyProperties.getReportTemplateHome(), mrrtTemplate).getAbsolutePath());
+        return saveMrrtReportTemplate(template);
+    }
+    
+    /**
+     * Stores the template file under a random name in given report template home.
+     */
+    static File writeTemplateFile(File reportTemplateHome, String mrrtTemplate) throws IOException {
+        
+        final File destination = new File(reportTemplateHome, java.util.UUID.randomUUID()
                 .toString());
         FileUtils.writeStringToFile(destination, mrrtTemplate);
+        return destination;
+    }
+    
+    /**
+     * @see MrrtReportTemplateService#importMrrtReportTemplates(InputStream)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MrrtReportTemplateImportResult> importMrrtReportTemplates(InputStream zipArchive) throws IOException {
+        if (zipArchive == null) {
+            throw new IllegalArgumentException("zipArchive cannot be null");
+        }
         
-        template.setPath(destination.getAbsolutePath());
-        return saveMrrtReportTemplate(template);
+        final ZipInputStream zipInputStream = new ZipInputStream(zipArchive, StandardCharsets.UTF_8);
+        return importMrrtReportTemplates(new TemplateFiles() {
+            
+            
+            @Override
+            public String next() throws IOException {
+                
+                ZipEntry entry;
+                while ((entry = zipInputStream.getNextEntry()) != null) {
+                    if (!entry.isDirectory() && isTemplateFile(entry.getName())) {
+                        return entry.getName();
+                    }
+                }
+                return null;
+            }
+            
+            @Override
+            public String read() throws IOException {
+                // the zip input stream is not closed, it ends with the current entry
+                return readTemplateFile(zipInputStream);
+            }
+        });
+    }
+    
+    /**
+     * @see MrrtReportTemplateService#importMrrtReportTemplates(File)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<MrrtReportTemplateImportResult> importMrrtReportTemplates(File directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory cannot be null");
+        }
+        // checked before the directory is looked at so the errors do not tell whether a path outside exists
+        final Path directoryPath = directory.getCanonicalFile()
+                .toPath();
+        if (!directoryPath.startsWith(new File(OpenmrsUtil.getApplicationDataDirectory()).getCanonicalFile()
+                .toPath())) {
+            throw new IllegalArgumentException("directory " + directory + " is outside of the application data directory");
+        }
+        if (!Files.isDirectory(directoryPath)) {
+            throw new IllegalArgumentException("directory " + directory + " is no directory");
+        }
+        
+        final List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directoryPath)) {
+            for (Path path : directoryStream) {
+                if (Files.isRegularFile(path) && isTemplateFile(path.getFileName()
+                        .toString())) {
+                    paths.add(path);
+                }
+            }
+        }
+        Collections.sort(paths);
+        
+        final Iterator<Path> iterator = paths.iterator();
+        return importMrrtReportTemplates(new TemplateFiles() {
+            
+            
+            private Path current;
+            
+            @Override
+            public String next() {
+                
+                current = iterator.hasNext() ? iterator.next() : null;
+                return current == null ? null : current.getFileName()
+                        .toString();
+            }
+            
+            @Override
+            public String read() throws IOException {
+                
+                try (InputStream in = Files.newInputStream(current)) {
+                    return readTemplateFile(in);
+                }
+            }
+        });
+    }
+    
+    /**
+     * The template files of an archive or directory read one after the other.
+     */
+    private interface TemplateFiles {
+        
+        
+        /**
+         * Moves to the next template file.
+         *
+         * @return the name of the next template file or null if there is none
+         */
+        String next() throws IOException;
+        
+        /**
+         * @return the content of the current template file
+         */
+        String read() throws IOException;
+    }
+    
+    /**
+     * A template file whose parsing and validation was submitted to a worker thread.
+     */
+    private static class PendingImport {
+        
+        
+        private final String fileName;
+        
+        private final String mrrtTemplate;
+        
+        private final Future<MrrtReportTemplateDocument> document;
+        
+        PendingImport(String fileName, String mrrtTemplate, Future<MrrtReportTemplateDocument> document) {
+            this.fileName = fileName;
+            this.mrrtTemplate = mrrtTemplate;
+            this.document = document;
+        }
+    }
+    
+    private List<MrrtReportTemplateImportResult> importMrrtReportTemplates(TemplateFiles templateFiles) throws IOException {
+        
+        final List<MrrtReportTemplateImportResult> result = new ArrayList<>();
+        final List<PendingImport> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        final ExecutorService executor = Executors.newFixedThreadPool(IMPORT_THREADS);
+        try {
+            String fileName;
+            while ((fileName = templateFiles.next()) != null) {
+                final String mrrtTemplate;
+                try {
+                    mrrtTemplate = templateFiles.read();
+                }
+                catch (IOException exception) {
+                    result.add(MrrtReportTemplateImportResult.failed(fileName, exception.getMessage()));
+                    continue;
+                }
+                // parsing and validation need no session so they run on the worker threads, extracting the terms and
+                // saving the templates need a session so they run in the transaction of the batch on this thread
+                batch.add(new PendingImport(fileName, mrrtTemplate,
+                        executor.submit(() -> parser.parseAndValidate(mrrtTemplate))));
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    importBatch(batch, result);
+                }
+            }
+            importBatch(batch, result);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+    
+    private void importBatch(List<PendingImport> batch, List<MrrtReportTemplateImportResult> result) {
+        
+        if (batch.isEmpty()) {
+            return;
+        }
+        final MrrtReportTemplateImportResult[] batchResults = new MrrtReportTemplateImportResult[batch.size()];
+        final List<Integer> validated = new ArrayList<>(batch.size());
+        final List<MrrtReportTemplateImportFile> templateFiles = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            final PendingImport pendingImport = batch.get(i);
+            try {
+                templateFiles.add(new MrrtReportTemplateImportFile(pendingImport.fileName, pendingImport.mrrtTemplate,
+                        pendingImport.document.get()));
+                validated.add(i);
+            }
+            catch (ExecutionException exception) {
+                batchResults[i] = getFailedResult(pendingImport.fileName, exception.getCause());
+            }
+            catch (InterruptedException exception) {
+                Thread.currentThread()
+                        .interrupt();
+                throw new APIException("Interrupted while importing " + pendingImport.fileName, exception);
+            }
+        }
+        batch.clear();
+        
+        final List<MrrtReportTemplateImportResult> savedResults = saveBatch(templateFiles);
+        // the batch transactions run on the session of the request if one is open, which would otherwise keep every
+        // imported template and its terms and dirty check all of them on every commit
+        if (Context.isSessionOpen()) {
+            Context.clearSession();
+        }
+        for (int i = 0; i < validated.size(); i++) {
+            batchResults[validated.get(i)] = savedResults.get(i);
+        }
+        result.addAll(Arrays.asList(batchResults));
+    }
+    
+    /**
+     * Saves the template files of a batch in a transaction of their own via the batch importer, one by one if saving them
+     * together fails so a single template does not fail the whole batch.
+     */
+    private List<MrrtReportTemplateImportResult> saveBatch(List<MrrtReportTemplateImportFile> templateFiles) {
+        
+        if (templateFiles.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            return batchImporter.importBatch(templateFiles);
+        }
+        catch (RuntimeException exception) {
+            if (templateFiles.size() == 1) {
+                return Collections.singletonList(
+                    MrrtReportTemplateImportResult.failed(templateFiles.get(0)
+                            .getFileName(),
+                        getErrorMessage(exception)));
+            }
+            log.debug("Failed to import mrrt report templates in one transaction, importing them one by one", exception);
+            final List<MrrtReportTemplateImportResult> result = new ArrayList<>(templateFiles.size());
+            for (MrrtReportTemplateImportFile templateFile : templateFiles) {
+                result.addAll(saveBatch(Collections.singletonList(templateFile)));
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Gets the result of a template file whose parsing and validation failed.
+     */
+    private static MrrtReportTemplateImportResult getFailedResult(String fileName, Throwable cause) {
+        
+        if (cause instanceof MrrtReportTemplateValidationException) {
+            return MrrtReportTemplateImportResult.invalid(fileName, (MrrtReportTemplateValidationException) cause);
+        }
+        if (cause instanceof APIException || cause instanceof IOException) {
+            return MrrtReportTemplateImportResult.failed(fileName, cause.getMessage());
+        }
+        throw new APIException("Failed to import " + fileName, cause);
+    }
+    
+    private static String getErrorMessage(RuntimeException exception) {
+        return exception.getMessage() == null ? exception.getClass()
+                .getName() : exception.getMessage();
+    }
+    
+    private static boolean isTemplateFile(String fileName) {
+        
+        final String name = fileName.toLowerCase(Locale.ENGLISH);
+        return name.endsWith(".html") || name.endsWith(".htm");
+    }
+    
+    /**
+     * Reads a template file failing if it exceeds the maximum template size, so a single entry cannot exhaust the memory.
+     */
+    private static String readTemplateFile(InputStream in) throws IOException {
+        
+        final byte[] content = IOUtils.toByteArray(new BoundedInputStream(in, MAXIMUM_TEMPLATE_SIZE + 1L));
+        if (content.length > MAXIMUM_TEMPLATE_SIZE) {
+            throw new IOException("Template exceeds the maximum size of " + MAXIMUM_TEMPLATE_SIZE + " bytes");
+        }
+        return new String(content, StandardCharsets.UTF_8);
     }
     
     /**
@@ -79,7 +404,7 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         }
         final MrrtReportTemplate existing = getMrrtReportTemplateByIdentifier(template.getDcTermsIdentifier());
         if (existing != null) {
-            throw new APIException("Template already exist in the system.");
+            throw new APIException(TEMPLATE_EXISTS);
         }
         return mrrtReportTemplateDAO.saveMrrtReportTemplate(template);
     }
@@ -94,6 +419,7 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
             throw new IllegalArgumentException("template cannot be null");
         }
         mrrtReportTemplateDAO.purgeMrrtReportTemplate(template);
+        htmlBodyCache.evict(template.getId());
         Path templatePath = Paths.get(template.getPath());
         try {
             Files.delete(templatePath);
@@ -151,6 +477,17 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         return mrrtReportTemplateDAO.getMrrtReportTemplates(mrrtReportTemplateSearchCriteria);
     }
     
+    /**
+     * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#countMrrtReportTemplates(MrrtReportTemplateSearchCriteria)
+     */
+    @Override
+    public Long countMrrtReportTemplates(MrrtReportTemplateSearchCriteria mrrtReportTemplateSearchCriteria) {
+        if (mrrtReportTemplateSearchCriteria == null) {
+            throw new IllegalArgumentException("mrrtReportTemplateSearchCriteria cannot be null");
+        }
+        return mrrtReportTemplateDAO.countMrrtReportTemplates(mrrtReportTemplateSearchCriteria);
+    }
+    
     /**
      * @see org.openmrs.module.radiology.report.template.MrrtReportTemplateService#getMrrtReportTemplateHtmlBody(MrrtReportTemplate)
      */
@@ -159,10 +496,6 @@ class MrrtReportTemplateServiceImpl extends BaseOpenmrsService implements MrrtRe
         if (mrrtReportTemplate == null) {
             throw new IllegalArgumentException("mrrtReportTemplate cannot be null");
         }
-        final File templateFile = new File(mrrtReportTemplate.getPath());
-        final Document doc = Jsoup.parse(templateFile, null);
-        
-        return doc.select("body")
-                .html();
+        return htmlBodyCache.get(mrrtReportTemplate.getId(), new File(mrrtReportTemplate.getPath()));
     }
 }
@@ -48,8 +48,22 @@ public interface MrrtReportTemplateValidator {
      * @should throw api exception if template attributes element does not have a coded content element
      * @should throw api exception if template attributes element has more than one coded content element
      * @should throw api exception if html element does not have a body element
-     * @should throw api exception if html element has more than one body element 
+     * @should throw api exception if html element has more than one body element
      * @should catch all violation errors and throw an mrrt report template exception
+     * @should pass a valid template after failing an invalid one
+     * @should validate templates concurrently
      */
     public void validate(String mrrtTemplate) throws IOException;
+    
+    /**
+     * Validate an already parsed mrrt template according to the IHE standard, so callers which need the parsed template
+     * afterwards do not parse it twice.
+     *
+     * @param mrrtTemplate the parsed mrrt report template to be validated
+     * @throws IOException
+     * @throws APIException if the mrrt template fails validation
+     * @should pass if parsed template follows mrrt standards
+     * @should throw mrrt report template validation exception if parsed template violates mrrt standards
+     */
+    public void validate(MrrtReportTemplateDocument mrrtTemplate) throws IOException;
 }
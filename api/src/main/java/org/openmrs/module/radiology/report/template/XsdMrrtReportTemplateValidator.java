@@ -9,20 +9,17 @@
  */
 package org.openmrs.module.radiology.report.template;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
+import javax.annotation.PostConstruct;
 import javax.xml.XMLConstants;
+import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 
-import org.apache.commons.io.IOUtils;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
 import org.openmrs.api.APIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +29,10 @@ import org.xml.sax.SAXParseException;
 
 /**
  * Uses xsd with schema to validate {@code MrrtReportTemplate} files.
+ * <p>
+ * The schema is compiled once from the classpath and shared since a compiled {@link Schema} is immutable and thread
+ * safe. A {@link Validator} is not thread safe, each thread reuses its own.
+ * </p>
  */
 public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidator {
     
@@ -42,6 +43,10 @@ public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidat
     
     MetaTagsValidationEngine metaTagsValidationEngine;
     
+    private volatile Schema schema;
+    
+    private final ThreadLocal<Validator> validators = new ThreadLocal<Validator>();
+    
     public MetaTagsValidationEngine getMetaTagsValidationEngine() {
         return metaTagsValidationEngine;
     }
@@ -50,22 +55,37 @@ public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidat
         this.metaTagsValidationEngine = metaTagsValidationEngine;
     }
     
+    /**
+     * Compiles the mrrt report template schema so the first validation does not have to.
+     * 
+     * @throws IOException if the schema cannot be read
+     * @throws SAXException if the schema cannot be compiled
+     */
+    @PostConstruct
+    public void compileSchema() throws IOException, SAXException {
+        getSchema();
+    }
+    
     /**
      * @see MrrtReportTemplateValidator#validate(String)
      */
     @Override
     public void validate(String mrrtTemplate) throws IOException {
         
-        final Document document = Jsoup.parse(mrrtTemplate, "");
-        final Elements metatags = document.getElementsByTag("meta");
-        ValidationResult validationResult = metaTagsValidationEngine.run(metatags);
+        validate(MrrtReportTemplateDocument.parse(mrrtTemplate));
+    }
+    
+    /**
+     * @see MrrtReportTemplateValidator#validate(MrrtReportTemplateDocument)
+     */
+    @Override
+    public void validate(MrrtReportTemplateDocument mrrtTemplate) throws IOException {
+        
+        final ValidationResult validationResult = metaTagsValidationEngine.run(mrrtTemplate.getMetaTags());
         
-        final SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-        final Schema schema;
-        final Validator validator;
-        try (InputStream in = IOUtils.toInputStream(mrrtTemplate)) {
-            schema = factory.newSchema(getSchemaFile());
-            validator = schema.newValidator();
+        Validator validator = null;
+        try {
+            validator = getValidator();
             validator.setErrorHandler(new ErrorHandler() {
                 
                 
@@ -87,18 +107,64 @@ public class XsdMrrtReportTemplateValidator implements MrrtReportTemplateValidat
                     validationResult.addError(exception.getMessage(), "");
                 }
             });
-            validator.validate(new StreamSource(in));
+            validator.validate(new DOMSource(mrrtTemplate.getDocument()));
             validationResult.assertOk();
         }
         catch (SAXException e) {
             log.error(e.getMessage(), e);
             throw new APIException("radiology.report.template.validation.error", null, e);
         }
+        finally {
+            if (validator != null) {
+                // drops the error handler holding on to this validation result
+                validator.reset();
+            }
+        }
+    }
+    
+    /**
+     * Gets the validator of the current thread, creating it on first use.
+     * 
+     * @return the validator of the current thread
+     * @throws IOException if the schema cannot be read
+     * @throws SAXException if the schema cannot be compiled
+     */
+    private Validator getValidator() throws IOException, SAXException {
+        
+        Validator validator = validators.get();
+        if (validator == null) {
+            validator = getSchema().newValidator();
+            validators.set(validator);
+        }
+        return validator;
     }
     
-    private File getSchemaFile() {
-        return new File(getClass().getClassLoader()
-                .getResource(MRRT_REPORT_TEMPLATE_SCHEMA_FILE)
-                .getFile());
+    /**
+     * Gets the compiled mrrt report template schema, compiling it on first use.
+     * 
+     * @return the compiled schema
+     * @throws IOException if the schema cannot be read
+     * @throws SAXException if the schema cannot be compiled
+     */
+    private Schema getSchema() throws IOException, SAXException {
+        
+        Schema result = schema;
+        if (result == null) {
+            synchronized (this) {
+                result = schema;
+                if (result == null) {
+                    try (InputStream in = getClass().getClassLoader()
+                            .getResourceAsStream(MRRT_REPORT_TEMPLATE_SCHEMA_FILE)) {
+                        if (in == null) {
+                            throw new IOException(MRRT_REPORT_TEMPLATE_SCHEMA_FILE + " not found on classpath");
+                        }
+                        result = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                                .newSchema(new StreamSource(in));
+                    }
+                    schema = result;
+                }
+            }
+        }
+        return result;
     }
 }
@@ -9,6 +9,15 @@
  */
 package org.openmrs.module.radiology.study;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.FetchMode;
 import org.hibernate.SessionFactory;
 import org.hibernate.criterion.Restrictions;
 
@@ -22,6 +31,12 @@ import org.hibernate.criterion.Restrictions;
 class HibernateRadiologyStudyDAO implements RadiologyStudyDAO {
     
     
+    /**
+     * Maximum number of values bound to one {@code IN} restriction, see
+     * {@code HibernateRadiologyOrderDAO#MAX_IN_PARAMETERS}.
+     */
+    static final int MAX_IN_PARAMETERS = 1000;
+    
     private SessionFactory sessionFactory;
     
     /**
@@ -69,9 +84,42 @@ class HibernateRadiologyStudyDAO implements RadiologyStudyDAO {
      */
     @Override
     public RadiologyStudy getRadiologyStudyByStudyInstanceUid(String studyInstanceUid) {
+        
+        // studyInstanceUid is the natural id, its resolution to the study id is kept in the second-level cache
         return (RadiologyStudy) sessionFactory.getCurrentSession()
-                .createCriteria(RadiologyStudy.class)
-                .add(Restrictions.eq("studyInstanceUid", studyInstanceUid))
-                .uniqueResult();
+                .bySimpleNaturalId(RadiologyStudy.class)
+                .load(studyInstanceUid);
+    }
+    
+    /**
+     * @see org.openmrs.module.radiology.study.RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(Collection)
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map<String, RadiologyStudy> getRadiologyStudiesByStudyInstanceUids(Collection<String> studyInstanceUids) {
+        
+        final List<String> distinctStudyInstanceUids = new ArrayList<String>(new LinkedHashSet<String>(studyInstanceUids));
+        distinctStudyInstanceUids.remove(null);
+        
+        final Map<String, RadiologyStudy> radiologyStudies = new HashMap<String, RadiologyStudy>();
+        for (int i = 0; i < distinctStudyInstanceUids.size(); i += MAX_IN_PARAMETERS) {
+            final List<RadiologyStudy> chunk = sessionFactory.getCurrentSession()
+                    .createCriteria(RadiologyStudy.class)
+                    .setFetchMode("radiologyOrder", FetchMode.JOIN)
+                    .add(Restrictions.in("studyInstanceUid", distinctStudyInstanceUids.subList(i,
+                        Math.min(i + MAX_IN_PARAMETERS, distinctStudyInstanceUids.size()))))
+                    .list();
+            for (RadiologyStudy radiologyStudy : chunk) {
+                radiologyStudies.put(radiologyStudy.getStudyInstanceUid(), radiologyStudy);
+            }
+        }
+        
+        final Map<String, RadiologyStudy> result = new LinkedHashMap<String, RadiologyStudy>();
+        for (String studyInstanceUid : distinctStudyInstanceUids) {
+            if (radiologyStudies.containsKey(studyInstanceUid)) {
+                result.put(studyInstanceUid, radiologyStudies.get(studyInstanceUid));
+            }
+        }
+        return result;
     }
 }
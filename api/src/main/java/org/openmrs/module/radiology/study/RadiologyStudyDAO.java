@@ -9,6 +9,9 @@
  */
 package org.openmrs.module.radiology.study;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * {@code RadiologyStudy} related database methods.
  * 
@@ -37,4 +40,9 @@ interface RadiologyStudyDAO {
      * @see org.openmrs.module.radiology.study.RadiologyStudyService#getRadiologyStudyByStudyInstanceUid(String)
      */
     public RadiologyStudy getRadiologyStudyByStudyInstanceUid(String studyInstanceUid);
+    
+    /**
+     * @see org.openmrs.module.radiology.study.RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(Collection)
+     */
+    public Map<String, RadiologyStudy> getRadiologyStudiesByStudyInstanceUids(Collection<String> studyInstanceUids);
 }
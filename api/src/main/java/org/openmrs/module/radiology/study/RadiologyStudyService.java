@@ -9,6 +9,10 @@
  */
 package org.openmrs.module.radiology.study;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.APIException;
 import org.openmrs.api.OpenmrsService;
@@ -43,6 +47,26 @@ public interface RadiologyStudyService extends OpenmrsService {
     @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_STUDIES)
     public RadiologyStudy saveRadiologyStudy(RadiologyStudy radiologyStudy);
     
+    /**
+     * Saves new {@code RadiologyStudy}s to the database.
+     * Study instance uids of all given radiology studies are generated at once.
+     * 
+     * @param radiologyStudies the radiology studies to be created
+     * @return the created radiology studies
+     * @throws IllegalArgumentException if given null or a list containing null
+     * @throws IllegalArgumentException if global property DICOM UID org root cannot be found
+     * @throws IllegalArgumentException if global property DICOM UID org root is empty
+     * @throws IllegalArgumentException if global property DICOM UID org root is not a valid UID
+     * @throws IllegalArgumentException if global property DICOM UID org root exceeds the maximum length
+     * @throws APIException on saving an existing radiology study
+     * @should create new radiology studies from given radiology studies
+     * @should set the study instance uids of given radiology studies if blank
+     * @should throw illegal argument exception if given null
+     * @should throw api exception on saving an existing radiology study
+     */
+    @Authorized(RadiologyPrivileges.ADD_RADIOLOGY_STUDIES)
+    public List<RadiologyStudy> saveRadiologyStudies(List<RadiologyStudy> radiologyStudies);
+    
     /**
      * Get the {@code RadiologyStudy} by its {@code studyId}.
      *
@@ -64,6 +88,7 @@ public interface RadiologyStudyService extends OpenmrsService {
      * @throws IllegalArgumentException if given null
      * @should return radiology study matching given uuid
      * @should return null if no match was found
+     * @should return radiology study and its radiology order with at most two queries
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_STUDIES)
@@ -77,8 +102,29 @@ public interface RadiologyStudyService extends OpenmrsService {
      * @throws IllegalArgumentException if given null
      * @should return radiology study exactly matching given study instance uid
      * @should return null if no match was found
+     * @should return radiology study and its radiology order with at most two queries
      * @should throw illegal argument exception if given null
      */
     @Authorized(RadiologyPrivileges.GET_RADIOLOGY_STUDIES)
     public RadiologyStudy getRadiologyStudyByStudyInstanceUid(String studyInstanceUid);
+    
+    /**
+     * Get the {@code RadiologyStudy's} matching given Study Instance UIDs at once, together with their radiology
+     * orders.
+     * The Study Instance UIDs are looked up with as few queries as the database allows parameters in a query, instead of
+     * one query per Study Instance UID.
+     *
+     * @param studyInstanceUids the study instance uids of the wanted radiology studies
+     * @return the radiology studies keyed by study instance uid in the order of given study instance uids, study
+     *         instance uids without a radiology study are not contained
+     * @throws IllegalArgumentException if given null
+     * @should return the radiology studies matching given study instance uids keyed by study instance uid
+     * @should not contain study instance uids without radiology study
+     * @should return an empty map given no study instance uids
+     * @should fetch the radiology studies of more study instance uids than allowed in one query
+     * @should fetch the radiology orders of the radiology studies with the same query
+     * @should throw illegal argument exception if given null
+     */
+    @Authorized(RadiologyPrivileges.GET_RADIOLOGY_STUDIES)
+    public Map<String, RadiologyStudy> getRadiologyStudiesByStudyInstanceUids(Collection<String> studyInstanceUids);
 }
@@ -9,6 +9,11 @@
  */
 package org.openmrs.module.radiology.study;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.api.APIException;
 import org.openmrs.api.impl.BaseOpenmrsService;
@@ -28,7 +33,7 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
     
     private RadiologyProperties radiologyProperties;
     
-    private DicomUidGenerator dicomUidGenerator;
+    private Map<String, DicomUidGenerator> dicomUidGenerators;
     
     public void setRadiologyStudyDAO(RadiologyStudyDAO radiologyStudyDAO) {
         this.radiologyStudyDAO = radiologyStudyDAO;
@@ -38,8 +43,8 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
         this.radiologyProperties = radiologyProperties;
     }
     
-    public void setDicomUidGenerator(DicomUidGenerator dicomUidGenerator) {
-        this.dicomUidGenerator = dicomUidGenerator;
+    public void setDicomUidGenerators(Map<String, DicomUidGenerator> dicomUidGenerators) {
+        this.dicomUidGenerators = dicomUidGenerators;
     }
     
     /**
@@ -61,6 +66,46 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
         return radiologyStudyDAO.saveRadiologyStudy(radiologyStudy);
     }
     
+    /**
+     * @see RadiologyStudyService#saveRadiologyStudies(List)
+     */
+    @Override
+    @Transactional
+    public List<RadiologyStudy> saveRadiologyStudies(List<RadiologyStudy> radiologyStudies) {
+        
+        if (radiologyStudies == null) {
+            throw new IllegalArgumentException("radiologyStudies cannot be null");
+        }
+        
+        final List<RadiologyStudy> withoutStudyInstanceUid = new ArrayList<RadiologyStudy>();
+        for (RadiologyStudy radiologyStudy : radiologyStudies) {
+            if (radiologyStudy == null) {
+                throw new IllegalArgumentException("radiologyStudy cannot be null");
+            }
+            if (radiologyStudy.getStudyId() != null) {
+                throw new APIException("RadiologyStudy.cannot.edit.existing");
+            }
+            if (StringUtils.isBlank(radiologyStudy.getStudyInstanceUid())) {
+                withoutStudyInstanceUid.add(radiologyStudy);
+            }
+        }
+        
+        if (!withoutStudyInstanceUid.isEmpty()) {
+            final List<String> studyInstanceUids = getDicomUidGenerator()
+                    .getNewDicomUids(radiologyProperties.getDicomUIDOrgRoot(), withoutStudyInstanceUid.size());
+            for (int i = 0; i < withoutStudyInstanceUid.size(); i++) {
+                withoutStudyInstanceUid.get(i)
+                        .setStudyInstanceUid(studyInstanceUids.get(i));
+            }
+        }
+        
+        final List<RadiologyStudy> result = new ArrayList<RadiologyStudy>(radiologyStudies.size());
+        for (RadiologyStudy radiologyStudy : radiologyStudies) {
+            result.add(radiologyStudyDAO.saveRadiologyStudy(radiologyStudy));
+        }
+        return result;
+    }
+    
     /**
      * Sets {@code studyInstanceUid} of given {@code radiologyStudy} if blank.
      * 
@@ -69,6 +114,7 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
      * @throws IllegalArgumentException if global property DICOM UID org root is empty
      * @throws IllegalArgumentException if global property DICOM UID org root is not a valid UID
      * @throws IllegalArgumentException if global property DICOM UID org root exceeds the maximum length
+     * @throws IllegalStateException if no DICOM UID generator is named as configured by global property
      * @should set the study instance uid of given radiology study to a valid dicom uid if null
      * @should set the study instance uid of given radiology study to a valid dicom uid if only containing whitespaces
      * @should not set the study instance uid of given radiology study if contains non whitespace characters
@@ -76,11 +122,27 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
     private void setStudyInstanceUidIfBlank(RadiologyStudy radiologyStudy) {
         
         if (StringUtils.isBlank(radiologyStudy.getStudyInstanceUid())) {
-            final String uuid = dicomUidGenerator.getNewDicomUid(radiologyProperties.getDicomUIDOrgRoot());
+            final String uuid = getDicomUidGenerator().getNewDicomUid(radiologyProperties.getDicomUIDOrgRoot());
             radiologyStudy.setStudyInstanceUid(uuid);
         }
     }
     
+    /**
+     * Gets the {@code DicomUidGenerator} configured by global property.
+     * 
+     * @return the configured dicom uid generator
+     * @throws IllegalStateException if no DICOM UID generator is named as configured by global property
+     */
+    private DicomUidGenerator getDicomUidGenerator() {
+        
+        final String generatorName = radiologyProperties.getDicomUidGenerator();
+        final DicomUidGenerator dicomUidGenerator = dicomUidGenerators.get(generatorName);
+        if (dicomUidGenerator == null) {
+            throw new IllegalStateException("No DICOM UID generator named " + generatorName);
+        }
+        return dicomUidGenerator;
+    }
+    
     /**
      * @see RadiologyStudyService#getRadiologyStudy(Integer)
      */
@@ -117,4 +179,16 @@ class RadiologyStudyServiceImpl extends BaseOpenmrsService implements RadiologyS
         }
         return radiologyStudyDAO.getRadiologyStudyByStudyInstanceUid(studyInstanceUid);
     }
+    
+    /**
+     * @see RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(Collection)
+     */
+    @Override
+    public Map<String, RadiologyStudy> getRadiologyStudiesByStudyInstanceUids(Collection<String> studyInstanceUids) {
+        
+        if (studyInstanceUids == null) {
+            throw new IllegalArgumentException("studyInstanceUids cannot be null");
+        }
+        return radiologyStudyDAO.getRadiologyStudiesByStudyInstanceUids(studyInstanceUids);
+    }
 }
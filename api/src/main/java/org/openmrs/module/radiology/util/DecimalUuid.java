@@ -14,16 +14,31 @@ import java.util.UUID;
 
 /**
  * Translates a {@link java.util.UUID} into its decimal representation using {@link java.math.BigInteger}.
+ * <p>
+ * The decimal string representation returned by {@link #toString()} and {@link #toDecimalString(UUID)} is computed
+ * directly from the two {@code long} halves of the UUID without creating intermediate strings or big integers.
+ * </p>
  */
 public class DecimalUuid {
     
     
-    private static final int RADIX_HEX = 16;
+    /**
+     * Largest power of ten whose remainders times 2^32 still fit into a {@code long}.
+     */
+    private static final long CHUNK_DIVISOR = 1000000000L;
+    
+    private static final int CHUNK_DIGITS = 9;
     
     /**
-     * Holds the decimal representation of a {@link java.util.UUID}.
+     * Number of decimal digits of the largest unsigned 128-bit value.
      */
-    private final BigInteger decimalUuid;
+    private static final int MAX_DIGITS = 39;
+    
+    private static final long INT_MASK = 0xFFFFFFFFL;
+    
+    private final long mostSignificantBits;
+    
+    private final long leastSignificantBits;
     
     /**
      * Create a {@code DecimalUuid} from given {@code uuid}.
@@ -31,7 +46,8 @@ public class DecimalUuid {
      * @param uuid UUID to be translated into its decimal representation
      */
     public DecimalUuid(UUID uuid) {
-        this.decimalUuid = getBigIntegerFromUuid(uuid);
+        this.mostSignificantBits = uuid.getMostSignificantBits();
+        this.leastSignificantBits = uuid.getLeastSignificantBits();
     }
     
     /**
@@ -40,7 +56,7 @@ public class DecimalUuid {
      * @return decimal representation decimalUuid
      */
     public BigInteger getDecimalUuid() {
-        return this.decimalUuid;
+        return getBigIntegerFromUuid(new UUID(mostSignificantBits, leastSignificantBits));
     }
     
     /**
@@ -52,9 +68,61 @@ public class DecimalUuid {
      */
     private static BigInteger getBigIntegerFromUuid(UUID uuid) {
         
-        final String pureHexUuid = uuid.toString()
-                .replaceAll("-", "");
-        return new BigInteger(pureHexUuid, RADIX_HEX);
+        final byte[] magnitude = new byte[16];
+        long bits = uuid.getLeastSignificantBits();
+        for (int i = 15; i >= 8; i--) {
+            magnitude[i] = (byte) bits;
+            bits >>>= 8;
+        }
+        bits = uuid.getMostSignificantBits();
+        for (int i = 7; i >= 0; i--) {
+            magnitude[i] = (byte) bits;
+            bits >>>= 8;
+        }
+        return new BigInteger(1, magnitude);
+    }
+    
+    /**
+     * Translate given {@code uuid} to its decimal string representation.
+     * 
+     * @param uuid UUID to translate
+     * @return decimal string representation of uuid
+     * @should translate given uuid into its decimal string representation
+     * @should match the big integer representation for random uuids
+     */
+    public static String toDecimalString(UUID uuid) {
+        
+        // treat the 128 bits as four unsigned 32-bit limbs and repeatedly divide them by 10^9
+        long limb0 = uuid.getMostSignificantBits() >>> 32;
+        long limb1 = uuid.getMostSignificantBits() & INT_MASK;
+        long limb2 = uuid.getLeastSignificantBits() >>> 32;
+        long limb3 = uuid.getLeastSignificantBits() & INT_MASK;
+        
+        final char[] digits = new char[MAX_DIGITS];
+        int position = MAX_DIGITS;
+        while (limb0 != 0 || limb1 != 0 || limb2 != 0 || limb3 >= CHUNK_DIVISOR) {
+            long remainder = limb0 % CHUNK_DIVISOR;
+            limb0 = limb0 / CHUNK_DIVISOR;
+            long dividend = (remainder << 32) | limb1;
+            limb1 = dividend / CHUNK_DIVISOR;
+            remainder = dividend % CHUNK_DIVISOR;
+            dividend = (remainder << 32) | limb2;
+            limb2 = dividend / CHUNK_DIVISOR;
+            remainder = dividend % CHUNK_DIVISOR;
+            dividend = (remainder << 32) | limb3;
+            limb3 = dividend / CHUNK_DIVISOR;
+            remainder = dividend % CHUNK_DIVISOR;
+            for (int i = 0; i < CHUNK_DIGITS; i++) {
+                digits[--position] = (char) ('0' + remainder % 10);
+                remainder /= 10;
+            }
+        }
+        do {
+            digits[--position] = (char) ('0' + limb3 % 10);
+            limb3 /= 10;
+        } while (limb3 != 0);
+        
+        return new String(digits, position, MAX_DIGITS - position);
     }
     
     /**
@@ -63,6 +131,6 @@ public class DecimalUuid {
     @Override
     public String toString() {
         
-        return this.decimalUuid.toString();
+        return toDecimalString(new UUID(mostSignificantBits, leastSignificantBits));
     }
 }
@@ -0,0 +1,114 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.util;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique positive {@code long} ids without coordinating with other nodes.
+ * <p>
+ * An id is composed of (from most to least significant bits)
+ * <ul>
+ * <li>the number of ticks elapsed since the epoch
+ * <li>the node id
+ * <li>a sequence number which is reset on every tick
+ * </ul>
+ * Ids are unique across nodes as long as every node uses a distinct node id and the same layout. On a single node ids
+ * are strictly increasing, also when the clock is set back or more ids than the sequence can hold are requested within
+ * one tick; the generator then continues counting on the last tick handed out and runs ahead of the clock until it
+ * catches up.
+ * </p>
+ */
+public class NodeUniqueIdGenerator {
+    
+    
+    private final long nodeId;
+    
+    private final int sequenceBits;
+    
+    private final int tickShift;
+    
+    private final long tickMillis;
+    
+    private final long epochMillis;
+    
+    private final Clock clock;
+    
+    /**
+     * Holds the tick and the sequence number of the last generated id as {@code (tick << sequenceBits) | sequence}.
+     */
+    private final AtomicLong lastTickAndSequence = new AtomicLong();
+    
+    /**
+     * Create a {@code NodeUniqueIdGenerator}.
+     *
+     * @param nodeId the id of this node
+     * @param nodeIdBits the number of bits reserved for the node id
+     * @param sequenceBits the number of bits reserved for the sequence number
+     * @param tickMillis the length of a tick in milliseconds
+     * @param epochMillis the start of the first tick in milliseconds since 1970-01-01T00:00:00Z
+     * @param clock the clock providing the current time
+     * @throws IllegalArgumentException if nodeId does not fit into nodeIdBits
+     * @throws IllegalArgumentException if nodeIdBits and sequenceBits leave no bits for the tick
+     * @throws IllegalArgumentException if tickMillis is smaller than 1
+     */
+    public NodeUniqueIdGenerator(int nodeId, int nodeIdBits, int sequenceBits, long tickMillis, long epochMillis,
+        Clock clock) {
+        
+        if (nodeIdBits < 0 || sequenceBits < 0 || nodeIdBits + sequenceBits > 62) {
+            throw new IllegalArgumentException("nodeIdBits and sequenceBits need to leave bits for the tick");
+        }
+        if (nodeId < 0 || nodeId >= (1L << nodeIdBits)) {
+            throw new IllegalArgumentException("nodeId needs to be between 0 and " + ((1L << nodeIdBits) - 1));
+        }
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tickMillis needs to be greater than 0");
+        }
+        this.nodeId = nodeId;
+        this.sequenceBits = sequenceBits;
+        this.tickShift = nodeIdBits + sequenceBits;
+        this.tickMillis = tickMillis;
+        this.epochMillis = epochMillis;
+        this.clock = clock;
+    }
+    
+    /**
+     * Get the id of this node.
+     *
+     * @return the node id
+     */
+    public long getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Generates a new id.
+     *
+     * @return the new id
+     * @should return strictly increasing ids
+     * @should continue on the last tick if the clock is set back
+     * @should continue on the next tick if the sequence is exhausted within a tick
+     * @should never return the same id on different nodes
+     */
+    public long nextId() {
+        
+        while (true) {
+            final long last = lastTickAndSequence.get();
+            final long tick = (clock.millis() - epochMillis) / tickMillis;
+            // incrementing overflows the sequence into the tick once the sequence is exhausted
+            final long next = tick > (last >>> sequenceBits) ? tick << sequenceBits : last + 1;
+            if (lastTickAndSequence.compareAndSet(last, next)) {
+                final long sequence = next & ((1L << sequenceBits) - 1);
+                return ((next >>> sequenceBits) << tickShift) | (nodeId << sequenceBits) | sequence;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.util;
+
+import java.util.Locale;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Chooses the JDBC fetch size of queries whose results are scrolled through in chunks.
+ * <p>
+ * MySQL Connector/J reads a whole result set into memory whatever fetch size is set, unless the connection URL sets
+ * {@code useCursorFetch=true} which the default OpenMRS connection URL does not. Without it a result set is only
+ * streamed given the fetch size {@link Integer#MIN_VALUE}, and then no other query may run on the connection until the
+ * result set is closed.
+ * </p>
+ */
+public final class StreamingFetchSize {
+    
+    
+    private static final String USE_CURSOR_FETCH = "usecursorfetch=true";
+    
+    private StreamingFetchSize() {
+    }
+    
+    /**
+     * Gets the fetch size streaming the rows of a query which runs no other query on its connection while scrolling.
+     *
+     * @param session the session the query runs in
+     * @param chunkSize the number of rows fetched at once from databases honoring the fetch size
+     * @return {@link Integer#MIN_VALUE} on MySQL without cursor fetch, given chunk size otherwise
+     * @should return min value on mysql without cursor fetch
+     * @should return given chunk size on mysql with cursor fetch
+     * @should return given chunk size on other databases
+     */
+    public static int get(Session session, int chunkSize) {
+        
+        return isCursorFetchMissing(session) ? Integer.MIN_VALUE : chunkSize;
+    }
+    
+    /**
+     * Checks if given session runs on MySQL without cursor fetch, which reads every result set into memory at once
+     * unless it is streamed with the fetch size {@link Integer#MIN_VALUE}.
+     *
+     * @param session the session to check
+     * @return true if given session runs on MySQL and its connection URL does not set {@code useCursorFetch=true}
+     */
+    public static boolean isCursorFetchMissing(Session session) {
+        
+        if (!(((SessionFactoryImplementor) session.getSessionFactory()).getDialect() instanceof MySQLDialect)) {
+            return false;
+        }
+        final String url = session.doReturningWork(connection -> connection.getMetaData()
+                .getURL());
+        return url == null || !url.toLowerCase(Locale.ENGLISH)
+                .contains(USE_CURSOR_FETCH);
+    }
+}
@@ -10,7 +10,9 @@
 package org.openmrs.module.radiology;
 
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
@@ -19,12 +21,14 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Properties;
 
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
+import org.openmrs.CareSetting;
 import org.openmrs.ConceptClass;
 import org.openmrs.EncounterRole;
 import org.openmrs.EncounterType;
@@ -36,6 +40,7 @@ import org.openmrs.api.ConceptService;
 import org.openmrs.api.EncounterService;
 import org.openmrs.api.OrderService;
 import org.openmrs.api.VisitService;
+import org.openmrs.api.context.Context;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.openmrs.util.OpenmrsUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -80,6 +85,9 @@ public class RadiologyPropertiesComponentTest extends BaseModuleContextSensitive
         getGlobalPropertyMethod = RadiologyProperties.class.getDeclaredMethod("getGlobalProperty",
             new Class[] { String.class, boolean.class });
         getGlobalPropertyMethod.setAccessible(true);
+        
+        // values resolved in other tests may come from GPs of their datasets
+        radiologyProperties.clearResolvedValues();
     }
     
     /**
@@ -106,6 +114,204 @@ public class RadiologyPropertiesComponentTest extends BaseModuleContextSensitive
         radiologyProperties.getDicomUIDOrgRoot();
     }
     
+    /**
+     * @see RadiologyProperties#getAccessionNumberBlockSize()
+     */
+    @Test
+    public void shouldReturnAccessionNumberBlockSize() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, "100"));
+        
+        assertThat(radiologyProperties.getAccessionNumberBlockSize(), is(100));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberBlockSize()
+     */
+    @Test
+    public void shouldReturnOneIfGlobalPropertyForAccessionNumberBlockSizeCannotBeFound() throws Exception {
+        
+        assertThat(radiologyProperties.getAccessionNumberBlockSize(), is(1));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberBlockSize()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForAccessionNumberBlockSizeIsNotAPositiveInteger() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE, "0"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(RadiologyConstants.GP_ACCESSION_NUMBER_BLOCK_SIZE + " needs to be a positive integer");
+        
+        radiologyProperties.getAccessionNumberBlockSize();
+    }
+    
+    /**
+     * @see RadiologyProperties#getOrderEncounterReuseMinutes()
+     */
+    @Test
+    public void shouldReturnOrderEncounterReuseMinutes() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ORDER_ENCOUNTER_REUSE_MINUTES, "60"));
+        
+        assertThat(radiologyProperties.getOrderEncounterReuseMinutes(), is(60));
+    }
+    
+    /**
+     * @see RadiologyProperties#getOrderEncounterReuseMinutes()
+     */
+    @Test
+    public void shouldReturnZeroIfGlobalPropertyForOrderEncounterReuseMinutesCannotBeFound() throws Exception {
+        
+        assertThat(radiologyProperties.getOrderEncounterReuseMinutes(), is(0));
+    }
+    
+    /**
+     * @see RadiologyProperties#getOrderEncounterReuseMinutes()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForOrderEncounterReuseMinutesIsNotANonNegativeInteger() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ORDER_ENCOUNTER_REUSE_MINUTES, "-1"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException
+                .expectMessage(RadiologyConstants.GP_ORDER_ENCOUNTER_REUSE_MINUTES + " needs to be a non negative integer");
+        
+        radiologyProperties.getOrderEncounterReuseMinutes();
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxLookupSize()
+     */
+    @Test
+    public void shouldReturnMaximumLookupSize() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MAX_LOOKUP_SIZE, "50"));
+        
+        assertThat(radiologyProperties.getMaxLookupSize(), is(50));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxLookupSize()
+     */
+    @Test
+    public void shouldReturnOneThousandIfGlobalPropertyForMaximumLookupSizeCannotBeFound() throws Exception {
+        
+        assertThat(radiologyProperties.getMaxLookupSize(), is(1000));
+    }
+    
+    /**
+     * @see RadiologyProperties#getMaxLookupSize()
+     */
+    @Test
+    public void shouldFailIfGlobalPropertyForMaximumLookupSizeIsNotAPositiveInteger() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_MAX_LOOKUP_SIZE, "0"));
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(RadiologyConstants.GP_MAX_LOOKUP_SIZE + " needs to be a positive integer");
+        
+        radiologyProperties.getMaxLookupSize();
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberGenerator()
+     */
+    @Test
+    public void shouldReturnAccessionNumberGenerator() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, "sequence"));
+        
+        assertThat(radiologyProperties.getAccessionNumberGenerator(), is("sequence"));
+    }
+    
+    /**
+     * @see RadiologyProperties#getAccessionNumberGenerator()
+     */
+    @Test
+    public void shouldReturnBlockIfGlobalPropertyForAccessionNumberGeneratorCannotBeFound() throws Exception {
+        
+        assertThat(radiologyProperties.getAccessionNumberGenerator(), is("block"));
+    }
+    
+    /**
+     * @see RadiologyProperties#getDicomUidGenerator()
+     */
+    @Test
+    public void shouldReturnDicomUidGenerator() throws Exception {
+        
+        administrationService.saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_DICOM_UID_GENERATOR, "node"));
+        
+        assertThat(radiologyProperties.getDicomUidGenerator(), is("node"));
+    }
+    
+    /**
+     * @see RadiologyProperties#getDicomUidGenerator()
+     */
+    @Test
+    public void shouldReturnUuidIfGlobalPropertyForDicomUidGeneratorCannotBeFound() throws Exception {
+        
+        assertThat(radiologyProperties.getDicomUidGenerator(), is("uuid"));
+    }
+    
+    /**
+     * @see RadiologyProperties#getNodeId()
+     */
+    @Test
+    public void shouldReturnNodeId() throws Exception {
+        
+        setRuntimeProperty(RadiologyConstants.RP_NODE_ID, "7");
+        
+        assertThat(radiologyProperties.getNodeId(), is(7));
+    }
+    
+    /**
+     * @see RadiologyProperties#getNodeId()
+     */
+    @Test
+    public void shouldFailIfRuntimePropertyForNodeIdCannotBeFound() throws Exception {
+        
+        setRuntimeProperty(RadiologyConstants.RP_NODE_ID, null);
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Configuration required: " + RadiologyConstants.RP_NODE_ID);
+        
+        radiologyProperties.getNodeId();
+    }
+    
+    /**
+     * @see RadiologyProperties#getNodeId()
+     */
+    @Test
+    public void shouldFailIfRuntimePropertyForNodeIdIsNotAnIntegerBetween0And255() throws Exception {
+        
+        setRuntimeProperty(RadiologyConstants.RP_NODE_ID, "256");
+        
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(RadiologyConstants.RP_NODE_ID + " needs to be an integer between 0 and 255");
+        
+        radiologyProperties.getNodeId();
+    }
+    
+    private void setRuntimeProperty(String name, String value) {
+        
+        Properties runtimeProperties = Context.getRuntimeProperties();
+        if (value == null) {
+            runtimeProperties.remove(name);
+        } else {
+            runtimeProperties.setProperty(name, value);
+        }
+        Context.setRuntimeProperties(runtimeProperties);
+    }
+    
     /**
      * @see RadiologyProperties#getDicomWebViewerAddress()
      */
@@ -204,6 +410,31 @@ public class RadiologyPropertiesComponentTest extends BaseModuleContextSensitive
             is(outpatientCareSettingUuidInOpenMrsCore));
     }
     
+    /**
+     * @see RadiologyProperties#getRadiologyCareSetting()
+     */
+    @Test
+    public void shouldReturnTheRadiologyCareSettingOfTheCurrentSessionUntilItsGlobalPropertyChanges() throws Exception {
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, "6f0c9a92-6f24-11e3-af88-005056821db0"));
+        CareSetting radiologyCareSetting = radiologyProperties.getRadiologyCareSetting();
+        Context.flushSession();
+        Context.clearSession();
+        
+        CareSetting radiologyCareSettingOfCurrentSession = radiologyProperties.getRadiologyCareSetting();
+        assertThat(radiologyCareSettingOfCurrentSession, is(not(sameInstance(radiologyCareSetting))));
+        assertThat(radiologyCareSettingOfCurrentSession.getCareSettingId(), is(radiologyCareSetting.getCareSettingId()));
+        assertThat(radiologyProperties.getRadiologyCareSetting(), is(sameInstance(radiologyCareSettingOfCurrentSession)));
+        
+        administrationService.saveGlobalProperty(
+            new GlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, "c365e560-c3ec-11e3-9c1a-0800200c9a66"));
+        
+        assertThat(radiologyProperties.getRadiologyCareSetting()
+                .getUuid(),
+            is("c365e560-c3ec-11e3-9c1a-0800200c9a66"));
+    }
+    
     /**
      * @see RadiologyProperties#getRadiologyCareSetting()
      */
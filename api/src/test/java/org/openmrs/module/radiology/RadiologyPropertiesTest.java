@@ -0,0 +1,189 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.openmrs.CareSetting;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.AdministrationService;
+import org.openmrs.api.OrderService;
+import org.openmrs.test.BaseContextMockTest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests how {@link RadiologyProperties} keeps values resolved from GPs.
+ */
+public class RadiologyPropertiesTest extends BaseContextMockTest {
+    
+    
+    private static final String CARE_SETTING_UUID = "6f0c9a92-6f24-11e3-af88-005056821db0";
+    
+    private static final Integer CARE_SETTING_ID = 1;
+    
+    @Mock
+    private AdministrationService administrationService;
+    
+    @Mock
+    private OrderService orderService;
+    
+    @InjectMocks
+    private RadiologyProperties radiologyProperties = new RadiologyProperties();
+    
+    private CareSetting careSetting = new CareSetting();
+    
+    @Before
+    public void setUp() {
+        
+        when(administrationService.getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING))
+                .thenReturn(CARE_SETTING_UUID);
+        careSetting.setCareSettingId(CARE_SETTING_ID);
+        when(orderService.getCareSettingByUuid(CARE_SETTING_UUID)).thenReturn(careSetting);
+        when(orderService.getCareSetting(CARE_SETTING_ID)).thenReturn(careSetting);
+    }
+    
+    /**
+     * @see RadiologyProperties#getRadiologyCareSetting()
+     */
+    @Test
+    public void shouldLookUpTheRadiologyCareSettingOnlyOnce() throws Exception {
+        
+        assertThat(radiologyProperties.getRadiologyCareSetting(), is(careSetting));
+        assertThat(radiologyProperties.getRadiologyCareSetting(), is(careSetting));
+        
+        verify(administrationService, times(1)).getGlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING);
+        verify(orderService, times(1)).getCareSettingByUuid(CARE_SETTING_UUID);
+    }
+    
+    /**
+     * @see RadiologyProperties#getRadiologyCareSetting()
+     */
+    @Test
+    public void shouldFetchTheRadiologyCareSettingByIdOnEveryCall() throws Exception {
+        
+        CareSetting careSettingOfOtherSession = new CareSetting();
+        careSettingOfOtherSession.setCareSettingId(CARE_SETTING_ID);
+        radiologyProperties.getRadiologyCareSetting();
+        when(orderService.getCareSetting(CARE_SETTING_ID)).thenReturn(careSettingOfOtherSession);
+        
+        assertThat(radiologyProperties.getRadiologyCareSetting(), is(sameInstance(careSettingOfOtherSession)));
+        verify(orderService, times(1)).getCareSettingByUuid(CARE_SETTING_UUID);
+        verify(orderService, times(2)).getCareSetting(CARE_SETTING_ID);
+    }
+    
+    /**
+     * @see RadiologyProperties#getRadiologyCareSetting()
+     */
+    @Test
+    public void shouldResolveTheRadiologyCareSettingAgainOnceItsTimeToLiveElapsed() throws Exception {
+        
+        Clock clock = Clock.fixed(Instant.parse("2017-01-01T00:00:00Z"), ZoneOffset.UTC);
+        radiologyProperties.setClock(clock);
+        radiologyProperties.getRadiologyCareSetting();
+        
+        radiologyProperties.setClock(
+            Clock.offset(clock, Duration.ofMillis(RadiologyProperties.RESOLVED_VALUE_TIME_TO_LIVE_MILLIS - 1)));
+        radiologyProperties.getRadiologyCareSetting();
+        verify(orderService, times(1)).getCareSettingByUuid(CARE_SETTING_UUID);
+        
+        radiologyProperties
+                .setClock(Clock.offset(clock, Duration.ofMillis(RadiologyProperties.RESOLVED_VALUE_TIME_TO_LIVE_MILLIS)));
+        radiologyProperties.getRadiologyCareSetting();
+        verify(orderService, times(2)).getCareSettingByUuid(CARE_SETTING_UUID);
+    }
+    
+    /**
+     * @see RadiologyProperties#globalPropertyChanged(GlobalProperty)
+     */
+    @Test
+    public void shouldResolveTheValueOfTheChangedGlobalPropertyAgain() throws Exception {
+        
+        radiologyProperties.getRadiologyCareSetting();
+        
+        radiologyProperties
+                .globalPropertyChanged(new GlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, CARE_SETTING_UUID));
+        radiologyProperties.getRadiologyCareSetting();
+        
+        verify(orderService, times(2)).getCareSettingByUuid(CARE_SETTING_UUID);
+    }
+    
+    /**
+     * @see RadiologyProperties#globalPropertyChanged(GlobalProperty)
+     */
+    @Test
+    public void shouldResolveTheValueOfTheChangedGlobalPropertyAgainAfterTheTransactionCompleted() throws Exception {
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            radiologyProperties.globalPropertyChanged(
+                new GlobalProperty(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING, CARE_SETTING_UUID));
+            radiologyProperties.getRadiologyCareSetting();
+            radiologyProperties.getRadiologyCareSetting();
+            verify(orderService, times(1)).getCareSettingByUuid(CARE_SETTING_UUID);
+            
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        }
+        finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        radiologyProperties.getRadiologyCareSetting();
+        
+        verify(orderService, times(2)).getCareSettingByUuid(CARE_SETTING_UUID);
+    }
+    
+    /**
+     * @see RadiologyProperties#globalPropertyDeleted(String)
+     */
+    @Test
+    public void shouldResolveTheValueOfTheDeletedGlobalPropertyAgain() throws Exception {
+        
+        radiologyProperties.getRadiologyCareSetting();
+        
+        radiologyProperties.globalPropertyDeleted(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING);
+        radiologyProperties.getRadiologyCareSetting();
+        
+        verify(orderService, times(2)).getCareSettingByUuid(CARE_SETTING_UUID);
+    }
+    
+    /**
+     * @see RadiologyProperties#supportsPropertyName(String)
+     */
+    @Test
+    public void shouldReturnTrueForGlobalPropertiesOfThisModule() throws Exception {
+        
+        assertThat(radiologyProperties.supportsPropertyName(RadiologyConstants.GP_RADIOLOGY_CARE_SETTING), is(true));
+    }
+    
+    /**
+     * @see RadiologyProperties#supportsPropertyName(String)
+     */
+    @Test
+    public void shouldReturnFalseForGlobalPropertiesOfOtherModules() throws Exception {
+        
+        assertThat(radiologyProperties.supportsPropertyName("order.nextOrderNumberSeed"), is(false));
+    }
+}
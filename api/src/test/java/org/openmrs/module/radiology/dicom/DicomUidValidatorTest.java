@@ -17,10 +17,16 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 /**
  * Tests {@see DicomUidValidator}.
@@ -28,6 +34,14 @@ import org.junit.Test;
 public class DicomUidValidatorTest {
     
     
+    /**
+     * The regular expression of DICOM PS3.5 Chapter 9.1 the validator has to agree with.
+     */
+    private static final Pattern REGEX = Pattern.compile("^[012]((\\.0)|(\\.[1-9]\\d*))+$");
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
     /**
      * @see DicomUidValidator#isValid(String)
      */
@@ -257,4 +271,81 @@ public class DicomUidValidatorTest {
             assertTrue(DicomUidValidator.isValid(uid));
         }
     }
+    
+    /**
+     * @see DicomUidValidator#isValid(String)
+     */
+    @Test
+    public void isValid_shouldAgreeWithTheRegularExpressionOfTheDicomStandard() throws Exception {
+        
+        List<String> uids = new ArrayList<String>();
+        uids.add("");
+        uids.add("0");
+        uids.add("1.");
+        uids.add("1.0");
+        uids.add("1.00");
+        uids.add("1.01");
+        uids.add("1.10");
+        uids.add("1..2");
+        uids.add("3.1");
+        uids.add("10.1");
+        uids.add(".1.2");
+        uids.add("1.2.");
+        uids.add("1.2\n");
+        uids.add("1.2 ");
+        uids.add("2.25.278974633606539821744827903865060181275");
+        uids.add("1.2.\u0664");
+        uids.add(StringUtils.repeat("1.", 31) + "12");
+        uids.add(StringUtils.repeat("1.", 31) + "123");
+        
+        Random random = new Random(42);
+        char[] alphabet = { '0', '1', '2', '3', '9', '.', '.', 'a', ' ' };
+        for (int i = 0; i < 100000; i++) {
+            char[] uid = new char[random.nextInt(70)];
+            for (int j = 0; j < uid.length; j++) {
+                uid[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            uids.add(new String(uid));
+        }
+        
+        for (String uid : uids) {
+            assertThat(uid, DicomUidValidator.isValid(uid), is(uid.length() <= 64 && REGEX.matcher(uid)
+                    .matches()));
+            assertThat(uid, DicomUidValidator.isPatternValid(uid), is(REGEX.matcher(uid)
+                    .matches()));
+        }
+    }
+    
+    /**
+     * @see DicomUidValidator#validateAll(Collection)
+     */
+    @Test
+    public void validateAll_shouldReturnAnEmptyListIfAllUidsAreValid() throws Exception {
+        
+        assertThat(DicomUidValidator.validateAll(Arrays.asList("1.2.840.10008.1.2", "2.25.1"))
+                .isEmpty(),
+            is(true));
+    }
+    
+    /**
+     * @see DicomUidValidator#validateAll(Collection)
+     */
+    @Test
+    public void validateAll_shouldReturnTheIndexesOfInvalidUidsInIterationOrder() throws Exception {
+        
+        List<String> uids = Arrays.asList(null, "1.2.840.10008.1.2", "1.02", "2.25.1", StringUtils.repeat("1.2", 22));
+        
+        assertThat(DicomUidValidator.validateAll(uids), is(Arrays.asList(0, 2, 4)));
+    }
+    
+    /**
+     * @see DicomUidValidator#validateAll(Collection)
+     */
+    @Test
+    public void validateAll_shouldThrowIllegalArgumentExceptionGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("uids cannot be null");
+        DicomUidValidator.validateAll(null);
+    }
 }
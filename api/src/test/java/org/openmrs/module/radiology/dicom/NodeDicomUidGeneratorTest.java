@@ -0,0 +1,112 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.StringStartsWith.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.test.CollisionAssertions;
+
+/**
+ * Tests {@link NodeDicomUidGenerator}.
+ */
+public class NodeDicomUidGeneratorTest {
+    
+    
+    private static final String ROOT = "1.2.5.6.7.1220";
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Test
+    public void shouldReturnAValidUidPrefixedWithRootAndNodeId() throws Exception {
+        
+        String uid = getNodeDicomUidGenerator(7).getNewDicomUid(ROOT);
+        
+        assertThat(uid, startsWith(ROOT + ".7."));
+        assertTrue(DicomUidValidator.isValid(uid));
+    }
+    
+    @Test
+    public void shouldReturnAValidUidNotExceeding64CharactersGivenRootOfMaximumLength() throws Exception {
+        
+        NodeDicomUidGenerator generator = getNodeDicomUidGenerator(255);
+        String root = StringUtils.repeat("1.", 19) + "11";
+        assertThat(root.length(), is(generator.getMaxRootLength()));
+        assertTrue(DicomUidValidator.isValid(root));
+        
+        String uid = generator.getNewDicomUid(root);
+        
+        assertThat(uid.length(), is(not(greaterThan(64))));
+        assertTrue(DicomUidValidator.isValid(uid));
+    }
+    
+    @Test
+    public void shouldAlwaysReturnUniqueUidsAcrossNodesWhenCalledConcurrently() throws Exception {
+        
+        List<Supplier<String>> nodes = new ArrayList<Supplier<String>>();
+        for (int nodeId = 0; nodeId < 8; nodeId++) {
+            final NodeDicomUidGenerator generator = getNodeDicomUidGenerator(nodeId);
+            nodes.add(() -> generator.getNewDicomUid(ROOT));
+        }
+        
+        CollisionAssertions.assertNoCollisions(nodes, 4, 5000);
+    }
+    
+    @Test
+    public void shouldReturnCountUniqueValidUidsPrefixedWithRootAndNodeId() throws Exception {
+        
+        List<String> uids = getNodeDicomUidGenerator(7).getNewDicomUids(ROOT, 5000);
+        
+        assertThat(uids.size(), is(5000));
+        assertThat(new HashSet<String>(uids).size(), is(5000));
+        for (String uid : uids) {
+            assertThat(uid, startsWith(ROOT + ".7."));
+            assertTrue(DicomUidValidator.isValid(uid));
+        }
+    }
+    
+    @Test
+    public void shouldFailIfRootExceedsTheMaximumLength() throws Exception {
+        
+        NodeDicomUidGenerator generator = getNodeDicomUidGenerator(1);
+        String root = StringUtils.repeat("1.2", 15);
+        assertThat(root.length(), is(greaterThan(generator.getMaxRootLength())));
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("root length is > " + generator.getMaxRootLength());
+        generator.getNewDicomUid(root);
+    }
+    
+    private NodeDicomUidGenerator getNodeDicomUidGenerator(int nodeId) {
+        
+        RadiologyProperties radiologyProperties = mock(RadiologyProperties.class);
+        when(radiologyProperties.getNodeId()).thenReturn(nodeId);
+        NodeDicomUidGenerator result = new NodeDicomUidGenerator();
+        result.setRadiologyProperties(radiologyProperties);
+        return result;
+    }
+}
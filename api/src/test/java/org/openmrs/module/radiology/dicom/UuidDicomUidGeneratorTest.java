@@ -17,6 +17,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -139,4 +140,53 @@ public class UuidDicomUidGeneratorTest {
         expectedException.expectMessage("root length is > " + dicomUidGenerator.getMaxRootLength());
         dicomUidGenerator.getNewDicomUid(root);
     }
+    
+    @Test
+    public void shouldReturnCountUniqueValidUidsPrefixedWithRoot() throws Exception {
+        
+        String root = "1.2.5.6.7.1220";
+        
+        List<String> uids = dicomUidGenerator.getNewDicomUids(root, 1000);
+        
+        assertThat(uids.size(), is(1000));
+        assertThat(new HashSet<String>(uids).size(), is(1000));
+        for (String uid : uids) {
+            assertThat(uid, startsWith(root + "."));
+            assertTrue(DicomUidValidator.isValid(uid));
+        }
+    }
+    
+    @Test
+    public void shouldReturnAnEmptyListGivenCountZero() throws Exception {
+        
+        assertThat(dicomUidGenerator.getNewDicomUids("1.2.5.6.7.1220", 0)
+                .isEmpty(),
+            is(true));
+    }
+    
+    @Test
+    public void shouldThrowAnIllegalArgumentExceptionIfCountIsNegative() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("count cannot be negative");
+        dicomUidGenerator.getNewDicomUids("1.2.5.6.7.1220", -1);
+    }
+    
+    @Test
+    public void shouldThrowANullPointerExceptionIfRootIsNull() throws Exception {
+        
+        expectedException.expect(NullPointerException.class);
+        expectedException.expectMessage("root is required");
+        dicomUidGenerator.getNewDicomUids(null, 1);
+    }
+    
+    @Test
+    public void shouldThrowAnIllegalArgumentExceptionIfRootIsNotAValidUID() throws Exception {
+        
+        dicomUidGenerator.getNewDicomUids("1.2.5.6.7.1220", 1);
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("root is an invalid DICOM UID");
+        dicomUidGenerator.getNewDicomUids("1.2.A.1", 1);
+    }
 }
@@ -17,19 +17,20 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
+import org.hibernate.stat.Statistics;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.openmrs.api.APIException;
 import org.openmrs.api.context.Context;
-import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.openmrs.module.radiology.test.CacheEnabledModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * Tests {@link RadiologyModalityService}.
  */
-public class RadiologyModalityServiceComponentTest extends BaseModuleContextSensitiveTest {
+public class RadiologyModalityServiceComponentTest extends CacheEnabledModuleContextSensitiveTest {
     
     
     private static final String TEST_DATASET =
@@ -213,6 +214,55 @@ public class RadiologyModalityServiceComponentTest extends BaseModuleContextSens
         assertThat(radiologyModalities.size(), is(TOTAL_MODALITIES_NON_RETIRED));
     }
     
+    @Test
+    public void shouldNotReturnARadiologyModalityRetiredAfterTheRadiologyModalitiesWereFetched() throws Exception {
+        
+        assertThat(radiologyModalityService.getRadiologyModalities(false)
+                .size(),
+            is(TOTAL_MODALITIES_NON_RETIRED));
+        
+        radiologyModalityService.retireRadiologyModality(
+            radiologyModalityService.getRadiologyModality(EXISTING_RADIOLOGY_MODALITY_ID), "out of order");
+        
+        assertThat(radiologyModalityService.getRadiologyModalities(false)
+                .size(),
+            is(TOTAL_MODALITIES_NON_RETIRED - 1));
+    }
+    
+    @Test
+    public void shouldGetTheRadiologyModalitiesFromTheCacheOnceFetched() throws Exception {
+        
+        radiologyModalityService.getRadiologyModalities(false);
+        Statistics statistics = getCacheStatistics();
+        statistics.clear();
+        
+        List<RadiologyModality> radiologyModalities =
+                inNewSession(() -> radiologyModalityService.getRadiologyModalities(false));
+        
+        assertThat(radiologyModalities.size(), is(TOTAL_MODALITIES_NON_RETIRED));
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+        assertThat(statistics.getSecondLevelCacheHitCount(), is((long) TOTAL_MODALITIES_NON_RETIRED));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+    }
+    
+    @Test
+    public void shouldNotGetTheRadiologyModalitiesFromTheQueryCacheAfterARadiologyModalityWasRetired() throws Exception {
+        
+        Statistics statistics = getCacheStatistics();
+        radiologyModalityService.getRadiologyModalities(false);
+        radiologyModalityService.getRadiologyModalities(false);
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+        assertThat(statistics.getQueryCacheMissCount(), is(1L));
+        
+        radiologyModalityService.retireRadiologyModality(
+            radiologyModalityService.getRadiologyModality(EXISTING_RADIOLOGY_MODALITY_ID), "out of order");
+        List<RadiologyModality> radiologyModalities = radiologyModalityService.getRadiologyModalities(false);
+        
+        assertThat(radiologyModalities.size(), is(TOTAL_MODALITIES_NON_RETIRED - 1));
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+        assertThat(statistics.getQueryCacheMissCount(), is(2L));
+    }
+    
     @Test
     public void shouldReturnEmptyListIfNoMatchWasFound() throws Exception {
         
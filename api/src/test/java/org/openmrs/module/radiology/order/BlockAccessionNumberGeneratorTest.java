@@ -0,0 +1,181 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.test.BaseContextMockTest;
+
+/**
+ * Tests {@link BlockAccessionNumberGenerator}.
+ */
+public class BlockAccessionNumberGeneratorTest extends BaseContextMockTest {
+    
+    
+    private static final int BLOCK_SIZE = 10;
+    
+    @Mock
+    private RadiologyOrderService radiologyOrderService;
+    
+    @Mock
+    private RadiologyProperties radiologyProperties;
+    
+    private BlockAccessionNumberGenerator blockAccessionNumberGenerator;
+    
+    private final AtomicLong nextSeed = new AtomicLong(1);
+    
+    @Before
+    public void setUp() {
+        
+        when(radiologyProperties.getAccessionNumberBlockSize()).thenReturn(BLOCK_SIZE);
+        when(radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(BLOCK_SIZE)).thenAnswer(new Answer<Long>() {
+            
+            
+            @Override
+            public Long answer(InvocationOnMock invocation) throws Throwable {
+                return nextSeed.getAndAdd(BLOCK_SIZE);
+            }
+        });
+        
+        blockAccessionNumberGenerator = spy(new BlockAccessionNumberGenerator());
+        blockAccessionNumberGenerator.setRadiologyProperties(radiologyProperties);
+        doReturn(radiologyOrderService).when(blockAccessionNumberGenerator)
+                .getRadiologyOrderService();
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnConsecutiveAccessionNumbersFromAReservedBlock() throws Exception {
+        
+        for (int i = 1; i <= BLOCK_SIZE; i++) {
+            assertThat(blockAccessionNumberGenerator.getNewAccessionNumber(), is(String.valueOf(i)));
+        }
+        verify(radiologyOrderService, times(1)).getNextAccessionNumberSeedSequenceBlock(BLOCK_SIZE);
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReserveANewBlockOnceTheCurrentBlockIsExhausted() throws Exception {
+        
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            blockAccessionNumberGenerator.getNewAccessionNumber();
+        }
+        
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumber(), is(String.valueOf(BLOCK_SIZE + 1)));
+        verify(radiologyOrderService, times(2)).getNextAccessionNumberSeedSequenceBlock(BLOCK_SIZE);
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldAlwaysReturnUniqueAccessionNumbersWhenCalledConcurrently() throws Exception {
+        
+        final int threads = 16;
+        final int accessionNumbersPerThread = 1000;
+        final Set<String> accessionNumbers =
+                ConcurrentHashMap.<String> newKeySet(threads * accessionNumbersPerThread);
+        
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(new Callable<Void>() {
+                    
+                    
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < accessionNumbersPerThread; j++) {
+                            accessionNumbers.add(blockAccessionNumberGenerator.getNewAccessionNumber());
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executorService.shutdownNow();
+        }
+        
+        assertThat(accessionNumbers.size(), is(threads * accessionNumbersPerThread));
+        verify(radiologyOrderService, times(threads * accessionNumbersPerThread / BLOCK_SIZE))
+                .getNextAccessionNumberSeedSequenceBlock(BLOCK_SIZE);
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Test
+    public void shouldReserveOneBlockOfGivenCount() throws Exception {
+        
+        when(radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(3)).thenReturn(100L);
+        
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumbers(3), is(Arrays.asList("100", "101", "102")));
+        verify(radiologyOrderService, times(1)).getNextAccessionNumberSeedSequenceBlock(3);
+        verify(radiologyOrderService, never()).getNextAccessionNumberSeedSequenceBlock(BLOCK_SIZE);
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#getNewAccessionNumbers(int)
+     */
+    @Test
+    public void shouldReturnAnEmptyListGivenCountZero() throws Exception {
+        
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumbers(0)
+                .isEmpty(),
+            is(true));
+        verify(radiologyOrderService, never()).getNextAccessionNumberSeedSequenceBlock(anyInt());
+    }
+    
+    /**
+     * @see BlockAccessionNumberGenerator#destroy()
+     */
+    @Test
+    public void shouldSkipUnusedAccessionNumbersOfTheCurrentBlockAfterDestroy() throws Exception {
+        
+        blockAccessionNumberGenerator.getNewAccessionNumber();
+        
+        blockAccessionNumberGenerator.destroy();
+        
+        assertThat(blockAccessionNumberGenerator.getNewAccessionNumber(), is(String.valueOf(BLOCK_SIZE + 1)));
+    }
+}
@@ -10,14 +10,20 @@
 package org.openmrs.module.radiology.order;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.openmrs.Concept;
 import org.openmrs.GlobalProperty;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
 import org.openmrs.api.APIException;
 import org.openmrs.api.AdministrationService;
 import org.openmrs.module.radiology.RadiologyConstants;
@@ -74,6 +80,74 @@ public class HibernateRadiologyOrderDAOComponentTest extends BaseModuleContextSe
         }
     }
     
+    @Test
+    public void shouldReturnTheNextAccessionNumberSeedAndIncrementTheGlobalPropertyValueByBlockSize() throws Exception {
+        
+        GlobalProperty nextAccessionNumberGlobalProperty =
+                new GlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED);
+        nextAccessionNumberGlobalProperty.setPropertyValue("1");
+        administrationService.saveGlobalProperty(nextAccessionNumberGlobalProperty);
+        
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberSeedSequenceBlock(100), is(1L));
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberSeedSequenceBlock(100), is(101L));
+        assertThat(administrationService.getGlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED), is("201"));
+    }
+    
+    @Test
+    public void shouldReturnTheNextValueOfTheAccessionNumberSequence() throws Exception {
+        
+        sessionFactory.getCurrentSession()
+                .createSQLQuery("create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE)
+                .executeUpdate();
+        
+        Long sequenceValue = hibernateRadiologyOrderDAO.getNextAccessionNumberDatabaseSequenceValue();
+        
+        for (int i = 0; i < 10; i++) {
+            assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberDatabaseSequenceValue(), is(++sequenceValue));
+        }
+    }
+    
+    @Test
+    public void shouldAdvanceTheAccessionNumberSequenceToTheNextAccessionNumberSeed() throws Exception {
+        
+        sessionFactory.getCurrentSession()
+                .createSQLQuery("create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE)
+                .executeUpdate();
+        Long sequenceValue = hibernateRadiologyOrderDAO.getNextAccessionNumberDatabaseSequenceValue();
+        GlobalProperty nextAccessionNumberGlobalProperty =
+                new GlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED);
+        nextAccessionNumberGlobalProperty.setPropertyValue(String.valueOf(sequenceValue + 100));
+        administrationService.saveGlobalProperty(nextAccessionNumberGlobalProperty);
+        
+        assertThat(hibernateRadiologyOrderDAO.synchronizeAccessionNumberSequences(), is(sequenceValue + 100));
+        
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberDatabaseSequenceValue(), is(sequenceValue + 100));
+        assertThat(administrationService.getGlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED),
+            is(String.valueOf(sequenceValue + 100)));
+    }
+    
+    @Test
+    public void shouldAdvanceTheNextAccessionNumberSeedToTheAccessionNumberSequence() throws Exception {
+        
+        sessionFactory.getCurrentSession()
+                .createSQLQuery("create sequence if not exists " + HibernateRadiologyOrderDAO.ACCESSION_NUMBER_SEQUENCE)
+                .executeUpdate();
+        Long sequenceValue = null;
+        for (int i = 0; i < 10; i++) {
+            sequenceValue = hibernateRadiologyOrderDAO.getNextAccessionNumberDatabaseSequenceValue();
+        }
+        GlobalProperty nextAccessionNumberGlobalProperty =
+                new GlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED);
+        nextAccessionNumberGlobalProperty.setPropertyValue("1");
+        administrationService.saveGlobalProperty(nextAccessionNumberGlobalProperty);
+        
+        assertThat(hibernateRadiologyOrderDAO.synchronizeAccessionNumberSequences(), is(sequenceValue + 1));
+        
+        assertThat(administrationService.getGlobalProperty(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED),
+            is(String.valueOf(sequenceValue + 1)));
+        assertThat(hibernateRadiologyOrderDAO.getNextAccessionNumberDatabaseSequenceValue(), is(sequenceValue + 2));
+    }
+    
     @Test
     public void shouldFailIfGlobalPropertyRadiologyNextAccessionNumberSeedIsMissing() throws Exception {
         
@@ -122,4 +196,72 @@ public class HibernateRadiologyOrderDAOComponentTest extends BaseModuleContextSe
             hibernateRadiologyOrderDAO.getNextAccessionNumberSeedSequenceValue();
         }
     }
+    
+    @Test
+    public void shouldLockTheRowOfGivenPatient() throws Exception {
+        
+        Patient patient = new Patient(2);
+        
+        hibernateRadiologyOrderDAO.lockPatient(patient);
+        
+        // the row is locked by a native query, so a detached patient is not attached to the session
+        assertThat(sessionFactory.getCurrentSession()
+                .contains(patient),
+            is(false));
+    }
+    
+    @Test
+    public void shouldNotFailGivenAPatientWhichIsNotSavedYet() throws Exception {
+        
+        hibernateRadiologyOrderDAO.lockPatient(new Patient());
+    }
+    
+    @Test
+    public void shouldReplaceDetachedReferencesByTheirInstancesInTheCurrentSession() throws Exception {
+        
+        Session session = sessionFactory.getCurrentSession();
+        Patient patient = (Patient) session.get(Patient.class, 2);
+        Provider orderer = (Provider) session.get(Provider.class, 1);
+        Concept concept = (Concept) session.get(Concept.class, 3);
+        session.clear();
+        RadiologyOrder radiologyOrder = new RadiologyOrder();
+        radiologyOrder.setPatient(patient);
+        radiologyOrder.setOrderer(orderer);
+        radiologyOrder.setConcept(concept);
+        
+        hibernateRadiologyOrderDAO.attachReferences(radiologyOrder);
+        
+        assertThat(radiologyOrder.getPatient(), is(not(sameInstance(patient))));
+        assertThat(radiologyOrder.getPatient()
+                .getPatientId(),
+            is(2));
+        assertThat(session.contains(radiologyOrder.getPatient()), is(true));
+        assertThat(session.contains(radiologyOrder.getOrderer()), is(true));
+        assertThat(session.contains(radiologyOrder.getConcept()), is(true));
+    }
+    
+    @Test
+    public void shouldKeepReferencesWhichAreAttachedToTheCurrentSession() throws Exception {
+        
+        Patient patient = (Patient) sessionFactory.getCurrentSession()
+                .get(Patient.class, 2);
+        RadiologyOrder radiologyOrder = new RadiologyOrder();
+        radiologyOrder.setPatient(patient);
+        
+        hibernateRadiologyOrderDAO.attachReferences(radiologyOrder);
+        
+        assertThat(radiologyOrder.getPatient(), is(sameInstance(patient)));
+    }
+    
+    @Test
+    public void shouldKeepReferencesWhichAreNotSavedYet() throws Exception {
+        
+        Patient patient = new Patient();
+        RadiologyOrder radiologyOrder = new RadiologyOrder();
+        radiologyOrder.setPatient(patient);
+        
+        hibernateRadiologyOrderDAO.attachReferences(radiologyOrder);
+        
+        assertThat(radiologyOrder.getPatient(), is(sameInstance(patient)));
+    }
 }
@@ -0,0 +1,67 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.test.CollisionAssertions;
+
+/**
+ * Tests {@link NodeAccessionNumberGenerator}.
+ */
+public class NodeAccessionNumberGeneratorTest {
+    
+    
+    @Test
+    public void shouldReturnAccessionNumbersWithAtMost16Digits() throws Exception {
+        
+        NodeAccessionNumberGenerator generator = getNodeAccessionNumberGenerator(255);
+        
+        assertThat(generator.getNewAccessionNumber()
+                .length(),
+            is(lessThanOrEqualTo(16)));
+        // largest accession number that can be generated
+        assertThat(String.valueOf((1L << (32 + NodeAccessionNumberGenerator.NODE_ID_BITS
+                + NodeAccessionNumberGenerator.SEQUENCE_BITS)) - 1)
+                .length(),
+            is(16));
+    }
+    
+    @Test
+    public void shouldAlwaysReturnUniqueAccessionNumbersAcrossNodesWhenCalledConcurrently() throws Exception {
+        
+        List<Supplier<String>> nodes = new ArrayList<Supplier<String>>();
+        for (int nodeId = 0; nodeId < 8; nodeId++) {
+            final NodeAccessionNumberGenerator generator = getNodeAccessionNumberGenerator(nodeId);
+            nodes.add(() -> generator.getNewAccessionNumber());
+        }
+        
+        CollisionAssertions.assertNoCollisions(nodes, 4, 5000);
+    }
+    
+    private NodeAccessionNumberGenerator getNodeAccessionNumberGenerator(int nodeId) {
+        
+        RadiologyProperties radiologyProperties = mock(RadiologyProperties.class);
+        when(radiologyProperties.getNodeId()).thenReturn(nodeId);
+        NodeAccessionNumberGenerator result = new NodeAccessionNumberGenerator();
+        result.setRadiologyProperties(radiologyProperties);
+        return result;
+    }
+}
@@ -17,12 +17,17 @@ import static org.junit.Assert.assertTrue;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumSet;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 import org.openmrs.Order.Urgency;
 import org.openmrs.Patient;
 import org.openmrs.Provider;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
 
 /**
  * Tests {@link RadiologyOrderSearchCriteria}.
@@ -32,6 +37,9 @@ public class RadiologyOrderSearchCriteriaTest {
     
     private RadiologyOrderSearchCriteria radiologyOrderSearchCriteria;
     
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
     @Test
     public void createANewRadiologyOrderSearchCriteriaInstanceWithPatientIfPatientIsSet() throws Exception {
         
@@ -139,6 +147,21 @@ public class RadiologyOrderSearchCriteriaTest {
         assertNull(radiologyOrderSearchCriteria.getOrderer());
     }
     
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithAccessionNumberPrefixIfPrefixIsSet() throws Exception {
+        
+        String accessionNumberPrefix = "1";
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder()
+                .withAccessionNumberPrefix(accessionNumberPrefix)
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getAccessionNumberPrefix(), is(accessionNumberPrefix));
+        assertNull(radiologyOrderSearchCriteria.getAccessionNumber());
+        assertNull(radiologyOrderSearchCriteria.getPatient());
+        assertFalse(radiologyOrderSearchCriteria.getIncludeVoided());
+    }
+    
     @Test
     public void createANewRadiologyOrderSearchCriteriaInstanceWithOrdererIfOrdererIsSet() throws Exception {
         
@@ -155,4 +178,104 @@ public class RadiologyOrderSearchCriteriaTest {
         assertNull(radiologyOrderSearchCriteria.getToEffectiveStartDate());
         assertNull(radiologyOrderSearchCriteria.getAccessionNumber());
     }
+    
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithPerformedStatusesIfPerformedStatusesAreSet()
+            throws Exception {
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder()
+                .withPerformedStatuses(Arrays.asList(PerformedProcedureStepStatus.COMPLETED,
+                    PerformedProcedureStepStatus.IN_PROGRESS, PerformedProcedureStepStatus.COMPLETED))
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getPerformedStatuses(),
+            is(EnumSet.of(PerformedProcedureStepStatus.IN_PROGRESS, PerformedProcedureStepStatus.COMPLETED)));
+        assertNull(radiologyOrderSearchCriteria.getHasCompletedReport());
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder()
+                .withPerformedStatuses(EnumSet.noneOf(PerformedProcedureStepStatus.class))
+                .build();
+        
+        assertNull(radiologyOrderSearchCriteria.getPerformedStatuses());
+    }
+    
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithHasCompletedReportIfHasCompletedReportIsSet()
+            throws Exception {
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().withCompletedReport(false)
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getHasCompletedReport(), is(false));
+        assertNull(radiologyOrderSearchCriteria.getPerformedStatuses());
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().build();
+        
+        assertNull(radiologyOrderSearchCriteria.getHasCompletedReport());
+    }
+    
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithAfterAccessionNumberIfAfterAccessionNumberIsSet()
+            throws Exception {
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().afterAccessionNumber("4")
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getAfterAccessionNumber(), is("4"));
+        assertNull(radiologyOrderSearchCriteria.getAccessionNumber());
+        assertNull(radiologyOrderSearchCriteria.getStartIndex());
+        assertNull(radiologyOrderSearchCriteria.getLimit());
+    }
+    
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithStartIndexAndLimitIfStartIndexAndLimitAreSet()
+            throws Exception {
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().withStartIndex(50)
+                .withLimit(25)
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getStartIndex(), is(50));
+        assertThat(radiologyOrderSearchCriteria.getLimit(), is(25));
+        assertNull(radiologyOrderSearchCriteria.getAfterAccessionNumber());
+    }
+    
+    @Test
+    public void createANewRadiologyOrderSearchCriteriaInstanceWithSortFieldAndDirectionIfSortIsSet() throws Exception {
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().build();
+        assertThat(radiologyOrderSearchCriteria.getSortField(), is(RadiologyOrderSearchCriteria.SortField.ACCESSION_NUMBER));
+        assertThat(radiologyOrderSearchCriteria.getSortAscending(), is(true));
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder()
+                .sortBy(RadiologyOrderSearchCriteria.SortField.EFFECTIVE_START_DATE, false)
+                .build();
+        
+        assertThat(radiologyOrderSearchCriteria.getSortField(),
+            is(RadiologyOrderSearchCriteria.SortField.EFFECTIVE_START_DATE));
+        assertThat(radiologyOrderSearchCriteria.getSortAscending(), is(false));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfAfterAccessionNumberIsSetAndSortFieldIsNotAccessionNumber()
+            throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("afterAccessionNumber can only be used when sorting ascending by accession number");
+        
+        new RadiologyOrderSearchCriteria.Builder().afterAccessionNumber("4")
+                .sortBy(RadiologyOrderSearchCriteria.SortField.EFFECTIVE_START_DATE, true)
+                .build();
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfAfterAccessionNumberIsSetAndSortOrderIsDescending() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("afterAccessionNumber can only be used when sorting ascending by accession number");
+        
+        new RadiologyOrderSearchCriteria.Builder().afterAccessionNumber("4")
+                .sortBy(RadiologyOrderSearchCriteria.SortField.ACCESSION_NUMBER, false)
+                .build();
+    }
 }
@@ -0,0 +1,346 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.openmrs.Encounter;
+import org.openmrs.Order;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
+import org.openmrs.api.APIException;
+import org.openmrs.api.EncounterService;
+import org.openmrs.api.OrderContext;
+import org.openmrs.api.OrderService;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.study.RadiologyStudyService;
+import org.openmrs.test.BaseContextMockTest;
+
+/**
+ * Tests placing many orders at once via {@link RadiologyOrderService#placeRadiologyOrders(List)} and
+ * {@link RadiologyOrderService#placeRadiologyOrdersInOneEncounter(List)}.
+ */
+public class RadiologyOrderServiceBatchTest extends BaseContextMockTest {
+    
+    
+    private static final String ACCESSION_NUMBER_GENERATOR = "test";
+    
+    /**
+     * Orders with these instructions cannot be saved by the {@code OrderService}.
+     */
+    private static final String FAILING_INSTRUCTIONS = "fail";
+    
+    @Mock
+    private RadiologyOrderDAO radiologyOrderDAO;
+    
+    @Mock
+    private OrderService orderService;
+    
+    @Mock
+    private EncounterService encounterService;
+    
+    @Mock
+    private RadiologyStudyService radiologyStudyService;
+    
+    @Mock
+    private RadiologyProperties radiologyProperties;
+    
+    @Mock
+    private AccessionNumberGenerator accessionNumberGenerator;
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    private final Provider orderer = new Provider(1);
+    
+    private int nextAccessionNumber = 1;
+    
+    private int nextOrderId = 1;
+    
+    private RadiologyOrderServiceImpl radiologyOrderService;
+    
+    @Before
+    public void setUp() {
+        
+        when(radiologyProperties.getAccessionNumberGenerator()).thenReturn(ACCESSION_NUMBER_GENERATOR);
+        when(accessionNumberGenerator.getNewAccessionNumbers(anyInt())).thenAnswer(new Answer<List<String>>() {
+            
+            
+            @Override
+            public List<String> answer(InvocationOnMock invocation) throws Throwable {
+                final int count = (Integer) invocation.getArguments()[0];
+                final List<String> result = new ArrayList<String>(count);
+                for (int i = 0; i < count; i++) {
+                    result.add(String.valueOf(nextAccessionNumber++));
+                }
+                return result;
+            }
+        });
+        when(encounterService.saveEncounter(any(Encounter.class))).thenAnswer(new Answer<Encounter>() {
+            
+            
+            @Override
+            public Encounter answer(InvocationOnMock invocation) throws Throwable {
+                return (Encounter) invocation.getArguments()[0];
+            }
+        });
+        when(orderService.saveOrder(any(Order.class), any(OrderContext.class))).thenAnswer(new Answer<Order>() {
+            
+            
+            @Override
+            public Order answer(InvocationOnMock invocation) throws Throwable {
+                final Order order = (Order) invocation.getArguments()[0];
+                if (FAILING_INSTRUCTIONS.equals(order.getInstructions())) {
+                    throw new APIException("Order.cannot.be.saved");
+                }
+                order.setOrderId(nextOrderId++);
+                return order;
+            }
+        });
+        
+        radiologyOrderService = spy(new RadiologyOrderServiceImpl());
+        radiologyOrderService.setRadiologyOrderDAO(radiologyOrderDAO);
+        radiologyOrderService.setOrderService(orderService);
+        radiologyOrderService.setEncounterService(encounterService);
+        radiologyOrderService.setRadiologyStudyService(radiologyStudyService);
+        radiologyOrderService.setRadiologyProperties(radiologyProperties);
+        radiologyOrderService.setAccessionNumberGenerators(Collections
+                .<String, AccessionNumberGenerator> singletonMap(ACCESSION_NUMBER_GENERATOR, accessionNumberGenerator));
+        doReturn(radiologyOrderService).when(radiologyOrderService)
+                .getRadiologyOrderService();
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Test
+    public void shouldPlaceAllGivenRadiologyOrdersAndReturnTheirResultsInTheGivenOrder() throws Exception {
+        
+        List<RadiologyOrder> radiologyOrders = Arrays.asList(getRadiologyOrder(new Patient(1)),
+            getRadiologyOrder(new Patient(2)), getRadiologyOrder(new Patient(3)));
+        
+        List<RadiologyOrderPlacementResult> results = radiologyOrderService.placeRadiologyOrders(radiologyOrders);
+        
+        assertThat(results.size(), is(3));
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i)
+                    .getIndex(),
+                is(i));
+            assertThat(results.get(i)
+                    .isPlaced(),
+                is(true));
+            assertThat(results.get(i)
+                    .getRadiologyOrder(),
+                is(radiologyOrders.get(i)));
+        }
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Test
+    public void shouldAllocateAccessionNumbersForAllRadiologyOrdersAtOnce() throws Exception {
+        
+        List<RadiologyOrder> radiologyOrders = Arrays.asList(getRadiologyOrder(new Patient(1)),
+            getRadiologyOrder(new Patient(2)), getRadiologyOrder(new Patient(3)));
+        
+        radiologyOrderService.placeRadiologyOrders(radiologyOrders);
+        
+        verify(accessionNumberGenerator, times(1)).getNewAccessionNumbers(anyInt());
+        verify(accessionNumberGenerator, times(1)).getNewAccessionNumbers(3);
+        assertThat(radiologyOrders.get(0)
+                .getAccessionNumber(),
+            is("1"));
+        assertThat(radiologyOrders.get(1)
+                .getAccessionNumber(),
+            is("2"));
+        assertThat(radiologyOrders.get(2)
+                .getAccessionNumber(),
+            is("3"));
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Test
+    public void shouldCreateOneRadiologyOrderEncounterPerPatientAndOrderer() throws Exception {
+        
+        Patient patient = new Patient(1);
+        Provider otherOrderer = new Provider(2);
+        RadiologyOrder orderedByOtherOrderer = getRadiologyOrder(patient);
+        orderedByOtherOrderer.setOrderer(otherOrderer);
+        List<RadiologyOrder> radiologyOrders = Arrays.asList(getRadiologyOrder(patient), getRadiologyOrder(patient),
+            orderedByOtherOrderer, getRadiologyOrder(new Patient(2)), getRadiologyOrder(patient));
+        
+        radiologyOrderService.placeRadiologyOrders(radiologyOrders);
+        
+        verify(encounterService, times(3)).saveEncounter(any(Encounter.class));
+        verify(radiologyStudyService, times(1)).saveRadiologyStudies(anyListOf(RadiologyStudy.class));
+        assertThat(radiologyOrders.get(0)
+                .getEncounter(),
+            is(radiologyOrders.get(1)
+                    .getEncounter()));
+        assertThat(radiologyOrders.get(0)
+                .getEncounter(),
+            is(radiologyOrders.get(4)
+                    .getEncounter()));
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Test
+    public void shouldReturnFailedResultsForRadiologyOrdersWhichCannotBePlacedAndPlaceTheRest() throws Exception {
+        
+        RadiologyOrder withoutStudy = getRadiologyOrder(new Patient(2));
+        withoutStudy.setStudy(null);
+        RadiologyOrder failing = getRadiologyOrder(new Patient(3));
+        failing.setInstructions(FAILING_INSTRUCTIONS);
+        List<RadiologyOrder> radiologyOrders =
+                Arrays.asList(getRadiologyOrder(new Patient(1)), null, withoutStudy, failing);
+        
+        List<RadiologyOrderPlacementResult> results = radiologyOrderService.placeRadiologyOrders(radiologyOrders);
+        
+        assertThat(results.get(0)
+                .isPlaced(),
+            is(true));
+        assertThat(results.get(1)
+                .getErrorMessage(),
+            is("radiologyOrder cannot be null"));
+        assertThat(results.get(2)
+                .getErrorMessage(),
+            is("radiologyOrder.study cannot be null"));
+        assertThat(results.get(3)
+                .getErrorMessage(),
+            is("Order.cannot.be.saved"));
+        assertThat(failing.getOrderId(), is(nullValue()));
+        assertThat(failing.getEncounter(), is(nullValue()));
+        verify(accessionNumberGenerator, times(1)).getNewAccessionNumbers(2);
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Test
+    public void shouldPlaceTheRadiologyOrdersOfAFailedGroupOneByOne() throws Exception {
+        
+        Patient patient = new Patient(1);
+        RadiologyOrder failing = getRadiologyOrder(patient);
+        failing.setInstructions(FAILING_INSTRUCTIONS);
+        List<RadiologyOrder> radiologyOrders =
+                Arrays.asList(getRadiologyOrder(patient), failing, getRadiologyOrder(patient));
+        
+        List<RadiologyOrderPlacementResult> results = radiologyOrderService.placeRadiologyOrders(radiologyOrders);
+        
+        assertThat(results.get(0)
+                .isPlaced(),
+            is(true));
+        assertThat(results.get(1)
+                .isPlaced(),
+            is(false));
+        assertThat(results.get(2)
+                .isPlaced(),
+            is(true));
+        // the accession numbers reserved for the batch are kept when placing one by one
+        assertThat(radiologyOrders.get(0)
+                .getAccessionNumber(),
+            is("1"));
+        assertThat(radiologyOrders.get(2)
+                .getAccessionNumber(),
+            is("3"));
+        // one encounter for the failed group and one for every radiology order placed one by one
+        verify(encounterService, times(4)).saveEncounter(any(Encounter.class));
+        verify(accessionNumberGenerator, times(1)).getNewAccessionNumbers(anyInt());
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrders cannot be null");
+        radiologyOrderService.placeRadiologyOrders(null);
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrdersInOneEncounter(List)
+     */
+    @Test
+    public void shouldKeepAccessionNumbersAlreadySet() throws Exception {
+        
+        Patient patient = new Patient(1);
+        RadiologyOrder withAccessionNumber = getRadiologyOrder(patient);
+        withAccessionNumber.setAccessionNumber("42");
+        
+        radiologyOrderService
+                .placeRadiologyOrdersInOneEncounter(Arrays.asList(withAccessionNumber, getRadiologyOrder(patient)));
+        
+        assertThat(withAccessionNumber.getAccessionNumber(), is("42"));
+        verify(accessionNumberGenerator, times(1)).getNewAccessionNumbers(1);
+        verify(encounterService, times(1)).saveEncounter(any(Encounter.class));
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrdersInOneEncounter(List)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenRadiologyOrdersHaveDifferentPatients() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrders need to have the same patient and orderer");
+        radiologyOrderService.placeRadiologyOrdersInOneEncounter(
+            Arrays.asList(getRadiologyOrder(new Patient(1)), getRadiologyOrder(new Patient(2))));
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrdersInOneEncounter(List)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionGivenAnEmptyList() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrders cannot be null or empty");
+        radiologyOrderService.placeRadiologyOrdersInOneEncounter(new ArrayList<RadiologyOrder>());
+    }
+    
+    private RadiologyOrder getRadiologyOrder(Patient patient) {
+        
+        RadiologyOrder radiologyOrder = new RadiologyOrder();
+        radiologyOrder.setPatient(patient);
+        radiologyOrder.setOrderer(orderer);
+        radiologyOrder.setStudy(new RadiologyStudy());
+        return radiologyOrder;
+    }
+}
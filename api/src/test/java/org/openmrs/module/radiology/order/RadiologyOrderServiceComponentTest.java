@@ -10,6 +10,7 @@
 package org.openmrs.module.radiology.order;
 
 import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
 import static org.hamcrest.core.IsNot.not;
@@ -18,6 +19,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.openmrs.module.radiology.test.QueryCountAssertions.assertMaxQueryCount;
+import static org.openmrs.module.radiology.test.QueryCountAssertions.assertQueryCountIndependentOfResultSize;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -27,10 +30,16 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.commons.lang3.StringUtils;
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Environment;
 import org.junit.After;
 import org.junit.Assert;
@@ -47,6 +56,9 @@ import org.openmrs.api.EncounterService;
 import org.openmrs.api.PatientService;
 import org.openmrs.api.ProviderService;
 import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UserContext;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
 import org.openmrs.module.radiology.study.RadiologyStudy;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
@@ -90,6 +102,9 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
     @Autowired
     private ConceptService conceptService;
     
+    @Autowired
+    private SessionFactory sessionFactory;
+    
     @Autowired
     @Qualifier("adminService")
     private AdministrationService administrationService;
@@ -156,6 +171,81 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
         assertNotNull(radiologyOrder.getEncounter());
     }
     
+    @Test
+    public void shouldPersistTheEffectiveStartDateOfGivenRadiologyOrder() throws Exception {
+        
+        RadiologyOrder radiologyOrder = radiologyOrderService.placeRadiologyOrder(getUnsavedRadiologyOrder());
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(radiologyOrder.getPatient())
+                        .fromEffectiveStartDate(radiologyOrder.getScheduledDate())
+                        .toEffectiveStartDate(radiologyOrder.getScheduledDate())
+                        .build();
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrders.size(), is(1));
+        assertThat(radiologyOrders.get(0), is(radiologyOrder));
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrders(List)
+     */
+    @Test
+    public void shouldPlaceTheGroupsBeforeAndAfterAGroupWhichFailedInTheDatabaseInTheSameSession() throws Exception {
+        
+        final UserContext userContext = Context.getUserContext();
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        final List<RadiologyOrderPlacementResult> results;
+        try {
+            // like a web request the orders are placed on a session bound to the thread which outlives the transactions
+            // of the groups, the group which fails rolls back and clears it
+            final Future<List<RadiologyOrderPlacementResult>> placement = executorService.submit(() -> {
+                Context.openSession();
+                try {
+                    Context.setUserContext(userContext);
+                    final List<RadiologyOrder> radiologyOrders = new ArrayList<RadiologyOrder>();
+                    for (int patientId : new int[] { 70010, 70011, 70011, 70024 }) {
+                        final RadiologyOrder radiologyOrder = getUnsavedRadiologyOrder();
+                        radiologyOrder.setPatient(patientService.getPatient(patientId));
+                        radiologyOrders.add(radiologyOrder);
+                    }
+                    // the study instance uid does not fit into its column
+                    radiologyOrders.get(2)
+                            .getStudy()
+                            .setStudyInstanceUid(StringUtils.repeat("1.", 150));
+                    return radiologyOrderService.placeRadiologyOrders(radiologyOrders);
+                }
+                finally {
+                    Context.closeSession();
+                }
+            });
+            results = placement.get();
+        }
+        finally {
+            executorService.shutdownNow();
+        }
+        
+        assertThat(results.size(), is(4));
+        for (int i : new int[] { 0, 1, 3 }) {
+            assertTrue(results.get(i)
+                    .isPlaced());
+            RadiologyOrder placed = radiologyOrderService.getRadiologyOrder(results.get(i)
+                    .getRadiologyOrder()
+                    .getOrderId());
+            assertNotNull(placed);
+            assertThat(placed.getPatient(), is(results.get(i)
+                    .getRadiologyOrder()
+                    .getPatient()));
+        }
+        assertThat(results.get(2)
+                .isPlaced(),
+            is(false));
+        assertNull(results.get(2)
+                .getRadiologyOrder()
+                .getOrderId());
+    }
+    
     /**
      * Convenience method to get a RadiologyOrder object with all required values filled in but
      * which is not yet saved in the database
@@ -525,6 +615,39 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
             is(EXISTING_RADIOLOGY_ORDER_ACCESSION_NUMBER));
     }
     
+    @Test
+    public void shouldReturnRadiologyOrdersWithAccessionNumberStartingWithGivenAccessionNumberPrefix() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .withAccessionNumberPrefix("1")
+                        .build();
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        List<String> accessionNumbers = new ArrayList<String>();
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            accessionNumbers.add(radiologyOrder.getAccessionNumber());
+        }
+        assertThat(accessionNumbers, containsInAnyOrder("10", "11", "12", "13", "14"));
+    }
+    
+    @Test
+    public void shouldTreatPercentAndUnderscoreInGivenAccessionNumberPrefixAsLiteralCharacters() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        
+        for (String accessionNumberPrefix : new String[] { "%", "1_", "!1" }) {
+            RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                    new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                            .withAccessionNumberPrefix(accessionNumberPrefix)
+                            .build();
+            
+            assertThat(radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria), is(empty()));
+        }
+    }
+    
     @Test
     public void shouldReturnAllRadiologyOrdersForGivenOrderer() throws Exception {
         
@@ -563,4 +686,398 @@ public class RadiologyOrderServiceComponentTest extends BaseModuleContextSensiti
                 .getOrderId(),
             is(2006));
     }
+    
+    @Test
+    public void shouldReturnRadiologyOrdersWithAccessionNumberAfterGivenAfterAccessionNumber() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .afterAccessionNumber("4")
+                        .build();
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        List<String> accessionNumbers = new ArrayList<String>();
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            accessionNumbers.add(radiologyOrder.getAccessionNumber());
+        }
+        assertThat(accessionNumbers, is(Arrays.asList("7", "8", "9")));
+    }
+    
+    @Test
+    public void shouldReturnAtMostLimitRadiologyOrdersStartingAtGivenStartIndex() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .withStartIndex(2)
+                        .withLimit(3)
+                        .build();
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        List<String> accessionNumbers = new ArrayList<String>();
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            accessionNumbers.add(radiologyOrder.getAccessionNumber());
+        }
+        assertThat(accessionNumbers, is(Arrays.asList("12", "13", "14")));
+    }
+    
+    @Test
+    public void shouldReturnRadiologyOrdersSortedByGivenSortFieldAndDirection() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .sortBy(RadiologyOrderSearchCriteria.SortField.EFFECTIVE_START_DATE, false)
+                        .build();
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrders.size(), Matchers.greaterThan(1));
+        for (int i = 1; i < radiologyOrders.size(); i++) {
+            assertTrue(!radiologyOrders.get(i)
+                    .getEffectiveStartDate()
+                    .after(radiologyOrders.get(i - 1)
+                            .getEffectiveStartDate()));
+        }
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyOrdersWhoseStudyHasOneOfGivenPerformedStatuses() throws Exception {
+        
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_TWO_RADIOLOGY_ORDERS);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .withPerformedStatuses(Arrays.asList(PerformedProcedureStepStatus.IN_PROGRESS,
+                            PerformedProcedureStepStatus.COMPLETED))
+                        .build();
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrders.size(), is(2));
+        for (RadiologyOrder radiologyOrder : radiologyOrders) {
+            assertThat(radiologyOrder.getStudy()
+                    .getPerformedStatus(),
+                is(PerformedProcedureStepStatus.IN_PROGRESS));
+        }
+        
+        radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                .withPerformedStatuses(Arrays.asList(PerformedProcedureStepStatus.DISCONTINUED))
+                .build();
+        
+        assertThat(radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria), is(empty()));
+    }
+    
+    @Test
+    public void shouldReturnAllRadiologyOrdersWithOrWithoutACompletedRadiologyReportIfHasCompletedReportIsSet()
+            throws Exception {
+        
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_TWO_RADIOLOGY_ORDERS);
+        
+        List<RadiologyOrder> radiologyOrders = radiologyOrderService.getRadiologyOrders(
+            new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                    .withCompletedReport(true)
+                    .build());
+        assertThat(radiologyOrders.size(), is(1));
+        assertThat(radiologyOrders.get(0)
+                .getAccessionNumber(),
+            is("2"));
+        
+        radiologyOrders = radiologyOrderService.getRadiologyOrders(
+            new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                    .withCompletedReport(false)
+                    .build());
+        assertThat(radiologyOrders.size(), is(1));
+        assertThat(radiologyOrders.get(0)
+                .getAccessionNumber(),
+            is("1"));
+        
+        radiologyOrders = radiologyOrderService.getRadiologyOrders(
+            new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                    .withCompletedReport(null)
+                    .build());
+        assertThat(radiologyOrders.size(), is(2));
+    }
+    
+    @Test
+    public void shouldReturnTheNumberOfRadiologyOrdersMatchingGivenCriteriaIgnoringStartIndexAndLimit() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .withStartIndex(2)
+                        .withLimit(3)
+                        .build();
+        
+        assertThat(radiologyOrderService.countRadiologyOrders(radiologyOrderSearchCriteria), is(9L));
+    }
+    
+    @Test
+    public void shouldReturnTheSummariesOfAllRadiologyOrdersMatchingGivenCriteria() throws Exception {
+        
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_TWO_RADIOLOGY_ORDERS);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .build();
+        
+        List<RadiologyOrderSummary> radiologyOrderSummaries =
+                radiologyOrderService.getRadiologyOrderSummaries(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrderSummaries.size(), is(2));
+        RadiologyOrderSummary first = radiologyOrderSummaries.get(0);
+        assertThat(first.getUuid(), is(EXISTING_RADIOLOGY_ORDER_UUID));
+        assertThat(first.getAccessionNumber(), is(EXISTING_RADIOLOGY_ORDER_ACCESSION_NUMBER));
+        assertThat(first.getPatientUuid(), is(patient.getUuid()));
+        assertThat(first.getPatientName(), is(patient.getPersonName()
+                .getFullName()));
+        assertThat(first.getPatientIdentifier(), is(patient.getPatientIdentifier()
+                .getIdentifier()));
+        assertThat(first.getProcedureName(), is(conceptService.getConcept(CONCEPT_ID_FOR_FRACTURE)
+                .getName()
+                .getName()));
+        assertThat(first.getUrgency(), is(Urgency.ROUTINE));
+        assertThat(first.getEffectiveStartDate(), is(radiologyOrderService.getRadiologyOrder(EXISTING_RADIOLOGY_ORDER_ID)
+                .getEffectiveStartDate()));
+        assertThat(first.getPerformedStatus(), is(PerformedProcedureStepStatus.IN_PROGRESS));
+        assertThat(first.getReportStatus(), is(nullValue()));
+        assertThat(radiologyOrderSummaries.get(1)
+                .getAccessionNumber(),
+            is("2"));
+        assertThat(radiologyOrderSummaries.get(1)
+                .getReportStatus(),
+            is(RadiologyReportStatus.COMPLETED));
+    }
+    
+    @Test
+    public void shouldReturnOneSummaryPerRadiologyOrderForAPatientWithSeveralPreferredNames() throws Exception {
+        
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_TWO_RADIOLOGY_ORDERS);
+        String patientName = patient.getPersonName()
+                .getFullName();
+        sessionFactory.getCurrentSession()
+                .createSQLQuery("insert into person_name (person_name_id, preferred, person_id, given_name, family_name, "
+                        + "creator, date_created, voided, uuid) values (70099, true, :personId, 'Johnny', 'Doe', 1, "
+                        + "current_timestamp, false, '3f0a2e7c-5b1d-4c7e-9a51-2d8f6c4b7e10')")
+                .setInteger("personId", PATIENT_ID_WITH_TWO_RADIOLOGY_ORDERS)
+                .executeUpdate();
+        
+        List<RadiologyOrderSummary> radiologyOrderSummaries =
+                radiologyOrderService.getRadiologyOrderSummaries(new RadiologyOrderSearchCriteria.Builder()
+                        .withPatient(patient)
+                        .withLimit(2)
+                        .build());
+        
+        assertThat(radiologyOrderSummaries.size(), is(2));
+        assertThat(radiologyOrderSummaries.get(0)
+                .getAccessionNumber(),
+            is(EXISTING_RADIOLOGY_ORDER_ACCESSION_NUMBER));
+        assertThat(radiologyOrderSummaries.get(0)
+                .getPatientName(),
+            is(patientName));
+        assertThat(radiologyOrderSummaries.get(1)
+                .getAccessionNumber(),
+            is("2"));
+    }
+    
+    @Test
+    public void shouldReturnTheSummaryOfARadiologyOrderWithoutStudyAndReport() throws Exception {
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withAccessionNumber("7")
+                        .build();
+        
+        List<RadiologyOrderSummary> radiologyOrderSummaries =
+                radiologyOrderService.getRadiologyOrderSummaries(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrderSummaries.size(), is(1));
+        assertThat(radiologyOrderSummaries.get(0)
+                .getPatientUuid(),
+            is(patientService.getPatient(70024)
+                    .getUuid()));
+        assertThat(radiologyOrderSummaries.get(0)
+                .getPerformedStatus(),
+            is(nullValue()));
+        assertThat(radiologyOrderSummaries.get(0)
+                .getReportStatus(),
+            is(nullValue()));
+    }
+    
+    @Test
+    public void shouldReturnTheSummariesOfRadiologyOrdersMatchingPerformedStatusAndCompletedReportFilters()
+            throws Exception {
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria = new RadiologyOrderSearchCriteria.Builder()
+                .withPatient(patientService.getPatient(PATIENT_ID_WITH_TWO_RADIOLOGY_ORDERS))
+                .withPerformedStatuses(Arrays.asList(PerformedProcedureStepStatus.IN_PROGRESS))
+                .withCompletedReport(true)
+                .build();
+        
+        List<RadiologyOrderSummary> radiologyOrderSummaries =
+                radiologyOrderService.getRadiologyOrderSummaries(radiologyOrderSearchCriteria);
+        
+        assertThat(radiologyOrderSummaries.size(), is(1));
+        assertThat(radiologyOrderSummaries.get(0)
+                .getAccessionNumber(),
+            is("2"));
+        assertThat(radiologyOrderSummaries.get(0)
+                .getReportStatus(),
+            is(RadiologyReportStatus.COMPLETED));
+        assertThat(radiologyOrderService.countRadiologyOrders(radiologyOrderSearchCriteria), is(1L));
+    }
+    
+    @Test
+    public void shouldReturnAnEmptyListIfNoRadiologyOrderMatchesGivenCriteria() throws Exception {
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withAccessionNumber("99999")
+                        .build();
+        
+        assertThat(radiologyOrderService.getRadiologyOrderSummaries(radiologyOrderSearchCriteria), is(empty()));
+    }
+    
+    @Test
+    public void shouldPassTheSummariesOfAllRadiologyOrdersMatchingGivenCriteriaToGivenConsumer() throws Exception {
+        
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_TWO_RADIOLOGY_ORDERS);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .build();
+        List<RadiologyOrderSummary> radiologyOrderSummaries =
+                radiologyOrderService.getRadiologyOrderSummaries(radiologyOrderSearchCriteria);
+        
+        List<RadiologyOrderSummary> streamedRadiologyOrderSummaries = new ArrayList<RadiologyOrderSummary>();
+        radiologyOrderService.streamRadiologyOrderSummaries(radiologyOrderSearchCriteria,
+            streamedRadiologyOrderSummaries::add);
+        
+        assertThat(streamedRadiologyOrderSummaries.size(), is(2));
+        for (int i = 0; i < radiologyOrderSummaries.size(); i++) {
+            assertThat(streamedRadiologyOrderSummaries.get(i)
+                    .getUuid(),
+                is(radiologyOrderSummaries.get(i)
+                        .getUuid()));
+            assertThat(streamedRadiologyOrderSummaries.get(i)
+                    .getPatientIdentifier(),
+                is(radiologyOrderSummaries.get(i)
+                        .getPatientIdentifier()));
+            assertThat(streamedRadiologyOrderSummaries.get(i)
+                    .getProcedureName(),
+                is(radiologyOrderSummaries.get(i)
+                        .getProcedureName()));
+            assertThat(streamedRadiologyOrderSummaries.get(i)
+                    .getReportStatus(),
+                is(radiologyOrderSummaries.get(i)
+                        .getReportStatus()));
+        }
+    }
+    
+    @Test
+    public void shouldNotPassAnySummaryIfNoRadiologyOrderMatchesGivenCriteria() throws Exception {
+        
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withAccessionNumber("99999")
+                        .build();
+        
+        List<RadiologyOrderSummary> radiologyOrderSummaries = new ArrayList<RadiologyOrderSummary>();
+        radiologyOrderService.streamRadiologyOrderSummaries(radiologyOrderSearchCriteria, radiologyOrderSummaries::add);
+        
+        assertThat(radiologyOrderSummaries, is(empty()));
+    }
+    
+    @Test
+    public void shouldReturnRadiologyOrderMatchingGivenUuidWithOneQuery() throws Exception {
+        
+        assertMaxQueryCount(sessionFactory, 1,
+            () -> radiologyOrderService.getRadiologyOrderByUuid(EXISTING_RADIOLOGY_ORDER_UUID));
+    }
+    
+    @Test
+    public void shouldNotQueryEachRadiologyOrderSeparately() throws Exception {
+        
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_TWO_RADIOLOGY_ORDERS);
+        
+        assertQueryCountIndependentOfResultSize(sessionFactory,
+            () -> radiologyOrderService.getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                    .withLimit(1)
+                    .build()),
+            () -> radiologyOrderService.getRadiologyOrders(new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                    .build()));
+    }
+    
+    @Test
+    public void shouldNotQueryEachRadiologyOrderSummarySeparately() throws Exception {
+        
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_TWO_RADIOLOGY_ORDERS);
+        
+        assertQueryCountIndependentOfResultSize(sessionFactory,
+            () -> radiologyOrderService.getRadiologyOrderSummaries(new RadiologyOrderSearchCriteria.Builder()
+                    .withPatient(patient)
+                    .withLimit(1)
+                    .build()),
+            () -> radiologyOrderService.getRadiologyOrderSummaries(new RadiologyOrderSearchCriteria.Builder()
+                    .withPatient(patient)
+                    .build()));
+    }
+    
+    @Test
+    public void shouldCountRadiologyOrdersWithOneQuery() throws Exception {
+        
+        Patient patient = patientService.getPatient(70024);
+        RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                new RadiologyOrderSearchCriteria.Builder().withPatient(patient)
+                        .build();
+        
+        assertMaxQueryCount(sessionFactory, 1, () -> radiologyOrderService.countRadiologyOrders(radiologyOrderSearchCriteria));
+    }
+    
+    @Test
+    public void shouldReturnTheRadiologyOrdersMatchingGivenAccessionNumbersKeyedByAccessionNumber() throws Exception {
+        
+        Map<String, RadiologyOrder> radiologyOrders =
+                radiologyOrderService.getRadiologyOrdersByAccessionNumbers(Arrays.asList("2", "1", "4", "2"));
+        
+        assertThat(new ArrayList<String>(radiologyOrders.keySet()), is(Arrays.asList("2", "1", "4")));
+        assertThat(radiologyOrders.get("1")
+                .getUuid(),
+            is(EXISTING_RADIOLOGY_ORDER_UUID));
+        assertThat(radiologyOrders.get("4")
+                .getOrderId(),
+            is(2009));
+    }
+    
+    @Test
+    public void shouldNotContainAccessionNumbersWithoutRadiologyOrder() throws Exception {
+        
+        Map<String, RadiologyOrder> radiologyOrders =
+                radiologyOrderService.getRadiologyOrdersByAccessionNumbers(Arrays.asList("1", "99999"));
+        
+        assertThat(new ArrayList<String>(radiologyOrders.keySet()), is(Arrays.asList("1")));
+    }
+    
+    @Test
+    public void shouldReturnAnEmptyMapGivenNoAccessionNumbers() throws Exception {
+        
+        assertThat(radiologyOrderService.getRadiologyOrdersByAccessionNumbers(new ArrayList<String>())
+                .isEmpty(),
+            is(true));
+    }
+    
+    @Test
+    public void shouldFetchTheRadiologyOrdersOfMoreAccessionNumbersThanAllowedInOneQuery() throws Exception {
+        
+        List<String> accessionNumbers = new ArrayList<String>();
+        for (int i = 0; i < HibernateRadiologyOrderDAO.MAX_IN_PARAMETERS; i++) {
+            accessionNumbers.add("missing-" + i);
+        }
+        accessionNumbers.add("1");
+        accessionNumbers.add("2");
+        
+        assertMaxQueryCount(sessionFactory, 2, () -> {
+            Map<String, RadiologyOrder> radiologyOrders =
+                    radiologyOrderService.getRadiologyOrdersByAccessionNumbers(accessionNumbers);
+            assertThat(new ArrayList<String>(radiologyOrders.keySet()), is(Arrays.asList("1", "2")));
+            return radiologyOrders;
+        });
+    }
 }
@@ -0,0 +1,332 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.openmrs.Encounter;
+import org.openmrs.Order;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
+import org.openmrs.api.EncounterService;
+import org.openmrs.api.OrderContext;
+import org.openmrs.api.OrderService;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UserContext;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.study.RadiologyStudyService;
+import org.openmrs.test.BaseContextMockTest;
+
+/**
+ * Tests placing orders via {@link RadiologyOrderService#placeRadiologyOrder(RadiologyOrder)} from many threads.
+ * <p>
+ * The patient row lock taken by {@link RadiologyOrderDAO#lockPatient(Patient)} is held by the database until the
+ * transaction commits, so it is only checked that it is taken before anything is saved and that a blocked lock of one
+ * patient does not hold up orders of other patients. Accession numbers are drawn from a
+ * {@link BlockAccessionNumberGenerator} whose blocks are reserved from an in memory sequence.
+ * </p>
+ */
+public class RadiologyOrderServiceConcurrencyTest extends BaseContextMockTest {
+    
+    
+    private static final int THREADS = 32;
+    
+    private static final String ACCESSION_NUMBER_GENERATOR = "block";
+    
+    private static final int ACCESSION_NUMBER_BLOCK_SIZE = 3;
+    
+    @Mock
+    private RadiologyOrderDAO radiologyOrderDAO;
+    
+    @Mock
+    private OrderService orderService;
+    
+    @Mock
+    private EncounterService encounterService;
+    
+    @Mock
+    private RadiologyStudyService radiologyStudyService;
+    
+    @Mock
+    private RadiologyProperties radiologyProperties;
+    
+    @Mock
+    private UserContext workerUserContext;
+    
+    @Mock
+    private Provider orderer;
+    
+    @Mock
+    private RadiologyOrderService proxiedRadiologyOrderService;
+    
+    private final AtomicLong nextAccessionNumberSeed = new AtomicLong(1);
+    
+    private RadiologyOrderServiceImpl radiologyOrderService;
+    
+    @Before
+    public void setUp() {
+        
+        when(radiologyProperties.getAccessionNumberGenerator()).thenReturn(ACCESSION_NUMBER_GENERATOR);
+        when(radiologyProperties.getAccessionNumberBlockSize()).thenReturn(ACCESSION_NUMBER_BLOCK_SIZE);
+        when(proxiedRadiologyOrderService.getNextAccessionNumberSeedSequenceBlock(anyInt())).thenAnswer(new Answer<Long>() {
+            
+            
+            @Override
+            public Long answer(InvocationOnMock invocation) throws Throwable {
+                return nextAccessionNumberSeed.getAndAdd((Integer) invocation.getArguments()[0]);
+            }
+        });
+        when(encounterService.saveEncounter(any(Encounter.class))).thenAnswer(new Answer<Encounter>() {
+            
+            
+            @Override
+            public Encounter answer(InvocationOnMock invocation) throws Throwable {
+                return (Encounter) invocation.getArguments()[0];
+            }
+        });
+        when(orderService.saveOrder(any(Order.class), any(OrderContext.class))).thenAnswer(new Answer<Order>() {
+            
+            
+            @Override
+            public Order answer(InvocationOnMock invocation) throws Throwable {
+                return (Order) invocation.getArguments()[0];
+            }
+        });
+        
+        final BlockAccessionNumberGenerator blockAccessionNumberGenerator = spy(new BlockAccessionNumberGenerator());
+        blockAccessionNumberGenerator.setRadiologyProperties(radiologyProperties);
+        doReturn(proxiedRadiologyOrderService).when(blockAccessionNumberGenerator)
+                .getRadiologyOrderService();
+        
+        radiologyOrderService = new RadiologyOrderServiceImpl();
+        radiologyOrderService.setRadiologyOrderDAO(radiologyOrderDAO);
+        radiologyOrderService.setOrderService(orderService);
+        radiologyOrderService.setEncounterService(encounterService);
+        radiologyOrderService.setRadiologyStudyService(radiologyStudyService);
+        radiologyOrderService.setRadiologyProperties(radiologyProperties);
+        radiologyOrderService.setAccessionNumberGenerators(
+            Collections.<String, AccessionNumberGenerator> singletonMap(ACCESSION_NUMBER_GENERATOR,
+                blockAccessionNumberGenerator));
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrder(RadiologyOrder)
+     */
+    @Test
+    public void shouldLockThePatientBeforeSavingTheEncounterAndOrders() throws Exception {
+        
+        final Patient patient = new Patient(1);
+        final CountDownLatch lockRequested = new CountDownLatch(1);
+        final CountDownLatch lockGranted = new CountDownLatch(1);
+        doAnswer(new Answer<Void>() {
+            
+            
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                lockRequested.countDown();
+                lockGranted.await();
+                return null;
+            }
+        }).when(radiologyOrderDAO)
+                .lockPatient(patient);
+        
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final Future<RadiologyOrder> placed = executorService.submit(placeRadiologyOrder(patient));
+            
+            assertThat(lockRequested.await(10, TimeUnit.SECONDS), is(true));
+            verify(encounterService, never()).saveEncounter(any(Encounter.class));
+            verify(orderService, never()).saveOrder(any(Order.class), any(OrderContext.class));
+            
+            lockGranted.countDown();
+            assertThat(placed.get(10, TimeUnit.SECONDS), is(notNullValue()));
+        }
+        finally {
+            lockGranted.countDown();
+            executorService.shutdownNow();
+        }
+        
+        InOrder inOrder = inOrder(radiologyOrderDAO, encounterService, orderService);
+        inOrder.verify(radiologyOrderDAO)
+                .lockPatient(patient);
+        inOrder.verify(encounterService)
+                .saveEncounter(any(Encounter.class));
+        inOrder.verify(orderService)
+                .saveOrder(any(Order.class), any(OrderContext.class));
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrder(RadiologyOrder)
+     */
+    @Test
+    public void shouldPlaceTheRadiologyOrderOfAnotherPatientWhileThePatientLockIsHeld() throws Exception {
+        
+        final Patient lockedPatient = new Patient(1);
+        final Patient otherPatient = new Patient(2);
+        final CountDownLatch lockRequested = new CountDownLatch(1);
+        final CountDownLatch lockGranted = new CountDownLatch(1);
+        doAnswer(new Answer<Void>() {
+            
+            
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                lockRequested.countDown();
+                lockGranted.await();
+                return null;
+            }
+        }).when(radiologyOrderDAO)
+                .lockPatient(lockedPatient);
+        
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final Future<RadiologyOrder> blocked = executorService.submit(placeRadiologyOrder(lockedPatient));
+            assertThat(lockRequested.await(10, TimeUnit.SECONDS), is(true));
+            
+            final Future<RadiologyOrder> other = executorService.submit(placeRadiologyOrder(otherPatient));
+            final RadiologyOrder placed = other.get(10, TimeUnit.SECONDS);
+            assertThat(placed.getPatient(), is(otherPatient));
+            assertThat(blocked.isDone(), is(false));
+            
+            lockGranted.countDown();
+            assertThat(blocked.get(10, TimeUnit.SECONDS)
+                    .getPatient(),
+                is(lockedPatient));
+        }
+        finally {
+            lockGranted.countDown();
+            executorService.shutdownNow();
+        }
+    }
+    
+    /**
+     * @see RadiologyOrderService#placeRadiologyOrder(RadiologyOrder)
+     */
+    @Test
+    public void shouldSetUniqueAccessionNumbersWhenCalledConcurrently() throws Exception {
+        
+        List<RadiologyOrder> radiologyOrders = new ArrayList<RadiologyOrder>();
+        for (int i = 0; i < THREADS; i++) {
+            radiologyOrders.add(getRadiologyOrder(new Patient(i / 2 + 1)));
+        }
+        
+        List<RadiologyOrder> placedRadiologyOrders = placeRadiologyOrdersConcurrently(radiologyOrders);
+        
+        Set<String> accessionNumbers = new HashSet<String>();
+        for (RadiologyOrder placedRadiologyOrder : placedRadiologyOrders) {
+            assertThat(placedRadiologyOrder.getAccessionNumber(), is(notNullValue()));
+            accessionNumbers.add(placedRadiologyOrder.getAccessionNumber());
+        }
+        assertThat(accessionNumbers.size(), is(THREADS));
+        verify(proxiedRadiologyOrderService, times(THREADS / ACCESSION_NUMBER_BLOCK_SIZE + 1))
+                .getNextAccessionNumberSeedSequenceBlock(ACCESSION_NUMBER_BLOCK_SIZE);
+    }
+    
+    private RadiologyOrder getRadiologyOrder(Patient patient) {
+        
+        RadiologyOrder radiologyOrder = new RadiologyOrder();
+        radiologyOrder.setPatient(patient);
+        radiologyOrder.setOrderer(orderer);
+        radiologyOrder.setStudy(new RadiologyStudy());
+        return radiologyOrder;
+    }
+    
+    /**
+     * Places a new radiology order for given patient with the user context the worker threads run with.
+     */
+    private Callable<RadiologyOrder> placeRadiologyOrder(final Patient patient) {
+        
+        return new Callable<RadiologyOrder>() {
+            
+            
+            @Override
+            public RadiologyOrder call() throws Exception {
+                Context.setUserContext(workerUserContext);
+                try {
+                    return radiologyOrderService.placeRadiologyOrder(getRadiologyOrder(patient));
+                }
+                finally {
+                    Context.clearUserContext();
+                }
+            }
+        };
+    }
+    
+    /**
+     * Places every radiology order from its own thread, all threads starting at the same time.
+     */
+    private List<RadiologyOrder> placeRadiologyOrdersConcurrently(List<RadiologyOrder> radiologyOrders)
+            throws Exception {
+        
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executorService = Executors.newFixedThreadPool(radiologyOrders.size());
+        try {
+            final List<Future<RadiologyOrder>> futures = new ArrayList<Future<RadiologyOrder>>();
+            for (final RadiologyOrder radiologyOrder : radiologyOrders) {
+                futures.add(executorService.submit(new Callable<RadiologyOrder>() {
+                    
+                    
+                    @Override
+                    public RadiologyOrder call() throws Exception {
+                        Context.setUserContext(workerUserContext);
+                        try {
+                            start.await();
+                            return radiologyOrderService.placeRadiologyOrder(radiologyOrder);
+                        }
+                        finally {
+                            Context.clearUserContext();
+                        }
+                    }
+                }));
+            }
+            start.countDown();
+            
+            final List<RadiologyOrder> result = new ArrayList<RadiologyOrder>();
+            for (Future<RadiologyOrder> future : futures) {
+                result.add(future.get());
+            }
+            return result;
+        }
+        finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -12,8 +12,12 @@ package org.openmrs.module.radiology.order;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.spy;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
@@ -27,18 +31,25 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.InOrder;
 import org.openmrs.Encounter;
+import org.openmrs.EncounterRole;
+import org.openmrs.EncounterType;
+import org.openmrs.GlobalProperty;
 import org.openmrs.Patient;
 import org.openmrs.Provider;
+import org.openmrs.api.AdministrationService;
 import org.openmrs.api.EncounterService;
 import org.openmrs.api.OrderService;
 import org.openmrs.api.PatientService;
 import org.openmrs.api.ProviderService;
+import org.openmrs.module.radiology.RadiologyConstants;
 import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.module.radiology.study.RadiologyStudyService;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
 /**
  * Tests {@link RadiologyOrderServiceImpl}
@@ -53,6 +64,10 @@ public class RadiologyOrderServiceImplComponentTest extends BaseModuleContextSen
     
     private static final String RADIOLOGY_ORDER_PROVIDER_UUID = "c2299800-cca9-11e0-9572-0800200c9a66";
     
+    @Autowired
+    @Qualifier("adminService")
+    private AdministrationService administrationService;
+    
     @Autowired
     private PatientService patientService;
     
@@ -128,4 +143,70 @@ public class RadiologyOrderServiceImplComponentTest extends BaseModuleContextSen
         assertThat(matchingEncounters, hasItem(encounter));
         assertThat(matchingEncounters.size(), is(1));
     }
+    
+    @Test
+    public void shouldReturnTheRadiologyOrderEncounterOfTheSamePatientAndProviderWithinTheReuseWindow() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ORDER_ENCOUNTER_REUSE_MINUTES, "60"));
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_ONLY_ONE_NON_RADIOLOGY_ORDER);
+        Provider provider = providerService.getProviderByUuid(RADIOLOGY_ORDER_PROVIDER_UUID);
+        Date encounterDatetime = new GregorianCalendar(2010, Calendar.OCTOBER, 10, 8, 0).getTime();
+        Date withinReuseWindow = new GregorianCalendar(2010, Calendar.OCTOBER, 10, 9, 0).getTime();
+        
+        Encounter encounter = (Encounter) saveRadiologyOrderEncounterMethod.invoke(radiologyOrderServiceImpl,
+            new Object[] { patient, provider, encounterDatetime });
+        Encounter reusedEncounter = (Encounter) saveRadiologyOrderEncounterMethod.invoke(radiologyOrderServiceImpl,
+            new Object[] { patient, provider, withinReuseWindow });
+        
+        assertThat(reusedEncounter, is(encounter));
+        List<Encounter> matchingEncounters = encounterService.getEncounters(
+            new EncounterSearchCriteriaBuilder().setPatient(patient)
+                    .createEncounterSearchCriteria());
+        assertThat(matchingEncounters.size(), is(1));
+    }
+    
+    @Test
+    public void shouldLockThePatientBeforeLookingUpTheRadiologyOrderEncounterToReuse() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ORDER_ENCOUNTER_REUSE_MINUTES, "60"));
+        HibernateRadiologyOrderDAO lockingRadiologyOrderDAO = spy(radiologyOrderDAO);
+        radiologyOrderServiceImpl.setRadiologyOrderDAO(lockingRadiologyOrderDAO);
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_ONLY_ONE_NON_RADIOLOGY_ORDER);
+        Provider provider = providerService.getProviderByUuid(RADIOLOGY_ORDER_PROVIDER_UUID);
+        Date encounterDatetime = new GregorianCalendar(2010, Calendar.OCTOBER, 10, 8, 0).getTime();
+        
+        saveRadiologyOrderEncounterMethod.invoke(radiologyOrderServiceImpl,
+            new Object[] { patient, provider, encounterDatetime });
+        
+        InOrder inOrder = inOrder(lockingRadiologyOrderDAO);
+        inOrder.verify(lockingRadiologyOrderDAO)
+                .lockPatient(patient);
+        inOrder.verify(lockingRadiologyOrderDAO)
+                .getRadiologyOrderEncounter(any(Patient.class), any(Provider.class), any(EncounterRole.class),
+                    any(EncounterType.class), any(Date.class), any(Date.class));
+    }
+    
+    @Test
+    public void shouldCreateRadiologyOrderEncounterIfTheExistingOneIsOlderThanTheReuseWindow() throws Exception {
+        
+        administrationService
+                .saveGlobalProperty(new GlobalProperty(RadiologyConstants.GP_ORDER_ENCOUNTER_REUSE_MINUTES, "60"));
+        Patient patient = patientService.getPatient(PATIENT_ID_WITH_ONLY_ONE_NON_RADIOLOGY_ORDER);
+        Provider provider = providerService.getProviderByUuid(RADIOLOGY_ORDER_PROVIDER_UUID);
+        Date encounterDatetime = new GregorianCalendar(2010, Calendar.OCTOBER, 10, 8, 0).getTime();
+        Date afterReuseWindow = new GregorianCalendar(2010, Calendar.OCTOBER, 10, 9, 1).getTime();
+        
+        Encounter encounter = (Encounter) saveRadiologyOrderEncounterMethod.invoke(radiologyOrderServiceImpl,
+            new Object[] { patient, provider, encounterDatetime });
+        Encounter newEncounter = (Encounter) saveRadiologyOrderEncounterMethod.invoke(radiologyOrderServiceImpl,
+            new Object[] { patient, provider, afterReuseWindow });
+        
+        assertThat(newEncounter, is(not(encounter)));
+        List<Encounter> matchingEncounters = encounterService.getEncounters(
+            new EncounterSearchCriteriaBuilder().setPatient(patient)
+                    .createEncounterSearchCriteria());
+        assertThat(matchingEncounters.size(), is(2));
+    }
 }
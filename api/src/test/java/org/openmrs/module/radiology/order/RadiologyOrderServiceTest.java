@@ -68,6 +68,14 @@ public class RadiologyOrderServiceTest extends BaseContextMockTest {
         radiologyOrderService.placeRadiologyOrder(radiologyOrder);
     }
     
+    @Test
+    public void shouldFailToReserveAccessionNumberSeedBlockIfGivenBlockSizeIsSmallerThanOne() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("blockSize must be greater than 0");
+        radiologyOrderService.getNextAccessionNumberSeedSequenceBlock(0);
+    }
+    
     @Test
     public void shouldFailToDiscontinueRadiologyOrderIfGivenNull() throws Exception {
         
@@ -150,4 +158,44 @@ public class RadiologyOrderServiceTest extends BaseContextMockTest {
         expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
         radiologyOrderService.getRadiologyOrders(null);
     }
+    
+    @Test
+    public void shouldFailToCountRadiologyOrdersIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
+        radiologyOrderService.countRadiologyOrders(null);
+    }
+    
+    @Test
+    public void shouldFailToGetRadiologyOrderSummariesIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
+        radiologyOrderService.getRadiologyOrderSummaries(null);
+    }
+    
+    @Test
+    public void shouldFailToStreamRadiologyOrderSummariesIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyOrderSearchCriteria cannot be null");
+        radiologyOrderService.streamRadiologyOrderSummaries(null, summary -> {});
+    }
+    
+    @Test
+    public void shouldFailToStreamRadiologyOrderSummariesIfGivenConsumerIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("consumer cannot be null");
+        radiologyOrderService.streamRadiologyOrderSummaries(new RadiologyOrderSearchCriteria.Builder().build(), null);
+    }
+    
+    @Test
+    public void shouldFailToGetRadiologyOrdersByAccessionNumbersIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("accessionNumbers cannot be null");
+        radiologyOrderService.getRadiologyOrdersByAccessionNumbers(null);
+    }
 }
@@ -0,0 +1,115 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.openmrs.GlobalProperty;
+import org.openmrs.module.radiology.RadiologyConstants;
+import org.openmrs.test.BaseContextMockTest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests {@link SequenceAccessionNumberGenerator}.
+ */
+public class SequenceAccessionNumberGeneratorTest extends BaseContextMockTest {
+    
+    
+    @Mock
+    private RadiologyOrderService radiologyOrderService;
+    
+    private SequenceAccessionNumberGenerator sequenceAccessionNumberGenerator;
+    
+    @Before
+    public void setUp() {
+        
+        when(radiologyOrderService.synchronizeAccessionNumberSequences()).thenReturn(100L);
+        when(radiologyOrderService.getNextAccessionNumberDatabaseSequenceValue()).thenReturn(100L, 101L);
+        
+        sequenceAccessionNumberGenerator = spy(new SequenceAccessionNumberGenerator());
+        doReturn(radiologyOrderService).when(sequenceAccessionNumberGenerator)
+                .getRadiologyOrderService();
+    }
+    
+    /**
+     * @see SequenceAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldReturnTheNextValueOfTheAccessionNumberSequence() throws Exception {
+        
+        assertThat(sequenceAccessionNumberGenerator.getNewAccessionNumber(), is("100"));
+        assertThat(sequenceAccessionNumberGenerator.getNewAccessionNumber(), is("101"));
+    }
+    
+    /**
+     * @see SequenceAccessionNumberGenerator#getNewAccessionNumber()
+     */
+    @Test
+    public void shouldSynchronizeTheAccessionNumberSequencesBeforeHandingOutTheFirstAccessionNumber() throws Exception {
+        
+        sequenceAccessionNumberGenerator.getNewAccessionNumber();
+        sequenceAccessionNumberGenerator.getNewAccessionNumber();
+        
+        InOrder inOrder = inOrder(radiologyOrderService);
+        inOrder.verify(radiologyOrderService)
+                .synchronizeAccessionNumberSequences();
+        inOrder.verify(radiologyOrderService, times(2))
+                .getNextAccessionNumberDatabaseSequenceValue();
+        verify(radiologyOrderService, times(1)).synchronizeAccessionNumberSequences();
+    }
+    
+    /**
+     * @see SequenceAccessionNumberGenerator#supportsPropertyName(String)
+     */
+    @Test
+    public void shouldReturnTrueForTheAccessionNumberGeneratorGlobalPropertyOnly() throws Exception {
+        
+        assertThat(sequenceAccessionNumberGenerator.supportsPropertyName(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR),
+            is(true));
+        assertThat(sequenceAccessionNumberGenerator.supportsPropertyName(RadiologyConstants.GP_NEXT_ACCESSION_NUMBER_SEED),
+            is(false));
+    }
+    
+    /**
+     * @see SequenceAccessionNumberGenerator#globalPropertyChanged(GlobalProperty)
+     */
+    @Test
+    public void shouldSynchronizeTheAccessionNumberSequencesAfterTheTransactionCommitted() throws Exception {
+        
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sequenceAccessionNumberGenerator
+                    .globalPropertyChanged(new GlobalProperty(RadiologyConstants.GP_ACCESSION_NUMBER_GENERATOR, "block"));
+            verify(radiologyOrderService, never()).synchronizeAccessionNumberSequences();
+            
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        }
+        finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        
+        verify(radiologyOrderService, times(1)).synchronizeAccessionNumberSequences();
+    }
+}
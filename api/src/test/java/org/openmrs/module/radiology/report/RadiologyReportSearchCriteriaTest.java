@@ -109,4 +109,32 @@ public class RadiologyReportSearchCriteriaTest {
         assertNull(radiologyReportSearchCriteria.getFromDate());
         assertNull(radiologyReportSearchCriteria.getPrincipalResultsInterpreter());
     }
+    
+    @Test
+    public void createANewRadiologyReportSearchCriteriaInstanceWithStartIndexAndLimitIfStartIndexAndLimitAreSet()
+            throws Exception {
+        
+        radiologyReportSearchCriteria = new RadiologyReportSearchCriteria.Builder().withStartIndex(50)
+                .withLimit(25)
+                .build();
+        
+        assertThat(radiologyReportSearchCriteria.getStartIndex(), is(50));
+        assertThat(radiologyReportSearchCriteria.getLimit(), is(25));
+        assertNull(radiologyReportSearchCriteria.getStatus());
+    }
+    
+    @Test
+    public void createANewRadiologyReportSearchCriteriaInstanceWithSortFieldAndDirectionIfSortIsSet() throws Exception {
+        
+        radiologyReportSearchCriteria = new RadiologyReportSearchCriteria.Builder().build();
+        assertThat(radiologyReportSearchCriteria.getSortField(), is(RadiologyReportSearchCriteria.SortField.DATE));
+        assertTrue(radiologyReportSearchCriteria.getSortAscending());
+        
+        radiologyReportSearchCriteria = new RadiologyReportSearchCriteria.Builder()
+                .sortBy(RadiologyReportSearchCriteria.SortField.STATUS, false)
+                .build();
+        
+        assertThat(radiologyReportSearchCriteria.getSortField(), is(RadiologyReportSearchCriteria.SortField.STATUS));
+        assertFalse(radiologyReportSearchCriteria.getSortAscending());
+    }
 }
@@ -12,19 +12,24 @@ package org.openmrs.module.radiology.report;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.empty;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.openmrs.module.radiology.test.QueryCountAssertions.assertMaxQueryCount;
+import static org.openmrs.module.radiology.test.QueryCountAssertions.assertQueryCountIndependentOfResultSize;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Environment;
 import org.junit.Before;
 import org.junit.Rule;
@@ -81,6 +86,9 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
     @Autowired
     private RadiologyReportService radiologyReportService;
     
+    @Autowired
+    private SessionFactory sessionFactory;
+    
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
@@ -476,4 +484,129 @@ public class RadiologyReportServiceComponentTest extends BaseModuleContextSensit
         
         assertTrue(radiologyReports.isEmpty());
     }
+    
+    @Test
+    public void shouldReturnAtMostLimitRadiologyReportsStartingAtGivenStartIndex() throws Exception {
+        
+        List<RadiologyReport> allRadiologyReports = radiologyReportService
+                .getRadiologyReports(new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.COMPLETED)
+                        .build());
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.COMPLETED)
+                        .withStartIndex(1)
+                        .withLimit(1)
+                        .build();
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+        
+        assertThat(radiologyReports.size(), is(1));
+        assertThat(radiologyReports.get(0), is(allRadiologyReports.get(1)));
+    }
+    
+    @Test
+    public void shouldReturnRadiologyReportsSortedByGivenSortFieldAndDirection() throws Exception {
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().includeVoided()
+                        .sortBy(RadiologyReportSearchCriteria.SortField.DATE_CREATED, false)
+                        .build();
+        
+        List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+        
+        assertThat(radiologyReports.size(), Matchers.greaterThan(1));
+        for (int i = 1; i < radiologyReports.size(); i++) {
+            assertTrue(!radiologyReports.get(i)
+                    .getDateCreated()
+                    .after(radiologyReports.get(i - 1)
+                            .getDateCreated()));
+        }
+    }
+    
+    @Test
+    public void shouldReturnTheNumberOfRadiologyReportsMatchingGivenCriteriaIgnoringStartIndexAndLimit() throws Exception {
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.COMPLETED)
+                        .withStartIndex(1)
+                        .withLimit(1)
+                        .build();
+        
+        assertThat(radiologyReportService.countRadiologyReports(radiologyReportSearchCriteria), is(2L));
+    }
+    
+    @Test
+    public void shouldReturnTheActiveRadiologyReportWithOneQuery() throws Exception {
+        
+        RadiologyOrder radiologyOrder =
+                radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_WITH_STUDY_AND_COMPLETED_RADIOLOGY_REPORT);
+        
+        assertMaxQueryCount(sessionFactory, 1,
+            () -> radiologyReportService.getActiveRadiologyReportByRadiologyOrder(radiologyOrder));
+    }
+    
+    @Test
+    public void shouldNotQueryEachRadiologyReportSeparately() throws Exception {
+        
+        assertQueryCountIndependentOfResultSize(sessionFactory,
+            () -> radiologyReportService.getRadiologyReports(
+                new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.DRAFT)
+                        .build()),
+            () -> radiologyReportService.getRadiologyReports(
+                new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.COMPLETED)
+                        .build()));
+    }
+    
+    @Test
+    public void shouldCountRadiologyReportsWithOneQuery() throws Exception {
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.COMPLETED)
+                        .build();
+        
+        assertMaxQueryCount(sessionFactory, 1,
+            () -> radiologyReportService.countRadiologyReports(radiologyReportSearchCriteria));
+    }
+    
+    @Test
+    public void shouldPassTheSummariesOfAllRadiologyReportsMatchingGivenCriteriaToGivenConsumer() throws Exception {
+        
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().withStatus(RadiologyReportStatus.COMPLETED)
+                        .build();
+        List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+        
+        List<RadiologyReportSummary> radiologyReportSummaries = new ArrayList<RadiologyReportSummary>();
+        radiologyReportService.streamRadiologyReportSummaries(radiologyReportSearchCriteria, radiologyReportSummaries::add);
+        
+        assertThat(radiologyReportSummaries.size(), is(2));
+        for (int i = 0; i < radiologyReports.size(); i++) {
+            RadiologyReport radiologyReport = radiologyReports.get(i);
+            RadiologyReportSummary radiologyReportSummary = radiologyReportSummaries.get(i);
+            assertThat(radiologyReportSummary.getUuid(), is(radiologyReport.getUuid()));
+            assertThat(radiologyReportSummary.getRadiologyOrderUuid(), is(radiologyReport.getRadiologyOrder()
+                    .getUuid()));
+            assertThat(radiologyReportSummary.getAccessionNumber(), is(radiologyReport.getRadiologyOrder()
+                    .getAccessionNumber()));
+            assertThat(radiologyReportSummary.getStatus(), is(RadiologyReportStatus.COMPLETED));
+            assertThat(radiologyReportSummary.getDate(), is(radiologyReport.getDate()));
+            assertThat(radiologyReportSummary.getPrincipalResultsInterpreterUuid(),
+                is(radiologyReport.getPrincipalResultsInterpreter()
+                        .getUuid()));
+            assertThat(radiologyReportSummary.getVoided(), is(radiologyReport.getVoided()));
+        }
+    }
+    
+    @Test
+    public void shouldNotPassAnySummaryIfNoRadiologyReportMatchesGivenCriteria() throws Exception {
+        
+        DateFormat format = new SimpleDateFormat("yyyy-MM-dd");
+        RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                new RadiologyReportSearchCriteria.Builder().fromDate(format.parse("2030-01-01"))
+                        .build();
+        
+        List<RadiologyReportSummary> radiologyReportSummaries = new ArrayList<RadiologyReportSummary>();
+        radiologyReportService.streamRadiologyReportSummaries(radiologyReportSearchCriteria, radiologyReportSummaries::add);
+        
+        assertThat(radiologyReportSummaries, is(empty()));
+    }
 }
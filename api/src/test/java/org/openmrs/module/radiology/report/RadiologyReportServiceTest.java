@@ -267,5 +267,29 @@ public class RadiologyReportServiceTest extends BaseContextMockTest {
         radiologyReportService.getRadiologyReports(null);
     }
     
+    @Test
+    public void shouldFailToCountReportsIfGivenNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyReportSearchCriteria cannot be null");
+        radiologyReportService.countRadiologyReports(null);
+    }
+    
+    @Test
+    public void shouldFailToStreamReportSummariesIfGivenNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyReportSearchCriteria cannot be null");
+        radiologyReportService.streamRadiologyReportSummaries(null, summary -> {});
+    }
+    
+    @Test
+    public void shouldFailToStreamReportSummariesIfGivenConsumerIsNull() {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("consumer cannot be null");
+        radiologyReportService.streamRadiologyReportSummaries(new RadiologyReportSearchCriteria.Builder().build(), null);
+    }
+    
     public interface TestRadiologyReportDAO extends RadiologyReportDAO {}
 }
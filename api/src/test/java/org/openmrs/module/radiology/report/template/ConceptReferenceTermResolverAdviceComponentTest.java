@@ -0,0 +1,117 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.api.ConceptService;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tests {@link ConceptReferenceTermResolverAdvice}.
+ */
+public class ConceptReferenceTermResolverAdviceComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/MrrtReportTemplateFileParserComponentTestDataset.xml";
+    
+    private static final Map<String, Set<String>> CODES =
+            Collections.singletonMap("RADLEX", Collections.singleton("RID1243"));
+    
+    @Autowired
+    private ConceptReferenceTermResolver resolver;
+    
+    @Autowired
+    private ConceptService conceptService;
+    
+    private ConceptReferenceTermResolverAdvice advice = new ConceptReferenceTermResolverAdvice();
+    
+    private ConceptReferenceTerm referenceTerm;
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        executeDataSet(TEST_DATASET);
+        resolver.invalidate();
+        
+        assertThat(resolver.resolve(CODES)
+                .isEmpty(),
+            is(true));
+        referenceTerm = conceptService.saveConceptReferenceTerm(
+            new ConceptReferenceTerm(conceptService.getConceptSourceByName("RADLEX"), "RID1243", "liver"));
+    }
+    
+    @Test
+    public void shouldInvalidateTheConceptReferenceTermResolverAfterAConceptReferenceTermWasSaved() throws Exception {
+        
+        advice.afterReturning(referenceTerm,
+            ConceptService.class.getMethod("saveConceptReferenceTerm", ConceptReferenceTerm.class),
+            new Object[] { referenceTerm }, conceptService);
+        
+        assertThat(resolver.resolve(CODES)
+                .contains(referenceTerm),
+            is(true));
+    }
+    
+    @Test
+    public void shouldInvalidateTheConceptReferenceTermResolverAgainAfterTheTransactionCommitted() throws Exception {
+        
+        List<TransactionSynchronization> synchronizations =
+                new ArrayList<TransactionSynchronization>(TransactionSynchronizationManager.getSynchronizations());
+        advice.afterReturning(referenceTerm,
+            ConceptService.class.getMethod("saveConceptReferenceTerm", ConceptReferenceTerm.class),
+            new Object[] { referenceTerm }, conceptService);
+        List<TransactionSynchronization> registeredSynchronizations =
+                new ArrayList<TransactionSynchronization>(TransactionSynchronizationManager.getSynchronizations());
+        registeredSynchronizations.removeAll(synchronizations);
+        assertThat(registeredSynchronizations.size(), is(1));
+        
+        // a transaction caches that a code does not resolve before the change is committed
+        Map<String, Set<String>> codes = Collections.singletonMap("RADLEX", Collections.singleton("RID1301"));
+        assertThat(resolver.resolve(codes)
+                .isEmpty(),
+            is(true));
+        ConceptReferenceTerm committedReferenceTerm = conceptService.saveConceptReferenceTerm(
+            new ConceptReferenceTerm(conceptService.getConceptSourceByName("RADLEX"), "RID1301", "lung"));
+        
+        registeredSynchronizations.get(0)
+                .afterCommit();
+        
+        assertThat(resolver.resolve(codes)
+                .contains(committedReferenceTerm),
+            is(true));
+    }
+    
+    @Test
+    public void shouldNotInvalidateTheConceptReferenceTermResolverAfterOtherConceptServiceMethods() throws Exception {
+        
+        advice.afterReturning(referenceTerm,
+            ConceptService.class.getMethod("getConceptReferenceTermByUuid", String.class),
+            new Object[] { referenceTerm.getUuid() }, conceptService);
+        
+        assertThat(resolver.resolve(CODES)
+                .isEmpty(),
+            is(true));
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.ConceptReferenceTerm;
+import org.openmrs.api.ConceptService;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests {@link ConceptReferenceTermResolver}.
+ */
+public class ConceptReferenceTermResolverComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    private static final String TEST_DATASET =
+            "org/openmrs/module/radiology/include/MrrtReportTemplateFileParserComponentTestDataset.xml";
+    
+    @Autowired
+    private ConceptReferenceTermResolver resolver;
+    
+    @Autowired
+    private ConceptService conceptService;
+    
+    @Before
+    public void setUp() throws Exception {
+        
+        executeDataSet(TEST_DATASET);
+        // the dataset is inserted behind the concept service
+        resolver.invalidate();
+    }
+    
+    private static Map<String, Set<String>> codes(String scheme, String... codes) {
+        
+        final Map<String, Set<String>> result = new HashMap<String, Set<String>>();
+        result.put(scheme, new HashSet<String>(Arrays.asList(codes)));
+        return result;
+    }
+    
+    private ConceptReferenceTerm saveReferenceTerm(String code) {
+        
+        return conceptService.saveConceptReferenceTerm(
+            new ConceptReferenceTerm(conceptService.getConceptSourceByName("RADLEX"), code, "finding " + code));
+    }
+    
+    @Test
+    public void shouldResolveCodesToConceptReferenceTermsOfTheConceptSourceMatchingTheSchemeIgnoringCase()
+            throws Exception {
+        
+        Set<ConceptReferenceTerm> referenceTerms = resolver.resolve(codes("radlex", "RID10321", "RID1243"));
+        
+        assertThat(referenceTerms.size(), is(1));
+        assertThat(referenceTerms.iterator()
+                .next()
+                .getCode(),
+            is("RID10321"));
+    }
+    
+    @Test
+    public void shouldSkipCodesOfUnknownConceptSourcesAndCodesWithoutConceptReferenceTerm() throws Exception {
+        
+        Map<String, Set<String>> codesByScheme = codes("RADLEX", "RID1243");
+        codesByScheme.putAll(codes("SNOMED", "RID10321"));
+        
+        assertThat(resolver.resolve(codesByScheme)
+                .isEmpty(),
+            is(true));
+    }
+    
+    @Test
+    public void shouldResolveCodesFromTheCacheAfterTheFirstResolution() throws Exception {
+        
+        assertThat(resolver.resolve(codes("RADLEX", "RID10321", "RID1243"))
+                .size(),
+            is(1));
+        saveReferenceTerm("RID1243");
+        
+        Set<ConceptReferenceTerm> referenceTerms = resolver.resolve(codes("RADLEX", "RID10321", "RID1243"));
+        
+        assertThat(referenceTerms.size(), is(1));
+        assertThat(referenceTerms.iterator()
+                .next()
+                .getCode(),
+            is("RID10321"));
+    }
+    
+    @Test
+    public void shouldResolveAConceptReferenceTermSavedAfterInvalidation() throws Exception {
+        
+        assertThat(resolver.resolve(codes("RADLEX", "RID1243"))
+                .isEmpty(),
+            is(true));
+        ConceptReferenceTerm referenceTerm = saveReferenceTerm("RID1243");
+        
+        resolver.invalidate();
+        
+        assertThat(resolver.resolve(codes("RADLEX", "RID1243"))
+                .contains(referenceTerm),
+            is(true));
+    }
+    
+    @Test
+    public void shouldResolveACodeWhichDidNotResolveAgainOnceItsTimeToLiveElapsed() throws Exception {
+        
+        Clock clock = Clock.fixed(Instant.parse("2017-01-01T00:00:00Z"), ZoneOffset.UTC);
+        resolver.setClock(clock);
+        try {
+            assertThat(resolver.resolve(codes("RADLEX", "RID1243"))
+                    .isEmpty(),
+                is(true));
+            ConceptReferenceTerm referenceTerm = saveReferenceTerm("RID1243");
+            
+            resolver.setClock(Clock.offset(clock,
+                Duration.ofMillis(ConceptReferenceTermResolver.UNRESOLVED_TERM_TIME_TO_LIVE_MILLIS - 1)));
+            assertThat(resolver.resolve(codes("RADLEX", "RID1243"))
+                    .isEmpty(),
+                is(true));
+            
+            resolver.setClock(
+                Clock.offset(clock, Duration.ofMillis(ConceptReferenceTermResolver.UNRESOLVED_TERM_TIME_TO_LIVE_MILLIS)));
+            assertThat(resolver.resolve(codes("RADLEX", "RID1243"))
+                    .contains(referenceTerm),
+                is(true));
+        }
+        finally {
+            resolver.setClock(Clock.systemUTC());
+        }
+    }
+    
+    @Test
+    public void shouldNotCacheWhatWasReadBeforeAnInvalidationDuringTheResolution() throws Exception {
+        
+        // the clock is read once the resolution started, invalidating there races the resolution with an invalidation
+        final Clock systemClock = Clock.systemUTC();
+        resolver.setClock(new Clock() {
+            
+            
+            @Override
+            public ZoneId getZone() {
+                return systemClock.getZone();
+            }
+            
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return systemClock.withZone(zone);
+            }
+            
+            @Override
+            public Instant instant() {
+                resolver.invalidate();
+                return systemClock.instant();
+            }
+        });
+        try {
+            assertThat(resolver.resolve(codes("RADLEX", "RID1243"))
+                    .isEmpty(),
+                is(true));
+        }
+        finally {
+            resolver.setClock(systemClock);
+        }
+        ConceptReferenceTerm referenceTerm = saveReferenceTerm("RID1243");
+        
+        assertThat(resolver.resolve(codes("RADLEX", "RID1243"))
+                .contains(referenceTerm),
+            is(true));
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.jsoup.select.Elements;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.api.APIException;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.w3c.dom.Element;
+
+/**
+ * Tests {@link MrrtReportTemplateDocument}.
+ */
+public class MrrtReportTemplateDocumentComponentTest extends BaseModuleContextSensitiveTest {
+    
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    /**
+     * Get a files content as string.
+     *
+     * @param path the path to get the file content from
+     * @return the file content
+     */
+    private String getFileContent(String path) throws IOException {
+        
+        try (InputStream in = getClass().getClassLoader()
+                .getResourceAsStream(path)) {
+            return IOUtils.toString(in, "UTF-8");
+        }
+    }
+    
+    @Test
+    public void shouldParseTheTemplateAndItsTemplateAttributesIntoOneDocument() throws Exception {
+        
+        MrrtReportTemplateDocument document =
+                MrrtReportTemplateDocument.parse(getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html"));
+        
+        assertThat(document.getDocument()
+                .getDocumentElement()
+                .getTagName(),
+            is("html"));
+        assertThat(document.getDocument()
+                .getElementsByTagName("template_attributes")
+                .getLength(),
+            is(1));
+    }
+    
+    @Test
+    public void shouldThrowApiExceptionIfTemplateIsNotWellFormed() throws Exception {
+        
+        expectedException.expect(APIException.class);
+        MrrtReportTemplateDocument.parse("<html><head><title>unclosed</head></html>");
+    }
+    
+    @Test
+    public void shouldReturnTheMetaElementsWithTheirAttributes() throws Exception {
+        
+        MrrtReportTemplateDocument document =
+                MrrtReportTemplateDocument.parse(getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html"));
+        
+        Elements metaTags = document.getMetaTags();
+        
+        assertThat(metaTags.size(), is(11));
+        assertThat(metaTags.attr("charset"), is("UTF-8"));
+        assertThat(metaTags.select("meta[name=dcterms.title]")
+                .attr("content"),
+            is("CT Chest-Abdomen"));
+    }
+    
+    @Test
+    public void shouldReturnTheCodeElementsOfAllTermsInTheScriptElement() throws Exception {
+        
+        MrrtReportTemplateDocument document =
+                MrrtReportTemplateDocument.parse(getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html"));
+        
+        List<Element> termCodes = document.getTermCodes();
+        
+        assertThat(termCodes.size(), is(3));
+        assertThat(termCodes.get(0)
+                .getAttribute("value"),
+            is("RID10321"));
+        assertThat(termCodes.get(0)
+                .getAttribute("scheme"),
+            is("RADLEX"));
+        assertThat(termCodes.get(2)
+                .getAttribute("value"),
+            is("RID1243"));
+    }
+}
@@ -39,6 +39,9 @@ public class MrrtReportTemplateFileParserComponentTest extends BaseModuleContext
     @Autowired
     private MrrtReportTemplateFileParser parser;
     
+    @Autowired
+    private ConceptReferenceTermResolver conceptReferenceTermResolver;
+    
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
@@ -69,7 +72,10 @@ public class MrrtReportTemplateFileParserComponentTest extends BaseModuleContext
     
     @Before
     public void setUp() throws Exception {
+        
         executeDataSet(TEST_DATASET);
+        // the dataset is inserted behind the concept service
+        conceptReferenceTermResolver.invalidate();
     }
     
     /**
@@ -185,4 +191,41 @@ public class MrrtReportTemplateFileParserComponentTest extends BaseModuleContext
                 .contains(referenceTerm),
             is(true));
     }
+    
+    @Test
+    public void shouldReturnTheParsedTemplateIfGivenTemplateIsValid() throws Exception {
+        
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        MrrtReportTemplateDocument document = parser.parseAndValidate(templateContent);
+        
+        assertThat(document.getTermCodes()
+                .size(),
+            is(3));
+    }
+    
+    @Test
+    public void shouldThrowMrrtReportTemplateValidationExceptionIfGivenTemplateIsInvalid() throws Exception {
+        
+        String templateContent = getFileContent(
+            "mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-noMetaElementWithCharsetAttribute.html");
+        
+        expectedException.expect(MrrtReportTemplateValidationException.class);
+        parser.parseAndValidate(templateContent);
+    }
+    
+    @Test
+    public void shouldReturnAnMrrtTemplateObjectWithTheMetadataAndTermsOfGivenTemplate() throws Exception {
+        
+        MrrtReportTemplateDocument document =
+                parser.parseAndValidate(getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html"));
+        
+        MrrtReportTemplate template = parser.parse(document);
+        
+        assertThat(template.getDcTermsIdentifier(), is(TEST_DCTERMS_IDENTIFIER));
+        assertThat(template.getCharset(), is(CHARSET));
+        assertThat(template.getTerms()
+                .size(),
+            is(1));
+    }
 }
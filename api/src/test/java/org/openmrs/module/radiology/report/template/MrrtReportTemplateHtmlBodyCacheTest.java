@@ -0,0 +1,119 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link MrrtReportTemplateHtmlBodyCache}.
+ */
+public class MrrtReportTemplateHtmlBodyCacheTest {
+    
+    
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    
+    private MrrtReportTemplateHtmlBodyCache cache = new MrrtReportTemplateHtmlBodyCache(2);
+    
+    private File newTemplateFile(String body) throws Exception {
+        
+        File result = temporaryFolder.newFile();
+        writeTemplateFile(result, body);
+        return result;
+    }
+    
+    private static void writeTemplateFile(File templateFile, String body) throws Exception {
+        FileUtils.writeStringToFile(templateFile, "<html><body><p>" + body + "</p></body></html>");
+    }
+    
+    /**
+     * Changes the body of a template file keeping its modification time and size so only a cache miss reads it.
+     */
+    private static void changeTemplateFileUnnoticed(File templateFile, String body) throws Exception {
+        
+        long lastModified = templateFile.lastModified();
+        writeTemplateFile(templateFile, body);
+        templateFile.setLastModified(lastModified);
+    }
+    
+    @Test
+    public void shouldReturnTheCachedBodyWhileTheFileIsUnchanged() throws Exception {
+        
+        File templateFile = newTemplateFile("first");
+        assertThat(cache.get(1, templateFile), is("<p>first</p>"));
+        
+        changeTemplateFileUnnoticed(templateFile, "other");
+        
+        assertThat(cache.get(1, templateFile), is("<p>first</p>"));
+        assertThat(cache.size(), is(1));
+    }
+    
+    @Test
+    public void shouldReadTheBodyAgainIfTheFileChanged() throws Exception {
+        
+        File templateFile = newTemplateFile("first");
+        assertThat(cache.get(1, templateFile), is("<p>first</p>"));
+        
+        writeTemplateFile(templateFile, "changed");
+        
+        assertThat(cache.get(1, templateFile), is("<p>changed</p>"));
+    }
+    
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedBodyIfTheMaximumSizeIsExceeded() throws Exception {
+        
+        File first = newTemplateFile("first");
+        File second = newTemplateFile("second");
+        cache.get(1, first);
+        cache.get(2, second);
+        cache.get(1, first);
+        
+        cache.get(3, newTemplateFile("third"));
+        changeTemplateFileUnnoticed(first, "other");
+        changeTemplateFileUnnoticed(second, "latest");
+        
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get(1, first), is("<p>first</p>"));
+        assertThat(cache.get(2, second), is("<p>latest</p>"));
+    }
+    
+    @Test
+    public void shouldNotCacheTheBodyOfATemplateWithoutId() throws Exception {
+        
+        File templateFile = newTemplateFile("first");
+        assertThat(cache.get(null, templateFile), is("<p>first</p>"));
+        
+        changeTemplateFileUnnoticed(templateFile, "other");
+        
+        assertThat(cache.get(null, templateFile), is("<p>other</p>"));
+        assertThat(cache.size(), is(0));
+    }
+    
+    @Test
+    public void shouldRemoveTheBodyOfGivenTemplate() throws Exception {
+        
+        File templateFile = newTemplateFile("first");
+        cache.get(1, templateFile);
+        changeTemplateFileUnnoticed(templateFile, "other");
+        
+        cache.evict(1);
+        
+        assertThat(cache.size(), is(0));
+        assertThat(cache.get(1, templateFile), is("<p>other</p>"));
+    }
+}
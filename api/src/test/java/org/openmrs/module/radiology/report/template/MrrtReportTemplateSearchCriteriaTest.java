@@ -65,4 +65,32 @@ public class MrrtReportTemplateSearchCriteriaTest {
         
         assertThat(mrrtReportTemplateSearchCriteria.getCreator(), is(creator));
     }
+    
+    @Test
+    public void shouldCreateAnMrrtReportTemplateSearchCriteriaInstanceWithStartIndexAndLimitIfStartIndexAndLimitAreSet()
+            throws Exception {
+        
+        mrrtReportTemplateSearchCriteria = new MrrtReportTemplateSearchCriteria.Builder().withStartIndex(50)
+                .withLimit(25)
+                .build();
+        
+        assertThat(mrrtReportTemplateSearchCriteria.getStartIndex(), is(50));
+        assertThat(mrrtReportTemplateSearchCriteria.getLimit(), is(25));
+    }
+    
+    @Test
+    public void shouldCreateAnMrrtReportTemplateSearchCriteriaInstanceWithSortFieldAndDirectionIfSortIsSet()
+            throws Exception {
+        
+        mrrtReportTemplateSearchCriteria = new MrrtReportTemplateSearchCriteria.Builder().build();
+        assertThat(mrrtReportTemplateSearchCriteria.getSortField(), is(MrrtReportTemplateSearchCriteria.SortField.TITLE));
+        assertThat(mrrtReportTemplateSearchCriteria.getSortAscending(), is(true));
+        
+        mrrtReportTemplateSearchCriteria = new MrrtReportTemplateSearchCriteria.Builder()
+                .sortBy(MrrtReportTemplateSearchCriteria.SortField.CREATOR, false)
+                .build();
+        
+        assertThat(mrrtReportTemplateSearchCriteria.getSortField(), is(MrrtReportTemplateSearchCriteria.SortField.CREATOR));
+        assertThat(mrrtReportTemplateSearchCriteria.getSortAscending(), is(false));
+    }
 }
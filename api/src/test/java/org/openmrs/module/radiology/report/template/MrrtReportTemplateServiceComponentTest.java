@@ -19,39 +19,63 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.openmrs.module.radiology.test.QueryCountAssertions.assertMaxQueryCount;
+import static org.openmrs.module.radiology.test.QueryCountAssertions.assertQueryCountIndependentOfResultSize;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
+import org.openmrs.GlobalProperty;
 import org.openmrs.api.APIException;
 import org.openmrs.api.AdministrationService;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UserContext;
 import org.openmrs.module.radiology.RadiologyConstants;
 import org.openmrs.module.radiology.RadiologyProperties;
-import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.openmrs.module.radiology.test.CacheEnabledModuleContextSensitiveTest;
+import org.openmrs.util.OpenmrsUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
 /**
  * Tests {@code MrrtReportTemplateService}.
  */
-public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSensitiveTest {
+public class MrrtReportTemplateServiceComponentTest extends CacheEnabledModuleContextSensitiveTest {
     
     
     @Autowired
     @Qualifier("adminService")
     private AdministrationService administrationService;
     
+    @Autowired
+    private ConceptReferenceTermResolver conceptReferenceTermResolver;
+    
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
@@ -64,6 +88,9 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
     @Autowired
     private MrrtReportTemplateFileParser parser;
     
+    @Autowired
+    private MrrtReportTemplateBatchImporter batchImporter;
+    
     private static final String TEST_DATASET =
             "org/openmrs/module/radiology/include/MrrtReportTemplateServiceComponentTestDataset.xml";
     
@@ -87,6 +114,11 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
     
     private static final String TEMPLATE_IDENTIFIER = "1.3.6.1.4.1.21367.13.199.1015";
     
+    private static final String VALID_TEMPLATE = "mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html";
+    
+    private static final String INVALID_TEMPLATE =
+            "mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-noMetaElementWithCharsetAttribute.html";
+    
     private static final String NON_EXISTING_PUBLISHER = "Non existing publisher";
     
     private static final String UUID_FOR_TEMPLATE_ONE = "aa551445-def0-4f93-9047-95f0a9afbdce";
@@ -96,9 +128,33 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
     @Autowired
     private MrrtReportTemplateService mrrtReportTemplateService;
     
+    @Autowired
+    private SessionFactory sessionFactory;
+    
     @Before
     public void setUp() throws Exception {
+        
         executeDataSet(TEST_DATASET);
+        // the dataset is inserted behind the concept service
+        conceptReferenceTermResolver.invalidate();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        
+        // bulk imports commit every batch in a transaction of its own, which is not rolled back with the test
+        inNewSession(() -> {
+            for (MrrtReportTemplate template : mrrtReportTemplateService
+                    .getMrrtReportTemplates(new MrrtReportTemplateSearchCriteria.Builder().build())) {
+                mrrtReportTemplateService.purgeMrrtReportTemplate(template);
+            }
+            GlobalProperty templateDirectory =
+                    administrationService.getGlobalPropertyObject(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_DIR);
+            if (templateDirectory != null) {
+                administrationService.purgeGlobalProperty(templateDirectory);
+            }
+            return null;
+        });
     }
     
     /**
@@ -140,15 +196,30 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
     }
     
     /**
-     * Sets up the global property defining the MRRT template directory using junits temporary folder.
+     * Sets up the global property defining the MRRT template directory using junits temporary folder. The global property
+     * is committed so the transactions of the batches of bulk imports see it.
      *
      * @throws IOException
      */
     private void setUpTemporaryFolder() throws IOException {
         
         File tempFolder = temporaryFolder.newFolder("/mrrt_templates");
-        administrationService.setGlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_DIR,
-            tempFolder.getAbsolutePath());
+        inNewSession(() -> {
+            administrationService.setGlobalProperty(RadiologyConstants.GP_MRRT_REPORT_TEMPLATE_DIR,
+                tempFolder.getAbsolutePath());
+            return null;
+        });
+    }
+    
+    /**
+     * Gets the valid template with an identifier of its own.
+     *
+     * @param number the number appended to the identifier of the valid template
+     * @return the valid template with given number appended to its identifier
+     */
+    private String getNumberedTemplate(int number) throws IOException {
+        
+        return getFileContent(VALID_TEMPLATE).replace(TEMPLATE_IDENTIFIER, TEMPLATE_IDENTIFIER + "." + number);
     }
     
     @Test
@@ -212,6 +283,48 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         assertNull(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier("invalid identifier"));
     }
     
+    @Test
+    public void shouldReturnNullForTheIdentifierOfAPurgedTemplate() throws Exception {
+        
+        MrrtReportTemplate template = mrrtReportTemplateService.getMrrtReportTemplateByIdentifier("identifier1");
+        assertNotNull(template);
+        
+        mrrtReportTemplateService.purgeMrrtReportTemplate(template);
+        
+        assertNull(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier("identifier1"));
+    }
+    
+    @Test
+    public void shouldGetATemplateFromTheSecondLevelCacheOnceLoaded() throws Exception {
+        
+        mrrtReportTemplateService.getMrrtReportTemplate(EXISTING_TEMPLATE_ID);
+        Statistics statistics = getCacheStatistics();
+        statistics.clear();
+        
+        MrrtReportTemplate template =
+                inNewSession(() -> mrrtReportTemplateService.getMrrtReportTemplate(EXISTING_TEMPLATE_ID));
+        
+        assertThat(template.getUuid(), is(UUID_FOR_TEMPLATE_ONE));
+        assertThat(statistics.getSecondLevelCacheHitCount(), is(1L));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+    }
+    
+    @Test
+    public void shouldNotGetAPurgedTemplateFromTheSecondLevelCache() throws Exception {
+        
+        MrrtReportTemplate template = mrrtReportTemplateService.getMrrtReportTemplate(EXISTING_TEMPLATE_ID);
+        mrrtReportTemplateService.purgeMrrtReportTemplate(template);
+        sessionFactory.getCurrentSession()
+                .flush();
+        Statistics statistics = getCacheStatistics();
+        statistics.clear();
+        
+        inNewSession(() -> mrrtReportTemplateService.getMrrtReportTemplate(EXISTING_TEMPLATE_ID));
+        
+        assertThat(statistics.getSecondLevelCacheHitCount(), is(0L));
+        assertThat(statistics.getSecondLevelCacheMissCount(), is(1L));
+    }
+    
     @Test
     public void shouldFailToGetTemplateByIdentifierIfGivenNull() throws Exception {
         
@@ -329,6 +442,340 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         mrrtReportTemplateService.importMrrtReportTemplate(template);
     }
     
+    /**
+     * Creates a ZIP archive in memory.
+     *
+     * @param entries the content of the entries of the archive by their names
+     * @return the archive
+     */
+    private InputStream zipArchive(Map<String, String> entries) throws IOException {
+        
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(archive)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue()
+                        .getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return new ByteArrayInputStream(archive.toByteArray());
+    }
+    
+    @Test
+    public void shouldImportTheValidTemplatesOfTheArchiveAndReportTheInvalidOnes() throws Exception {
+        
+        setUpTemporaryFolder();
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("library/CTChestAbdomen.html", getFileContent(VALID_TEMPLATE));
+        entries.put("library/invalid.html", getFileContent(INVALID_TEMPLATE));
+        
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(zipArchive(entries));
+        
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0)
+                .getFileName(),
+            is("library/CTChestAbdomen.html"));
+        assertTrue(results.get(0)
+                .isImported());
+        MrrtReportTemplate imported = mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER);
+        assertNotNull(imported);
+        assertTrue(FileUtils.contentEquals(getFile(VALID_TEMPLATE), new File(imported.getPath())));
+        assertThat(results.get(1)
+                .getFileName(),
+            is("library/invalid.html"));
+        assertThat(results.get(1)
+                .isImported(),
+            is(false));
+        assertThat(results.get(1)
+                .getValidationErrors()
+                .isEmpty(),
+            is(false));
+    }
+    
+    @Test
+    public void shouldSkipEntriesWhichAreNoHtmlFiles() throws Exception {
+        
+        setUpTemporaryFolder();
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("README.txt", "templates of the connectathon");
+        entries.put("CTChestAbdomen.HTML", getFileContent(VALID_TEMPLATE));
+        
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(zipArchive(entries));
+        
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0)
+                .getFileName(),
+            is("CTChestAbdomen.HTML"));
+        assertTrue(results.get(0)
+                .isImported());
+    }
+    
+    @Test
+    public void shouldReportTemplatesWhoseIdentifierAlreadyExistsAsNotImported() throws Exception {
+        
+        setUpTemporaryFolder();
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("first.html", getFileContent(VALID_TEMPLATE));
+        entries.put("second.html", getFileContent(VALID_TEMPLATE));
+        
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(zipArchive(entries));
+        
+        assertTrue(results.get(0)
+                .isImported());
+        assertThat(results.get(1)
+                .isImported(),
+            is(false));
+        assertThat(results.get(1)
+                .getErrorMessage(),
+            is("Template already exist in the system."));
+        assertThat(radiologyProperties.getReportTemplateHome()
+                .list().length,
+            is(1));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenArchiveIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("zipArchive cannot be null");
+        mrrtReportTemplateService.importMrrtReportTemplates((InputStream) null);
+    }
+    
+    @Test
+    public void shouldImportAllTemplatesOfAnArchiveWithMoreTemplatesThanFitInOneBatch() throws Exception {
+        
+        setUpTemporaryFolder();
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 25; i++) {
+            entries.put("template" + i + ".html", getNumberedTemplate(i));
+        }
+        
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(zipArchive(entries));
+        
+        assertThat(results.size(), is(25));
+        for (int i = 0; i < 25; i++) {
+            assertThat(results.get(i)
+                    .getFileName(),
+                is("template" + i + ".html"));
+            assertTrue(results.get(i)
+                    .isImported());
+        }
+        assertNotNull(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER + ".24"));
+        assertThat(radiologyProperties.getReportTemplateHome()
+                .list().length,
+            is(25));
+    }
+    
+    @Test
+    public void shouldReportTemplatesWhoseIdentifierAlreadyExistsInAnEarlierBatchOfTheArchiveAsNotImported()
+            throws Exception {
+        
+        setUpTemporaryFolder();
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 21; i++) {
+            entries.put("template" + i + ".html", getNumberedTemplate(i));
+        }
+        entries.put("duplicate.html", getNumberedTemplate(0));
+        
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(zipArchive(entries));
+        
+        assertThat(results.size(), is(22));
+        assertTrue(results.get(0)
+                .isImported());
+        assertTrue(results.get(20)
+                .isImported());
+        assertThat(results.get(21)
+                .isImported(),
+            is(false));
+        assertThat(results.get(21)
+                .getErrorMessage(),
+            is("Template already exist in the system."));
+        assertThat(radiologyProperties.getReportTemplateHome()
+                .list().length,
+            is(21));
+    }
+    
+    @Test
+    public void shouldDeleteTheTemplateFilesOfABatchWhichWasRolledBackAndImportItsTemplatesOneByOne() throws Exception {
+        
+        setUpTemporaryFolder();
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("first.html", getNumberedTemplate(1));
+        // the title does not fit into its column so saving the batch fails in the database
+        entries.put("second.html", getNumberedTemplate(2).replace("content=\"CT Chest-Abdomen\"",
+            "content=\"" + StringUtils.repeat("CT Chest-Abdomen ", 20) + "\""));
+        entries.put("third.html", getNumberedTemplate(3));
+        
+        List<MrrtReportTemplateImportResult> results =
+                mrrtReportTemplateService.importMrrtReportTemplates(zipArchive(entries));
+        
+        assertThat(results.size(), is(3));
+        assertTrue(results.get(0)
+                .isImported());
+        assertThat(results.get(1)
+                .isImported(),
+            is(false));
+        assertNotNull(results.get(1)
+                .getErrorMessage());
+        assertTrue(results.get(2)
+                .isImported());
+        assertNull(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER + ".2"));
+        assertThat(radiologyProperties.getReportTemplateHome()
+                .list().length,
+            is(2));
+    }
+    
+    @Test
+    public void shouldClearTheSessionAfterEveryBatch() throws Exception {
+        
+        setUpTemporaryFolder();
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("first.html", getNumberedTemplate(1));
+        final InputStream archive = zipArchive(entries);
+        final UserContext userContext = Context.getUserContext();
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        final int entityCount;
+        try {
+            // like a web request the templates are imported on a session bound to the thread which outlives the
+            // transactions of the batches
+            final Future<Integer> importing = executorService.submit(() -> {
+                Context.openSession();
+                try {
+                    Context.setUserContext(userContext);
+                    mrrtReportTemplateService.importMrrtReportTemplates(archive);
+                    return sessionFactory.getCurrentSession()
+                            .getStatistics()
+                            .getEntityCount();
+                }
+                finally {
+                    Context.closeSession();
+                }
+            });
+            entityCount = importing.get();
+        }
+        finally {
+            executorService.shutdownNow();
+        }
+        
+        assertThat(entityCount, is(0));
+        assertNotNull(mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER + ".1"));
+    }
+    
+    @Test
+    public void shouldImportTheValidTemplatesOfTheDirectoryAndReportTheInvalidOnes() throws Exception {
+        
+        setUpTemporaryFolder();
+        File directory = new File(OpenmrsUtil.getApplicationDataDirectory(), "mrrt_templates_import_test");
+        FileUtils.copyFile(getFile(VALID_TEMPLATE), new File(directory, "b.html"));
+        FileUtils.copyFile(getFile(INVALID_TEMPLATE), new File(directory, "a.htm"));
+        FileUtils.writeStringToFile(new File(directory, "notes.txt"), "templates of the connectathon");
+        
+        List<MrrtReportTemplateImportResult> results;
+        try {
+            results = mrrtReportTemplateService.importMrrtReportTemplates(directory);
+        }
+        finally {
+            FileUtils.deleteQuietly(directory);
+        }
+        
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0)
+                .getFileName(),
+            is("a.htm"));
+        assertThat(results.get(0)
+                .isImported(),
+            is(false));
+        assertThat(results.get(1)
+                .getFileName(),
+            is("b.html"));
+        assertThat(results.get(1)
+                .getTemplate()
+                .getDcTermsIdentifier(),
+            is(TEMPLATE_IDENTIFIER));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenNoDirectory() throws Exception {
+        
+        File file = new File(OpenmrsUtil.getApplicationDataDirectory(), "mrrt_template_import_test.html");
+        FileUtils.writeStringToFile(file, getFileContent(VALID_TEMPLATE));
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("is no directory");
+        try {
+            mrrtReportTemplateService.importMrrtReportTemplates(file);
+        }
+        finally {
+            FileUtils.deleteQuietly(file);
+        }
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenDirectoryIsNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("directory cannot be null");
+        mrrtReportTemplateService.importMrrtReportTemplates((File) null);
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenDirectoryIsOutsideOfTheApplicationDataDirectory()
+            throws Exception {
+        
+        File directory = temporaryFolder.newFolder("library");
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("is outside of the application data directory");
+        mrrtReportTemplateService.importMrrtReportTemplates(directory);
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenPathOutsideOfTheApplicationDataDirectoryBeforeCheckingIt()
+            throws Exception {
+        
+        File file = temporaryFolder.newFile("template.html");
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("is outside of the application data directory");
+        mrrtReportTemplateService.importMrrtReportTemplates(file);
+    }
+    
+    @Test
+    public void shouldSaveTheTemplatesOfGivenTemplateFilesAndStoreThemOnTheFileSystem() throws Exception {
+        
+        setUpTemporaryFolder();
+        String content = getFileContent(VALID_TEMPLATE);
+        MrrtReportTemplateImportFile templateFile =
+                new MrrtReportTemplateImportFile("CTChestAbdomen.html", content, parser.parseAndValidate(content));
+        
+        List<MrrtReportTemplateImportResult> results =
+                batchImporter.importBatch(Collections.singletonList(templateFile));
+        
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0)
+                .getFileName(),
+            is("CTChestAbdomen.html"));
+        assertTrue(results.get(0)
+                .isImported());
+        MrrtReportTemplate imported = mrrtReportTemplateService.getMrrtReportTemplateByIdentifier(TEMPLATE_IDENTIFIER);
+        assertNotNull(imported);
+        assertTrue(FileUtils.contentEquals(getFile(VALID_TEMPLATE), new File(imported.getPath())));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfGivenTemplateFilesAreNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("templateFiles cannot be null");
+        batchImporter.importBatch(null);
+    }
+    
     @Test
     public void shouldGetAllTemplatesThatMatchGivenTitleSearchQueryIfTitleIsSpecified() throws Exception {
         
@@ -369,6 +816,63 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         mrrtReportTemplateService.getMrrtReportTemplates(null);
     }
     
+    @Test
+    public void shouldReturnAtMostLimitMrrtReportTemplatesStartingAtGivenStartIndex() throws Exception {
+        
+        MrrtReportTemplateSearchCriteria searchCriteria =
+                new MrrtReportTemplateSearchCriteria.Builder().withTitle(EXISTING_TEMPLATE_TITLE)
+                        .withStartIndex(1)
+                        .withLimit(1)
+                        .build();
+        
+        List<MrrtReportTemplate> templates = mrrtReportTemplateService.getMrrtReportTemplates(searchCriteria);
+        
+        assertThat(templates.size(), is(1));
+        assertThat(templates.get(0)
+                .getDcTermsTitle(),
+            is("CT Chest Pulmonary Embolism"));
+    }
+    
+    @Test
+    public void shouldReturnMrrtReportTemplatesSortedByGivenSortFieldAndDirection() throws Exception {
+        
+        MrrtReportTemplateSearchCriteria searchCriteria =
+                new MrrtReportTemplateSearchCriteria.Builder().withTitle(EXISTING_TEMPLATE_TITLE)
+                        .sortBy(MrrtReportTemplateSearchCriteria.SortField.CREATOR, true)
+                        .build();
+        
+        List<MrrtReportTemplate> templates = mrrtReportTemplateService.getMrrtReportTemplates(searchCriteria);
+        
+        assertThat(templates.size(), is(2));
+        assertThat(templates.get(0)
+                .getDcTermsTitle(),
+            is("CT Chest Pulmonary Embolism"));
+        assertThat(templates.get(1)
+                .getDcTermsTitle(),
+            is("CT Cardiac Bypass Graft"));
+    }
+    
+    @Test
+    public void shouldReturnTheNumberOfMrrtReportTemplatesMatchingGivenCriteriaIgnoringStartIndexAndLimit()
+            throws Exception {
+        
+        MrrtReportTemplateSearchCriteria searchCriteria =
+                new MrrtReportTemplateSearchCriteria.Builder().withTitle(EXISTING_TEMPLATE_TITLE)
+                        .withStartIndex(1)
+                        .withLimit(1)
+                        .build();
+        
+        assertThat(mrrtReportTemplateService.countMrrtReportTemplates(searchCriteria), is(2L));
+    }
+    
+    @Test
+    public void shouldFailToCountTemplatesIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("mrrtReportTemplateSearchCriteria cannot be null");
+        mrrtReportTemplateService.countMrrtReportTemplates(null);
+    }
+    
     @Test
     public void shouldGetAllTemplatesThatMatchGivenPublisherAnywhereInDctermsPublisherInsensitiveToCase() throws Exception {
         
@@ -510,6 +1014,22 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
         assertThat(bodyContentReturned, is("<p>Sample Template</p>"));
     }
     
+    @Test
+    public void shouldReturnTheChangedBodyContentIfTheMrrtReportTemplateFileChanged() throws Exception {
+        
+        File tmpTemplateFile = temporaryFolder.newFile();
+        FileUtils.writeStringToFile(tmpTemplateFile, "<html><body><p>Sample Template</p></body></html>");
+        MrrtReportTemplate mockTemplate = mock(MrrtReportTemplate.class);
+        when(mockTemplate.getId()).thenReturn(1);
+        when(mockTemplate.getPath()).thenReturn(tmpTemplateFile.getAbsolutePath());
+        assertThat(mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(mockTemplate), is("<p>Sample Template</p>"));
+        
+        FileUtils.writeStringToFile(tmpTemplateFile, "<html><body><p>Changed Sample Template</p></body></html>");
+        
+        assertThat(mrrtReportTemplateService.getMrrtReportTemplateHtmlBody(mockTemplate),
+            is("<p>Changed Sample Template</p>"));
+    }
+    
     @Test
     public void shouldThrowIllegalArgumentExceptionIfGivenNull() throws Exception {
         
@@ -531,4 +1051,26 @@ public class MrrtReportTemplateServiceComponentTest extends BaseModuleContextSen
                 .size(),
             is(1));
     }
+    
+    @Test
+    public void shouldNotQueryTheTermsOfEachMrrtReportTemplateSeparately() throws Exception {
+        
+        assertQueryCountIndependentOfResultSize(sessionFactory,
+            () -> mrrtReportTemplateService.getMrrtReportTemplates(
+                new MrrtReportTemplateSearchCriteria.Builder().withTitle("Pulmonary")
+                        .build()),
+            () -> mrrtReportTemplateService.getMrrtReportTemplates(
+                new MrrtReportTemplateSearchCriteria.Builder().withTitle(EXISTING_TEMPLATE_TITLE)
+                        .build()));
+    }
+    
+    @Test
+    public void shouldCountMrrtReportTemplatesWithOneQuery() throws Exception {
+        
+        MrrtReportTemplateSearchCriteria searchCriteria =
+                new MrrtReportTemplateSearchCriteria.Builder().withTitle(EXISTING_TEMPLATE_TITLE)
+                        .build();
+        
+        assertMaxQueryCount(sessionFactory, 1, () -> mrrtReportTemplateService.countMrrtReportTemplates(searchCriteria));
+    }
 }
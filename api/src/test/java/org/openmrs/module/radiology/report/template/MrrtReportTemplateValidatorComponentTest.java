@@ -17,6 +17,12 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Rule;
@@ -311,4 +317,81 @@ public class MrrtReportTemplateValidatorComponentTest extends BaseModuleContextS
                 is(4));
         }
     }
+    
+    @Test
+    public void shouldPassIfParsedTemplateFollowsMrrtStandards() throws Exception {
+        
+        String templateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        validator.validate(MrrtReportTemplateDocument.parse(templateContent));
+    }
+    
+    @Test
+    public void shouldThrowMrrtReportTemplateValidationExceptionIfParsedTemplateViolatesMrrtStandards() throws Exception {
+        
+        MrrtReportTemplateDocument document = MrrtReportTemplateDocument.parse(getFileContent(
+            "mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-missingCharsetTitleTemplateAttributesBodyElements.html"));
+        
+        expectedException.expect(MrrtReportTemplateValidationException.class);
+        validator.validate(document);
+    }
+    
+    @Test
+    public void shouldPassAValidTemplateAfterFailingAnInvalidOne() throws Exception {
+        
+        String invalidTemplateContent =
+                getFileContent("mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-missingHtmlElement.html");
+        String validTemplateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        
+        try {
+            validator.validate(invalidTemplateContent);
+            fail("Expected an APIException to be thrown");
+        }
+        catch (APIException e) {
+            // expected
+        }
+        
+        validator.validate(validTemplateContent);
+    }
+    
+    @Test
+    public void shouldValidateTemplatesConcurrently() throws Exception {
+        
+        final String validTemplateContent = getFileContent("mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html");
+        final String invalidTemplateContent = getFileContent(
+            "mrrttemplates/ihe/connectathon/2015/invalidMrrtReportTemplate-missingCharsetTitleTemplateAttributesBodyElements.html");
+        
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Integer>> errorCounts = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 20; i++) {
+                final String templateContent = i % 2 == 0 ? validTemplateContent : invalidTemplateContent;
+                errorCounts.add(executorService.submit(new Callable<Integer>() {
+                    
+                    
+                    @Override
+                    public Integer call() throws Exception {
+                        try {
+                            validator.validate(templateContent);
+                            return 0;
+                        }
+                        catch (MrrtReportTemplateValidationException e) {
+                            return e.getValidationResult()
+                                    .getErrors()
+                                    .size();
+                        }
+                    }
+                }));
+            }
+            
+            for (int i = 0; i < errorCounts.size(); i++) {
+                assertThat(errorCounts.get(i)
+                        .get(),
+                    is(i % 2 == 0 ? 0 : 4));
+            }
+        }
+        finally {
+            executorService.shutdown();
+        }
+    }
 }
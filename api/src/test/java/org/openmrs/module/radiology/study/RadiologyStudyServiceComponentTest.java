@@ -13,15 +13,23 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.openmrs.module.radiology.test.QueryCountAssertions.assertMaxQueryCount;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
+import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Environment;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.openmrs.api.APIException;
+import org.openmrs.module.radiology.dicom.DicomUidValidator;
 import org.openmrs.module.radiology.order.RadiologyOrder;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
@@ -44,6 +52,8 @@ public class RadiologyStudyServiceComponentTest extends BaseModuleContextSensiti
     
     private static final String EXISTING_STUDY_INSTANCE_UID = "1.2.826.0.1.3680043.8.2186.1.1";
     
+    private static final String SECOND_STUDY_INSTANCE_UID = "1.2.826.0.1.3680043.8.2186.1.2";
+    
     private static final String NON_EXISTING_STUDY_INSTANCE_UID = "1.2.826.0.1.3680043.8.2186.1.9999";
     
     private static final int EXISTING_STUDY_ID = 1;
@@ -56,6 +66,9 @@ public class RadiologyStudyServiceComponentTest extends BaseModuleContextSensiti
     @Autowired
     private RadiologyStudyService radiologyStudyService;
     
+    @Autowired
+    private SessionFactory sessionFactory;
+    
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     
@@ -137,6 +150,50 @@ public class RadiologyStudyServiceComponentTest extends BaseModuleContextSensiti
         radiologyStudyService.saveRadiologyStudy(existingStudy);
     }
     
+    /**
+     * @see RadiologyStudyService#saveRadiologyStudies(List)
+     */
+    @Test
+    public void shouldCreateNewRadiologyStudiesFromGivenRadiologyStudies() throws Exception {
+        
+        RadiologyStudy radiologyStudy = getUnsavedStudy();
+        RadiologyOrder radiologyOrder = radiologyOrderService.getRadiologyOrder(RADIOLOGY_ORDER_ID_WITHOUT_STUDY);
+        radiologyOrder.setStudy(radiologyStudy);
+        
+        List<RadiologyStudy> createdStudies = radiologyStudyService.saveRadiologyStudies(Arrays.asList(radiologyStudy));
+        
+        assertThat(createdStudies.size(), is(1));
+        assertThat(createdStudies.get(0), is(radiologyStudy));
+        assertNotNull(createdStudies.get(0)
+                .getStudyId());
+        assertTrue(DicomUidValidator.isValid(createdStudies.get(0)
+                .getStudyInstanceUid()));
+    }
+    
+    /**
+     * @see RadiologyStudyService#saveRadiologyStudies(List)
+     */
+    @Test
+    public void shouldFailToSaveStudiesIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("radiologyStudies cannot be null");
+        radiologyStudyService.saveRadiologyStudies(null);
+    }
+    
+    /**
+     * @see RadiologyStudyService#saveRadiologyStudies(List)
+     */
+    @Test
+    public void shouldThrowApiExceptionOnSavingStudiesContainingAnExistingRadiologyStudy() throws Exception {
+        
+        RadiologyStudy existingStudy = radiologyStudyService.getRadiologyStudy(EXISTING_STUDY_ID);
+        
+        expectedException.expect(APIException.class);
+        expectedException.expectMessage("RadiologyStudy.cannot.edit.existing");
+        radiologyStudyService.saveRadiologyStudies(Arrays.asList(existingStudy));
+    }
+    
     /**
      * @see RadiologyStudyService#getRadiologyStudy(Integer)
      */
@@ -233,4 +290,112 @@ public class RadiologyStudyServiceComponentTest extends BaseModuleContextSensiti
         expectedException.expectMessage("studyInstanceUid cannot be null");
         assertNull(radiologyStudyService.getRadiologyStudyByStudyInstanceUid(null));
     }
+    
+    /**
+     * @see RadiologyStudyService#getRadiologyStudyByUuid(String)
+     */
+    @Test
+    public void shouldReturnRadiologyStudyAndItsRadiologyOrderWithAtMostTwoQueriesGivenUuid() throws Exception {
+        
+        assertMaxQueryCount(sessionFactory, 2, () -> radiologyStudyService.getRadiologyStudyByUuid(EXISTING_STUDY_UUID)
+                .getRadiologyOrder()
+                .getAccessionNumber());
+    }
+    
+    /**
+     * @see RadiologyStudyService#getRadiologyStudyByStudyInstanceUid(String)
+     */
+    @Test
+    public void shouldReturnRadiologyStudyAndItsRadiologyOrderWithAtMostTwoQueriesGivenStudyInstanceUid()
+            throws Exception {
+        
+        assertMaxQueryCount(sessionFactory, 2,
+            () -> radiologyStudyService.getRadiologyStudyByStudyInstanceUid(EXISTING_STUDY_INSTANCE_UID)
+                    .getRadiologyOrder()
+                    .getAccessionNumber());
+    }
+    
+    /**
+     * @see RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(java.util.Collection)
+     */
+    @Test
+    public void shouldReturnTheRadiologyStudiesMatchingGivenStudyInstanceUidsKeyedByStudyInstanceUid() throws Exception {
+        
+        Map<String, RadiologyStudy> radiologyStudies = radiologyStudyService.getRadiologyStudiesByStudyInstanceUids(
+            Arrays.asList(SECOND_STUDY_INSTANCE_UID, EXISTING_STUDY_INSTANCE_UID));
+        
+        assertThat(new ArrayList<String>(radiologyStudies.keySet()),
+            is(Arrays.asList(SECOND_STUDY_INSTANCE_UID, EXISTING_STUDY_INSTANCE_UID)));
+        assertThat(radiologyStudies.get(EXISTING_STUDY_INSTANCE_UID)
+                .getUuid(),
+            is(EXISTING_STUDY_UUID));
+    }
+    
+    /**
+     * @see RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(java.util.Collection)
+     */
+    @Test
+    public void shouldNotContainStudyInstanceUidsWithoutRadiologyStudy() throws Exception {
+        
+        Map<String, RadiologyStudy> radiologyStudies = radiologyStudyService.getRadiologyStudiesByStudyInstanceUids(
+            Arrays.asList(NON_EXISTING_STUDY_INSTANCE_UID, EXISTING_STUDY_INSTANCE_UID));
+        
+        assertThat(new ArrayList<String>(radiologyStudies.keySet()), is(Arrays.asList(EXISTING_STUDY_INSTANCE_UID)));
+    }
+    
+    /**
+     * @see RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(java.util.Collection)
+     */
+    @Test
+    public void shouldReturnAnEmptyMapGivenNoStudyInstanceUids() throws Exception {
+        
+        assertTrue(radiologyStudyService.getRadiologyStudiesByStudyInstanceUids(new ArrayList<String>())
+                .isEmpty());
+    }
+    
+    /**
+     * @see RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(java.util.Collection)
+     */
+    @Test
+    public void shouldFetchTheRadiologyStudiesOfMoreStudyInstanceUidsThanAllowedInOneQuery() throws Exception {
+        
+        List<String> studyInstanceUids = new ArrayList<String>();
+        for (int i = 0; i < HibernateRadiologyStudyDAO.MAX_IN_PARAMETERS; i++) {
+            studyInstanceUids.add(NON_EXISTING_STUDY_INSTANCE_UID + "." + i);
+        }
+        studyInstanceUids.add(EXISTING_STUDY_INSTANCE_UID);
+        
+        Map<String, RadiologyStudy> radiologyStudies =
+                radiologyStudyService.getRadiologyStudiesByStudyInstanceUids(studyInstanceUids);
+        
+        assertThat(new ArrayList<String>(radiologyStudies.keySet()), is(Arrays.asList(EXISTING_STUDY_INSTANCE_UID)));
+    }
+    
+    /**
+     * @see RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(java.util.Collection)
+     */
+    @Test
+    public void shouldFetchTheRadiologyOrdersOfTheRadiologyStudiesWithTheSameQuery() throws Exception {
+        
+        assertMaxQueryCount(sessionFactory, 1, () -> {
+            Map<String, RadiologyStudy> radiologyStudies = radiologyStudyService.getRadiologyStudiesByStudyInstanceUids(
+                Arrays.asList(EXISTING_STUDY_INSTANCE_UID, SECOND_STUDY_INSTANCE_UID));
+            for (RadiologyStudy radiologyStudy : radiologyStudies.values()) {
+                radiologyStudy.getRadiologyOrder()
+                        .getAccessionNumber();
+            }
+            return radiologyStudies;
+        });
+    }
+    
+    /**
+     * @see RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(java.util.Collection)
+     */
+    @Test
+    public void shouldFailToGetRadiologyStudiesByStudyInstanceUidsIfGivenNull() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("studyInstanceUids cannot be null");
+        radiologyStudyService.getRadiologyStudiesByStudyInstanceUids(null);
+    }
 }
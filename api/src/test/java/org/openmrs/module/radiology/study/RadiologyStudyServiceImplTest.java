@@ -13,9 +13,17 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -43,6 +51,9 @@ public class RadiologyStudyServiceImplTest extends BaseContextMockTest {
     @Mock
     private RadiologyProperties radiologyProperties;
     
+    @Mock
+    private RadiologyStudyDAO radiologyStudyDAO;
+    
     @InjectMocks
     private RadiologyStudyServiceImpl radiologyStudyServiceImpl = new RadiologyStudyServiceImpl();
     
@@ -54,6 +65,8 @@ public class RadiologyStudyServiceImplTest extends BaseContextMockTest {
             new Class[] { RadiologyStudy.class });
         setStudyInstanceUidIfBlankMethod.setAccessible(true);
         
+        radiologyStudyServiceImpl.setDicomUidGenerators(Collections.singletonMap("uuid", dicomUidGenerator));
+        when(radiologyProperties.getDicomUidGenerator()).thenReturn("uuid");
         when(radiologyProperties.getDicomUIDOrgRoot()).thenReturn(ORG_ROOT_UID);
         when(dicomUidGenerator.getNewDicomUid(ORG_ROOT_UID)).thenReturn(DICOM_UID_1);
     }
@@ -97,4 +110,27 @@ public class RadiologyStudyServiceImplTest extends BaseContextMockTest {
         assertNotNull(radiologyStudy.getStudyInstanceUid());
         assertThat(radiologyStudy.getStudyInstanceUid(), is(DICOM_UID_2));
     }
+    
+    @Test
+    public void shouldSetTheStudyInstanceUidsOfGivenRadiologyStudiesIfBlank() throws Exception {
+        
+        RadiologyStudy withoutStudyInstanceUid = new RadiologyStudy();
+        RadiologyStudy withWhitespaceStudyInstanceUid = new RadiologyStudy();
+        withWhitespaceStudyInstanceUid.setStudyInstanceUid("  ");
+        RadiologyStudy withStudyInstanceUid = new RadiologyStudy();
+        withStudyInstanceUid.setStudyInstanceUid(DICOM_UID_2);
+        when(dicomUidGenerator.getNewDicomUids(ORG_ROOT_UID, 2)).thenReturn(Arrays.asList(DICOM_UID_1, DICOM_UID_1 + "1"));
+        when(radiologyStudyDAO.saveRadiologyStudy(any(RadiologyStudy.class))).thenAnswer(returnsFirstArg());
+        
+        List<RadiologyStudy> savedStudies = radiologyStudyServiceImpl.saveRadiologyStudies(
+            Arrays.asList(withoutStudyInstanceUid, withStudyInstanceUid, withWhitespaceStudyInstanceUid));
+        
+        assertThat(savedStudies, is(Arrays.asList(withoutStudyInstanceUid, withStudyInstanceUid,
+            withWhitespaceStudyInstanceUid)));
+        assertThat(withoutStudyInstanceUid.getStudyInstanceUid(), is(DICOM_UID_1));
+        assertThat(withStudyInstanceUid.getStudyInstanceUid(), is(DICOM_UID_2));
+        assertThat(withWhitespaceStudyInstanceUid.getStudyInstanceUid(), is(DICOM_UID_1 + "1"));
+        verify(dicomUidGenerator, times(1)).getNewDicomUids(ORG_ROOT_UID, 2);
+        verify(dicomUidGenerator, never()).getNewDicomUid(ORG_ROOT_UID);
+    }
 }
@@ -0,0 +1,108 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.test;
+
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Environment;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Base class of component tests running against a session factory with the Hibernate second-level and query cache
+ * switched on.
+ * <p>
+ * The shared test session factory runs without caches, so the cache regions of the mappings are never exercised there.
+ * Subclasses get an application context of their own whose session factory caches in the in-process Ehcache regions
+ * and collects {@link Statistics}, so tests can assert cache hits and invalidation through
+ * {@link SessionFactory#getStatistics()}.
+ * </p>
+ * <p>
+ * Hibernate only reads an entity from the second-level cache in a session opened after it was put there, tests
+ * therefore read cached entities back through {@link #inNewSession(Supplier)}. The datasets of the tests are inserted
+ * behind Hibernate and rolled back after each test, all cache regions are therefore evicted after each test.
+ * </p>
+ */
+@ContextConfiguration(locations = "classpath:CacheEnabledTestingApplicationContext.xml", inheritLocations = true)
+public abstract class CacheEnabledModuleContextSensitiveTest extends BaseModuleContextSensitiveTest {
+    
+    
+    @Autowired
+    private SessionFactory sessionFactory;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    /**
+     * Switches the second-level and query cache on for the session factory of this application context. MVCC is enabled
+     * in DB h2 so a new session reading what the second-level cache does not hold is not blocked by the uncommitted rows
+     * of the test transaction.
+     * 
+     * @see org.openmrs.test.BaseContextSensitiveTest#getRuntimeProperties()
+     */
+    @Override
+    public Properties getRuntimeProperties() {
+        
+        final Properties result = super.getRuntimeProperties();
+        final String url = result.getProperty(Environment.URL);
+        if (url.contains("jdbc:h2:") && !url.contains(";MVCC=TRUE")) {
+            result.setProperty(Environment.URL, url + ";MVCC=TRUE");
+        }
+        result.setProperty(Environment.USE_SECOND_LEVEL_CACHE, "true");
+        result.setProperty(Environment.USE_QUERY_CACHE, "true");
+        return result;
+    }
+    
+    @Before
+    public void enableCacheStatistics() {
+        
+        getCacheStatistics().setStatisticsEnabled(true);
+        getCacheStatistics().clear();
+    }
+    
+    @After
+    public void evictAllCacheRegions() {
+        
+        sessionFactory.getCache()
+                .evictAllRegions();
+        getCacheStatistics().setStatisticsEnabled(false);
+    }
+    
+    /**
+     * Runs given work in a new transaction and session, suspending the transaction of the test until the work is done.
+     * What the work reads is only found in the second-level cache or in the rows committed before the test.
+     * 
+     * @param work the work to run
+     * @return the result of the work
+     */
+    protected <T> T inNewSession(Supplier<T> work) {
+        
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate.execute(status -> work.get());
+    }
+    
+    /**
+     * @return the statistics of the session factory counting cache hits, misses and puts since the start of the test
+     */
+    protected Statistics getCacheStatistics() {
+        
+        return sessionFactory.getStatistics();
+    }
+}
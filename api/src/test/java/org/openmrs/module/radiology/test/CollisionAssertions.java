@@ -0,0 +1,87 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Assertions to ease testing generators of unique values (such as accession numbers or DICOM UIDs) which are used
+ * concurrently by several threads on several nodes.
+ */
+public final class CollisionAssertions {
+    
+    
+    private CollisionAssertions() {
+        throw new UnsupportedOperationException("Utility class not meant for instantiation");
+    }
+    
+    /**
+     * Assert that the given generators, each standing for a separate node, never return the same value when called
+     * concurrently from {@code threadsPerNode} threads per node.
+     * 
+     * @param nodes the generators, one per node
+     * @param threadsPerNode the number of threads calling each generator
+     * @param valuesPerThread the number of values generated by each thread
+     * @return all generated values
+     * @throws Exception if a generator fails
+     */
+    public static Set<String> assertNoCollisions(List<? extends Supplier<String>> nodes, int threadsPerNode,
+            int valuesPerThread) throws Exception {
+        
+        final int threads = nodes.size() * threadsPerNode;
+        final Set<String> values = ConcurrentHashMap.<String> newKeySet(threads * valuesPerThread);
+        final CountDownLatch start = new CountDownLatch(1);
+        
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>(threads);
+            for (final Supplier<String> node : nodes) {
+                for (int i = 0; i < threadsPerNode; i++) {
+                    futures.add(executorService.submit(new Callable<Void>() {
+                        
+                        
+                        @Override
+                        public Void call() throws Exception {
+                            start.await();
+                            for (int j = 0; j < valuesPerThread; j++) {
+                                values.add(node.get());
+                            }
+                            return null;
+                        }
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executorService.shutdownNow();
+        }
+        
+        // since we used a set we should have the size as the number of generated values indicating that there were no
+        // duplicates
+        assertThat(values.size(), is(threads * valuesPerThread));
+        return values;
+    }
+}
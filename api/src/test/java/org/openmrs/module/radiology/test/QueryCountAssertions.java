@@ -0,0 +1,111 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.test;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Assertions on the number of SQL statements a piece of code executes, used to keep N+1 query patterns out of service
+ * methods.
+ * <p>
+ * Statements are counted via Hibernate {@link Statistics}. The current session is flushed and cleared before the
+ * statements are counted, so entities loaded by a test (e.g. to build search criteria) do not hide the queries loading
+ * them.
+ * </p>
+ */
+public final class QueryCountAssertions {
+    
+    
+    private QueryCountAssertions() {
+        throw new UnsupportedOperationException("Utility class not meant for instantiation");
+    }
+    
+    /**
+     * Count the SQL statements executed by given work.
+     *
+     * @param sessionFactory the session factory of the tested services
+     * @param work the work of which the statements shall be counted
+     * @return the number of SQL statements executed by given work
+     * @throws Exception if the work fails
+     */
+    public static long countQueries(SessionFactory sessionFactory, Callable<?> work) throws Exception {
+        
+        final Session session = sessionFactory.getCurrentSession();
+        session.flush();
+        session.clear();
+        
+        final Statistics statistics = sessionFactory.getStatistics();
+        final boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            work.call();
+            return statistics.getPrepareStatementCount();
+        }
+        finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+    
+    /**
+     * Assert that given work executes at most {@code maxQueryCount} SQL statements.
+     *
+     * @param sessionFactory the session factory of the tested services
+     * @param maxQueryCount the maximum number of SQL statements the work may execute
+     * @param work the work of which the statements shall be counted
+     * @throws Exception if the work fails
+     */
+    public static void assertMaxQueryCount(SessionFactory sessionFactory, long maxQueryCount, Callable<?> work)
+            throws Exception {
+        
+        final long queryCount = countQueries(sessionFactory, work);
+        assertThat("SQL statements executed, HQL queries were " + Arrays.toString(sessionFactory.getStatistics()
+                .getQueries()),
+            queryCount, lessThanOrEqualTo(maxQueryCount));
+    }
+    
+    /**
+     * Assert that fetching many results does not execute more SQL statements than fetching few results, i.e. that the
+     * number of statements does not grow with the number of results as with an N+1 query pattern.
+     * <p>
+     * Both fetches should return results related to the same entities (e.g. the same patient) so only the statements
+     * loading each result itself can make a difference.
+     * </p>
+     *
+     * @param sessionFactory the session factory of the tested services
+     * @param fewResults the work fetching few results
+     * @param manyResults the work fetching more results than {@code fewResults}
+     * @throws Exception if a work fails
+     */
+    public static void assertQueryCountIndependentOfResultSize(SessionFactory sessionFactory,
+            Callable<? extends Collection<?>> fewResults, Callable<? extends Collection<?>> manyResults)
+            throws Exception {
+        
+        final int[] resultSizes = new int[2];
+        final long fewQueryCount = countQueries(sessionFactory, () -> resultSizes[0] = fewResults.call()
+                .size());
+        final long manyQueryCount = countQueries(sessionFactory, () -> resultSizes[1] = manyResults.call()
+                .size());
+        
+        assertThat("number of results fetched by manyResults", resultSizes[1], greaterThan(resultSizes[0]));
+        assertThat("SQL statements executed fetching " + resultSizes[1] + " instead of " + resultSizes[0] + " results",
+            manyQueryCount, lessThanOrEqualTo(fewQueryCount));
+    }
+}
@@ -64,4 +64,32 @@ public class DecimalUuidTest {
         assertThat(expectedBigIntegerTestUuid3,
             is(getBigIntegerFromUuuidMethod.invoke(decimalUuid, new Object[] { testUuid3 })));
     }
+    
+    /**
+     * @see DecimalUuid#toDecimalString(UUID)
+     */
+    @Test
+    public void shouldTranslateGivenUuidIntoItsDecimalStringRepresentation() throws Exception {
+        
+        assertThat(DecimalUuid.toDecimalString(UUID.fromString("d1e08f60-0246-11e6-973b-0002a5d5c51b")),
+            is("278974633606539821744827903865060181275"));
+        assertThat(DecimalUuid.toDecimalString(UUID.fromString("3f3a55a0-0247-11e6-a2fa-0002a5d5c51b")),
+            is("84044253634271920957235037603861218587"));
+        assertThat(DecimalUuid.toDecimalString(new UUID(0L, 0L)), is("0"));
+        assertThat(DecimalUuid.toDecimalString(new UUID(0L, 1000000000L)), is("1000000000"));
+        assertThat(DecimalUuid.toDecimalString(new UUID(-1L, -1L)), is("340282366920938463463374607431768211455"));
+    }
+    
+    /**
+     * @see DecimalUuid#toDecimalString(UUID)
+     */
+    @Test
+    public void shouldMatchTheBigIntegerRepresentationForRandomUuids() throws Exception {
+        
+        for (int i = 0; i < 10000; i++) {
+            final UUID uuid = UUID.randomUUID();
+            assertThat(DecimalUuid.toDecimalString(uuid),
+                is(getBigIntegerFromUuuidMethod.invoke(decimalUuid, new Object[] { uuid }).toString()));
+        }
+    }
 }
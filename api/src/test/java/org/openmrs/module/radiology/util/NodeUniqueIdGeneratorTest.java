@@ -0,0 +1,144 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.util;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.module.radiology.test.CollisionAssertions;
+
+/**
+ * Tests {@link NodeUniqueIdGenerator}.
+ */
+public class NodeUniqueIdGeneratorTest {
+    
+    
+    private static final int NODE_ID_BITS = 4;
+    
+    private static final int SEQUENCE_BITS = 3;
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    private final MutableClock clock = new MutableClock(1000L);
+    
+    @Test
+    public void shouldReturnStrictlyIncreasingIds() throws Exception {
+        
+        NodeUniqueIdGenerator generator = new NodeUniqueIdGenerator(3, NODE_ID_BITS, SEQUENCE_BITS, 1L, 0L, clock);
+        
+        long last = generator.nextId();
+        for (int i = 0; i < 100; i++) {
+            if (i % 10 == 0) {
+                clock.millis += 1;
+            }
+            long next = generator.nextId();
+            assertThat(next, is(greaterThan(last)));
+            last = next;
+        }
+    }
+    
+    @Test
+    public void shouldComposeIdOfTickNodeIdAndSequence() throws Exception {
+        
+        NodeUniqueIdGenerator generator = new NodeUniqueIdGenerator(3, NODE_ID_BITS, SEQUENCE_BITS, 1L, 0L, clock);
+        
+        assertThat(generator.nextId(), is((1000L << 7) | (3L << 3)));
+        assertThat(generator.nextId(), is((1000L << 7) | (3L << 3) | 1L));
+    }
+    
+    @Test
+    public void shouldContinueOnTheLastTickIfTheClockIsSetBack() throws Exception {
+        
+        NodeUniqueIdGenerator generator = new NodeUniqueIdGenerator(3, NODE_ID_BITS, SEQUENCE_BITS, 1L, 0L, clock);
+        long last = generator.nextId();
+        
+        clock.millis = 10L;
+        
+        assertThat(generator.nextId(), is(last + 1));
+    }
+    
+    @Test
+    public void shouldContinueOnTheNextTickIfTheSequenceIsExhaustedWithinATick() throws Exception {
+        
+        NodeUniqueIdGenerator generator = new NodeUniqueIdGenerator(3, NODE_ID_BITS, SEQUENCE_BITS, 1L, 0L, clock);
+        for (int i = 0; i < (1 << SEQUENCE_BITS); i++) {
+            generator.nextId();
+        }
+        
+        assertThat(generator.nextId(), is((1001L << 7) | (3L << 3)));
+    }
+    
+    @Test
+    public void shouldNeverReturnTheSameIdOnDifferentNodes() throws Exception {
+        
+        List<Supplier<String>> nodes = new ArrayList<Supplier<String>>();
+        for (int nodeId = 0; nodeId < (1 << NODE_ID_BITS); nodeId++) {
+            final NodeUniqueIdGenerator generator =
+                    new NodeUniqueIdGenerator(nodeId, NODE_ID_BITS, SEQUENCE_BITS, 1L, 0L, Clock.systemUTC());
+            nodes.add(() -> String.valueOf(generator.nextId()));
+        }
+        
+        CollisionAssertions.assertNoCollisions(nodes, 4, 2000);
+    }
+    
+    @Test
+    public void shouldFailIfNodeIdDoesNotFitIntoNodeIdBits() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("nodeId needs to be between 0 and 15");
+        new NodeUniqueIdGenerator(16, NODE_ID_BITS, SEQUENCE_BITS, 1L, 0L, clock);
+    }
+    
+    /**
+     * {@code Clock} which only advances when told to.
+     */
+    private static class MutableClock extends Clock {
+        
+        
+        private volatile long millis;
+        
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+        
+        @Override
+        public long millis() {
+            return millis;
+        }
+        
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQL5Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jdbc.ReturningWork;
+import org.junit.Test;
+
+/**
+ * Tests {@link StreamingFetchSize}.
+ */
+public class StreamingFetchSizeTest {
+    
+    
+    private static final int CHUNK_SIZE = 500;
+    
+    /**
+     * @see StreamingFetchSize#get(Session, int)
+     */
+    @Test
+    public void shouldReturnMinValueOnMysqlWithoutCursorFetch() throws Exception {
+        
+        Session session = getSession(new MySQL5Dialect(), "jdbc:mysql://localhost:3306/openmrs?autoReconnect=true");
+        
+        assertThat(StreamingFetchSize.get(session, CHUNK_SIZE), is(Integer.MIN_VALUE));
+    }
+    
+    /**
+     * @see StreamingFetchSize#get(Session, int)
+     */
+    @Test
+    public void shouldReturnGivenChunkSizeOnMysqlWithCursorFetch() throws Exception {
+        
+        Session session = getSession(new MySQL5Dialect(), "jdbc:mysql://localhost:3306/openmrs?useCursorFetch=true");
+        
+        assertThat(StreamingFetchSize.get(session, CHUNK_SIZE), is(CHUNK_SIZE));
+    }
+    
+    /**
+     * @see StreamingFetchSize#get(Session, int)
+     */
+    @Test
+    public void shouldReturnGivenChunkSizeOnOtherDatabases() throws Exception {
+        
+        Session session = getSession(new H2Dialect(), "jdbc:h2:mem:openmrs");
+        
+        assertThat(StreamingFetchSize.get(session, CHUNK_SIZE), is(CHUNK_SIZE));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Session getSession(Dialect dialect, String url) throws Exception {
+        
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        when(sessionFactory.getDialect()).thenReturn(dialect);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getURL()).thenReturn(url);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        
+        Session session = mock(Session.class);
+        when(session.getSessionFactory()).thenReturn(sessionFactory);
+        when(session.doReturningWork(any(ReturningWork.class)))
+                .thenAnswer(invocation -> ((ReturningWork<?>) invocation.getArguments()[0]).execute(connection));
+        return session;
+    }
+}
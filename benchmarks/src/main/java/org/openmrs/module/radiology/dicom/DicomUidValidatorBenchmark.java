@@ -0,0 +1,73 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link DicomUidValidator} with study instance uids as generated by this module and uids of the DICOM
+ * standard, mixed with some invalid ones.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DicomUidValidatorBenchmark {
+    
+    
+    private static final int UIDS = 1000;
+    
+    private static final String[] SAMPLE_UIDS = { "1.2.840.10008.1.2.1", "1.2.840.10008.5.1.4.1.1.2",
+            "1.2.826.0.1.3680043.2186.278974633606539821744827903865060181275", "1.2.840.10008.1.2.01", "1.2.840..1",
+            "3.2.840.10008.1.2" };
+    
+    private List<String> uids;
+    
+    @Setup
+    public void setUp() {
+        
+        final UuidDicomUidGenerator dicomUidGenerator = new UuidDicomUidGenerator();
+        uids = new ArrayList<String>(UIDS);
+        for (int i = 0; i < UIDS; i++) {
+            uids.add(i % 2 == 0 ? dicomUidGenerator.getNewDicomUid("1.2.826.0.1.3680043.2186")
+                    : SAMPLE_UIDS[i % SAMPLE_UIDS.length]);
+        }
+    }
+    
+    @Benchmark
+    public void isValid(Blackhole blackhole) {
+        
+        for (String uid : uids) {
+            blackhole.consume(DicomUidValidator.isValid(uid));
+        }
+    }
+    
+    @Benchmark
+    public List<Integer> validateAll() {
+        
+        return DicomUidValidator.validateAll(uids);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+
+/**
+ * Benchmarks {@link DicomWebViewer#getDicomViewerUrl(RadiologyStudy)}.
+ * <p>
+ * The global properties are served from memory so that only the url building is measured.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DicomWebViewerBenchmark {
+    
+    
+    private final DicomWebViewer dicomWebViewer = new DicomWebViewer();
+    
+    private final RadiologyStudy radiologyStudy = new RadiologyStudy();
+    
+    @Setup
+    public void setUp() throws Exception {
+        
+        final Field radiologyProperties = DicomWebViewer.class.getDeclaredField("radiologyProperties");
+        radiologyProperties.setAccessible(true);
+        radiologyProperties.set(dicomWebViewer, new InMemoryRadiologyProperties());
+        
+        radiologyStudy.setStudyInstanceUid("1.2.826.0.1.3680043.2186.278974633606539821744827903865060181275");
+    }
+    
+    @Benchmark
+    public String getDicomViewerUrl() {
+        
+        return dicomWebViewer.getDicomViewerUrl(radiologyStudy);
+    }
+    
+    private static class InMemoryRadiologyProperties extends RadiologyProperties {
+        
+        
+        @Override
+        public String getDicomWebViewerAddress() {
+            return "localhost";
+        }
+        
+        @Override
+        public String getDicomWebViewerPort() {
+            return "8081";
+        }
+        
+        @Override
+        public String getDicomWebViewerBaseUrl() {
+            return "/oviyam2/viewer.html";
+        }
+        
+        @Override
+        public String getDicomWebViewerLocalServerName() {
+            return "oviyamlocal";
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.dicom;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link UuidDicomUidGenerator}.
+ * <p>
+ * {@link java.util.UUID#randomUUID()} draws from a shared {@link java.security.SecureRandom}, the multi threaded
+ * benchmark shows how much this contends.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UuidDicomUidGeneratorBenchmark {
+    
+    
+    private static final String ROOT = "1.2.826.0.1.3680043.2186";
+    
+    private final UuidDicomUidGenerator dicomUidGenerator = new UuidDicomUidGenerator();
+    
+    @Param({ "100" })
+    private int batchSize;
+    
+    @Benchmark
+    public String getNewDicomUid() {
+        
+        return dicomUidGenerator.getNewDicomUid(ROOT);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public String getNewDicomUidConcurrently() {
+        
+        return dicomUidGenerator.getNewDicomUid(ROOT);
+    }
+    
+    @Benchmark
+    public List<String> getNewDicomUids() {
+        
+        return dicomUidGenerator.getNewDicomUids(ROOT, batchSize);
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link DefaultMrrtReportTemplateFileParser#parse(String)} including the validation of the template.
+ * <p>
+ * Concept sources are not looked up in a database, so the resolution of coded content is not part of the measurement.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DefaultMrrtReportTemplateFileParserBenchmark {
+    
+    
+    private final DefaultMrrtReportTemplateFileParser parser = new DefaultMrrtReportTemplateFileParser();
+    
+    private String template;
+    
+    @Setup
+    public void setUp() throws Exception {
+        
+        MrrtReportTemplates.registerConceptService();
+        parser.setValidator(MrrtReportTemplates.newValidator());
+        parser.setTermResolver(new ConceptReferenceTermResolver());
+        template = MrrtReportTemplates.read(MrrtReportTemplates.CT_CHEST_ABDOMEN);
+    }
+    
+    @Benchmark
+    public MrrtReportTemplate parse() throws Exception {
+        
+        return parser.parse(template);
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks repeated renders of a template body by {@link MrrtReportTemplateHtmlBodyCache#get(Integer, File)} against
+ * reading and parsing the template file for every render.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MrrtReportTemplateHtmlBodyCacheBenchmark {
+    
+    
+    private final MrrtReportTemplateHtmlBodyCache cache = new MrrtReportTemplateHtmlBodyCache(100);
+    
+    private File templateFile;
+    
+    @Setup
+    public void setUp() throws Exception {
+        
+        templateFile = File.createTempFile("mrrt", ".html");
+        FileUtils.writeStringToFile(templateFile, MrrtReportTemplates.read(MrrtReportTemplates.CT_CHEST_ABDOMEN), "UTF-8");
+    }
+    
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(templateFile);
+    }
+    
+    @Benchmark
+    public String cached() throws Exception {
+        
+        return cache.get(1, templateFile);
+    }
+    
+    @Benchmark
+    public String uncached() throws Exception {
+        
+        return cache.get(null, templateFile);
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the ingestion of templates of growing size by {@link DefaultMrrtReportTemplateFileParser#parse(String)}
+ * which parses a template once, against the previous pipeline which parsed it four times.
+ * <p>
+ * The previous pipeline parsed the template with jsoup for the meta tags, streamed it through the XSD validator,
+ * parsed it with jsoup again for the Dublin Core attributes and finally serialized its {@code script} element and parsed
+ * that with a new {@code DocumentBuilder} for the terms. Both use a compiled schema, so only the parsing differs.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MrrtReportTemplateIngestionBenchmark {
+    
+    
+    /**
+     * Number of sections and coded content entries added to the template.
+     */
+    @Param({ "0", "100", "1000" })
+    public int sections;
+    
+    private final DefaultMrrtReportTemplateFileParser parser = new DefaultMrrtReportTemplateFileParser();
+    
+    private final MetaTagsValidationEngine metaTagsValidationEngine = new MetaTagsValidationEngine();
+    
+    private Validator xsdValidator;
+    
+    private String template;
+    
+    @Setup
+    public void setUp() throws Exception {
+        
+        MrrtReportTemplates.registerConceptService();
+        parser.setValidator(MrrtReportTemplates.newValidator());
+        parser.setTermResolver(new ConceptReferenceTermResolver());
+        template = MrrtReportTemplates.enlarge(MrrtReportTemplates.read(MrrtReportTemplates.CT_CHEST_ABDOMEN), sections);
+        try (InputStream in = getClass().getClassLoader()
+                .getResourceAsStream("MrrtReportTemplateSchema.xsd")) {
+            xsdValidator = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+                    .newSchema(new StreamSource(in))
+                    .newValidator();
+        }
+    }
+    
+    @Benchmark
+    public MrrtReportTemplate parseOnce() throws Exception {
+        
+        return parser.parse(template);
+    }
+    
+    @Benchmark
+    public int parseFourTimes() throws Exception {
+        
+        final ValidationResult validationResult = metaTagsValidationEngine.run(Jsoup.parse(template, "")
+                .getElementsByTag("meta"));
+        xsdValidator.reset();
+        xsdValidator.validate(new StreamSource(new StringReader(template)));
+        validationResult.assertOk();
+        
+        final Document document = Jsoup.parse(template, "");
+        final String script = document.getElementsByTag("script")
+                .get(0)
+                .toString();
+        try (InputStream in = new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8))) {
+            return DocumentBuilderFactory.newInstance()
+                    .newDocumentBuilder()
+                    .parse(in)
+                    .getElementsByTagName("term")
+                    .getLength()
+                    + document.getElementsByTag("meta")
+                            .size();
+        }
+    }
+}
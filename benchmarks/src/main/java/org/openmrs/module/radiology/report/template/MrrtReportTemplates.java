@@ -0,0 +1,126 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.apache.commons.io.IOUtils;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.ServiceContext;
+
+/**
+ * Provides the MRRT report templates of the api tests and an OpenMRS context for the benchmarks.
+ */
+final class MrrtReportTemplates {
+    
+    
+    /**
+     * A valid template from the IHE connectathon with coded content.
+     */
+    static final String CT_CHEST_ABDOMEN = "mrrttemplates/ihe/connectathon/2015/CTChestAbdomen.html";
+    
+    private MrrtReportTemplates() {
+        // Utility class not meant to be instantiated.
+    }
+    
+    /**
+     * Reads the template at {@code path} from the classpath.
+     *
+     * @param path classpath location of the template
+     * @return the template
+     * @throws IOException if the template cannot be read
+     */
+    static String read(String path) throws IOException {
+        
+        try (InputStream in = MrrtReportTemplates.class.getClassLoader()
+                .getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IOException("Template not found on classpath: " + path);
+            }
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * Enlarges given template by adding sections to its body and coded content entries with one term each to its
+     * template attributes, so the template stays valid.
+     *
+     * @param template the template to enlarge, needs to have an empty {@code coded_content} element
+     * @param sections the number of sections and entries to add
+     * @return the enlarged template
+     */
+    static String enlarge(String template, int sections) {
+        
+        final StringBuilder entries = new StringBuilder("<coded_content>");
+        final StringBuilder body = new StringBuilder();
+        for (int i = 0; i < sections; i++) {
+            entries.append("<entry ORIGTXT=\"finding ")
+                    .append(i)
+                    .append("\"><term><code meaning=\"finding ")
+                    .append(i)
+                    .append("\" value=\"RID")
+                    .append(i)
+                    .append("\" scheme=\"RADLEX\"/></term></entry>");
+            body.append("<section data-section-name=\"Section ")
+                    .append(i)
+                    .append("\"><header class=\"level1\">Section ")
+                    .append(i)
+                    .append("</header><p>Findings of section ")
+                    .append(i)
+                    .append("</p><textarea id=\"finding")
+                    .append(i)
+                    .append("\" data-field-type=\"TEXT\"></textarea></section>");
+        }
+        entries.append("</coded_content>");
+        body.append("</body>");
+        return template.replace("<coded_content> </coded_content>", entries)
+                .replace("</body>", body);
+    }
+    
+    /**
+     * Registers a {@code ConceptService} which knows no concept sources so that parsing templates does not need a
+     * database.
+     */
+    static void registerConceptService() {
+        
+        final ConceptService conceptService = (ConceptService) Proxy.newProxyInstance(
+            ConceptService.class.getClassLoader(), new Class[] { ConceptService.class }, new InvocationHandler() {
+            
+            
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) {
+                    if ("getAllConceptSources".equals(method.getName())) {
+                        return Collections.emptyList();
+                    }
+                    return null;
+                }
+            });
+        ServiceContext.getInstance()
+                .setService(ConceptService.class, conceptService);
+    }
+    
+    /**
+     * Creates a {@code XsdMrrtReportTemplateValidator} wired like in the module application context.
+     *
+     * @return the validator
+     */
+    static XsdMrrtReportTemplateValidator newValidator() {
+        
+        final XsdMrrtReportTemplateValidator validator = new XsdMrrtReportTemplateValidator();
+        validator.setMetaTagsValidationEngine(new MetaTagsValidationEngine());
+        return validator;
+    }
+}
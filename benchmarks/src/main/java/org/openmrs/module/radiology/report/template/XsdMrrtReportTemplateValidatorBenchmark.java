@@ -0,0 +1,60 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.report.template;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link XsdMrrtReportTemplateValidator#validate(String)} with a valid template.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XsdMrrtReportTemplateValidatorBenchmark {
+    
+    
+    private final XsdMrrtReportTemplateValidator validator = MrrtReportTemplates.newValidator();
+    
+    private String template;
+    
+    @Setup
+    public void setUp() throws Exception {
+        
+        template = MrrtReportTemplates.read(MrrtReportTemplates.CT_CHEST_ABDOMEN);
+    }
+    
+    @Benchmark
+    public void validate() throws Exception {
+        
+        validator.validate(template);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public void validateConcurrently() throws Exception {
+        
+        validator.validate(template);
+    }
+}
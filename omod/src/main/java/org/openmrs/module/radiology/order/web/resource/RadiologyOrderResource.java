@@ -9,9 +9,20 @@
  */
 package org.openmrs.module.radiology.order.web.resource;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyProperties;
 import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.order.RadiologyOrderPlacementResult;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.study.RadiologyStudyService;
+import org.openmrs.module.webservices.rest.SimpleObject;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
 import org.openmrs.module.webservices.rest.web.annotation.PropertyGetter;
@@ -21,11 +32,14 @@ import org.openmrs.module.webservices.rest.web.representation.FullRepresentation
 import org.openmrs.module.webservices.rest.web.representation.Representation;
 import org.openmrs.module.webservices.rest.web.resource.impl.DataDelegatingCrudResource;
 import org.openmrs.module.webservices.rest.web.resource.impl.DelegatingResourceDescription;
+import org.openmrs.module.webservices.rest.web.response.ConversionException;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
 import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
 import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs2_0.RestConstants2_0;
 
 /**
- * {@link Resource} for {@link RadiologyOrder}, supporting GET operations.
+ * {@link Resource} for {@link RadiologyOrder}, supporting GET operations and placing radiology orders in bulk via
+ * {@link #placeRadiologyOrders(List)}.
  */
 @Resource(name = RestConstants.VERSION_1 + "/radiologyorder", supportedClass = RadiologyOrder.class,
         supportedOpenmrsVersions = { "2.0.*" })
@@ -136,6 +150,218 @@ public class RadiologyOrderResource extends DataDelegatingCrudResource<Radiology
         }
     }
     
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.BaseDelegatingResource#getCreatableProperties()
+     * @should return properties needed to place a radiology order
+     */
+    @Override
+    public DelegatingResourceDescription getCreatableProperties() {
+        
+        final DelegatingResourceDescription description = new DelegatingResourceDescription();
+        description.addRequiredProperty("patient");
+        description.addRequiredProperty("concept");
+        description.addRequiredProperty("orderer");
+        description.addRequiredProperty("urgency");
+        description.addProperty("scheduledDate");
+        description.addProperty("orderReason");
+        description.addProperty("orderReasonNonCoded");
+        description.addProperty("instructions");
+        description.addProperty("commentToFulfiller");
+        return description;
+    }
+    
+    /**
+     * Places given radiology orders at once via {@link RadiologyOrderService#placeRadiologyOrders(List)}.
+     * <p>
+     * A radiology order which cannot be converted or placed does not keep the other radiology orders from being placed.
+     * </p>
+     *
+     * @param radiologyOrders the properties of the radiology orders to be placed as posted by the client
+     * @return the results of the given radiology orders in the given order, containing uuid, accession number and
+     *         order number of a placed radiology order or the error otherwise
+     * @should place given radiology orders and return their results in the given order
+     * @should return failed results for radiology orders which cannot be converted and place the rest
+     */
+    public SimpleObject placeRadiologyOrders(List<?> radiologyOrders) {
+        
+        final List<SimpleObject> results = new ArrayList<SimpleObject>(radiologyOrders.size());
+        final List<RadiologyOrder> converted = new ArrayList<RadiologyOrder>(radiologyOrders.size());
+        final List<Integer> convertedIndexes = new ArrayList<Integer>(radiologyOrders.size());
+        for (int i = 0; i < radiologyOrders.size(); i++) {
+            results.add(null);
+            try {
+                converted.add(convertRadiologyOrder(radiologyOrders.get(i)));
+                convertedIndexes.add(i);
+            }
+            catch (RuntimeException e) {
+                results.set(i, getFailedResult(i, e.getMessage()));
+            }
+        }
+        
+        if (!converted.isEmpty()) {
+            final List<RadiologyOrderPlacementResult> placementResults =
+                    Context.getService(RadiologyOrderService.class)
+                            .placeRadiologyOrders(converted);
+            for (int i = 0; i < placementResults.size(); i++) {
+                final RadiologyOrderPlacementResult placementResult = placementResults.get(i);
+                final int index = convertedIndexes.get(i);
+                if (placementResult.isPlaced()) {
+                    final RadiologyOrder radiologyOrder = placementResult.getRadiologyOrder();
+                    final SimpleObject result = new SimpleObject();
+                    result.add("index", index);
+                    result.add("uuid", radiologyOrder.getUuid());
+                    result.add("accessionNumber", radiologyOrder.getAccessionNumber());
+                    result.add("orderNumber", radiologyOrder.getOrderNumber());
+                    results.set(index, result);
+                } else {
+                    results.set(index, getFailedResult(index, placementResult.getErrorMessage()));
+                }
+            }
+        }
+        return new SimpleObject().add("results", results);
+    }
+    
+    /**
+     * Looks up the radiology orders of given accession numbers at once via
+     * {@link RadiologyOrderService#getRadiologyOrdersByAccessionNumbers(java.util.Collection)}.
+     *
+     * @param accessionNumbers the accession numbers as posted by the client
+     * @return the uuid, accession number, order number, study instance uid and performed status of the found radiology
+     *         orders keyed by accession number as {@code results} and the accession numbers without radiology order as
+     *         {@code misses}
+     * @throws ConversionException if an accession number is no string
+     * @throws IllegalRequestException if more accession numbers are given than
+     *         {@link RadiologyProperties#getMaxLookupSize()}
+     * @should return found radiology orders keyed by accession number and report missing accession numbers
+     * @should report a missing accession number given several times once
+     * @should throw conversion exception if an accession number is no string
+     * @should throw illegal request exception if more accession numbers are given than the maximum lookup size
+     */
+    public SimpleObject lookupRadiologyOrders(List<?> accessionNumbers) {
+        
+        final List<String> wanted = getLookupKeys(accessionNumbers, "accession number");
+        
+        final Map<String, RadiologyOrder> radiologyOrders = Context.getService(RadiologyOrderService.class)
+                .getRadiologyOrdersByAccessionNumbers(wanted);
+        final SimpleObject results = new SimpleObject();
+        final Set<String> misses = new LinkedHashSet<String>();
+        for (String accessionNumber : wanted) {
+            final RadiologyOrder radiologyOrder = radiologyOrders.get(accessionNumber);
+            if (radiologyOrder == null) {
+                misses.add(accessionNumber);
+                continue;
+            }
+            final SimpleObject result = new SimpleObject();
+            result.add("uuid", radiologyOrder.getUuid());
+            result.add("accessionNumber", radiologyOrder.getAccessionNumber());
+            result.add("orderNumber", radiologyOrder.getOrderNumber());
+            if (radiologyOrder.getStudy() != null) {
+                result.add("studyInstanceUid", radiologyOrder.getStudy()
+                        .getStudyInstanceUid());
+                result.add("performedStatus", radiologyOrder.getStudy()
+                        .getPerformedStatus());
+            }
+            results.add(accessionNumber, result);
+        }
+        return new SimpleObject().add("results", results)
+                .add("misses", new ArrayList<String>(misses));
+    }
+    
+    /**
+     * Looks up the radiology studies of given Study Instance UIDs at once via
+     * {@link RadiologyStudyService#getRadiologyStudiesByStudyInstanceUids(java.util.Collection)}.
+     *
+     * @param studyInstanceUids the study instance uids as posted by the client
+     * @return the uuid, study instance uid, performed status, radiology order uuid and accession number of the found
+     *         radiology studies keyed by study instance uid as {@code results} and the study instance uids without
+     *         radiology study as {@code misses}
+     * @throws ConversionException if a study instance uid is no string
+     * @throws IllegalRequestException if more study instance uids are given than
+     *         {@link RadiologyProperties#getMaxLookupSize()}
+     * @should return found radiology studies keyed by study instance uid and report missing study instance uids
+     * @should throw conversion exception if a study instance uid is no string
+     * @should throw illegal request exception if more study instance uids are given than the maximum lookup size
+     */
+    public SimpleObject lookupRadiologyStudies(List<?> studyInstanceUids) {
+        
+        final List<String> wanted = getLookupKeys(studyInstanceUids, "study instance uid");
+        
+        final Map<String, RadiologyStudy> radiologyStudies = Context.getService(RadiologyStudyService.class)
+                .getRadiologyStudiesByStudyInstanceUids(wanted);
+        final SimpleObject results = new SimpleObject();
+        final Set<String> misses = new LinkedHashSet<String>();
+        for (String studyInstanceUid : wanted) {
+            final RadiologyStudy radiologyStudy = radiologyStudies.get(studyInstanceUid);
+            if (radiologyStudy == null) {
+                misses.add(studyInstanceUid);
+                continue;
+            }
+            final SimpleObject result = new SimpleObject();
+            result.add("uuid", radiologyStudy.getUuid());
+            result.add("studyInstanceUid", radiologyStudy.getStudyInstanceUid());
+            result.add("performedStatus", radiologyStudy.getPerformedStatus());
+            result.add("radiologyOrderUuid", radiologyStudy.getRadiologyOrder()
+                    .getUuid());
+            result.add("accessionNumber", radiologyStudy.getRadiologyOrder()
+                    .getAccessionNumber());
+            results.add(studyInstanceUid, result);
+        }
+        return new SimpleObject().add("results", results)
+                .add("misses", new ArrayList<String>(misses));
+    }
+    
+    /**
+     * Converts the keys of a lookup posted by a client into strings.
+     *
+     * @param keys the keys as posted by the client
+     * @param name the name of a key used in error messages
+     * @return the keys in the posted order
+     * @throws ConversionException if a key is no string
+     * @throws IllegalRequestException if more keys are given than {@link RadiologyProperties#getMaxLookupSize()}
+     */
+    private static List<String> getLookupKeys(List<?> keys, String name) {
+        
+        final int maxLookupSize = Context.getRegisteredComponent("radiologyProperties", RadiologyProperties.class)
+                .getMaxLookupSize();
+        if (keys.size() > maxLookupSize) {
+            throw new IllegalRequestException(
+                    "at most " + maxLookupSize + " " + name + "s can be looked up at once but got " + keys.size());
+        }
+        final List<String> result = new ArrayList<String>(keys.size());
+        for (Object key : keys) {
+            if (!(key instanceof String)) {
+                throw new ConversionException(name + " needs to be a string but was " + key);
+            }
+            result.add((String) key);
+        }
+        return result;
+    }
+    
+    /**
+     * Converts given properties posted by a client into a new radiology order with a new study.
+     *
+     * @param properties the properties of the radiology order
+     * @return the new radiology order
+     * @throws ConversionException if properties is no object or misses or contains invalid properties
+     */
+    @SuppressWarnings("unchecked")
+    RadiologyOrder convertRadiologyOrder(Object properties) {
+        
+        if (!(properties instanceof Map)) {
+            throw new ConversionException("radiology order needs to be an object");
+        }
+        final RadiologyOrder result = new RadiologyOrder();
+        result.setStudy(new RadiologyStudy());
+        setConvertedProperties(result, (Map<String, Object>) properties, getCreatableProperties(), true);
+        return result;
+    }
+    
+    private static SimpleObject getFailedResult(int index, String error) {
+        
+        return new SimpleObject().add("index", index)
+                .add("error", error);
+    }
+    
     /**
      * @see org.openmrs.module.webservices.rest.web.resource.impl.BaseDelegatingResource#newDelegate()
      * @should throw ResourceDoesNotSupportOperationException
@@ -0,0 +1,144 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web.resource;
+
+import org.openmrs.module.radiology.order.RadiologyOrderSummary;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.annotation.PropertyGetter;
+import org.openmrs.module.webservices.rest.web.annotation.Resource;
+import org.openmrs.module.webservices.rest.web.representation.DefaultRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.FullRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.Representation;
+import org.openmrs.module.webservices.rest.web.resource.impl.DelegatingCrudResource;
+import org.openmrs.module.webservices.rest.web.resource.impl.DelegatingResourceDescription;
+import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
+import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs2_0.RestConstants2_0;
+
+/**
+ * {@link Resource} for {@link RadiologyOrderSummary}, supporting search operations only.
+ * <p>
+ * Lists radiology orders for the worklist of the dashboard without converting their patient, concept and orderer.
+ * </p>
+ */
+@Resource(name = RestConstants.VERSION_1 + "/radiologyordersummary", supportedClass = RadiologyOrderSummary.class,
+        supportedOpenmrsVersions = { "2.0.*" })
+public class RadiologyOrderSummaryResource extends DelegatingCrudResource<RadiologyOrderSummary> {
+    
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.DelegatingCrudResource#getRepresentationDescription(org.openmrs.module.webservices.rest.web.representation.Representation)
+     * @should return default representation given instance of defaultrepresentation
+     * @should return full representation given instance of fullrepresentation
+     * @should return null for representation other then default or full
+     */
+    @Override
+    public DelegatingResourceDescription getRepresentationDescription(Representation rep) {
+        if (rep instanceof DefaultRepresentation || rep instanceof FullRepresentation) {
+            final DelegatingResourceDescription description = new DelegatingResourceDescription();
+            description.addProperty("uuid");
+            description.addProperty("accessionNumber");
+            description.addProperty("patientUuid");
+            description.addProperty("patientName");
+            description.addProperty("patientIdentifier");
+            description.addProperty("procedureName");
+            description.addProperty("urgency");
+            description.addProperty("effectiveStartDate");
+            description.addProperty("performedStatus");
+            description.addProperty("reportStatus");
+            description.addProperty("display");
+            return description;
+        } else {
+            return null;
+        }
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.BaseDelegatingResource#getResourceVersion()
+     * @should return supported resource version
+     */
+    @Override
+    public String getResourceVersion() {
+        
+        return RestConstants2_0.RESOURCE_VERSION;
+    }
+    
+    /**
+     * Get the display string for a {@link RadiologyOrderSummary}.
+     * 
+     * @param radiologyOrderSummary the radiology order summary of which the display string shall be returned
+     * @return the accession number and the procedure name of given radiology order summary
+     * @should return accession number and procedure name of given radiology order summary
+     * @should return no concept string if given radiology order summaries procedure name is null
+     */
+    @PropertyGetter("display")
+    public String getDisplayString(RadiologyOrderSummary radiologyOrderSummary) {
+        
+        if (radiologyOrderSummary.getProcedureName() == null) {
+            return radiologyOrderSummary.getAccessionNumber() + " - " + "[No Concept]";
+        } else {
+            return radiologyOrderSummary.getAccessionNumber() + " - " + radiologyOrderSummary.getProcedureName();
+        }
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.BaseDelegatingResource#getByUniqueId(java.lang.String)
+     * @should throw ResourceDoesNotSupportOperationException
+     */
+    @Override
+    public RadiologyOrderSummary getByUniqueId(String uniqueId) throws ResourceDoesNotSupportOperationException {
+        
+        throw new ResourceDoesNotSupportOperationException();
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.BaseDelegatingResource#newDelegate()
+     * @should throw ResourceDoesNotSupportOperationException
+     */
+    @Override
+    public RadiologyOrderSummary newDelegate() throws ResourceDoesNotSupportOperationException {
+        
+        throw new ResourceDoesNotSupportOperationException();
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.DelegatingResourceHandler#save(java.lang.Object)
+     * @should throw ResourceDoesNotSupportOperationException
+     */
+    @Override
+    public RadiologyOrderSummary save(RadiologyOrderSummary delegate) throws ResourceDoesNotSupportOperationException {
+        
+        throw new ResourceDoesNotSupportOperationException();
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.BaseDelegatingResource#delete(java.lang.Object,
+     *      java.lang.String, org.openmrs.module.webservices.rest.web.RequestContext)
+     * @should throw ResourceDoesNotSupportOperationException
+     */
+    @Override
+    protected void delete(RadiologyOrderSummary delegate, String reason, RequestContext context)
+            throws ResourceDoesNotSupportOperationException {
+        
+        throw new ResourceDoesNotSupportOperationException();
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.impl.BaseDelegatingResource#purge(java.lang.Object,
+     *      org.openmrs.module.webservices.rest.web.RequestContext)
+     * @should throw ResourceDoesNotSupportOperationException
+     */
+    @Override
+    public void purge(RadiologyOrderSummary delegate, RequestContext context)
+            throws ResourceDoesNotSupportOperationException {
+        
+        throw new ResourceDoesNotSupportOperationException();
+    }
+}
@@ -9,15 +9,19 @@
  */
 package org.openmrs.module.radiology.order.web.search;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.Order.Urgency;
 import org.openmrs.Patient;
+import org.openmrs.Provider;
 import org.openmrs.api.context.Context;
-import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
 import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
 import org.openmrs.module.webservices.rest.web.ConversionUtil;
@@ -28,8 +32,8 @@ import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs1_9.PatientResource1_9;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,13 +58,27 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
     
     public static final String REQUEST_PARAM_TOTAL_COUNT = "totalCount";
     
+    public static final String REQUEST_PARAM_AFTER_ACCESSION_NUMBER = "afterAccessionNumber";
+    
+    public static final String REQUEST_PARAM_ORDERER = "orderer";
+    
+    public static final String REQUEST_PARAM_PERFORMED_STATUS = "performedStatus";
+    
+    public static final String REQUEST_PARAM_HAS_COMPLETED_REPORT = "hasCompletedReport";
+    
+    public static final String REQUEST_PARAM_SORT_BY = "sortBy";
+    
+    public static final String REQUEST_PARAM_SORT_ORDER = "sortOrder";
+    
     @Autowired
     RadiologyOrderService radiologyOrderService;
     
     SearchQuery searchQuery = new SearchQuery.Builder("Allows you to search for RadiologyOrder's by patient and urgency")
             .withOptionalParameters(REQUEST_PARAM_ACCESSION_NUMBER, REQUEST_PARAM_PATIENT,
                 REQUEST_PARAM_EFFECTIVE_START_DATE_FROM, REQUEST_PARAM_EFFECTIVE_START_DATE_TO, REQUEST_PARAM_URGENCY,
-                REQUEST_PARAM_TOTAL_COUNT)
+                REQUEST_PARAM_TOTAL_COUNT, REQUEST_PARAM_AFTER_ACCESSION_NUMBER, REQUEST_PARAM_ORDERER,
+                REQUEST_PARAM_PERFORMED_STATUS, REQUEST_PARAM_HAS_COMPLETED_REPORT, REQUEST_PARAM_SORT_BY,
+                REQUEST_PARAM_SORT_ORDER)
             .build();
     
     private final SearchConfig searchConfig =
@@ -91,10 +109,85 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
      * @should throw illegal argument exception if urgency doesn't exist
      * @should return all radiology orders matching the search query and totalCount if
      *         requested
+     * @should return one page of radiology orders starting at given start index
+     * @should return one page of radiology orders and the total count of all matching radiology orders if requested
+     * @should return radiology orders with accession number after given after accession number
+     * @should return all radiology orders for given orderer
+     * @should return empty search result if orderer cannot be found
+     * @should return all radiology orders whose study has one of given comma separated performed statuses
+     * @should throw illegal argument exception if performed status doesn't exist
+     * @should return all radiology orders with or without a completed report if has completed report is set
+     * @should return radiology orders sorted by given sort field and sort order
+     * @should throw illegal argument exception if sort field or sort order doesn't exist
+     * @should throw illegal argument exception listing the sort fields if sort field doesn't exist
+     * @should return radiology orders sorted by given sort field and sort order ignoring case
+     * @should throw illegal argument exception if has completed report is neither true nor false
+     * @should throw illegal argument exception if after accession number is used with another sort than by accession number
      */
     @Override
     public PageableResult search(RequestContext context) throws ResponseException {
         
+        return search(context, radiologyOrderService, radiologyOrderService::getRadiologyOrders);
+    }
+    
+    /**
+     * Searches one page of results for the radiology orders matching the request parameters of this search handler.
+     * The total count of all matching radiology orders is added if requested.
+     * 
+     * @param context the request context containing the search parameters
+     * @param radiologyOrderService the service counting the matching radiology orders
+     * @param getPage the function getting the results of the radiology orders matching given search criteria
+     * @return the page of results or an empty search result if the requested patient or orderer cannot be found or no
+     *         radiology order matches
+     * @throws IllegalArgumentException if a request parameter is invalid
+     */
+    static <T> PageableResult search(RequestContext context, RadiologyOrderService radiologyOrderService,
+            Function<RadiologyOrderSearchCriteria, List<T>> getPage) {
+        
+        final RadiologyOrderSearchCriteria.Builder radiologyOrderSearchCriteriaBuilder =
+                getRadiologyOrderSearchCriteriaBuilder(context);
+        if (radiologyOrderSearchCriteriaBuilder == null) {
+            return new EmptySearchResult();
+        }
+        
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getRequest()
+                .getParameter(REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = radiologyOrderService.countRadiologyOrders(radiologyOrderSearchCriteriaBuilder.build());
+            if (totalCount == 0) {
+                return new EmptySearchResult();
+            }
+        }
+        
+        // fetch one result more than requested to find out if there is a next page
+        final RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
+                radiologyOrderSearchCriteriaBuilder.withStartIndex(context.getStartIndex())
+                        .withLimit(context.getLimit() + 1)
+                        .build();
+        List<T> result = getPage.apply(radiologyOrderSearchCriteria);
+        
+        if (result.isEmpty() && totalCount == null) {
+            return new EmptySearchResult();
+        }
+        final boolean hasMoreResults = result.size() > context.getLimit();
+        if (hasMoreResults) {
+            result = result.subList(0, context.getLimit());
+        }
+        return new AlreadyPaged<T>(context, result, hasMoreResults, totalCount);
+    }
+    
+    /**
+     * Creates a {@code RadiologyOrderSearchCriteria.Builder} from the request parameters of this search handler.
+     * 
+     * @param context the request context containing the search parameters
+     * @return the builder of the radiology order search criteria matching the request parameters or null if the
+     *         requested patient or orderer cannot be found
+     * @throws IllegalArgumentException if urgency, performed status, sort field or sort order doesn't exist, if has
+     *         completed report is neither true nor false or if after accession number is combined with another sort than
+     *         ascending by accession number
+     */
+    public static RadiologyOrderSearchCriteria.Builder getRadiologyOrderSearchCriteriaBuilder(RequestContext context) {
+        
         final String patientUuid = context.getRequest()
                 .getParameter(REQUEST_PARAM_PATIENT);
         Patient patient = null;
@@ -102,7 +195,18 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
             patient = ((PatientResource1_9) Context.getService(RestService.class)
                     .getResourceBySupportedClass(Patient.class)).getByUniqueId(patientUuid);
             if (patient == null) {
-                return new EmptySearchResult();
+                return null;
+            }
+        }
+        
+        final String ordererUuid = context.getRequest()
+                .getParameter(REQUEST_PARAM_ORDERER);
+        Provider orderer = null;
+        if (StringUtils.isNotBlank(ordererUuid)) {
+            orderer = Context.getProviderService()
+                    .getProviderByUuid(ordererUuid);
+            if (orderer == null) {
+                return null;
             }
         }
         
@@ -127,22 +231,69 @@ public class RadiologyOrderSearchHandler implements SearchHandler {
             urgency = Urgency.valueOf(urgencyString);
         }
         
+        final String performedStatusString = context.getRequest()
+                .getParameter(REQUEST_PARAM_PERFORMED_STATUS);
+        List<PerformedProcedureStepStatus> performedStatuses = null;
+        if (StringUtils.isNotBlank(performedStatusString)) {
+            performedStatuses = new ArrayList<PerformedProcedureStepStatus>();
+            for (String performedStatus : StringUtils.split(performedStatusString, ',')) {
+                performedStatuses.add(PerformedProcedureStepStatus.valueOf(performedStatus.trim()));
+            }
+        }
+        
+        final String hasCompletedReportString = context.getRequest()
+                .getParameter(REQUEST_PARAM_HAS_COMPLETED_REPORT);
+        Boolean hasCompletedReport = null;
+        if (StringUtils.isNotBlank(hasCompletedReportString)) {
+            if (!"true".equalsIgnoreCase(hasCompletedReportString) && !"false".equalsIgnoreCase(hasCompletedReportString)) {
+                throw new IllegalArgumentException(REQUEST_PARAM_HAS_COMPLETED_REPORT + " needs to be true or false");
+            }
+            hasCompletedReport = Boolean.valueOf(hasCompletedReportString);
+        }
+        
+        final String sortByString = context.getRequest()
+                .getParameter(REQUEST_PARAM_SORT_BY);
+        RadiologyOrderSearchCriteria.SortField sortField = RadiologyOrderSearchCriteria.SortField.ACCESSION_NUMBER;
+        if (StringUtils.isNotBlank(sortByString)) {
+            try {
+                sortField = RadiologyOrderSearchCriteria.SortField.valueOf(sortByString.toUpperCase(Locale.ENGLISH));
+            }
+            catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(REQUEST_PARAM_SORT_BY + " needs to be one of "
+                        + StringUtils.join(RadiologyOrderSearchCriteria.SortField.values(), ", "), e);
+            }
+        }
+        
+        final String sortOrderString = context.getRequest()
+                .getParameter(REQUEST_PARAM_SORT_ORDER);
+        boolean sortAscending = true;
+        if (StringUtils.isNotBlank(sortOrderString)) {
+            if (!"asc".equalsIgnoreCase(sortOrderString) && !"desc".equalsIgnoreCase(sortOrderString)) {
+                throw new IllegalArgumentException(REQUEST_PARAM_SORT_ORDER + " needs to be asc or desc");
+            }
+            sortAscending = "asc".equalsIgnoreCase(sortOrderString);
+        }
+        
         final String accessionNumber = context.getRequest()
                 .getParameter(REQUEST_PARAM_ACCESSION_NUMBER);
         
-        final RadiologyOrderSearchCriteria radiologyOrderSearchCriteria =
-                new RadiologyOrderSearchCriteria.Builder().withAccessionNumber(accessionNumber)
+        final String afterAccessionNumber = context.getRequest()
+                .getParameter(REQUEST_PARAM_AFTER_ACCESSION_NUMBER);
+        if (StringUtils.isNotBlank(afterAccessionNumber)
+                && (sortField != RadiologyOrderSearchCriteria.SortField.ACCESSION_NUMBER || !sortAscending)) {
+            throw new IllegalArgumentException(REQUEST_PARAM_AFTER_ACCESSION_NUMBER + " can only be used with "
+                    + REQUEST_PARAM_SORT_BY + " ACCESSION_NUMBER and " + REQUEST_PARAM_SORT_ORDER + " asc");
+        }
+        
+        return new RadiologyOrderSearchCriteria.Builder().withAccessionNumber(accessionNumber)
                         .withPatient(patient)
                         .fromEffectiveStartDate(fromEffectiveStartDate)
                         .toEffectiveStartDate(toEffectiveStartDate)
                         .withUrgency(urgency)
-                        .build();
-        
-        final List<RadiologyOrder> result = radiologyOrderService.getRadiologyOrders(radiologyOrderSearchCriteria);
-        
-        if (result.isEmpty()) {
-            return new EmptySearchResult();
-        }
-        return new NeedsPaging<RadiologyOrder>(result, context);
+                        .withOrderer(orderer)
+                        .withPerformedStatuses(performedStatuses)
+                        .withCompletedReport(hasCompletedReport)
+                        .sortBy(sortField, sortAscending)
+                        .afterAccessionNumber(afterAccessionNumber);
     }
 }
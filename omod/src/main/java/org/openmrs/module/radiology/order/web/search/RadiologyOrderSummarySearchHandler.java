@@ -0,0 +1,86 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web.search;
+
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_ACCESSION_NUMBER;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_EFFECTIVE_START_DATE_FROM;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_EFFECTIVE_START_DATE_TO;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_HAS_COMPLETED_REPORT;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_ORDERER;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_PERFORMED_STATUS;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_BY;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_ORDER;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_TOTAL_COUNT;
+import static org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler.REQUEST_PARAM_URGENCY;
+
+import java.util.Arrays;
+
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
+import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
+import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
+import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
+import org.openmrs.module.webservices.rest.web.response.ResponseException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Find RadiologyOrderSummary's of the RadiologyOrder's that match the specified search phrase.
+ * <p>
+ * Takes the same parameters as {@link RadiologyOrderSearchHandler}.
+ * </p>
+ */
+@Component
+public class RadiologyOrderSummarySearchHandler implements SearchHandler {
+    
+    
+    @Autowired
+    RadiologyOrderService radiologyOrderService;
+    
+    SearchQuery searchQuery =
+            new SearchQuery.Builder("Allows you to search for RadiologyOrderSummary's by patient and urgency")
+                    .withOptionalParameters(REQUEST_PARAM_ACCESSION_NUMBER, REQUEST_PARAM_PATIENT,
+                        REQUEST_PARAM_EFFECTIVE_START_DATE_FROM, REQUEST_PARAM_EFFECTIVE_START_DATE_TO, REQUEST_PARAM_URGENCY,
+                        REQUEST_PARAM_TOTAL_COUNT, REQUEST_PARAM_AFTER_ACCESSION_NUMBER, REQUEST_PARAM_ORDERER,
+                        REQUEST_PARAM_PERFORMED_STATUS, REQUEST_PARAM_HAS_COMPLETED_REPORT, REQUEST_PARAM_SORT_BY,
+                        REQUEST_PARAM_SORT_ORDER)
+                    .build();
+    
+    private final SearchConfig searchConfig = new SearchConfig("default",
+            RestConstants.VERSION_1 + "/radiologyordersummary", Arrays.asList("2.0.*"), searchQuery);
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.api.SearchHandler#getSearchConfig()
+     */
+    @Override
+    public SearchConfig getSearchConfig() {
+        
+        return this.searchConfig;
+    }
+    
+    /**
+     * @see org.openmrs.module.webservices.rest.web.resource.api.SearchHandler#search(RequestContext)
+     * @should return the summaries of all radiology orders for given patient
+     * @should return empty search result if patient cannot be found
+     * @should return one page of radiology order summaries and the total count of all matching radiology orders if requested
+     * @should throw illegal argument exception if sort field doesn't exist
+     * @should throw illegal argument exception if has completed report is neither true nor false
+     */
+    @Override
+    public PageableResult search(RequestContext context) throws ResponseException {
+        
+        return RadiologyOrderSearchHandler.search(context, radiologyOrderService,
+            radiologyOrderService::getRadiologyOrderSummaries);
+    }
+}
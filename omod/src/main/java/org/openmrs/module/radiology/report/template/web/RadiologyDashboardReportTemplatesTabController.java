@@ -9,17 +9,21 @@
  */
 package org.openmrs.module.radiology.report.template.web;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.io.IOUtils;
 import org.openmrs.api.APIException;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportResult;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateValidationException;
 import org.openmrs.module.radiology.web.RadiologyWebConstants;
+import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.web.WebConstants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -113,6 +117,96 @@ public class RadiologyDashboardReportTemplatesTabController {
         return modelAndView;
     }
     
+    /**
+     * Handle request for importing the {@code MrrtReportTemplate's} of a ZIP archive.
+     * 
+     * @param request the HttpServletRequest to import MrrtReportTemplates
+     * @param templateArchive the ZIP archive containing the MrrtReportTemplate files to be imported
+     * @return model and view of the radiology dashboard report templates page with the result of every template file and
+     *         a success or failure message in session attribute
+     * @should give error message when template archive is empty
+     * @should set import results and success message with number of imported templates
+     * @should set error message in session when archive cannot be read
+     */
+    @RequestMapping(method = RequestMethod.POST, params = "uploadReportTemplateArchive")
+    protected ModelAndView uploadReportTemplateArchive(HttpServletRequest request,
+            @RequestParam MultipartFile templateArchive) {
+        
+        final ModelAndView modelAndView = new ModelAndView(RADIOLOGY_REPORT_TEMPLATES_TAB_VIEW);
+        
+        if (templateArchive.isEmpty()) {
+            request.getSession()
+                    .setAttribute(WebConstants.OPENMRS_ERROR_ATTR, "radiology.MrrtReportTemplate.not.imported.empty");
+            return modelAndView;
+        }
+        
+        try (InputStream in = templateArchive.getInputStream()) {
+            setImportResults(request, modelAndView, mrrtReportTemplateService.importMrrtReportTemplates(in));
+        }
+        catch (IOException | APIException exception) {
+            request.getSession()
+                    .setAttribute(WebConstants.OPENMRS_ERROR_ATTR,
+                        "Failed to import " + templateArchive.getOriginalFilename() + " => " + exception.getMessage());
+        }
+        return modelAndView;
+    }
+    
+    /**
+     * Handle request for importing the {@code MrrtReportTemplate's} of a directory on the server.
+     * <p>
+     * Only directories inside the OpenMRS application data directory can be imported so the server file system cannot be
+     * browsed through this request.
+     * </p>
+     * 
+     * @param request the HttpServletRequest to import MrrtReportTemplates
+     * @param templateDirectory the path of the directory containing the MrrtReportTemplate files to be imported
+     * @return model and view of the radiology dashboard report templates page with the result of every template file and
+     *         a success or failure message in session attribute
+     * @should give error message when template directory is outside of the application data directory
+     * @should set import results and success message with number of imported templates of the directory
+     */
+    @RequestMapping(method = RequestMethod.POST, params = "importReportTemplateDirectory")
+    protected ModelAndView importReportTemplateDirectory(HttpServletRequest request,
+            @RequestParam String templateDirectory) {
+        
+        final ModelAndView modelAndView = new ModelAndView(RADIOLOGY_REPORT_TEMPLATES_TAB_VIEW);
+        
+        try {
+            final File directory = new File(templateDirectory).getCanonicalFile();
+            if (!directory.toPath()
+                    .startsWith(new File(OpenmrsUtil.getApplicationDataDirectory()).getCanonicalFile()
+                            .toPath())) {
+                request.getSession()
+                        .setAttribute(WebConstants.OPENMRS_ERROR_ATTR,
+                            "radiology.MrrtReportTemplate.not.imported.directory");
+                return modelAndView;
+            }
+            setImportResults(request, modelAndView, mrrtReportTemplateService.importMrrtReportTemplates(directory));
+        }
+        catch (IOException | IllegalArgumentException | APIException exception) {
+            request.getSession()
+                    .setAttribute(WebConstants.OPENMRS_ERROR_ATTR,
+                        "Failed to import " + templateDirectory + " => " + exception.getMessage());
+        }
+        return modelAndView;
+    }
+    
+    private void setImportResults(HttpServletRequest request, ModelAndView modelAndView,
+            List<MrrtReportTemplateImportResult> importResults) {
+        
+        int imported = 0;
+        for (MrrtReportTemplateImportResult importResult : importResults) {
+            if (importResult.isImported()) {
+                imported++;
+            }
+        }
+        modelAndView.addObject("mrrtReportTemplateImportResults", importResults);
+        request.getSession()
+                .setAttribute(WebConstants.OPENMRS_MSG_ATTR, "radiology.MrrtReportTemplate.imported.bulk");
+        request.getSession()
+                .setAttribute(WebConstants.OPENMRS_MSG_ARGS, new Object[] { imported, importResults.size() });
+    }
+    
     /**
      * Handles request for deleting {@code MrrtReportTemplate}
      * 
@@ -121,7 +215,7 @@ public class RadiologyDashboardReportTemplatesTabController {
      * @return model and view of the radiology dashboard report templates page with success or failure message in session
      *         attribute
      * @should return a model and view of the radiology dashboard report templates page with a status message
-     * @should catch api exception and set error message in session 
+     * @should catch api exception and set error message in session
      */
     @RequestMapping(method = RequestMethod.GET, params = "templateId")
     public ModelAndView deleteMrrtReportTemplate(HttpServletRequest request,
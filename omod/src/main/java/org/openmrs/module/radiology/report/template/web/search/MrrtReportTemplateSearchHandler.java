@@ -21,8 +21,8 @@ import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -78,23 +78,50 @@ public class MrrtReportTemplateSearchHandler implements SearchHandler {
     @Override
     public PageableResult search(RequestContext context) throws ResponseException {
         
-        final String templateTitle = context.getParameter("title");
-        final String publisher = context.getParameter("publisher");
-        final String templateLicense = context.getParameter("license");
-        final String templateCreator = context.getParameter("creator");
+        final MrrtReportTemplateSearchCriteria.Builder searchCriteriaBuilder =
+                getMrrtReportTemplateSearchCriteriaBuilder(context);
         
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getParameter(REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = mrrtReportTemplateService.countMrrtReportTemplates(searchCriteriaBuilder.build());
+            if (totalCount == 0) {
+                return new EmptySearchResult();
+            }
+        }
+        
+        // fetch one mrrt report template more than requested to find out if there is a next page
         final MrrtReportTemplateSearchCriteria searchCriteria =
-                new MrrtReportTemplateSearchCriteria.Builder().withTitle(templateTitle)
-                        .withPublisher(publisher)
-                        .withLicense(templateLicense)
-                        .withCreator(templateCreator)
+                searchCriteriaBuilder.withStartIndex(context.getStartIndex())
+                        .withLimit(context.getLimit() + 1)
                         .build();
-        
-        final List<MrrtReportTemplate> result = mrrtReportTemplateService.getMrrtReportTemplates(searchCriteria);
-        if (result.isEmpty()) {
+        List<MrrtReportTemplate> result = mrrtReportTemplateService.getMrrtReportTemplates(searchCriteria);
+        if (result.isEmpty() && totalCount == null) {
             return new EmptySearchResult();
-        } else {
-            return new NeedsPaging<MrrtReportTemplate>(result, context);
         }
+        final boolean hasMoreResults = result.size() > context.getLimit();
+        if (hasMoreResults) {
+            result = result.subList(0, context.getLimit());
+        }
+        return new AlreadyPaged<MrrtReportTemplate>(context, result, hasMoreResults, totalCount);
+    }
+    
+    /**
+     * Creates a {@code MrrtReportTemplateSearchCriteria.Builder} from the request parameters of this search handler.
+     * 
+     * @param context the request context containing the search parameters
+     * @return the builder of the mrrt report template search criteria matching the request parameters
+     */
+    public static MrrtReportTemplateSearchCriteria.Builder
+            getMrrtReportTemplateSearchCriteriaBuilder(RequestContext context) {
+        
+        final String templateTitle = context.getParameter(REQUEST_PARAM_TITLE);
+        final String publisher = context.getParameter(REQUEST_PARAM_PUBLISHER);
+        final String templateLicense = context.getParameter(REQUEST_PARAM_LICENSE);
+        final String templateCreator = context.getParameter(REQUEST_PARAM_CREATOR);
+        
+        return new MrrtReportTemplateSearchCriteria.Builder().withTitle(templateTitle)
+                .withPublisher(publisher)
+                .withLicense(templateLicense)
+                .withCreator(templateCreator);
     }
 }
@@ -28,8 +28,8 @@ import org.openmrs.module.webservices.rest.web.resource.api.PageableResult;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchConfig;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchHandler;
 import org.openmrs.module.webservices.rest.web.resource.api.SearchQuery;
+import org.openmrs.module.webservices.rest.web.resource.impl.AlreadyPaged;
 import org.openmrs.module.webservices.rest.web.resource.impl.EmptySearchResult;
-import org.openmrs.module.webservices.rest.web.resource.impl.NeedsPaging;
 import org.openmrs.module.webservices.rest.web.response.ResponseException;
 import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs1_9.ProviderResource1_9;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -95,6 +95,48 @@ public class RadiologyReportSearchHandler implements SearchHandler {
     @Override
     public PageableResult search(RequestContext context) throws ResponseException {
         
+        final RadiologyReportSearchCriteria.Builder radiologyReportSearchCriteriaBuilder =
+                getRadiologyReportSearchCriteriaBuilder(context);
+        if (radiologyReportSearchCriteriaBuilder == null) {
+            return new EmptySearchResult();
+        }
+        
+        Long totalCount = null;
+        if (Boolean.parseBoolean(context.getRequest()
+                .getParameter(REQUEST_PARAM_TOTAL_COUNT))) {
+            totalCount = radiologyReportService.countRadiologyReports(radiologyReportSearchCriteriaBuilder.build());
+            if (totalCount == 0) {
+                return new EmptySearchResult();
+            }
+        }
+        
+        // fetch one radiology report more than requested to find out if there is a next page
+        final RadiologyReportSearchCriteria radiologyReportSearchCriteria =
+                radiologyReportSearchCriteriaBuilder.withStartIndex(context.getStartIndex())
+                        .withLimit(context.getLimit() + 1)
+                        .build();
+        List<RadiologyReport> result = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
+        
+        if (result.isEmpty() && totalCount == null) {
+            return new EmptySearchResult();
+        }
+        final boolean hasMoreResults = result.size() > context.getLimit();
+        if (hasMoreResults) {
+            result = result.subList(0, context.getLimit());
+        }
+        return new AlreadyPaged<RadiologyReport>(context, result, hasMoreResults, totalCount);
+    }
+    
+    /**
+     * Creates a {@code RadiologyReportSearchCriteria.Builder} from the request parameters of this search handler.
+     * 
+     * @param context the request context containing the search parameters
+     * @return the builder of the radiology report search criteria matching the request parameters or null if the
+     *         requested principal results interpreter cannot be found
+     * @throws IllegalArgumentException if report status doesn't exist
+     */
+    public static RadiologyReportSearchCriteria.Builder getRadiologyReportSearchCriteriaBuilder(RequestContext context) {
+        
         final String principalResultsInterpreterUuid = context.getRequest()
                 .getParameter(REQUEST_PARAM_PRINCIPAL_RESULT_INTERPRETER);
         Provider principalResultsInterpreter = null;
@@ -102,7 +144,7 @@ public class RadiologyReportSearchHandler implements SearchHandler {
             principalResultsInterpreter = ((ProviderResource1_9) Context.getService(RestService.class)
                     .getResourceBySupportedClass(Provider.class)).getByUniqueId(principalResultsInterpreterUuid);
             if (principalResultsInterpreter == null) {
-                return new EmptySearchResult();
+                return null;
             }
         }
         
@@ -127,22 +169,15 @@ public class RadiologyReportSearchHandler implements SearchHandler {
             status = RadiologyReportStatus.valueOf(statusString);
         }
         
-        RadiologyReportSearchCriteria.Builder radiologyReportSearchCriteriaBuilder =
+        final RadiologyReportSearchCriteria.Builder radiologyReportSearchCriteriaBuilder =
                 new RadiologyReportSearchCriteria.Builder();
         if (context.getIncludeAll()) {
             radiologyReportSearchCriteriaBuilder.includeVoided();
         }
-        RadiologyReportSearchCriteria radiologyReportSearchCriteria = radiologyReportSearchCriteriaBuilder.fromDate(fromDate)
+        radiologyReportSearchCriteriaBuilder.fromDate(fromDate)
                 .toDate(toDate)
                 .withPrincipalResultsInterpreter(principalResultsInterpreter)
-                .withStatus(status)
-                .build();
-        
-        final List<RadiologyReport> result = radiologyReportService.getRadiologyReports(radiologyReportSearchCriteria);
-        
-        if (result.isEmpty()) {
-            return new EmptySearchResult();
-        }
-        return new NeedsPaging<RadiologyReport>(result, context);
+                .withStatus(status);
+        return radiologyReportSearchCriteriaBuilder;
     }
 }
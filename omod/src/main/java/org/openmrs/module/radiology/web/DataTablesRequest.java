@@ -0,0 +1,189 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.web;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
+
+/**
+ * The parameters DataTables sends to a server side processing endpoint, see
+ * <a href="https://datatables.net/manual/server-side">DataTables server-side processing</a>.
+ * <p>
+ * Only the parameters needed to page and sort in the database are read: {@code draw}, {@code start}, {@code length},
+ * {@code search[value]} and the {@code order[i][column]} and {@code order[i][dir]} of the sorted columns resolved to
+ * their {@code columns[i][name]}.
+ * </p>
+ */
+public class DataTablesRequest {
+    
+    
+    /**
+     * A column DataTables requests to sort by.
+     */
+    public static class SortColumn {
+        
+        
+        private final String name;
+        
+        private final boolean ascending;
+        
+        SortColumn(String name, boolean ascending) {
+            this.name = name;
+            this.ascending = ascending;
+        }
+        
+        /**
+         * @return the name of the column as configured in {@code columns.name}
+         */
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * @return true if the column is sorted in ascending order, false if in descending order
+         */
+        public boolean isAscending() {
+            return ascending;
+        }
+    }
+    
+    private final int draw;
+    
+    private final int start;
+    
+    private final int length;
+    
+    private final String searchValue;
+    
+    private final List<SortColumn> sortColumns;
+    
+    private DataTablesRequest(int draw, int start, int length, String searchValue, List<SortColumn> sortColumns) {
+        this.draw = draw;
+        this.start = start;
+        this.length = length;
+        this.searchValue = searchValue;
+        this.sortColumns = sortColumns;
+    }
+    
+    /**
+     * Parses the DataTables parameters of given request.
+     *
+     * @param request the request sent by DataTables
+     * @param maximumLength the maximum number of rows a page may contain, used if DataTables requests all rows or more
+     *        rows than allowed
+     * @return the DataTables parameters of given request
+     * @throws IllegalRequestException if a parameter is no number or a sorted column has no name
+     * @should parse draw, start, length and search value
+     * @should resolve sorted columns to their names in the order they are sorted by
+     * @should limit length to given maximum length if all rows or too many rows are requested
+     * @should throw illegal request exception if a parameter is no number
+     * @should throw illegal request exception if a sorted column has no name
+     */
+    public static DataTablesRequest parse(HttpServletRequest request, int maximumLength) {
+        
+        final int draw = getInt(request, "draw", 0);
+        final int start = Math.max(getInt(request, "start", 0), 0);
+        int length = getInt(request, "length", maximumLength);
+        if (length <= 0 || length > maximumLength) {
+            length = maximumLength;
+        }
+        
+        final List<SortColumn> sortColumns = new ArrayList<SortColumn>();
+        for (int i = 0; request.getParameter("order[" + i + "][column]") != null; i++) {
+            final int column = getInt(request, "order[" + i + "][column]", 0);
+            final String name = request.getParameter("columns[" + column + "][name]");
+            if (StringUtils.isBlank(name)) {
+                throw new IllegalRequestException("column " + column + " needs a name to be sorted by");
+            }
+            sortColumns.add(new SortColumn(name, !"desc".equalsIgnoreCase(request.getParameter("order[" + i + "][dir]"))));
+        }
+        
+        return new DataTablesRequest(draw, start, length, StringUtils.trimToNull(request.getParameter("search[value]")),
+                Collections.unmodifiableList(sortColumns));
+    }
+    
+    private static int getInt(HttpServletRequest request, String parameter, int defaultValue) {
+        
+        final String value = request.getParameter(parameter);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalRequestException(parameter + " needs to be a number but was " + value);
+        }
+    }
+    
+    /**
+     * @return the draw counter DataTables uses to match responses to requests
+     */
+    public int getDraw() {
+        return draw;
+    }
+    
+    /**
+     * @return the index of the first row to return
+     */
+    public int getStart() {
+        return start;
+    }
+    
+    /**
+     * @return the maximum number of rows to return
+     */
+    public int getLength() {
+        return length;
+    }
+    
+    /**
+     * @return the value of the global search or null if none was entered
+     */
+    public String getSearchValue() {
+        return searchValue;
+    }
+    
+    /**
+     * @return the columns to sort by, the first column sorted by first
+     */
+    public List<SortColumn> getSortColumns() {
+        return sortColumns;
+    }
+    
+    /**
+     * Creates the response DataTables expects for this request.
+     * <p>
+     * DataTables shows the number of rows matching the global search value out of the total number of rows of the table,
+     * the parameters of the dashboard tab the table belongs to are part of the table so the total is the number of rows
+     * matching them.
+     * </p>
+     *
+     * @param recordsTotal the number of rows matching the parameters of the request without the global search value
+     * @param recordsFiltered the number of rows matching the parameters of the request and the global search value
+     * @param data the rows of the requested page
+     * @return the response containing draw, record counts and data
+     * @should return draw, record counts and data
+     */
+    public SimpleObject toResponse(long recordsTotal, long recordsFiltered, List<?> data) {
+        
+        return new SimpleObject().add("draw", draw)
+                .add("recordsTotal", recordsTotal)
+                .add("recordsFiltered", recordsFiltered)
+                .add("data", data);
+    }
+}
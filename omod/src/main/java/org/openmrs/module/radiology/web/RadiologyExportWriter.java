@@ -0,0 +1,201 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.web;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Writes the rows of a radiology export one at a time so exports of large date ranges do not need to be held in memory.
+ * <p>
+ * Rows are written as one JSON object per line (NDJSON) or as comma separated values with a header line (CSV).
+ * Dates are formatted like the REST API formats them, enums are written by name.
+ * </p>
+ */
+public class RadiologyExportWriter {
+    
+    
+    /**
+     * Formats of a radiology export.
+     */
+    public enum Format {
+        
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+        
+        private final String contentType;
+        
+        private final String fileExtension;
+        
+        Format(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+        
+        /**
+         * @return the content type of an export in this format
+         */
+        public String getContentType() {
+            return contentType;
+        }
+        
+        /**
+         * @return the file extension of an export in this format
+         */
+        public String getFileExtension() {
+            return fileExtension;
+        }
+    }
+    
+    private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+    
+    private final Writer writer;
+    
+    private final Format format;
+    
+    private final String[] columns;
+    
+    private final DateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
+    
+    /**
+     * Creates a radiology export writer and writes the header line if the format has one.
+     *
+     * @param writer the writer to write the export to
+     * @param format the format of the export
+     * @param columns the names of the columns of each row
+     * @throws IOException if the header cannot be written
+     */
+    public RadiologyExportWriter(Writer writer, Format format, String... columns) throws IOException {
+        this.writer = writer;
+        this.format = format;
+        this.columns = columns;
+        if (format == Format.CSV) {
+            writeCsvLine(columns);
+        }
+    }
+    
+    /**
+     * Writes one row of the export.
+     *
+     * @param values the values of the row in the order of the columns
+     * @throws IOException if the row cannot be written
+     * @throws IllegalArgumentException if the number of values does not match the number of columns
+     * @should write a row as json object per line
+     * @should write a row as csv line after the header
+     * @should escape quotes, separators and line breaks
+     * @should write null values as json null and empty csv field
+     * @should throw illegal argument exception if number of values does not match number of columns
+     */
+    public void writeRow(Object... values) throws IOException {
+        
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("expected " + columns.length + " values but got " + values.length);
+        }
+        if (format == Format.CSV) {
+            writeCsvLine(values);
+            return;
+        }
+        writer.write('{');
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeJsonString(columns[i]);
+            writer.write(':');
+            if (values[i] == null) {
+                writer.write("null");
+            } else if (values[i] instanceof Boolean || values[i] instanceof Number) {
+                writer.write(values[i].toString());
+            } else {
+                writeJsonString(toString(values[i]));
+            }
+        }
+        writer.write("}\n");
+    }
+    
+    /**
+     * Flushes the rows written so far.
+     *
+     * @throws IOException if the rows cannot be flushed
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+    
+    private void writeCsvLine(Object[] values) throws IOException {
+        
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeCsvField(toString(values[i]));
+            }
+        }
+        writer.write("\r\n");
+    }
+    
+    private void writeCsvField(String value) throws IOException {
+        
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+    
+    private void writeJsonString(String value) throws IOException {
+        
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+    
+    private String toString(Object value) {
+        
+        if (value instanceof Date) {
+            return dateFormat.format((Date) value);
+        }
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        return value.toString();
+    }
+}
@@ -9,10 +9,49 @@
  */
 package org.openmrs.module.radiology.web;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.order.RadiologyOrderSearchCriteria;
+import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.order.RadiologyOrderSummary;
+import org.openmrs.module.radiology.order.web.resource.RadiologyOrderResource;
+import org.openmrs.module.radiology.order.web.search.RadiologyOrderSearchHandler;
+import org.openmrs.module.radiology.report.RadiologyReport;
+import org.openmrs.module.radiology.report.RadiologyReportSearchCriteria;
+import org.openmrs.module.radiology.report.RadiologyReportService;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateSearchCriteria;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
+import org.openmrs.module.radiology.report.template.web.search.MrrtReportTemplateSearchHandler;
+import org.openmrs.module.radiology.report.web.search.RadiologyReportSearchHandler;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.ConversionUtil;
+import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestConstants;
+import org.openmrs.module.webservices.rest.web.RestUtil;
+import org.openmrs.module.webservices.rest.web.api.RestService;
+import org.openmrs.module.webservices.rest.web.representation.Representation;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
 import org.openmrs.module.webservices.rest.web.v1_0.controller.MainResourceController;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 /**
  * Controller for Radiology Rest Services.
@@ -24,6 +63,39 @@ public class RadiologyRestController extends MainResourceController {
     
     public static final String RADIOLOGY_REST_NAMESPACE = "/radiology";
     
+    public static final String REQUEST_PARAM_FORMAT = "format";
+    
+    /**
+     * Sort fields of the DataTables columns radiology orders can be sorted by.
+     */
+    private static final Map<String, RadiologyOrderSearchCriteria.SortField> RADIOLOGY_ORDER_SORT_COLUMNS =
+            new HashMap<String, RadiologyOrderSearchCriteria.SortField>();
+    
+    /**
+     * Sort fields of the DataTables columns radiology reports can be sorted by.
+     */
+    private static final Map<String, RadiologyReportSearchCriteria.SortField> RADIOLOGY_REPORT_SORT_COLUMNS =
+            new HashMap<String, RadiologyReportSearchCriteria.SortField>();
+    
+    /**
+     * Sort fields of the DataTables columns mrrt report templates can be sorted by.
+     */
+    private static final Map<String, MrrtReportTemplateSearchCriteria.SortField> MRRT_REPORT_TEMPLATE_SORT_COLUMNS =
+            new HashMap<String, MrrtReportTemplateSearchCriteria.SortField>();
+    
+    static {
+        RADIOLOGY_ORDER_SORT_COLUMNS.put("accessionNumber", RadiologyOrderSearchCriteria.SortField.ACCESSION_NUMBER);
+        RADIOLOGY_ORDER_SORT_COLUMNS.put("urgency", RadiologyOrderSearchCriteria.SortField.URGENCY);
+        RADIOLOGY_ORDER_SORT_COLUMNS.put("effectiveStartDate", RadiologyOrderSearchCriteria.SortField.EFFECTIVE_START_DATE);
+        RADIOLOGY_REPORT_SORT_COLUMNS.put("date", RadiologyReportSearchCriteria.SortField.DATE);
+        RADIOLOGY_REPORT_SORT_COLUMNS.put("dateCreated", RadiologyReportSearchCriteria.SortField.DATE_CREATED);
+        RADIOLOGY_REPORT_SORT_COLUMNS.put("status", RadiologyReportSearchCriteria.SortField.STATUS);
+        MRRT_REPORT_TEMPLATE_SORT_COLUMNS.put("dcTermsTitle", MrrtReportTemplateSearchCriteria.SortField.TITLE);
+        MRRT_REPORT_TEMPLATE_SORT_COLUMNS.put("dcTermsCreator", MrrtReportTemplateSearchCriteria.SortField.CREATOR);
+        MRRT_REPORT_TEMPLATE_SORT_COLUMNS.put("dcTermsPublisher", MrrtReportTemplateSearchCriteria.SortField.PUBLISHER);
+        MRRT_REPORT_TEMPLATE_SORT_COLUMNS.put("dcTermsLicense", MrrtReportTemplateSearchCriteria.SortField.LICENSE);
+    }
+    
     /**
      * @see org.openmrs.module.webservices.rest.web.v1_0.controller.BaseRestController#getNamespace()
      */
@@ -31,4 +103,359 @@ public class RadiologyRestController extends MainResourceController {
     public String getNamespace() {
         return RestConstants.VERSION_1 + RADIOLOGY_REST_NAMESPACE;
     }
+    
+    /**
+     * Places the radiology orders posted as {@code radiologyOrders} at once.
+     *
+     * @param post the request body containing the radiology orders to be placed
+     * @return the result of every posted radiology order
+     * @throws IllegalRequestException if post contains no list of radiology orders
+     * @see RadiologyOrderResource#placeRadiologyOrders(List)
+     */
+    @RequestMapping(value = "/radiologyorder/bulk", method = RequestMethod.POST)
+    @ResponseBody
+    public SimpleObject placeRadiologyOrders(@RequestBody SimpleObject post) {
+        
+        final Object radiologyOrders = post.get("radiologyOrders");
+        if (!(radiologyOrders instanceof List)) {
+            throw new IllegalRequestException("radiologyOrders needs to be a list");
+        }
+        final RadiologyOrderResource resource = (RadiologyOrderResource) Context.getService(RestService.class)
+                .getResourceBySupportedClass(RadiologyOrder.class);
+        return resource.placeRadiologyOrders((List<?>) radiologyOrders);
+    }
+    
+    /**
+     * Looks up the radiology orders of the accession numbers posted as {@code accessionNumbers} at once.
+     *
+     * @param post the request body containing the accession numbers to be looked up
+     * @return the found radiology orders keyed by accession number and the accession numbers without radiology order
+     * @throws IllegalRequestException if post contains no list of accession numbers
+     * @see RadiologyOrderResource#lookupRadiologyOrders(List)
+     */
+    @RequestMapping(value = "/radiologyorder/lookup", method = RequestMethod.POST)
+    @ResponseBody
+    public SimpleObject lookupRadiologyOrders(@RequestBody SimpleObject post) {
+        
+        final Object accessionNumbers = post.get("accessionNumbers");
+        if (!(accessionNumbers instanceof List)) {
+            throw new IllegalRequestException("accessionNumbers needs to be a list");
+        }
+        final RadiologyOrderResource resource = (RadiologyOrderResource) Context.getService(RestService.class)
+                .getResourceBySupportedClass(RadiologyOrder.class);
+        return resource.lookupRadiologyOrders((List<?>) accessionNumbers);
+    }
+    
+    /**
+     * Looks up the radiology studies of the Study Instance UIDs posted as {@code studyInstanceUids} at once.
+     *
+     * @param post the request body containing the study instance uids to be looked up
+     * @return the found radiology studies keyed by study instance uid and the study instance uids without radiology study
+     * @throws IllegalRequestException if post contains no list of study instance uids
+     * @see RadiologyOrderResource#lookupRadiologyStudies(List)
+     */
+    @RequestMapping(value = "/radiologystudy/lookup", method = RequestMethod.POST)
+    @ResponseBody
+    public SimpleObject lookupRadiologyStudies(@RequestBody SimpleObject post) {
+        
+        final Object studyInstanceUids = post.get("studyInstanceUids");
+        if (!(studyInstanceUids instanceof List)) {
+            throw new IllegalRequestException("studyInstanceUids needs to be a list");
+        }
+        final RadiologyOrderResource resource = (RadiologyOrderResource) Context.getService(RestService.class)
+                .getResourceBySupportedClass(RadiologyOrder.class);
+        return resource.lookupRadiologyStudies((List<?>) studyInstanceUids);
+    }
+    
+    /**
+     * Exports the summaries of the radiology orders matching the parameters of the radiology order search to the response
+     * without loading them at once.
+     * <p>
+     * The radiology orders are scrolled through in the database and written as they are read, so large date ranges can
+     * be exported in constant memory. On MySQL this requires {@code useCursorFetch=true} in the connection URL, otherwise
+     * the JDBC driver reads the whole result set before the first row is returned.
+     * </p>
+     *
+     * @param format the format of the export, either {@code ndjson} or {@code csv}
+     * @param request the request containing the search parameters
+     * @param response the response to write the export to
+     * @throws IOException if the export cannot be written
+     * @throws IllegalArgumentException if format or urgency doesn't exist
+     * @see RadiologyOrderSearchHandler#getRadiologyOrderSearchCriteriaBuilder(RequestContext)
+     * @see RadiologyOrderService#streamRadiologyOrderSummaries(RadiologyOrderSearchCriteria, java.util.function.Consumer)
+     */
+    @RequestMapping(value = "/radiologyorder/export", method = RequestMethod.GET)
+    public void exportRadiologyOrders(@RequestParam(value = REQUEST_PARAM_FORMAT, defaultValue = "ndjson") String format,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        
+        final RadiologyExportWriter.Format exportFormat = getExportFormat(format);
+        final RadiologyOrderSearchCriteria.Builder radiologyOrderSearchCriteriaBuilder = RadiologyOrderSearchHandler
+                .getRadiologyOrderSearchCriteriaBuilder(RestUtil.getRequestContext(request, response));
+        
+        final Writer writer = startExport(response, exportFormat, "radiologyorders");
+        final RadiologyExportWriter exportWriter = new RadiologyExportWriter(writer, exportFormat, "uuid",
+                "accessionNumber", "patientUuid", "patientName", "patientIdentifier", "procedureName", "urgency",
+                "effectiveStartDate", "performedStatus", "reportStatus");
+        if (radiologyOrderSearchCriteriaBuilder != null) {
+            try {
+                Context.getService(RadiologyOrderService.class)
+                        .streamRadiologyOrderSummaries(radiologyOrderSearchCriteriaBuilder.build(), summary -> {
+                            try {
+                                exportWriter.writeRow(summary.getUuid(), summary.getAccessionNumber(),
+                                    summary.getPatientUuid(), summary.getPatientName(), summary.getPatientIdentifier(),
+                                    summary.getProcedureName(), summary.getUrgency(), summary.getEffectiveStartDate(),
+                                    summary.getPerformedStatus(), summary.getReportStatus());
+                            }
+                            catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        exportWriter.flush();
+    }
+    
+    /**
+     * Exports the summaries of the radiology reports matching the parameters of the radiology report search to the
+     * response without loading them at once.
+     *
+     * @param format the format of the export, either {@code ndjson} or {@code csv}
+     * @param request the request containing the search parameters
+     * @param response the response to write the export to
+     * @throws IOException if the export cannot be written
+     * @throws IllegalArgumentException if format or report status doesn't exist
+     * @see #exportRadiologyOrders(String, HttpServletRequest, HttpServletResponse)
+     * @see RadiologyReportSearchHandler#getRadiologyReportSearchCriteriaBuilder(RequestContext)
+     * @see RadiologyReportService#streamRadiologyReportSummaries(RadiologyReportSearchCriteria,
+     *      java.util.function.Consumer)
+     */
+    @RequestMapping(value = "/radiologyreport/export", method = RequestMethod.GET)
+    public void exportRadiologyReports(@RequestParam(value = REQUEST_PARAM_FORMAT, defaultValue = "ndjson") String format,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        
+        final RadiologyExportWriter.Format exportFormat = getExportFormat(format);
+        final RadiologyReportSearchCriteria.Builder radiologyReportSearchCriteriaBuilder = RadiologyReportSearchHandler
+                .getRadiologyReportSearchCriteriaBuilder(RestUtil.getRequestContext(request, response));
+        
+        final Writer writer = startExport(response, exportFormat, "radiologyreports");
+        final RadiologyExportWriter exportWriter = new RadiologyExportWriter(writer, exportFormat, "uuid",
+                "radiologyOrderUuid", "accessionNumber", "status", "date", "principalResultsInterpreterUuid",
+                "dateCreated", "voided");
+        if (radiologyReportSearchCriteriaBuilder != null) {
+            try {
+                Context.getService(RadiologyReportService.class)
+                        .streamRadiologyReportSummaries(radiologyReportSearchCriteriaBuilder.build(), summary -> {
+                            try {
+                                exportWriter.writeRow(summary.getUuid(), summary.getRadiologyOrderUuid(),
+                                    summary.getAccessionNumber(), summary.getStatus(), summary.getDate(),
+                                    summary.getPrincipalResultsInterpreterUuid(), summary.getDateCreated(),
+                                    summary.getVoided());
+                            }
+                            catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            }
+            catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        exportWriter.flush();
+    }
+    
+    /**
+     * Gets the page of radiology order summaries DataTables requests from the radiology orders tab, filtered by the
+     * parameters of the radiology order search and sorted by the first sorted column.
+     * <p>
+     * The global search value narrows the radiology orders matching the search parameters to those whose accession number
+     * starts with it.
+     * </p>
+     *
+     * @param request the request containing the DataTables and search parameters
+     * @param response the response
+     * @return the DataTables response containing the radiology order summaries in the requested representation
+     * @throws IllegalRequestException if a DataTables parameter is invalid or a column cannot be sorted by
+     * @throws IllegalArgumentException if urgency doesn't exist
+     * @see DataTablesRequest
+     * @see RadiologyOrderSearchHandler#getRadiologyOrderSearchCriteriaBuilder(RequestContext)
+     */
+    @RequestMapping(value = "/datatables/radiologyorder", method = RequestMethod.GET)
+    @ResponseBody
+    public SimpleObject getRadiologyOrdersForDataTables(HttpServletRequest request, HttpServletResponse response) {
+        
+        final DataTablesRequest dataTablesRequest = DataTablesRequest.parse(request, RestUtil.getMaximumLimit());
+        final RequestContext requestContext = RestUtil.getRequestContext(request, response);
+        final RadiologyOrderSearchCriteria.Builder radiologyOrderSearchCriteriaBuilder = RadiologyOrderSearchHandler
+                .getRadiologyOrderSearchCriteriaBuilder(requestContext);
+        if (radiologyOrderSearchCriteriaBuilder == null) {
+            return dataTablesRequest.toResponse(0, 0, new ArrayList<Object>());
+        }
+        if (!dataTablesRequest.getSortColumns()
+                .isEmpty()) {
+            final DataTablesRequest.SortColumn sortColumn = dataTablesRequest.getSortColumns()
+                    .get(0);
+            radiologyOrderSearchCriteriaBuilder.sortBy(getSortField(RADIOLOGY_ORDER_SORT_COLUMNS, sortColumn),
+                sortColumn.isAscending());
+        }
+        
+        final RadiologyOrderService radiologyOrderService = Context.getService(RadiologyOrderService.class);
+        final long total = radiologyOrderService.countRadiologyOrders(radiologyOrderSearchCriteriaBuilder.build());
+        long count = total;
+        if (total > 0 && dataTablesRequest.getSearchValue() != null) {
+            radiologyOrderSearchCriteriaBuilder.withAccessionNumberPrefix(dataTablesRequest.getSearchValue());
+            count = radiologyOrderService.countRadiologyOrders(radiologyOrderSearchCriteriaBuilder.build());
+        }
+        if (count == 0) {
+            return dataTablesRequest.toResponse(total, 0, new ArrayList<Object>());
+        }
+        final List<RadiologyOrderSummary> radiologyOrderSummaries = radiologyOrderService.getRadiologyOrderSummaries(
+            radiologyOrderSearchCriteriaBuilder.withStartIndex(dataTablesRequest.getStart())
+                    .withLimit(dataTablesRequest.getLength())
+                    .build());
+        return dataTablesRequest.toResponse(total, count,
+            toRepresentations(radiologyOrderSummaries, requestContext.getRepresentation()));
+    }
+    
+    /**
+     * Gets the page of radiology reports DataTables requests from the radiology reports tab, filtered by the parameters
+     * of the radiology report search and sorted by the first sorted column.
+     * <p>
+     * Radiology reports have no text to search, the global search value is ignored and the reports tab hides the search
+     * field.
+     * </p>
+     *
+     * @param request the request containing the DataTables and search parameters
+     * @param response the response
+     * @return the DataTables response containing the radiology reports in the requested representation
+     * @throws IllegalRequestException if a DataTables parameter is invalid or a column cannot be sorted by
+     * @throws IllegalArgumentException if report status doesn't exist
+     * @see DataTablesRequest
+     * @see RadiologyReportSearchHandler#getRadiologyReportSearchCriteriaBuilder(RequestContext)
+     */
+    @RequestMapping(value = "/datatables/radiologyreport", method = RequestMethod.GET)
+    @ResponseBody
+    public SimpleObject getRadiologyReportsForDataTables(HttpServletRequest request, HttpServletResponse response) {
+        
+        final DataTablesRequest dataTablesRequest = DataTablesRequest.parse(request, RestUtil.getMaximumLimit());
+        final RequestContext requestContext = RestUtil.getRequestContext(request, response);
+        final RadiologyReportSearchCriteria.Builder radiologyReportSearchCriteriaBuilder = RadiologyReportSearchHandler
+                .getRadiologyReportSearchCriteriaBuilder(requestContext);
+        if (radiologyReportSearchCriteriaBuilder == null) {
+            return dataTablesRequest.toResponse(0, 0, new ArrayList<Object>());
+        }
+        if (!dataTablesRequest.getSortColumns()
+                .isEmpty()) {
+            final DataTablesRequest.SortColumn sortColumn = dataTablesRequest.getSortColumns()
+                    .get(0);
+            radiologyReportSearchCriteriaBuilder.sortBy(getSortField(RADIOLOGY_REPORT_SORT_COLUMNS, sortColumn),
+                sortColumn.isAscending());
+        }
+        
+        final RadiologyReportService radiologyReportService = Context.getService(RadiologyReportService.class);
+        final long count = radiologyReportService.countRadiologyReports(radiologyReportSearchCriteriaBuilder.build());
+        if (count == 0) {
+            return dataTablesRequest.toResponse(0, 0, new ArrayList<Object>());
+        }
+        final List<RadiologyReport> radiologyReports = radiologyReportService.getRadiologyReports(
+            radiologyReportSearchCriteriaBuilder.withStartIndex(dataTablesRequest.getStart())
+                    .withLimit(dataTablesRequest.getLength())
+                    .build());
+        return dataTablesRequest.toResponse(count, count,
+            toRepresentations(radiologyReports, requestContext.getRepresentation()));
+    }
+    
+    /**
+     * Gets the page of mrrt report templates DataTables requests from the report templates tab, filtered by the
+     * parameters of the mrrt report template search and sorted by the first sorted column.
+     * <p>
+     * The report templates tab filters by title with the title parameter, the global search value is ignored and the tab
+     * hides the search field.
+     * </p>
+     *
+     * @param request the request containing the DataTables and search parameters
+     * @param response the response
+     * @return the DataTables response containing the mrrt report templates in the requested representation
+     * @throws IllegalRequestException if a DataTables parameter is invalid or a column cannot be sorted by
+     * @see DataTablesRequest
+     * @see MrrtReportTemplateSearchHandler#getMrrtReportTemplateSearchCriteriaBuilder(RequestContext)
+     */
+    @RequestMapping(value = "/datatables/mrrtreporttemplate", method = RequestMethod.GET)
+    @ResponseBody
+    public SimpleObject getMrrtReportTemplatesForDataTables(HttpServletRequest request, HttpServletResponse response) {
+        
+        final DataTablesRequest dataTablesRequest = DataTablesRequest.parse(request, RestUtil.getMaximumLimit());
+        final RequestContext requestContext = RestUtil.getRequestContext(request, response);
+        final MrrtReportTemplateSearchCriteria.Builder mrrtReportTemplateSearchCriteriaBuilder =
+                MrrtReportTemplateSearchHandler.getMrrtReportTemplateSearchCriteriaBuilder(requestContext);
+        if (!dataTablesRequest.getSortColumns()
+                .isEmpty()) {
+            final DataTablesRequest.SortColumn sortColumn = dataTablesRequest.getSortColumns()
+                    .get(0);
+            mrrtReportTemplateSearchCriteriaBuilder.sortBy(getSortField(MRRT_REPORT_TEMPLATE_SORT_COLUMNS, sortColumn),
+                sortColumn.isAscending());
+        }
+        
+        final MrrtReportTemplateService mrrtReportTemplateService = Context.getService(MrrtReportTemplateService.class);
+        final long count =
+                mrrtReportTemplateService.countMrrtReportTemplates(mrrtReportTemplateSearchCriteriaBuilder.build());
+        if (count == 0) {
+            return dataTablesRequest.toResponse(0, 0, new ArrayList<Object>());
+        }
+        final List<MrrtReportTemplate> mrrtReportTemplates = mrrtReportTemplateService.getMrrtReportTemplates(
+            mrrtReportTemplateSearchCriteriaBuilder.withStartIndex(dataTablesRequest.getStart())
+                    .withLimit(dataTablesRequest.getLength())
+                    .build());
+        return dataTablesRequest.toResponse(count, count,
+            toRepresentations(mrrtReportTemplates, requestContext.getRepresentation()));
+    }
+    
+    /**
+     * Gets the sort field of given DataTables column.
+     *
+     * @param sortFields the sort fields by the names of the sortable columns
+     * @param sortColumn the column DataTables requests to sort by
+     * @return the sort field of given column
+     * @throws IllegalRequestException if the column cannot be sorted by
+     */
+    private static <T> T getSortField(Map<String, T> sortFields, DataTablesRequest.SortColumn sortColumn) {
+        
+        final T result = sortFields.get(sortColumn.getName());
+        if (result == null) {
+            throw new IllegalRequestException(
+                    "column " + sortColumn.getName() + " cannot be sorted by, sortable columns are " + sortFields.keySet());
+        }
+        return result;
+    }
+    
+    private static List<Object> toRepresentations(List<?> delegates, Representation representation) {
+        
+        final List<Object> result = new ArrayList<Object>(delegates.size());
+        for (Object delegate : delegates) {
+            result.add(ConversionUtil.convertToRepresentation(delegate, representation));
+        }
+        return result;
+    }
+    
+    private RadiologyExportWriter.Format getExportFormat(String format) {
+        
+        try {
+            return RadiologyExportWriter.Format.valueOf(format.toUpperCase());
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format needs to be one of ndjson or csv but was " + format, e);
+        }
+    }
+    
+    private Writer startExport(HttpServletResponse response, RadiologyExportWriter.Format format, String fileName)
+            throws IOException {
+        
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition",
+            "attachment; filename=\"" + fileName + "." + format.getFileExtension() + "\"");
+        return new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+    }
 }
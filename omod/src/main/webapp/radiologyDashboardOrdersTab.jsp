@@ -36,6 +36,8 @@
                                     {
                                       "processing": true,
                                       "serverSide": true,
+                                      "ordering": true,
+                                      "order": [[1, "asc"]],
                                       "ajax": {
                                         headers: {
                                           Accept: "application/json; charset=utf-8",
@@ -44,12 +46,9 @@
                                         cache: true,
                                         dataType: "json",
                                         url: Radiology.getRestRootEndpoint()
-                                                + "/radiologyorder/",
+                                                + "/radiology/datatables/radiologyorder",
                                         data: function(data) {
-                                          return {
-                                            startIndex: data.start,
-                                            limit: data.length,
-                                            v: "full",
+                                          return $j.extend({}, data, {
                                             accessionNumber: accessionNumber
                                                     .val(),
                                             patient: patientUuid.val(),
@@ -71,16 +70,8 @@
                                                             "L LT")
                                                             .format(
                                                                     "YYYY-MM-DDTHH:mm:ss.SSSZ"),
-                                            urgency: urgency.val(),
-                                            totalCount: true,
-                                          };
-                                        },
-                                        "dataFilter": function(data) {
-                                          var json = $j.parseJSON(data);
-                                          json.recordsTotal = json.totalCount || 0;
-                                          json.recordsFiltered = json.totalCount || 0;
-                                          json.data = json.results;
-                                          return JSON.stringify(json);
+                                            urgency: urgency.val()
+                                          });
                                         },
                                         error: function(jqXHR, textStatus,
                                                 errorThrown) {
@@ -117,9 +108,16 @@
                                           },
                                           {
                                             "name": "patient",
+                                            "orderable": false,
                                             "render": function(data, type,
                                                     full, meta) {
-                                              return full.patient.display;
+                                              return Radiology.getProperty(
+                                                      full,
+                                                      "patientIdentifier")
+                                                      + " - "
+                                                      + Radiology.getProperty(
+                                                              full,
+                                                              "patientName");
                                             }
                                           },
                                           {
@@ -137,93 +135,61 @@
                                             }
                                           },
                                           {
-                                            "name": "concept",
-                                            "render": function(data, type,
-                                                    full, meta) {
-                                              return full.concept.display;
-                                            }
-                                          },
-                                          {
-                                            "name": "orderer",
-                                            "responsivePriority": 11000,
+                                            "name": "procedure",
+                                            "orderable": false,
                                             "render": function(data, type,
                                                     full, meta) {
-                                              return full.orderer.display;
+                                              return Radiology.getProperty(
+                                                      full, "procedureName");
                                             }
                                           },
                                           {
-                                            "name": "scheduledDate",
+                                            "name": "effectiveStartDate",
                                             "render": function(data, type,
                                                     full, meta) {
                                               var result = "";
-                                              if (full.scheduledDate) {
+                                              if (full.effectiveStartDate) {
 
                                                 result = moment(
-                                                        full.scheduledDate)
+                                                        full.effectiveStartDate)
                                                         .format("LLL");
                                               }
                                               return result;
                                             }
                                           },
                                           {
-                                            "name": "dateActivated",
+                                            "name": "performedStatus",
+                                            "orderable": false,
                                             "render": function(data, type,
                                                     full, meta) {
-                                              var result = "";
-                                              if (full.dateActivated) {
-
-                                                result = moment(
-                                                        full.dateActivated)
-                                                        .format("LLL");
+                                              switch (full.performedStatus) {
+                                              case "IN_PROGRESS":
+                                                return '<spring:message code="radiology.IN_PROGRESS"/>';
+                                              case "DISCONTINUED":
+                                                return '<spring:message code="radiology.DISCONTINUED"/>';
+                                              case "COMPLETED":
+                                                return '<spring:message code="radiology.COMPLETED"/>';
                                               }
-                                              return result;
+                                              return "";
                                             }
                                           },
                                           {
-                                            "name": "dateStopped",
+                                            "name": "reportStatus",
+                                            "orderable": false,
                                             "render": function(data, type,
                                                     full, meta) {
-                                              var result = "";
-                                              if (full.dateStopped) {
-
-                                                result = moment(
-                                                        full.dateStopped)
-                                                        .format("LLL");
+                                              switch (full.reportStatus) {
+                                              case "DRAFT":
+                                                return '<spring:message code="radiology.report.status.DRAFT"/>';
+                                              case "COMPLETED":
+                                                return '<spring:message code="radiology.report.status.COMPLETED"/>';
                                               }
-                                              return result;
-                                            }
-                                          },
-                                          {
-                                            "name": "orderReason",
-                                            "className": "none",
-                                            "render": function(data, type,
-                                                    full, meta) {
-                                              return Radiology.getProperty(
-                                                      full,
-                                                      "orderReason.display");
-                                            }
-                                          },
-                                          {
-                                            "name": "orderReasonNonCoded",
-                                            "className": "none",
-                                            "render": function(data, type,
-                                                    full, meta) {
-                                              return Radiology.getProperty(
-                                                      full,
-                                                      "orderReasonNonCoded");
-                                            }
-                                          },
-                                          {
-                                            "name": "instructions",
-                                            "className": "none",
-                                            "render": function(data, type,
-                                                    full, meta) {
-                                              return Radiology.getProperty(
-                                                      full, "instructions");
+                                              return "";
                                             }
                                           },
                                           {
                                             "name": "action",
+                                            "orderable": false,
                                             "className": "dt-center",
                                             "responsivePriority": 1,
                                             "render": function(data, type,
@@ -368,13 +334,9 @@
               <th><spring:message code="radiology.datatables.column.order.patient" /></th>
               <th><spring:message code="radiology.datatables.column.order.urgency" /></th>
               <th><spring:message code="radiology.datatables.column.order.imagingProcedure" /></th>
-              <th><spring:message code="radiology.datatables.column.order.referringPhysician" /></th>
-              <th><spring:message code="radiology.datatables.column.order.scheduledDate" /></th>
-              <th><spring:message code="radiology.datatables.column.order.dateActivated" /></th>
-              <th><spring:message code="radiology.datatables.column.order.dateStopped" /></th>
-              <th><spring:message code="radiology.datatables.column.order.reason" /></th>
-              <th><spring:message code="radiology.datatables.column.order.reasonNonCoded" /></th>
-              <th><spring:message code="radiology.datatables.column.order.instructions" /></th>
+              <th><spring:message code="radiology.datatables.column.order.effectiveStartDate" /></th>
+              <th><spring:message code="radiology.datatables.column.order.performedStatus" /></th>
+              <th><spring:message code="radiology.datatables.column.order.reportStatus" /></th>
               <th><spring:message code="radiology.datatables.column.action" /></th>
             </tr>
           </thead>
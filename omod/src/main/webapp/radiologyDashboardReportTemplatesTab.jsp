@@ -23,6 +23,9 @@
                                     {
                                       "processing": true,
                                       "serverSide": true,
+                                      "searching": false,
+                                      "ordering": true,
+                                      "order": [[2, "asc"]],
                                       "ajax": {
                                         headers: {
                                           Accept: "application/json; charset=utf-8",
@@ -31,22 +34,12 @@
                                         cache: true,
                                         dataType: "json",
                                         url: Radiology.getRestRootEndpoint()
-                                                + "/mrrtreporttemplate/",
+                                                + "/radiology/datatables/mrrtreporttemplate",
                                         data: function(data) {
-                                          return {
-                                            startIndex: data.start,
-                                            limit: data.length,
+                                          return $j.extend({}, data, {
                                             v: "full",
-                                            title: templateTitle.val(),
-                                            totalCount: true,
-                                          };
-                                        },
-                                        "dataFilter": function(data) {
-                                          var json = $j.parseJSON(data);
-                                          json.recordsTotal = json.totalCount || 0;
-                                          json.recordsFiltered = json.totalCount || 0;
-                                          json.data = json.results;
-                                          return JSON.stringify(json);
+                                            title: templateTitle.val()
+                                          });
                                         },
                                         error: function(jqXHR, textStatus,
                                                 errorThrown) {
@@ -75,6 +68,7 @@
                                           },
                                           {
                                             "name": "templateId",
+                                            "orderable": false,
                                             "responsivePriority": 1,
                                             "render": function(data, type,
                                                     full, meta) {
@@ -104,6 +98,7 @@
                                           },
                                           {
                                             "name": "dcTermsRights",
+                                            "orderable": false,
                                             "className": "none",
                                             "render": function(data, type,
                                                     full, meta) {
@@ -113,6 +108,7 @@
                                           },
                                           {
                                             "name": "dcTermsDescription",
+                                            "orderable": false,
                                             "className": "none",
                                             "render": function(data, type,
                                                     full, meta) {
@@ -123,6 +119,7 @@
                                           },
                                           {
                                             "name": "action",
+                                            "orderable": false,
                                             "className": "dt-center",
                                             "responsivePriority": 1,
                                             "render": function(data, type,
@@ -198,6 +195,26 @@
     </div>
 </c:if>
 
+<c:if test="${not empty mrrtReportTemplateImportResults}" >
+    </br>
+    <div>
+        <spring:message code="radiology.reportTemplates.import.results.header" />
+        <ul>
+        <c:forEach items="${mrrtReportTemplateImportResults}" var="importResult">
+            <c:choose>
+                <c:when test="${importResult.imported}">
+                    <li><c:out value="${importResult.fileName}" />:
+                        <spring:message code="radiology.MrrtReportTemplate.imported" /></li>
+                </c:when>
+                <c:otherwise>
+                    <li class="error"><c:out value="${importResult.fileName}" />:
+                        <c:out value="${importResult.errorMessage}" /></li>
+                </c:otherwise>
+            </c:choose>
+        </c:forEach>
+        </ul>
+    </div>
+</c:if>
 <openmrs:hasPrivilege privilege="View Radiology Report Templates">
   <div id="radiologyReportTemplates">
     <br />
@@ -213,6 +230,17 @@
               <input type="file" name="templateFile" size="40" /> <input type="submit" name="uploadReportTemplate"
                 value='<openmrs:message code="radiology.reportTemplates.import.popup.upload"/>' />
             </form>
+            <form id="templateArchiveAddForm" action="radiologyDashboardReportTemplatesTab.htm" method="post"
+              enctype="multipart/form-data">
+              <input type="file" name="templateArchive" accept=".zip" size="40" /> <input type="submit"
+                name="uploadReportTemplateArchive"
+                value='<openmrs:message code="radiology.reportTemplates.import.popup.uploadArchive"/>' />
+            </form>
+            <form id="templateDirectoryAddForm" action="radiologyDashboardReportTemplatesTab.htm" method="post">
+              <input type="text" name="templateDirectory" size="40" /> <input type="submit"
+                name="importReportTemplateDirectory"
+                value='<openmrs:message code="radiology.reportTemplates.import.popup.importDirectory"/>' />
+            </form>
           </div>
           <br />
         </div>
@@ -86,6 +86,9 @@
                                     {
                                       "processing": true,
                                       "serverSide": true,
+                                      "searching": false,
+                                      "ordering": true,
+                                      "order": [[3, "asc"]],
                                       "ajax": {
                                         headers: {
                                           Accept: "application/json; charset=utf-8",
@@ -94,11 +97,9 @@
                                         cache: true,
                                         dataType: "json",
                                         url: Radiology.getRestRootEndpoint()
-                                                + "/radiologyreport/",
+                                                + "/radiology/datatables/radiologyreport",
                                         data: function(data) {
-                                          return {
-                                            startIndex: data.start,
-                                            limit: data.length,
+                                          return $j.extend({}, data, {
                                             v: "full",
                                             fromdate: fromDate.val() === ""
                                                     ? ""
@@ -114,16 +115,8 @@
                                                     .val(),
                                             status: status.val(),
                                             includeAll: includeAll
-                                                    .is(':checked'),
-                                            totalCount: true,
-                                          };
-                                        },
-                                        "dataFilter": function(data) {
-                                          var json = $j.parseJSON(data);
-                                          json.recordsTotal = json.totalCount || 0;
-                                          json.recordsFiltered = json.totalCount || 0;
-                                          json.data = json.results;
-                                          return JSON.stringify(json);
+                                                    .is(':checked')
+                                          });
                                         },
                                         error: function(jqXHR, textStatus,
                                                 errorThrown) {
@@ -152,6 +145,7 @@
                                           },
                                           {
                                             "name": "radiologyOrder",
+                                            "orderable": false,
                                             "responsivePriority": 1,
                                             "render": function(data, type,
                                                     full, meta) {
@@ -160,6 +154,7 @@
                                           },
                                           {
                                             "name": "principalResultsInterpreter",
+                                            "orderable": false,
                                             "render": function(data, type,
                                                     full, meta) {
 
@@ -196,6 +191,7 @@
                                           },
                                           {
                                             "name": "creatorBy",
+                                            "orderable": false,
                                             "responsivePriority": 11000,
                                             "render": function(data, type,
                                                     full, meta) {
@@ -221,6 +217,7 @@
                                           },
                                           {
                                             "name": "action",
+                                            "orderable": false,
                                             "className": "dt-center",
                                             "responsivePriority": 1,
                                             "render": function(data, type,
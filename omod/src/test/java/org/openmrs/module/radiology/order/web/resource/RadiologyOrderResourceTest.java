@@ -13,10 +13,18 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Before;
@@ -26,8 +34,14 @@ import org.mockito.Mock;
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
 import org.openmrs.api.context.Context;
+import org.openmrs.module.radiology.RadiologyProperties;
+import org.openmrs.module.radiology.dicom.code.PerformedProcedureStepStatus;
 import org.openmrs.module.radiology.order.RadiologyOrder;
+import org.openmrs.module.radiology.order.RadiologyOrderPlacementResult;
 import org.openmrs.module.radiology.order.RadiologyOrderService;
+import org.openmrs.module.radiology.study.RadiologyStudy;
+import org.openmrs.module.radiology.study.RadiologyStudyService;
+import org.openmrs.module.webservices.rest.SimpleObject;
 import org.openmrs.module.webservices.rest.web.RequestContext;
 import org.openmrs.module.webservices.rest.web.RestUtil;
 import org.openmrs.module.webservices.rest.web.representation.CustomRepresentation;
@@ -37,6 +51,8 @@ import org.openmrs.module.webservices.rest.web.representation.NamedRepresentatio
 import org.openmrs.module.webservices.rest.web.representation.RefRepresentation;
 import org.openmrs.module.webservices.rest.web.representation.Representation;
 import org.openmrs.module.webservices.rest.web.resource.impl.DelegatingResourceDescription;
+import org.openmrs.module.webservices.rest.web.response.ConversionException;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
 import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
 import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs2_0.RestConstants2_0;
 import org.openmrs.util.LocaleUtility;
@@ -57,6 +73,12 @@ public class RadiologyOrderResourceTest {
     @Mock
     RadiologyOrderService radiologyOrderService;
     
+    @Mock
+    RadiologyStudyService radiologyStudyService;
+    
+    @Mock
+    RadiologyProperties radiologyProperties;
+    
     RadiologyOrderResource radiologyOrderResource = new RadiologyOrderResource();
     
     RadiologyOrder radiologyOrder = new RadiologyOrder();
@@ -79,6 +101,10 @@ public class RadiologyOrderResourceTest {
         PowerMockito.mockStatic(Context.class);
         when(Context.getService(RadiologyOrderService.class)).thenReturn(radiologyOrderService);
         when(radiologyOrderService.getRadiologyOrderByUuid(RADIOLOGY_ORDER_UUID)).thenReturn(radiologyOrder);
+        when(Context.getService(RadiologyStudyService.class)).thenReturn(radiologyStudyService);
+        when(Context.getRegisteredComponent("radiologyProperties", RadiologyProperties.class))
+                .thenReturn(radiologyProperties);
+        when(radiologyProperties.getMaxLookupSize()).thenReturn(1000);
     }
     
     @Test
@@ -244,4 +270,181 @@ public class RadiologyOrderResourceTest {
         RequestContext requestContext = new RequestContext();
         radiologyOrderResource.purge(radiologyOrder, requestContext);
     }
+    
+    @Test
+    public void shouldReturnPropertiesNeededToPlaceARadiologyOrder() throws Exception {
+        
+        DelegatingResourceDescription resourceDescription = radiologyOrderResource.getCreatableProperties();
+        
+        assertThat(resourceDescription.getProperties()
+                .keySet(),
+            contains("patient", "concept", "orderer", "urgency", "scheduledDate", "orderReason", "orderReasonNonCoded",
+                "instructions", "commentToFulfiller"));
+        assertThat(resourceDescription.getProperties()
+                .get("patient")
+                .isRequired(),
+            is(true));
+        assertThat(resourceDescription.getProperties()
+                .get("instructions")
+                .isRequired(),
+            is(false));
+    }
+    
+    @Test
+    public void shouldPlaceGivenRadiologyOrdersAndReturnTheirResultsInTheGivenOrder() throws Exception {
+        
+        RadiologyOrderResource resource = spy(radiologyOrderResource);
+        RadiologyOrder failingRadiologyOrder = new RadiologyOrder();
+        Map<String, Object> properties = new HashMap<String, Object>();
+        Map<String, Object> failingProperties = new HashMap<String, Object>();
+        failingProperties.put("instructions", "fail");
+        doReturn(radiologyOrder).when(resource)
+                .convertRadiologyOrder(properties);
+        doReturn(failingRadiologyOrder).when(resource)
+                .convertRadiologyOrder(failingProperties);
+        when(radiologyOrderService.placeRadiologyOrders(Arrays.asList(radiologyOrder, failingRadiologyOrder)))
+                .thenReturn(Arrays.asList(RadiologyOrderPlacementResult.placed(0, radiologyOrder),
+                    RadiologyOrderPlacementResult.failed(1, failingRadiologyOrder, "Order.cannot.be.saved")));
+        
+        SimpleObject result = resource.placeRadiologyOrders(Arrays.asList(properties, failingProperties));
+        
+        List<SimpleObject> results = result.get("results");
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0)
+                .get("index"),
+            is((Object) 0));
+        assertThat(results.get(0)
+                .get("uuid"),
+            is((Object) RADIOLOGY_ORDER_UUID));
+        assertThat(results.get(0)
+                .get("accessionNumber"),
+            is((Object) "1"));
+        assertThat(results.get(1)
+                .get("index"),
+            is((Object) 1));
+        assertThat(results.get(1)
+                .get("error"),
+            is((Object) "Order.cannot.be.saved"));
+    }
+    
+    @Test
+    public void shouldReturnFailedResultsForRadiologyOrdersWhichCannotBeConvertedAndPlaceTheRest() throws Exception {
+        
+        RadiologyOrderResource resource = spy(radiologyOrderResource);
+        Map<String, Object> properties = new HashMap<String, Object>();
+        doReturn(radiologyOrder).when(resource)
+                .convertRadiologyOrder(properties);
+        when(radiologyOrderService.placeRadiologyOrders(Arrays.asList(radiologyOrder)))
+                .thenReturn(Arrays.asList(RadiologyOrderPlacementResult.placed(0, radiologyOrder)));
+        
+        SimpleObject result = resource.placeRadiologyOrders(Arrays.asList("no radiology order", properties));
+        
+        List<SimpleObject> results = result.get("results");
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0)
+                .get("index"),
+            is((Object) 0));
+        assertThat(results.get(0)
+                .get("error"),
+            is((Object) "radiology order needs to be an object"));
+        assertThat(results.get(1)
+                .get("index"),
+            is((Object) 1));
+        assertThat(results.get(1)
+                .get("uuid"),
+            is((Object) RADIOLOGY_ORDER_UUID));
+        verify(radiologyOrderService).placeRadiologyOrders(Arrays.asList(radiologyOrder));
+    }
+    
+    @Test
+    public void shouldReturnFoundRadiologyOrdersKeyedByAccessionNumberAndReportMissingAccessionNumbers()
+            throws Exception {
+        
+        Map<String, RadiologyOrder> radiologyOrders = new LinkedHashMap<String, RadiologyOrder>();
+        radiologyOrders.put("1", radiologyOrder);
+        when(radiologyOrderService.getRadiologyOrdersByAccessionNumbers(Arrays.asList("1", "2")))
+                .thenReturn(radiologyOrders);
+        
+        SimpleObject result = radiologyOrderResource.lookupRadiologyOrders(Arrays.asList("1", "2"));
+        
+        SimpleObject results = result.get("results");
+        assertThat(results.keySet(), contains("1"));
+        SimpleObject found = results.get("1");
+        assertThat(found.get("uuid"), is((Object) RADIOLOGY_ORDER_UUID));
+        assertThat(found.get("accessionNumber"), is((Object) "1"));
+        List<String> misses = result.get("misses");
+        assertThat(misses, contains("2"));
+    }
+    
+    @Test(expected = ConversionException.class)
+    public void shouldThrowConversionExceptionIfAnAccessionNumberIsNoString() throws Exception {
+        
+        radiologyOrderResource.lookupRadiologyOrders(Arrays.asList("1", 2));
+    }
+    
+    @Test
+    public void shouldReportAMissingAccessionNumberGivenSeveralTimesOnce() throws Exception {
+        
+        when(radiologyOrderService.getRadiologyOrdersByAccessionNumbers(Arrays.asList("2", "1", "2")))
+                .thenReturn(new LinkedHashMap<String, RadiologyOrder>());
+        
+        SimpleObject result = radiologyOrderResource.lookupRadiologyOrders(Arrays.asList("2", "1", "2"));
+        
+        List<String> misses = result.get("misses");
+        assertThat(misses, contains("2", "1"));
+    }
+    
+    @Test(expected = IllegalRequestException.class)
+    public void shouldThrowIllegalRequestExceptionIfMoreAccessionNumbersAreGivenThanTheMaximumLookupSize()
+            throws Exception {
+        
+        when(radiologyProperties.getMaxLookupSize()).thenReturn(1);
+        
+        radiologyOrderResource.lookupRadiologyOrders(Arrays.asList("1", "2"));
+    }
+    
+    @Test
+    public void shouldReturnFoundRadiologyStudiesKeyedByStudyInstanceUidAndReportMissingStudyInstanceUids()
+            throws Exception {
+        
+        RadiologyStudy radiologyStudy = new RadiologyStudy();
+        radiologyStudy.setUuid("2a9d3c6e-0b7f-4e1a-8f25-6c4d1b3e9a70");
+        radiologyStudy.setStudyInstanceUid("1.2.826.0.1.3680043.8.2186.1.1");
+        radiologyStudy.setPerformedStatus(PerformedProcedureStepStatus.COMPLETED);
+        radiologyStudy.setRadiologyOrder(radiologyOrder);
+        Map<String, RadiologyStudy> radiologyStudies = new LinkedHashMap<String, RadiologyStudy>();
+        radiologyStudies.put("1.2.826.0.1.3680043.8.2186.1.1", radiologyStudy);
+        when(radiologyStudyService.getRadiologyStudiesByStudyInstanceUids(
+            Arrays.asList("1.2.826.0.1.3680043.8.2186.1.1", "1.2.826.0.1.3680043.8.2186.1.2")))
+                    .thenReturn(radiologyStudies);
+        
+        SimpleObject result = radiologyOrderResource.lookupRadiologyStudies(
+            Arrays.asList("1.2.826.0.1.3680043.8.2186.1.1", "1.2.826.0.1.3680043.8.2186.1.2"));
+        
+        SimpleObject results = result.get("results");
+        assertThat(results.keySet(), contains("1.2.826.0.1.3680043.8.2186.1.1"));
+        SimpleObject found = results.get("1.2.826.0.1.3680043.8.2186.1.1");
+        assertThat(found.get("uuid"), is((Object) "2a9d3c6e-0b7f-4e1a-8f25-6c4d1b3e9a70"));
+        assertThat(found.get("performedStatus"), is((Object) PerformedProcedureStepStatus.COMPLETED));
+        assertThat(found.get("radiologyOrderUuid"), is((Object) RADIOLOGY_ORDER_UUID));
+        assertThat(found.get("accessionNumber"), is((Object) "1"));
+        List<String> misses = result.get("misses");
+        assertThat(misses, contains("1.2.826.0.1.3680043.8.2186.1.2"));
+    }
+    
+    @Test(expected = ConversionException.class)
+    public void shouldThrowConversionExceptionIfAStudyInstanceUidIsNoString() throws Exception {
+        
+        radiologyOrderResource.lookupRadiologyStudies(Arrays.asList("1.2.826.0.1.3680043.8.2186.1.1", 2));
+    }
+    
+    @Test(expected = IllegalRequestException.class)
+    public void shouldThrowIllegalRequestExceptionIfMoreStudyInstanceUidsAreGivenThanTheMaximumLookupSize()
+            throws Exception {
+        
+        when(radiologyProperties.getMaxLookupSize()).thenReturn(1);
+        
+        radiologyOrderResource.lookupRadiologyStudies(
+            Arrays.asList("1.2.826.0.1.3680043.8.2186.1.1", "1.2.826.0.1.3680043.8.2186.1.2"));
+    }
 }
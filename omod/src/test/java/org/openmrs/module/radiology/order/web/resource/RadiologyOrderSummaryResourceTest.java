@@ -0,0 +1,124 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web.resource;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.openmrs.module.radiology.order.RadiologyOrderSummary;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.representation.DefaultRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.FullRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.NamedRepresentation;
+import org.openmrs.module.webservices.rest.web.representation.RefRepresentation;
+import org.openmrs.module.webservices.rest.web.resource.impl.DelegatingResourceDescription;
+import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
+import org.openmrs.module.webservices.rest.web.v1_0.resource.openmrs2_0.RestConstants2_0;
+
+/**
+ * Tests {@link RadiologyOrderSummaryResource}.
+ */
+public class RadiologyOrderSummaryResourceTest {
+    
+    
+    RadiologyOrderSummaryResource radiologyOrderSummaryResource = new RadiologyOrderSummaryResource();
+    
+    RadiologyOrderSummary radiologyOrderSummary = new RadiologyOrderSummary("1bae735a-fca0-11e5-9e59-08002719a237", "1",
+            null, null, null, "X-RAY, HEAD", null, null, null, null);
+    
+    @Test
+    public void shouldReturnDefaultRepresentationGivenInstanceOfDefaultrepresentation() throws Exception {
+        
+        DelegatingResourceDescription resourceDescription =
+                radiologyOrderSummaryResource.getRepresentationDescription(new DefaultRepresentation());
+        assertThat(resourceDescription.getProperties()
+                .keySet(),
+            contains("uuid", "accessionNumber", "patientUuid", "patientName", "patientIdentifier", "procedureName",
+                "urgency", "effectiveStartDate", "performedStatus", "reportStatus", "display"));
+    }
+    
+    @Test
+    public void shouldReturnFullRepresentationGivenInstanceOfFullrepresentation() throws Exception {
+        
+        DelegatingResourceDescription resourceDescription =
+                radiologyOrderSummaryResource.getRepresentationDescription(new FullRepresentation());
+        assertThat(resourceDescription.getProperties()
+                .keySet(),
+            contains("uuid", "accessionNumber", "patientUuid", "patientName", "patientIdentifier", "procedureName",
+                "urgency", "effectiveStartDate", "performedStatus", "reportStatus", "display"));
+    }
+    
+    @Test
+    public void shouldReturnNullForRepresentationOtherThenDefaultOrFull() throws Exception {
+        
+        assertThat(radiologyOrderSummaryResource.getRepresentationDescription(new NamedRepresentation("some")),
+            is(nullValue()));
+        assertThat(radiologyOrderSummaryResource.getRepresentationDescription(new RefRepresentation()), is(nullValue()));
+    }
+    
+    /**
+     * @see RadiologyOrderSummaryResource#getResourceVersion()
+     */
+    @Test
+    public void shouldReturnSupportedResourceVersion() throws Exception {
+        
+        assertThat(radiologyOrderSummaryResource.getResourceVersion(), is(RestConstants2_0.RESOURCE_VERSION));
+    }
+    
+    @Test
+    public void shouldReturnAccessionNumberAndProcedureNameOfGivenRadiologyOrderSummary() throws Exception {
+        
+        assertThat(radiologyOrderSummaryResource.getDisplayString(radiologyOrderSummary), is("1 - X-RAY, HEAD"));
+    }
+    
+    @Test
+    public void shouldReturnNoConceptStringIfGivenRadiologyOrderSummariesProcedureNameIsNull() throws Exception {
+        
+        RadiologyOrderSummary radiologyOrderSummaryWithoutProcedure =
+                new RadiologyOrderSummary("1bae735a-fca0-11e5-9e59-08002719a237", "1", null, null, null, null, null, null,
+                        null, null);
+        
+        assertThat(radiologyOrderSummaryResource.getDisplayString(radiologyOrderSummaryWithoutProcedure),
+            is("1 - [No Concept]"));
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldFailToGetRadiologyOrderSummaryByUuid() throws Exception {
+        
+        radiologyOrderSummaryResource.getByUniqueId("1bae735a-fca0-11e5-9e59-08002719a237");
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldFailToInstantiateNewDelegate() throws Exception {
+        
+        radiologyOrderSummaryResource.newDelegate();
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldFailToSaveRadiologyOrderSummary() throws Exception {
+        
+        radiologyOrderSummaryResource.save(radiologyOrderSummary);
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldFailToDeleteRadiologyOrderSummary() throws Exception {
+        
+        radiologyOrderSummaryResource.delete(radiologyOrderSummary, "reason", new RequestContext());
+    }
+    
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldFailToPurgeRadiologyOrderSummary() throws Exception {
+        
+        radiologyOrderSummaryResource.purge(radiologyOrderSummary, new RequestContext());
+    }
+}
@@ -66,6 +66,10 @@ public class RadiologyOrderSearchHandlerComponentTest extends MainResourceContro
     
     private static final String RADIOLOGY_ORDER_UUID = "1bae735a-fca0-11e5-9e59-08002719a237";
     
+    private static final String ORDERER_WITH_ORDERS = "c2299800-cca9-11e0-9572-0800200c9a66";
+    
+    private static final String UNKNOWN_ORDERER = "99999999-9999-9999-9999-999999999999";
+    
     @Autowired
     PatientService patientService;
     
@@ -465,4 +469,274 @@ public class RadiologyOrderSearchHandlerComponentTest extends MainResourceContro
         assertNotNull(resultPatientAndUrgencyWithTwoOrders);
         assertThat(PropertyUtils.getProperty(resultPatientAndUrgencyWithTwoOrders, "totalCount"), is(2));
     }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnOnePageOfRadiologyOrdersStartingAtGivenStartIndex() throws Exception {
+        
+        MockHttpServletRequest requestFirstPage = request(RequestMethod.GET, getURI());
+        requestFirstPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestFirstPage.setParameter("limit", "1");
+        
+        SimpleObject resultFirstPage = deserialize(handle(requestFirstPage));
+        
+        List<Object> hits = (List<Object>) resultFirstPage.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("1"));
+        List<Object> links = (List<Object>) resultFirstPage.get("links");
+        assertThat(links.size(), is(1));
+        assertThat(PropertyUtils.getProperty(links.get(0), "rel"), is("next"));
+        
+        MockHttpServletRequest requestSecondPage = request(RequestMethod.GET, getURI());
+        requestSecondPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestSecondPage.setParameter("limit", "1");
+        requestSecondPage.setParameter("startIndex", "1");
+        
+        SimpleObject resultSecondPage = deserialize(handle(requestSecondPage));
+        
+        hits = (List<Object>) resultSecondPage.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("2"));
+        links = (List<Object>) resultSecondPage.get("links");
+        assertThat(links.size(), is(1));
+        assertThat(PropertyUtils.getProperty(links.get(0), "rel"), is("prev"));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnRadiologyOrdersWithAccessionNumberAfterGivenAfterAccessionNumber() throws Exception {
+        
+        MockHttpServletRequest requestAfterAccessionNumber = request(RequestMethod.GET, getURI());
+        requestAfterAccessionNumber.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT,
+            PATIENT_WITH_TWO_ORDERS);
+        requestAfterAccessionNumber.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER, "1");
+        
+        SimpleObject resultAfterAccessionNumber = deserialize(handle(requestAfterAccessionNumber));
+        
+        List<Object> hits = (List<Object>) resultAfterAccessionNumber.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("2"));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnOnePageOfRadiologyOrdersAndTheTotalCountOfAllMatchingRadiologyOrdersIfRequested()
+            throws Exception {
+        
+        MockHttpServletRequest requestFirstPage = request(RequestMethod.GET, getURI());
+        requestFirstPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestFirstPage.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        requestFirstPage.setParameter("limit", "1");
+        
+        SimpleObject resultFirstPage = deserialize(handle(requestFirstPage));
+        
+        List<Object> hits = (List<Object>) resultFirstPage.get("results");
+        assertThat(hits.size(), is(1));
+        assertThat(PropertyUtils.getProperty(resultFirstPage, "totalCount"), is(2));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnAllRadiologyOrdersForGivenOrderer() throws Exception {
+        
+        MockHttpServletRequest requestOrderer = request(RequestMethod.GET, getURI());
+        requestOrderer.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestOrderer.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_ORDERER, ORDERER_WITH_ORDERS);
+        
+        SimpleObject resultOrderer = deserialize(handle(requestOrderer));
+        
+        List<Object> hits = (List<Object>) resultOrderer.get("results");
+        assertThat(hits.size(), is(2));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnEmptySearchResultIfOrdererCannotBeFound() throws Exception {
+        
+        MockHttpServletRequest requestUnknownOrderer = request(RequestMethod.GET, getURI());
+        requestUnknownOrderer.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_ORDERER, UNKNOWN_ORDERER);
+        
+        SimpleObject resultUnknownOrderer = deserialize(handle(requestUnknownOrderer));
+        
+        List<Object> hits = (List<Object>) resultUnknownOrderer.get("results");
+        assertThat(hits.size(), is(0));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnAllRadiologyOrdersWhoseStudyHasOneOfGivenCommaSeparatedPerformedStatuses() throws Exception {
+        
+        MockHttpServletRequest requestPerformedStatus = request(RequestMethod.GET, getURI());
+        requestPerformedStatus.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PERFORMED_STATUS,
+            "IN_PROGRESS,COMPLETED");
+        
+        SimpleObject resultPerformedStatus = deserialize(handle(requestPerformedStatus));
+        
+        List<Object> hits = (List<Object>) resultPerformedStatus.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("1"));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("2"));
+        
+        requestPerformedStatus.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PERFORMED_STATUS, "DISCONTINUED");
+        
+        resultPerformedStatus = deserialize(handle(requestPerformedStatus));
+        
+        hits = (List<Object>) resultPerformedStatus.get("results");
+        assertThat(hits.size(), is(0));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfPerformedStatusDoesntExist() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        
+        MockHttpServletRequest requestPerformedStatus = request(RequestMethod.GET, getURI());
+        requestPerformedStatus.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PERFORMED_STATUS,
+            "wrong_performed_status");
+        
+        deserialize(handle(requestPerformedStatus));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnAllRadiologyOrdersWithOrWithoutACompletedReportIfHasCompletedReportIsSet() throws Exception {
+        
+        MockHttpServletRequest requestWithCompletedReport = request(RequestMethod.GET, getURI());
+        requestWithCompletedReport.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestWithCompletedReport.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_HAS_COMPLETED_REPORT, "true");
+        
+        SimpleObject resultWithCompletedReport = deserialize(handle(requestWithCompletedReport));
+        
+        List<Object> hits = (List<Object>) resultWithCompletedReport.get("results");
+        assertThat(hits.size(), is(0));
+        
+        MockHttpServletRequest requestWithoutCompletedReport = request(RequestMethod.GET, getURI());
+        requestWithoutCompletedReport.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT,
+            PATIENT_WITH_TWO_ORDERS);
+        requestWithoutCompletedReport.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_HAS_COMPLETED_REPORT,
+            "false");
+        
+        SimpleObject resultWithoutCompletedReport = deserialize(handle(requestWithoutCompletedReport));
+        
+        hits = (List<Object>) resultWithoutCompletedReport.get("results");
+        assertThat(hits.size(), is(2));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnRadiologyOrdersSortedByGivenSortFieldAndSortOrder() throws Exception {
+        
+        MockHttpServletRequest requestSorted = request(RequestMethod.GET, getURI());
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_BY, "EFFECTIVE_START_DATE");
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_ORDER, "desc");
+        
+        SimpleObject resultSorted = deserialize(handle(requestSorted));
+        
+        List<Object> hits = (List<Object>) resultSorted.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("2"));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("1"));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfSortFieldOrSortOrderDoesntExist() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        
+        MockHttpServletRequest requestSorted = request(RequestMethod.GET, getURI());
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_ORDER, "downwards");
+        
+        deserialize(handle(requestSorted));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionListingTheSortFieldsIfSortFieldDoesntExist() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_BY
+                + " needs to be one of ACCESSION_NUMBER, URGENCY, EFFECTIVE_START_DATE");
+        
+        MockHttpServletRequest requestSorted = request(RequestMethod.GET, getURI());
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_BY, "PATIENT");
+        
+        deserialize(handle(requestSorted));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnRadiologyOrdersSortedByGivenSortFieldAndSortOrderIgnoringCase() throws Exception {
+        
+        MockHttpServletRequest requestSorted = request(RequestMethod.GET, getURI());
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_BY, "effective_start_date");
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_ORDER, "DESC");
+        
+        SimpleObject resultSorted = deserialize(handle(requestSorted));
+        
+        List<Object> hits = (List<Object>) resultSorted.get("results");
+        assertThat(hits.size(), is(2));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("2"));
+        assertThat(PropertyUtils.getProperty(hits.get(1), "accessionNumber"), is("1"));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfHasCompletedReportIsNeitherTrueNorFalse() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RadiologyOrderSearchHandler.REQUEST_PARAM_HAS_COMPLETED_REPORT
+                + " needs to be true or false");
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_HAS_COMPLETED_REPORT, "yes");
+        
+        deserialize(handle(request));
+    }
+    
+    /**
+     * @see RadiologyOrderSearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfAfterAccessionNumberIsUsedWithAnotherSortThanByAccessionNumber()
+            throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER);
+        
+        MockHttpServletRequest requestSorted = request(RequestMethod.GET, getURI());
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_AFTER_ACCESSION_NUMBER, "1");
+        requestSorted.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_ORDER, "desc");
+        
+        deserialize(handle(requestSorted));
+    }
 }
@@ -0,0 +1,210 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.order.web.search;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.apache.commons.beanutils.PropertyUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.test.Util;
+import org.openmrs.module.webservices.rest.web.RequestContext;
+import org.openmrs.module.webservices.rest.web.response.ResourceDoesNotSupportOperationException;
+import org.openmrs.module.webservices.rest.web.v1_0.controller.MainResourceControllerTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+/**
+ * Tests {@link RadiologyOrderSummarySearchHandler}.
+ */
+public class RadiologyOrderSummarySearchHandlerComponentTest extends MainResourceControllerTest {
+    
+    
+    protected static final String TEST_DATASET = "RadiologyOrderSearchHandlerComponentTestDataset.xml";
+    
+    private static final String UNKNOWN_PATIENT = "99999999-9999-9999-9999-9999999999999";
+    
+    private static final String PATIENT_WITH_TWO_ORDERS = "5631b434-78aa-102b-91a0-001e378eb67e";
+    
+    private static final String RADIOLOGY_ORDER_UUID = "44f24d7e-ebbd-4500-bfba-1db19561ca04";
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    @Before
+    public void setUp() throws Exception {
+        executeDataSet(TEST_DATASET);
+    }
+    
+    /**
+     * @see MainResourceControllerTest#getURI()
+     */
+    @Override
+    public String getURI() {
+        
+        return "radiologyordersummary";
+    }
+    
+    /**
+     * @see MainResourceControllerTest#getAllCount()
+     */
+    @Override
+    public long getAllCount() {
+        
+        return 0;
+    }
+    
+    /**
+     * @see MainResourceControllerTest#getUuid()
+     */
+    @Override
+    public String getUuid() {
+        
+        return RADIOLOGY_ORDER_UUID;
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetAll()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetAll() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI())));
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetDefaultByUuid()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetDefaultByUuid() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI() + "/" + getUuid())));
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetRefByUuid()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetRefByUuid() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI() + "/" + getUuid())));
+    }
+    
+    /**
+     * @see MainResourceControllerTest#shouldGetFullByUuid()
+     */
+    @Override
+    @Test(expected = ResourceDoesNotSupportOperationException.class)
+    public void shouldGetFullByUuid() throws Exception {
+        
+        deserialize(handle(request(RequestMethod.GET, getURI() + "/" + getUuid())));
+    }
+    
+    /**
+     * @see RadiologyOrderSummarySearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnTheSummariesOfAllRadiologyOrdersForGivenPatient() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        assertThat(Util.getResultsSize(result), is(2));
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(PropertyUtils.getProperty(hits.get(0), "uuid"), is(RADIOLOGY_ORDER_UUID));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "accessionNumber"), is("1"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "patientUuid"), is(PATIENT_WITH_TWO_ORDERS));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "patientName"), is("John Francis Doe"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "patientIdentifier"), is("4321"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "urgency"), is("ROUTINE"));
+        assertThat(PropertyUtils.getProperty(hits.get(0), "performedStatus"), is("IN_PROGRESS"));
+    }
+    
+    /**
+     * @see RadiologyOrderSummarySearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnEmptySearchResultIfPatientCannotBeFound() throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, UNKNOWN_PATIENT);
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        List<Object> hits = (List<Object>) result.get("results");
+        assertThat(hits.size(), is(0));
+    }
+    
+    /**
+     * @see RadiologyOrderSummarySearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldReturnOnePageOfRadiologyOrderSummariesAndTheTotalCountOfAllMatchingRadiologyOrdersIfRequested()
+            throws Exception {
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_TOTAL_COUNT, "true");
+        request.setParameter("limit", "1");
+        
+        SimpleObject result = deserialize(handle(request));
+        
+        assertNotNull(result);
+        assertThat(Util.getResultsSize(result), is(1));
+        assertThat(PropertyUtils.getProperty(result, "totalCount"), is(2));
+    }
+    
+    /**
+     * @see RadiologyOrderSummarySearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfSortFieldDoesntExist() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_BY + " needs to be one of");
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_SORT_BY, "PATIENT");
+        
+        deserialize(handle(request));
+    }
+    
+    /**
+     * @see RadiologyOrderSummarySearchHandler#search(RequestContext)
+     */
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfHasCompletedReportIsNeitherTrueNorFalse() throws Exception {
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RadiologyOrderSearchHandler.REQUEST_PARAM_HAS_COMPLETED_REPORT
+                + " needs to be true or false");
+        
+        MockHttpServletRequest request = request(RequestMethod.GET, getURI());
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_PATIENT, PATIENT_WITH_TWO_ORDERS);
+        request.setParameter(RadiologyOrderSearchHandler.REQUEST_PARAM_HAS_COMPLETED_REPORT, "1");
+        
+        deserialize(handle(request));
+    }
+}
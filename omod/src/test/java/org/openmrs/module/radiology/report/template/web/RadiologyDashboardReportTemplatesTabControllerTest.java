@@ -12,6 +12,7 @@ package org.openmrs.module.radiology.report.template.web;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -19,11 +20,15 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -31,12 +36,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.openmrs.api.APIException;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplate;
+import org.openmrs.module.radiology.report.template.MrrtReportTemplateImportResult;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateService;
 import org.openmrs.module.radiology.report.template.MrrtReportTemplateValidationException;
 import org.openmrs.module.radiology.report.template.ValidationError;
 import org.openmrs.module.radiology.report.template.ValidationResult;
 import org.openmrs.module.radiology.web.RadiologyWebConstants;
 import org.openmrs.test.BaseContextMockTest;
+import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.web.WebConstants;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpSession;
@@ -241,4 +248,103 @@ public class RadiologyDashboardReportTemplatesTabControllerTest extends BaseCont
         assertNotNull(errorMessage);
         assertThat(errorMessage, is("Failed to delete template file => File could not be deleted."));
     }
+    
+    @Test
+    public void shouldGiveErrorMessageWhenTemplateArchiveIsEmpty() throws Exception {
+        
+        MultipartFile emptyArchive = mock(MultipartFile.class);
+        when(emptyArchive.isEmpty()).thenReturn(true);
+        
+        ModelAndView modelAndView =
+                radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, emptyArchive);
+        
+        verifyZeroInteractions(mrrtReportTemplateService);
+        assertThat(modelAndView.getViewName(),
+            is(RadiologyDashboardReportTemplatesTabController.RADIOLOGY_REPORT_TEMPLATES_TAB_VIEW));
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_ERROR_ATTR),
+            is((Object) "radiology.MrrtReportTemplate.not.imported.empty"));
+    }
+    
+    @Test
+    public void shouldSetImportResultsAndSuccessMessageWithNumberOfImportedTemplates() throws Exception {
+        
+        List<MrrtReportTemplateImportResult> importResults = Arrays.asList(mockImportResult(true), mockImportResult(false));
+        when(mrrtReportTemplateService.importMrrtReportTemplates(any(InputStream.class))).thenReturn(importResults);
+        
+        ModelAndView modelAndView =
+                radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, multipartFile);
+        
+        verify(mrrtReportTemplateService).importMrrtReportTemplates(any(InputStream.class));
+        verifyNoMoreInteractions(mrrtReportTemplateService);
+        assertThat(modelAndView.getModelMap()
+                .get("mrrtReportTemplateImportResults"),
+            is((Object) importResults));
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_MSG_ATTR),
+            is((Object) "radiology.MrrtReportTemplate.imported.bulk"));
+        assertThat((Object[]) request.getSession()
+                .getAttribute(WebConstants.OPENMRS_MSG_ARGS),
+            is(new Object[] { 1, 2 }));
+    }
+    
+    @Test
+    public void shouldSetErrorMessageInSessionWhenArchiveCannotBeRead() throws Exception {
+        
+        when(mrrtReportTemplateService.importMrrtReportTemplates(any(InputStream.class)))
+                .thenThrow(new IOException("invalid LOC header"));
+        
+        radiologyDashboardReportTemplatesTabController.uploadReportTemplateArchive(request, multipartFile);
+        
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_ERROR_ATTR),
+            is((Object) "Failed to import mrrtReportTemplate.html => invalid LOC header"));
+    }
+    
+    @Test
+    public void shouldGiveErrorMessageWhenTemplateDirectoryIsOutsideOfTheApplicationDataDirectory() throws Exception {
+        
+        ModelAndView modelAndView = radiologyDashboardReportTemplatesTabController.importReportTemplateDirectory(request,
+            File.listRoots()[0].getAbsolutePath());
+        
+        verifyZeroInteractions(mrrtReportTemplateService);
+        assertThat(modelAndView.getViewName(),
+            is(RadiologyDashboardReportTemplatesTabController.RADIOLOGY_REPORT_TEMPLATES_TAB_VIEW));
+        assertThat(request.getSession()
+                .getAttribute(WebConstants.OPENMRS_ERROR_ATTR),
+            is((Object) "radiology.MrrtReportTemplate.not.imported.directory"));
+    }
+    
+    @Test
+    public void shouldSetImportResultsAndSuccessMessageWithNumberOfImportedTemplatesOfTheDirectory() throws Exception {
+        
+        File directory = new File(OpenmrsUtil.getApplicationDataDirectory(), "mrrt_templates_import_test");
+        directory.mkdirs();
+        try {
+            List<MrrtReportTemplateImportResult> importResults = Arrays.asList(mockImportResult(true));
+            when(mrrtReportTemplateService.importMrrtReportTemplates(directory.getCanonicalFile()))
+                    .thenReturn(importResults);
+            
+            ModelAndView modelAndView = radiologyDashboardReportTemplatesTabController.importReportTemplateDirectory(request,
+                directory.getAbsolutePath());
+            
+            verify(mrrtReportTemplateService).importMrrtReportTemplates(directory.getCanonicalFile());
+            assertThat(modelAndView.getModelMap()
+                    .get("mrrtReportTemplateImportResults"),
+                is((Object) importResults));
+            assertThat((Object[]) request.getSession()
+                    .getAttribute(WebConstants.OPENMRS_MSG_ARGS),
+                is(new Object[] { 1, 1 }));
+        }
+        finally {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+    
+    private static MrrtReportTemplateImportResult mockImportResult(boolean imported) {
+        
+        MrrtReportTemplateImportResult result = mock(MrrtReportTemplateImportResult.class);
+        when(result.isImported()).thenReturn(imported);
+        return result;
+    }
 }
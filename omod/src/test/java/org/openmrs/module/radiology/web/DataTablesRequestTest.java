@@ -0,0 +1,143 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.web;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.module.webservices.rest.SimpleObject;
+import org.openmrs.module.webservices.rest.web.response.IllegalRequestException;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Tests {@link DataTablesRequest}.
+ */
+public class DataTablesRequestTest {
+    
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    private MockHttpServletRequest request;
+    
+    @Before
+    public void setUp() {
+        
+        request = new MockHttpServletRequest();
+        request.addParameter("columns[0][name]", "");
+        request.addParameter("columns[1][name]", "accessionNumber");
+        request.addParameter("columns[2][name]", "effectiveStartDate");
+    }
+    
+    @Test
+    public void shouldParseDrawStartLengthAndSearchValue() throws Exception {
+        
+        request.addParameter("draw", "3");
+        request.addParameter("start", "20");
+        request.addParameter("length", "10");
+        request.addParameter("search[value]", " 12 ");
+        
+        DataTablesRequest dataTablesRequest = DataTablesRequest.parse(request, 100);
+        
+        assertThat(dataTablesRequest.getDraw(), is(3));
+        assertThat(dataTablesRequest.getStart(), is(20));
+        assertThat(dataTablesRequest.getLength(), is(10));
+        assertThat(dataTablesRequest.getSearchValue(), is("12"));
+        assertThat(dataTablesRequest.getSortColumns()
+                .isEmpty(),
+            is(true));
+    }
+    
+    @Test
+    public void shouldResolveSortedColumnsToTheirNamesInTheOrderTheyAreSortedBy() throws Exception {
+        
+        request.addParameter("order[0][column]", "2");
+        request.addParameter("order[0][dir]", "desc");
+        request.addParameter("order[1][column]", "1");
+        request.addParameter("order[1][dir]", "asc");
+        
+        List<DataTablesRequest.SortColumn> sortColumns = DataTablesRequest.parse(request, 100)
+                .getSortColumns();
+        
+        assertThat(sortColumns.size(), is(2));
+        assertThat(sortColumns.get(0)
+                .getName(),
+            is("effectiveStartDate"));
+        assertThat(sortColumns.get(0)
+                .isAscending(),
+            is(false));
+        assertThat(sortColumns.get(1)
+                .getName(),
+            is("accessionNumber"));
+        assertThat(sortColumns.get(1)
+                .isAscending(),
+            is(true));
+    }
+    
+    @Test
+    public void shouldLimitLengthToGivenMaximumLengthIfAllRowsOrTooManyRowsAreRequested() throws Exception {
+        
+        request.addParameter("length", "-1");
+        assertThat(DataTablesRequest.parse(request, 100)
+                .getLength(),
+            is(100));
+        
+        request.setParameter("length", "1000");
+        assertThat(DataTablesRequest.parse(request, 100)
+                .getLength(),
+            is(100));
+    }
+    
+    @Test
+    public void shouldThrowIllegalRequestExceptionIfAParameterIsNoNumber() throws Exception {
+        
+        request.addParameter("start", "first");
+        
+        expectedException.expect(IllegalRequestException.class);
+        expectedException.expectMessage("start needs to be a number but was first");
+        DataTablesRequest.parse(request, 100);
+    }
+    
+    @Test
+    public void shouldThrowIllegalRequestExceptionIfASortedColumnHasNoName() throws Exception {
+        
+        request.addParameter("order[0][column]", "0");
+        
+        expectedException.expect(IllegalRequestException.class);
+        expectedException.expectMessage("column 0 needs a name to be sorted by");
+        DataTablesRequest.parse(request, 100);
+    }
+    
+    @Test
+    public void shouldReturnDrawRecordCountsAndData() throws Exception {
+        
+        request.addParameter("draw", "7");
+        List<String> data = Arrays.asList("a", "b");
+        
+        SimpleObject response = DataTablesRequest.parse(request, 100)
+                .toResponse(42, 7, data);
+        
+        assertThat(response.get("draw"), is((Object) 7));
+        assertThat(response.get("recordsTotal"), is((Object) 42L));
+        assertThat(response.get("recordsFiltered"), is((Object) 7L));
+        assertThat(response.get("data"), is((Object) data));
+        assertThat(DataTablesRequest.parse(new MockHttpServletRequest(), 100)
+                .getSearchValue(),
+            nullValue());
+    }
+}
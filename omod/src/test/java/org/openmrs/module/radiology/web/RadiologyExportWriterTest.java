@@ -0,0 +1,105 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module.radiology.web;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringWriter;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.openmrs.module.radiology.report.RadiologyReportStatus;
+
+/**
+ * Tests {@link RadiologyExportWriter}.
+ */
+public class RadiologyExportWriterTest {
+    
+    
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    
+    private StringWriter stringWriter;
+    
+    @Before
+    public void setUp() {
+        
+        stringWriter = new StringWriter();
+    }
+    
+    @Test
+    public void shouldWriteARowAsJsonObjectPerLine() throws Exception {
+        
+        final RadiologyExportWriter exportWriter =
+                new RadiologyExportWriter(stringWriter, RadiologyExportWriter.Format.NDJSON, "uuid", "status", "voided");
+        
+        exportWriter.writeRow("1", RadiologyReportStatus.COMPLETED, false);
+        exportWriter.writeRow("2", RadiologyReportStatus.DRAFT, true);
+        
+        assertThat(stringWriter.toString(), is("{\"uuid\":\"1\",\"status\":\"COMPLETED\",\"voided\":false}\n"
+                + "{\"uuid\":\"2\",\"status\":\"DRAFT\",\"voided\":true}\n"));
+    }
+    
+    @Test
+    public void shouldWriteARowAsCsvLineAfterTheHeader() throws Exception {
+        
+        final RadiologyExportWriter exportWriter =
+                new RadiologyExportWriter(stringWriter, RadiologyExportWriter.Format.CSV, "uuid", "status", "voided");
+        
+        exportWriter.writeRow("1", RadiologyReportStatus.COMPLETED, false);
+        
+        assertThat(stringWriter.toString(), is("uuid,status,voided\r\n1,COMPLETED,false\r\n"));
+    }
+    
+    @Test
+    public void shouldEscapeQuotesSeparatorsAndLineBreaks() throws Exception {
+        
+        final RadiologyExportWriter ndjsonWriter =
+                new RadiologyExportWriter(stringWriter, RadiologyExportWriter.Format.NDJSON, "name");
+        ndjsonWriter.writeRow("Doe, \"John\"\n\\");
+        assertThat(stringWriter.toString(), is("{\"name\":\"Doe, \\\"John\\\"\\n\\\\\"}\n"));
+        
+        stringWriter = new StringWriter();
+        final RadiologyExportWriter csvWriter =
+                new RadiologyExportWriter(stringWriter, RadiologyExportWriter.Format.CSV, "name");
+        csvWriter.writeRow("Doe, \"John\"\n");
+        assertThat(stringWriter.toString(), is("name\r\n\"Doe, \"\"John\"\"\n\"\r\n"));
+    }
+    
+    @Test
+    public void shouldWriteNullValuesAsJsonNullAndEmptyCsvField() throws Exception {
+        
+        final RadiologyExportWriter ndjsonWriter =
+                new RadiologyExportWriter(stringWriter, RadiologyExportWriter.Format.NDJSON, "uuid", "date");
+        ndjsonWriter.writeRow("1", null);
+        assertThat(stringWriter.toString(), is("{\"uuid\":\"1\",\"date\":null}\n"));
+        
+        stringWriter = new StringWriter();
+        final RadiologyExportWriter csvWriter =
+                new RadiologyExportWriter(stringWriter, RadiologyExportWriter.Format.CSV, "uuid", "date");
+        csvWriter.writeRow("1", null);
+        assertThat(stringWriter.toString(), is("uuid,date\r\n1,\r\n"));
+    }
+    
+    @Test
+    public void shouldThrowIllegalArgumentExceptionIfNumberOfValuesDoesNotMatchNumberOfColumns()
+            throws Exception {
+        
+        final RadiologyExportWriter exportWriter =
+                new RadiologyExportWriter(stringWriter, RadiologyExportWriter.Format.NDJSON, "uuid", "date");
+        
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("expected 2 values but got 1");
+        exportWriter.writeRow("1");
+    }
+}